@@ -0,0 +1,22 @@
+package com.devonfw.mtsjson.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the JMH command line options and always adds the {@link GCProfiler}, so that the bytes
+ * allocated per operation ({@code gc.alloc.rate.norm}) are reported next to the throughput.
+ */
+public class BenchmarkMain {
+
+  public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+
+    CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+    new Runner(new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class).build()).run();
+  }
+
+}
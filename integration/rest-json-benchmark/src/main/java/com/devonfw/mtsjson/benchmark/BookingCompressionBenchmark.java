@@ -0,0 +1,112 @@
+package com.devonfw.mtsjson.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Measures the CPU time that gzip compression adds to writing and reading lists of bookings, as done by
+ * {@code server.compression} and by clients accepting gzip. The setup prints the size of the JSON and of the compressed
+ * JSON for each list size and level, so the saved bandwidth can be weighed against the time per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingCompressionBenchmark {
+
+  /**
+   * A list of bookings with its JSON and compressed JSON.
+   */
+  @State(Scope.Benchmark)
+  public static class CompressedBatch {
+
+    @Param({ "10", "100", "1000", "10000" })
+    int size;
+
+    /** 0 for plain JSON as the baseline, {@link Deflater#BEST_SPEED} or the default level 6 used by Tomcat. */
+    @Param({ "0", "1", "6" })
+    int level;
+
+    ObjectWriter writer;
+
+    ObjectReader reader;
+
+    List<BookingTo> bookings;
+
+    byte[] compressed;
+
+    @Setup
+    public void setup() throws IOException {
+
+      ObjectMapper objectMapper = BookingData.objectMapper();
+      TypeReference<List<BookingTo>> type = new TypeReference<>() {
+      };
+      this.writer = objectMapper.writerFor(type);
+      this.reader = objectMapper.readerFor(type);
+      this.bookings = BookingData.bookings(this.size);
+      byte[] json = this.writer.writeValueAsBytes(this.bookings);
+      this.compressed = write(this.writer, this.bookings, this.level);
+      System.out.printf("%n%d bookings: %d bytes JSON, %d bytes at level %d (%.1f%%)%n", this.size, json.length,
+          this.compressed.length, this.level, 100.0 * this.compressed.length / json.length);
+    }
+  }
+
+  @Benchmark
+  public byte[] serializeCompressed(CompressedBatch state) throws IOException {
+
+    return write(state.writer, state.bookings, state.level);
+  }
+
+  @Benchmark
+  public List<BookingTo> deserializeCompressed(CompressedBatch state) throws IOException {
+
+    if (state.level == 0) {
+      return state.reader.readValue(state.compressed);
+    }
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(state.compressed))) {
+      return state.reader.readValue(in);
+    }
+  }
+
+  private static byte[] write(ObjectWriter writer, List<BookingTo> bookings, int level) throws IOException {
+
+    if (level == 0) {
+      return writer.writeValueAsBytes(bookings);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(bytes) {
+      {
+        this.def.setLevel(level);
+      }
+    }) {
+      writer.writeValue(out, bookings);
+    }
+    return bytes.toByteArray();
+  }
+
+}
@@ -0,0 +1,69 @@
+package com.devonfw.mtsjson.benchmark;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.javamoney.moneta.Money;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.devonfw.mtsjson.bookingmanagement.service.json.BookingJsonModule;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Test data and {@link ObjectMapper} shared by the benchmarks.
+ */
+public final class BookingData {
+
+  private static final ZonedDateTime BOOKED_AT = ZonedDateTime.parse("2022-09-09T12:51:40+05:30");
+
+  private static final ZonedDateTime BOOKING_DATE = ZonedDateTime.parse("2022-09-10T13:30:00+01:00");
+
+  private BookingData() {
+
+  }
+
+  /**
+   * @return an {@link ObjectMapper} configured the same way as the one of the Spring Boot application.
+   */
+  public static ObjectMapper objectMapper() {
+
+    return Jackson2ObjectMapperBuilder.json().modulesToInstall(new BookingJsonModule()).build();
+  }
+
+  /**
+   * @param id the id of the booking.
+   * @return a booking with two adults and one child.
+   */
+  public static BookingTo booking(long id) {
+
+    List<InvitedGuestTo> guests = new ArrayList<>();
+    for (long i = 0; i < 2; i++) {
+      InvitedAdultTo adult = new InvitedAdultTo("guest" + (id * 3 + i) + "@email.com");
+      adult.setId(id * 3 + i);
+      guests.add(adult);
+    }
+    InvitedChildTo child = new InvitedChildTo(true);
+    child.setId(id * 3 + 2);
+    guests.add(child);
+    return new BookingTo(id, 0, guests, BOOKED_AT.plusMinutes(id), BOOKING_DATE.plusDays(id % 30),
+        Money.of(20 + id % 100, "EUR"));
+  }
+
+  /**
+   * @param size the number of bookings.
+   * @return a list of bookings with ascending ids.
+   */
+  public static List<BookingTo> bookings(int size) {
+
+    List<BookingTo> bookings = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      bookings.add(booking(i));
+    }
+    return bookings;
+  }
+}
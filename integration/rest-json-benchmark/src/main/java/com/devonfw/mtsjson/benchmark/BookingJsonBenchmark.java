@@ -0,0 +1,116 @@
+package com.devonfw.mtsjson.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Measures serialization and deserialization of {@link BookingTo}, covering the {@code ZonedDateTime} fields, the
+ * {@code MonetaryAmount} and the polymorphic invited guests. Run with {@code java -jar target/benchmarks.jar}, the bytes
+ * allocated per operation are reported as {@code gc.alloc.rate.norm}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingJsonBenchmark {
+
+  /**
+   * A single booking as written by GET /booking/{id}.
+   */
+  @State(Scope.Benchmark)
+  public static class SingleBooking {
+
+    ObjectWriter writer;
+
+    ObjectReader reader;
+
+    BookingTo booking;
+
+    byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+
+      ObjectMapper objectMapper = BookingData.objectMapper();
+      this.writer = objectMapper.writerFor(BookingTo.class);
+      this.reader = objectMapper.readerFor(BookingTo.class);
+      this.booking = BookingData.booking(1);
+      this.json = this.writer.writeValueAsBytes(this.booking);
+    }
+  }
+
+  /**
+   * A list of bookings as read by POST /booking.
+   */
+  @State(Scope.Benchmark)
+  public static class BookingBatch {
+
+    @Param({ "100", "10000" })
+    int size;
+
+    ObjectWriter writer;
+
+    ObjectReader reader;
+
+    List<BookingTo> bookings;
+
+    byte[] json;
+
+    @Setup
+    public void setup() throws IOException {
+
+      ObjectMapper objectMapper = BookingData.objectMapper();
+      TypeReference<List<BookingTo>> type = new TypeReference<>() {
+      };
+      this.writer = objectMapper.writerFor(type);
+      this.reader = objectMapper.readerFor(type);
+      this.bookings = BookingData.bookings(this.size);
+      this.json = this.writer.writeValueAsBytes(this.bookings);
+    }
+  }
+
+  @Benchmark
+  public byte[] serializeSingle(SingleBooking state) throws IOException {
+
+    return state.writer.writeValueAsBytes(state.booking);
+  }
+
+  @Benchmark
+  public BookingTo deserializeSingle(SingleBooking state) throws IOException {
+
+    return state.reader.readValue(state.json);
+  }
+
+  @Benchmark
+  public byte[] serializeBatch(BookingBatch state) throws IOException {
+
+    return state.writer.writeValueAsBytes(state.bookings);
+  }
+
+  @Benchmark
+  public List<BookingTo> deserializeBatch(BookingBatch state) throws IOException {
+
+    return state.reader.readValue(state.json);
+  }
+
+}
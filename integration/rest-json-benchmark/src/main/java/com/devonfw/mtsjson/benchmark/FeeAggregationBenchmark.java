@@ -0,0 +1,94 @@
+package com.devonfw.mtsjson.benchmark;
+
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.FeeTotalTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+/**
+ * Compares summing the reservation fees of all bookings by currency, day and guest types as {@link Money} with the
+ * minor units summed by {@link BookingRepository#aggregateFees}. The fees have cents and three currencies, the bookings
+ * are spread over 30 days.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FeeAggregationBenchmark {
+
+  private static final String[] CURRENCIES = { "EUR", "USD", "GBP" };
+
+  /**
+   * A repository with the given number of bookings.
+   */
+  @State(Scope.Benchmark)
+  public static class Bookings {
+
+    @Param({ "100000", "1000000" })
+    int size;
+
+    BookingRepository repository;
+
+    @Setup
+    public void setup() {
+
+      this.repository = new BookingRepository();
+      for (int i = 0; i < this.size; i++) {
+        BookingTo booking = BookingData.booking(i);
+        booking.setId(null);
+        if (i % 3 == 0) {
+          booking.setInvitedGuests(List.of(booking.getInvitedGuests().get(0)));
+        }
+        booking.setReservationFee(Money.of(BigDecimal.valueOf(2000 + i % 10000, 2), CURRENCIES[i % 3]));
+        this.repository.save(booking);
+      }
+    }
+  }
+
+  @Benchmark
+  public Map<String, Money> sumMoney(Bookings state) {
+
+    Map<String, Money> totals = new HashMap<>();
+    for (BookingTo booking : state.repository.findAll()) {
+      boolean adult = false;
+      boolean child = false;
+      for (InvitedGuestTo guest : booking.getInvitedGuests()) {
+        adult |= guest instanceof InvitedAdultTo;
+        child |= guest instanceof InvitedChildTo;
+      }
+      String key = booking.getReservationFee().getCurrency().getCurrencyCode() + " "
+          + booking.getBookingDate().withZoneSameInstant(ZoneOffset.UTC).toLocalDate() + " " + adult + " " + child;
+      totals.merge(key, Money.from(booking.getReservationFee()), Money::add);
+    }
+    return totals;
+  }
+
+  @Benchmark
+  public List<FeeTotalTo> aggregateFees(Bookings state) {
+
+    return state.repository.aggregateFees(null, null);
+  }
+}
@@ -0,0 +1,114 @@
+package com.devonfw.mtsjson.benchmark;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.javamoney.moneta.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingSnapshot;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+/**
+ * Compares a scan over all bookings, counting the invited children of the bookings in one week of 60 days, on the
+ * stored {@link BookingTo} objects with the same scan on the columns of the {@link BookingSnapshot}.
+ * {@code updateSnapshot} measures saving 100 bookings and creating the next snapshot.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotScanBenchmark {
+
+  /**
+   * A repository with the given number of bookings.
+   */
+  @State(Scope.Benchmark)
+  public static class Bookings {
+
+    @Param({ "100000", "1000000" })
+    int size;
+
+    BookingRepository repository;
+
+    BookingTo[] saved;
+
+    long weekFrom;
+
+    long weekTo;
+
+    int next;
+
+    @Setup
+    public void setup() {
+
+      this.repository = new BookingRepository();
+      this.saved = new BookingTo[this.size];
+      for (int i = 0; i < this.size; i++) {
+        BookingTo booking = BookingData.booking(i);
+        booking.setId(null);
+        booking.setBookingDate(booking.getBookingDate().plusHours(i % (24 * 60)));
+        booking.setReservationFee(Money.of(BigDecimal.valueOf(2000 + i % 10000, 2), "EUR"));
+        this.saved[i] = this.repository.save(booking);
+      }
+      this.repository.snapshot();
+      this.weekFrom = BookingData.booking(0).getBookingDate().toEpochSecond();
+      this.weekTo = this.weekFrom + 7 * 24 * 3600;
+    }
+  }
+
+  @Benchmark
+  public long scanObjects(Bookings state) {
+
+    long children = 0;
+    for (BookingTo booking : state.repository.findAll()) {
+      long bookingDate = booking.getBookingDate().toEpochSecond();
+      if (bookingDate >= state.weekFrom && bookingDate < state.weekTo) {
+        for (InvitedGuestTo guest : booking.getInvitedGuests()) {
+          if (guest instanceof InvitedChildTo) {
+            children++;
+          }
+        }
+      }
+    }
+    return children;
+  }
+
+  @Benchmark
+  public long scanSnapshot(Bookings state) {
+
+    BookingSnapshot snapshot = state.repository.snapshot();
+    long children = 0;
+    for (int row = 0; row < snapshot.size(); row++) {
+      long bookingDate = snapshot.bookingDate(row);
+      if (bookingDate >= state.weekFrom && bookingDate < state.weekTo) {
+        children += snapshot.children(row);
+      }
+    }
+    return children;
+  }
+
+  @Benchmark
+  public BookingSnapshot updateSnapshot(Bookings state) {
+
+    for (int i = 0; i < 100; i++) {
+      state.next = (state.next + 7919) % state.size;
+      state.repository.save(state.saved[state.next]);
+    }
+    return state.repository.snapshot();
+  }
+}
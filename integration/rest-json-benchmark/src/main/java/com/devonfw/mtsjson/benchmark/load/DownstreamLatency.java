@@ -0,0 +1,47 @@
+package com.devonfw.mtsjson.benchmark.load;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcManageBooking;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+
+/**
+ * Replaces the {@link UcManageBooking} of the application with one that blocks for {@code loadtest.latency} before
+ * every lookup, like a handler waiting for a downstream call.
+ *
+ * It is registered by the {@link LoadTest} only and therefore not annotated with {@code @Configuration}, otherwise the
+ * component scan of the application would pick it up.
+ */
+public class DownstreamLatency {
+
+  /**
+   * @param bookingRepository the repository of the application.
+   * @param latency the time every lookup blocks.
+   * @return the blocking use case.
+   */
+  @Bean
+  @Primary
+  public UcManageBooking blockingUcManageBooking(BookingRepository bookingRepository,
+      @Value("${loadtest.latency}") Duration latency) {
+
+    return new UcManageBooking(bookingRepository) {
+
+      @Override
+      public BookingTo getBooking(Long id) {
+
+        try {
+          Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return super.getBooking(id);
+      }
+    };
+  }
+
+}
@@ -0,0 +1,198 @@
+package com.devonfw.mtsjson.benchmark.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.devonfw.mtsjson.MtsJsonApplication;
+import com.devonfw.mtsjson.benchmark.BookingData;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcManageBooking;
+
+/**
+ * Compares the request handling on the Tomcat thread pool with the handling on virtual threads
+ * ({@code spring.threads.virtual.enabled}).
+ *
+ * The application is started once per mode with {@link DownstreamLatency}, so every booking lookup blocks like a
+ * handler waiting for a downstream call. For each number of connections the given number of clients send lookups one
+ * after the other for the given time. The throughput, the latency percentiles and the failed requests are printed per
+ * mode and number of connections. Virtual threads require Java 21, on older versions only the thread pool is measured.
+ *
+ * Arguments: {@code [connections] [seconds] [latency in ms]}, default {@code 100,400,1000 10 50}.
+ */
+public class LoadTest {
+
+  private static final String BOOKING_PATH = "/services/rest/bookingmanagement/v1/booking/1";
+
+  public static void main(String[] args) throws InterruptedException {
+
+    int[] connections = Arrays.stream((args.length > 0 ? args[0] : "100,400,1000").split(","))
+        .mapToInt(Integer::parseInt).toArray();
+    Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 10);
+    Duration latency = Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 50);
+
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    System.out.printf("%-9s %11s %12s %8s %8s %8s %7s%n", "mode", "connections", "requests/s", "p50 ms", "p99 ms",
+        "max ms", "errors");
+    for (boolean virtualThreads : new boolean[] { false, true }) {
+      if (virtualThreads && Runtime.version().feature() < 21) {
+        System.out.println("virtual threads require Java 21, running on Java " + Runtime.version());
+        break;
+      }
+      String mode = virtualThreads ? "virtual" : "platform";
+      try (ConfigurableApplicationContext context = start(virtualThreads, latency)) {
+        context.getBean(UcManageBooking.class).createBooking(List.of(BookingData.booking(1)));
+        URI uri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port")
+            + BOOKING_PATH);
+        for (int connectionCount : connections) {
+          // warm up the JIT and open the connections before measuring
+          run(client, uri, connectionCount, Duration.ofSeconds(2));
+          Result result = run(client, uri, connectionCount, duration);
+          System.out.printf("%-9s %11d %12.1f %8.1f %8.1f %8.1f %7d%n", mode, connectionCount,
+              result.latencies.length / (double) duration.toSeconds(), result.percentile(0.5), result.percentile(0.99),
+              result.percentile(1), result.errors);
+        }
+      }
+    }
+  }
+
+  private static ConfigurableApplicationContext start(boolean virtualThreads, Duration latency) {
+
+    // command line arguments override the application.properties of the application, the admission control is off as
+    // all connections come from one client and the latency would shrink the concurrency limit
+    return new SpringApplicationBuilder(MtsJsonApplication.class, DownstreamLatency.class).run("--server.port=0",
+        "--spring.main.banner-mode=off", "--logging.level.root=WARN", "--spring.threads.virtual.enabled=" + virtualThreads,
+        "--loadtest.latency=" + latency.toMillis() + "ms", "--mts.admission.enabled=false");
+  }
+
+  private static Result run(HttpClient client, URI uri, int connections, Duration duration)
+      throws InterruptedException {
+
+    HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+    long end = System.nanoTime() + duration.toNanos();
+    List<Connection> workers = new ArrayList<>(connections);
+    for (int i = 0; i < connections; i++) {
+      Connection connection = new Connection(client, request, end);
+      connection.setDaemon(true);
+      connection.start();
+      workers.add(connection);
+    }
+    LatencyRecorder latencies = new LatencyRecorder();
+    int errors = 0;
+    for (Connection connection : workers) {
+      connection.join();
+      latencies.addAll(connection.latencies);
+      errors += connection.errors;
+    }
+    return new Result(latencies.toSortedArray(), errors);
+  }
+
+  /**
+   * A client sending one request after the other until the end time.
+   */
+  private static class Connection extends Thread {
+
+    private final HttpClient client;
+
+    private final HttpRequest request;
+
+    private final long end;
+
+    private final LatencyRecorder latencies = new LatencyRecorder();
+
+    private int errors;
+
+    Connection(HttpClient client, HttpRequest request, long end) {
+
+      this.client = client;
+      this.request = request;
+      this.end = end;
+    }
+
+    @Override
+    public void run() {
+
+      while (System.nanoTime() < this.end) {
+        long start = System.nanoTime();
+        try {
+          HttpResponse<Void> response = this.client.send(this.request, HttpResponse.BodyHandlers.discarding());
+          if (response.statusCode() == 200) {
+            this.latencies.add(System.nanoTime() - start);
+          } else {
+            this.errors++;
+          }
+        } catch (IOException e) {
+          this.errors++;
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Growing array of latencies in nanoseconds.
+   */
+  private static class LatencyRecorder {
+
+    private long[] values = new long[1024];
+
+    private int size;
+
+    void add(long value) {
+
+      if (this.size == this.values.length) {
+        this.values = Arrays.copyOf(this.values, this.size * 2);
+      }
+      this.values[this.size++] = value;
+    }
+
+    void addAll(LatencyRecorder other) {
+
+      for (int i = 0; i < other.size; i++) {
+        add(other.values[i]);
+      }
+    }
+
+    long[] toSortedArray() {
+
+      long[] sorted = Arrays.copyOf(this.values, this.size);
+      Arrays.sort(sorted);
+      return sorted;
+    }
+  }
+
+  private static class Result {
+
+    private final long[] latencies;
+
+    private final int errors;
+
+    Result(long[] latencies, int errors) {
+
+      this.latencies = latencies;
+      this.errors = errors;
+    }
+
+    /**
+     * @return the latency in milliseconds below which the given fraction of the requests completed.
+     */
+    double percentile(double fraction) {
+
+      if (this.latencies.length == 0) {
+        return Double.NaN;
+      }
+      int index = (int) Math.min(this.latencies.length - 1, Math.ceil(fraction * this.latencies.length) - 1);
+      return this.latencies[Math.max(index, 0)] / 1_000_000.0;
+    }
+  }
+
+}
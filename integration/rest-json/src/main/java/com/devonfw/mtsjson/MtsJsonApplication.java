@@ -2,13 +2,24 @@ package com.devonfw.mtsjson;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+
+import com.devonfw.mtsjson.bookingmanagement.service.batch.BookingImportRunner;
+import com.devonfw.startup.ContextExitConfig;
 
 @SpringBootApplication
+@Import(ContextExitConfig.class)
 public class MtsJsonApplication {
 
   public static void main(String[] args) {
 
-    SpringApplication.run(MtsJsonApplication.class, args);
+    ConfigurableApplicationContext context = SpringApplication.run(MtsJsonApplication.class, args);
+    BookingImportRunner importRunner = context.getBeanProvider(BookingImportRunner.class).getIfAvailable();
+    if (importRunner != null && importRunner.isExit()) {
+      // closes the context and exits with the code of the runner, so the journal is closed after the import
+      System.exit(SpringApplication.exit(context));
+    }
   }
 
 }
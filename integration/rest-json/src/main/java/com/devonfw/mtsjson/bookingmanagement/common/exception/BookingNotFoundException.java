@@ -0,0 +1,14 @@
+package com.devonfw.mtsjson.bookingmanagement.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class BookingNotFoundException extends RuntimeException {
+
+  public BookingNotFoundException(Long id) {
+
+    super("Booking " + id + " not found");
+  }
+
+}
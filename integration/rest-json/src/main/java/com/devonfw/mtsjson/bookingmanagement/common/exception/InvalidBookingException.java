@@ -0,0 +1,17 @@
+package com.devonfw.mtsjson.bookingmanagement.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown if a booking to store is incomplete or has an invalid value.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidBookingException extends RuntimeException {
+
+  public InvalidBookingException(String message) {
+
+    super(message);
+  }
+
+}
@@ -0,0 +1,17 @@
+package com.devonfw.mtsjson.bookingmanagement.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown if the criteria of a search contradict each other or have an unknown value.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidSearchCriteriaException extends RuntimeException {
+
+  public InvalidSearchCriteriaException(String message) {
+
+    super(message);
+  }
+
+}
@@ -0,0 +1,17 @@
+package com.devonfw.mtsjson.bookingmanagement.common.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown if an object was changed concurrently, i.e. its modificationCounter does not match the stored one.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class OptimisticLockingException extends RuntimeException {
+
+  public OptimisticLockingException(String message) {
+
+    super(message);
+  }
+
+}
@@ -0,0 +1,437 @@
+package com.devonfw.mtsjson.bookingmanagement.dataaccess;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+
+import javax.money.MonetaryAmount;
+
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingSearchCriteriaTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.FeeTotalTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+/**
+ * Secondary indexes of the {@link BookingRepository}, maintained on every save.
+ *
+ * Every booking gets a row number. The {@code bookingDate} and the {@code reservationFee} per currency are kept in
+ * sorted sets of key and row, so a range is read without looking at the bookings outside of it. The guest types and
+ * {@code needsSpecialChair} are kept as bitmaps of rows. A search combines the rows of its criteria with bitmap
+ * operations and only reads the matching bookings. The fees are also kept as {@link FeeColumns} to sum them without
+ * reading the bookings. The saved rows are remembered until the next {@link BookingSnapshot} is created.
+ *
+ * Saves, searches and aggregations share the read lock, so saves of different bookings run concurrently: the sorted
+ * sets are concurrent, the bitmaps are set with compare-and-set and every save only writes the elements of its own row.
+ * The write lock is only taken to grow the arrays, to add a currency to the {@link FeeColumns} and to start a snapshot.
+ * A save adds the keys of the new version before it removes the keys of the previous one and a search checks the
+ * current keys of every row it found, so a search concurrent with a save returns the booking in either version. Saves
+ * of the same booking must not run concurrently, the repository saves a booking while its map entry is locked.
+ */
+class BookingIndex {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final StampedLock lock = new StampedLock();
+
+  private final Map<Long, Integer> rowsById = new ConcurrentHashMap<>();
+
+  private final AtomicInteger rowCount = new AtomicInteger();
+
+  /** The index keys and the booking of every row, so an update removes exactly what was added for the previous one. */
+  private AtomicReferenceArray<Keys> keys = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+  private final NavigableSet<Entry<Long>> bookingDates = new ConcurrentSkipListSet<>();
+
+  private final Map<String, NavigableSet<Entry<BigDecimal>>> feesByCurrency = new ConcurrentHashMap<>();
+
+  private final RowBitmap adults = new RowBitmap(INITIAL_CAPACITY);
+
+  private final RowBitmap children = new RowBitmap(INITIAL_CAPACITY);
+
+  private final RowBitmap specialChairs = new RowBitmap(INITIAL_CAPACITY);
+
+  private final FeeColumns fees = new FeeColumns(INITIAL_CAPACITY);
+
+  /** The rows saved since {@link #snapshot} was created, only replaced with the write lock. */
+  private RowBitmap changedRows = new RowBitmap(INITIAL_CAPACITY);
+
+  /** Guards the creation of the snapshots, so they are created one after the other. */
+  private final Object snapshotLock = new Object();
+
+  private volatile BookingSnapshot snapshot = BookingSnapshot.EMPTY;
+
+  /**
+   * Adds a booking or replaces the indexed version of the booking with the same id.
+   *
+   * @param booking the stored booking.
+   */
+  void put(BookingTo booking) {
+
+    Keys newKeys = new Keys(booking);
+    int row = this.rowsById.computeIfAbsent(booking.getId(), id -> this.rowCount.getAndIncrement());
+    long stamp = lockRow(row, booking);
+    try {
+      Keys oldKeys = this.keys.get(row);
+      add(row, newKeys);
+      this.fees.put(row, booking);
+      this.keys.set(row, newKeys);
+      removeStale(row, oldKeys, newKeys);
+      this.changedRows.set(row);
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * @param criteria the criteria, all given criteria must match.
+   * @return the matching bookings ordered by {@code bookingDate} and id, bookings without date last.
+   */
+  List<BookingTo> find(BookingSearchCriteriaTo criteria) {
+
+    List<BookingTo> result = new ArrayList<>();
+    Long from = epochSecond(criteria.getBookingDateFrom());
+    Long to = epochSecond(criteria.getBookingDateTo());
+    long stamp = this.lock.readLock();
+    try {
+      BitSet rows;
+      if (from != null || to != null) {
+        // a date range is usually selective, so its rows are checked one by one instead of combining whole bitmaps
+        rows = new BitSet();
+        for (Entry<Long> entry : range(this.bookingDates, from, to, false)) {
+          rows.set(entry.row);
+        }
+      } else {
+        rows = requiredRows(criteria);
+        if (rows == null) {
+          rows = new BitSet();
+          rows.set(0, Math.min(this.rowCount.get(), this.keys.length()));
+        }
+        if (Boolean.TRUE.equals(criteria.getNeedsSpecialChair())) {
+          rows.and(this.specialChairs.toBitSet());
+        }
+      }
+      for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+        Keys rowKeys = this.keys.get(row);
+        if (rowKeys != null && matches(rowKeys, criteria, from, to)) {
+          result.add(rowKeys.booking);
+        }
+      }
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+    result.sort(BookingIndex::compareByBookingDate);
+    return result;
+  }
+
+  /**
+   * @param from the inclusive start of the {@code bookingDate} or {@code null}.
+   * @param to the exclusive end of the {@code bookingDate} or {@code null}.
+   * @return the totals and averages of the fees by currency, day and guest types.
+   */
+  List<FeeTotalTo> aggregateFees(ZonedDateTime from, ZonedDateTime to) {
+
+    long stamp = this.lock.readLock();
+    try {
+      return this.fees.aggregate(epochSecond(from), epochSecond(to));
+    } finally {
+      this.lock.unlockRead(stamp);
+    }
+  }
+
+  /**
+   * @return the snapshot of all bookings, created from the previous snapshot and the rows saved since then.
+   */
+  BookingSnapshot snapshot() {
+
+    synchronized (this.snapshotLock) {
+      // only the bitmap of the changed rows is replaced exclusively, the bookings are copied while saves go on
+      long stamp = this.lock.writeLock();
+      RowBitmap changed = this.changedRows;
+      this.changedRows = new RowBitmap(this.keys.length());
+      stamp = this.lock.tryConvertToReadLock(stamp);
+      int size;
+      BitSet rows;
+      List<BookingTo> bookings;
+      try {
+        rows = changed.toBitSet();
+        // a row is allocated before it is written, so the snapshot ends before the first row not written yet
+        size = this.snapshot.size();
+        while (size < this.keys.length() && this.keys.get(size) != null) {
+          size++;
+        }
+        rows.set(this.snapshot.size(), size);
+        for (int row = rows.nextSetBit(size); row >= 0; row = rows.nextSetBit(row + 1)) {
+          this.changedRows.set(row);
+        }
+        rows.clear(size, Math.max(size, rows.length()));
+        if (rows.isEmpty()) {
+          return this.snapshot;
+        }
+        bookings = new ArrayList<>(rows.cardinality());
+        for (int row = rows.nextSetBit(0); row >= 0; row = rows.nextSetBit(row + 1)) {
+          bookings.add(this.keys.get(row).booking);
+        }
+      } finally {
+        this.lock.unlockRead(stamp);
+      }
+      // the columns are written without holding the lock, a booking saved meanwhile is in the next snapshot
+      this.snapshot = this.snapshot.update(size, rows.stream().toArray(), bookings);
+      return this.snapshot;
+    }
+  }
+
+  /**
+   * Takes the read lock to save a row, the arrays are grown and the currency of the fee is added with the write lock
+   * before if needed.
+   *
+   * @return the stamp of the read lock.
+   */
+  private long lockRow(int row, BookingTo booking) {
+
+    long stamp = this.lock.readLock();
+    if (row < this.keys.length() && this.fees.isPrepared(booking)) {
+      return stamp;
+    }
+    this.lock.unlockRead(stamp);
+    stamp = this.lock.writeLock();
+    try {
+      if (row >= this.keys.length()) {
+        grow(Math.max(row + 1, this.keys.length() * 2));
+      }
+      this.fees.prepare(booking);
+    } catch (RuntimeException e) {
+      this.lock.unlockWrite(stamp);
+      throw e;
+    }
+    return this.lock.tryConvertToReadLock(stamp);
+  }
+
+  private void grow(int capacity) {
+
+    AtomicReferenceArray<Keys> grown = new AtomicReferenceArray<>(capacity);
+    for (int row = 0; row < this.keys.length(); row++) {
+      grown.set(row, this.keys.get(row));
+    }
+    this.keys = grown;
+    this.adults.grow(capacity);
+    this.children.grow(capacity);
+    this.specialChairs.grow(capacity);
+    this.changedRows.grow(capacity);
+    this.fees.grow(capacity);
+  }
+
+  /**
+   * @return the rows matching the fee and guest type or {@code null} if there are no such criteria.
+   */
+  private BitSet requiredRows(BookingSearchCriteriaTo criteria) {
+
+    BitSet rows = null;
+    if (criteria.getMinFee() != null || criteria.getMaxFee() != null) {
+      rows = new BitSet();
+      NavigableSet<Entry<BigDecimal>> fees = criteria.getCurrency() == null ? null
+          : this.feesByCurrency.get(criteria.getCurrency());
+      if (fees != null) {
+        for (Entry<BigDecimal> entry : range(fees, criteria.getMinFee(), criteria.getMaxFee(), true)) {
+          rows.set(entry.row);
+        }
+      }
+    }
+    RowBitmap guestType = null;
+    if (BookingSearchCriteriaTo.ADULT.equals(criteria.getGuestType())) {
+      guestType = this.adults;
+    } else if (BookingSearchCriteriaTo.CHILD.equals(criteria.getGuestType())) {
+      guestType = this.children;
+    }
+    if (guestType != null) {
+      if (rows == null) {
+        rows = guestType.toBitSet();
+      } else {
+        rows.and(guestType.toBitSet());
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * @return {@code true} if the keys match all given criteria.
+   */
+  private static boolean matches(Keys rowKeys, BookingSearchCriteriaTo criteria, Long from, Long to) {
+
+    if ((from != null || to != null) && (rowKeys.bookingDate == null || (from != null && rowKeys.bookingDate < from)
+        || (to != null && rowKeys.bookingDate >= to))) {
+      return false;
+    }
+    BigDecimal minFee = criteria.getMinFee();
+    BigDecimal maxFee = criteria.getMaxFee();
+    if ((minFee != null || maxFee != null) && (rowKeys.fee == null || !rowKeys.currency.equals(criteria.getCurrency())
+        || (minFee != null && rowKeys.fee.compareTo(minFee) < 0)
+        || (maxFee != null && rowKeys.fee.compareTo(maxFee) > 0))) {
+      return false;
+    }
+    if ((BookingSearchCriteriaTo.ADULT.equals(criteria.getGuestType()) && !rowKeys.adult)
+        || (BookingSearchCriteriaTo.CHILD.equals(criteria.getGuestType()) && !rowKeys.child)) {
+      return false;
+    }
+    return criteria.getNeedsSpecialChair() == null || criteria.getNeedsSpecialChair() == rowKeys.specialChair;
+  }
+
+  /**
+   * @return the entries from the inclusive lower to the upper key, {@code null} is unbounded.
+   */
+  private static <K extends Comparable<K>> NavigableSet<Entry<K>> range(NavigableSet<Entry<K>> index, K from, K to,
+      boolean toInclusive) {
+
+    NavigableSet<Entry<K>> range = index;
+    if (from != null) {
+      range = range.tailSet(new Entry<>(from, Integer.MIN_VALUE), true);
+    }
+    if (to != null) {
+      range = range.headSet(new Entry<>(to, toInclusive ? Integer.MAX_VALUE : Integer.MIN_VALUE), toInclusive);
+    }
+    return range;
+  }
+
+  private static Long epochSecond(ZonedDateTime date) {
+
+    return date == null ? null : date.toEpochSecond();
+  }
+
+  /**
+   * Adds the sorted entries and sets the bits of the new keys, bits are only cleared after the keys of the row were
+   * replaced.
+   */
+  private void add(int row, Keys rowKeys) {
+
+    if (rowKeys.bookingDate != null) {
+      this.bookingDates.add(new Entry<>(rowKeys.bookingDate, row));
+    }
+    if (rowKeys.fee != null) {
+      this.feesByCurrency.computeIfAbsent(rowKeys.currency, currency -> new ConcurrentSkipListSet<>())
+          .add(new Entry<>(rowKeys.fee, row));
+    }
+    if (rowKeys.adult) {
+      this.adults.set(row);
+    }
+    if (rowKeys.child) {
+      this.children.set(row);
+    }
+    if (rowKeys.specialChair) {
+      this.specialChairs.set(row);
+    }
+  }
+
+  /**
+   * Removes the sorted entries of the previous keys that differ from the new ones and clears the bits not set for the
+   * new keys.
+   */
+  private void removeStale(int row, Keys oldKeys, Keys newKeys) {
+
+    if (oldKeys != null && oldKeys.bookingDate != null && !oldKeys.bookingDate.equals(newKeys.bookingDate)) {
+      this.bookingDates.remove(new Entry<>(oldKeys.bookingDate, row));
+    }
+    if (oldKeys != null && oldKeys.fee != null && (newKeys.fee == null || !oldKeys.currency.equals(newKeys.currency)
+        || oldKeys.fee.compareTo(newKeys.fee) != 0)) {
+      this.feesByCurrency.get(oldKeys.currency).remove(new Entry<>(oldKeys.fee, row));
+    }
+    if (!newKeys.adult) {
+      this.adults.clear(row);
+    }
+    if (!newKeys.child) {
+      this.children.clear(row);
+    }
+    if (!newKeys.specialChair) {
+      this.specialChairs.clear(row);
+    }
+  }
+
+  private static int compareByBookingDate(BookingTo first, BookingTo second) {
+
+    ZonedDateTime firstDate = first.getBookingDate();
+    ZonedDateTime secondDate = second.getBookingDate();
+    if (firstDate == null || secondDate == null) {
+      if (firstDate != secondDate) {
+        return firstDate == null ? 1 : -1;
+      }
+    } else {
+      int result = Long.compare(firstDate.toEpochSecond(), secondDate.toEpochSecond());
+      if (result != 0) {
+        return result;
+      }
+    }
+    return first.getId().compareTo(second.getId());
+  }
+
+  /**
+   * Entry of a sorted index, ordered by key and row.
+   */
+  private static final class Entry<K extends Comparable<K>> implements Comparable<Entry<K>> {
+
+    private final K key;
+
+    private final int row;
+
+    private Entry(K key, int row) {
+
+      this.key = key;
+      this.row = row;
+    }
+
+    @Override
+    public int compareTo(Entry<K> other) {
+
+      int result = this.key.compareTo(other.key);
+      return result != 0 ? result : Integer.compare(this.row, other.row);
+    }
+  }
+
+  /**
+   * The index keys of a booking.
+   */
+  private static final class Keys {
+
+    private final BookingTo booking;
+
+    private final Long bookingDate;
+
+    private final String currency;
+
+    private final BigDecimal fee;
+
+    private boolean adult;
+
+    private boolean child;
+
+    private boolean specialChair;
+
+    private Keys(BookingTo booking) {
+
+      this.booking = booking;
+      this.bookingDate = booking.getBookingDate() == null ? null : booking.getBookingDate().toEpochSecond();
+      MonetaryAmount reservationFee = booking.getReservationFee();
+      this.currency = reservationFee == null ? null : reservationFee.getCurrency().getCurrencyCode();
+      this.fee = reservationFee == null ? null : reservationFee.getNumber().numberValue(BigDecimal.class);
+      if (booking.getInvitedGuests() != null) {
+        for (InvitedGuestTo guest : booking.getInvitedGuests()) {
+          if (guest instanceof InvitedAdultTo) {
+            this.adult = true;
+          } else if (guest instanceof InvitedChildTo) {
+            this.child = true;
+            this.specialChair |= ((InvitedChildTo) guest).isNeedsSpecialChair();
+          }
+        }
+      }
+    }
+  }
+
+}
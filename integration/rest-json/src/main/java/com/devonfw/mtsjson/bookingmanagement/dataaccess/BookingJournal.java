@@ -0,0 +1,456 @@
+package com.devonfw.mtsjson.bookingmanagement.dataaccess;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Append-only journal of the stored bookings, used by the {@link BookingRepository} to survive restarts.
+ *
+ * Every save appends the complete booking as record to a memory-mapped segment file, so replaying the records in order
+ * restores the last state of every booking. A record is framed by its length and a CRC32C checksum, replay stops at the
+ * first incomplete record of a segment. Records are made durable by {@link #sync(long)}: while one thread forces the
+ * segment to disk the others wait and are usually covered by the same force (group commit). A segment that is full is
+ * forced by the next sync as well, so no force runs while the appends are blocked and none runs without fsync.
+ *
+ * When the segments written since the last snapshot exceed the snapshot threshold, the repository writes a compacted
+ * snapshot containing every booking once. A snapshot {@code snapshot-N} replaces all segments before
+ * {@code journal-N}, so a restart only reads the snapshot and the segments written since then.
+ */
+public class BookingJournal implements Closeable {
+
+  private static final Pattern SEGMENT = Pattern.compile("journal-(\\d+)\\.log");
+
+  private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.bin");
+
+  /** Length and checksum in front of every record. */
+  private static final int HEADER_SIZE = 8;
+
+  /** Number of records that are decoded in parallel during recovery. */
+  private static final int RECOVERY_BATCH_SIZE = 8192;
+
+  private final Path directory;
+
+  private final int segmentSize;
+
+  private final boolean fsync;
+
+  private final long snapshotThreshold;
+
+  private final ObjectWriter writer;
+
+  private final ObjectReader reader;
+
+  /** Not a monitor, so virtual threads waiting for a force do not pin their carrier thread. */
+  private final ReentrantLock syncLock = new ReentrantLock();
+
+  private long segment;
+
+  private MappedByteBuffer buffer;
+
+  /** The full segments not forced yet, forced by the next {@link #sync(long)} before the current one. */
+  private final List<MappedByteBuffer> rolled = new ArrayList<>();
+
+  /** Position of the end of the last appended record, counted over all segments of this process. */
+  private long appended;
+
+  /** Position up to which all records are forced to disk. */
+  private volatile long durable;
+
+  /** Start of the current segment in the positions of {@link #appended}. */
+  private long segmentStart;
+
+  private long bytesSinceSnapshot;
+
+  /**
+   * The constructor.
+   *
+   * @param directory the directory of the segments and snapshots, created if it does not exist.
+   * @param mapper the mapper used to write and read the bookings, a binary format like Smile is recommended.
+   * @param segmentSize the size of a segment file, a booking must fit into one segment.
+   * @param fsync {@code true} to force the records to disk before {@link #sync(long)} returns, {@code false} to rely on
+   *        the operating system, the records then survive a crash of the process but not of the machine.
+   * @param snapshotThreshold the number of bytes written to segments after which {@link #isSnapshotDue()} is true.
+   */
+  public BookingJournal(Path directory, ObjectMapper mapper, int segmentSize, boolean fsync, long snapshotThreshold) {
+
+    this.directory = directory;
+    this.segmentSize = segmentSize;
+    this.fsync = fsync;
+    this.snapshotThreshold = snapshotThreshold;
+    this.writer = mapper.writerFor(BookingTo.class);
+    this.reader = mapper.readerFor(BookingTo.class);
+  }
+
+  /**
+   * Reads the latest snapshot and all segments written after it and opens a new segment for appending. Must be called
+   * once before the first {@link #append(BookingTo)}.
+   *
+   * @param bookings receives the bookings in the order they were saved, later versions of a booking replace earlier
+   *        ones.
+   */
+  public void recover(Consumer<BookingTo> bookings) {
+
+    try {
+      Files.createDirectories(this.directory);
+      long snapshot = latest(SNAPSHOT).orElse(-1);
+      long firstSegment = 0;
+      if (snapshot >= 0) {
+        try (InputStream in = Files.newInputStream(snapshotFile(snapshot))) {
+          readRecords(in, bookings);
+        }
+        firstSegment = snapshot;
+      }
+      long lastSegment = firstSegment - 1;
+      for (long number : numbers(SEGMENT)) {
+        if (number >= firstSegment) {
+          try (InputStream in = Files.newInputStream(segmentFile(number))) {
+            this.bytesSinceSnapshot += readRecords(in, bookings);
+          }
+          lastSegment = number;
+        }
+      }
+      // the last segment may end with an incomplete record, so appending continues in a new one
+      openSegment(lastSegment + 1);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Bookings could not be recovered from " + this.directory, e);
+    }
+  }
+
+  /**
+   * Appends a booking to the journal. The booking is durable after {@link #sync(long)} was called with the returned
+   * position.
+   *
+   * @param booking the saved booking.
+   * @return the position after the record.
+   */
+  public long append(BookingTo booking) {
+
+    byte[] record;
+    try {
+      record = this.writer.writeValueAsBytes(booking);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Booking " + booking.getId() + " could not be written to the journal", e);
+    }
+    if (record.length + HEADER_SIZE > this.segmentSize) {
+      throw new IllegalArgumentException("Booking " + booking.getId() + " with " + record.length
+          + " bytes does not fit into a segment of " + this.segmentSize + " bytes");
+    }
+    CRC32C crc = new CRC32C();
+    crc.update(record);
+    synchronized (this) {
+      if (this.buffer.remaining() < record.length + HEADER_SIZE) {
+        rollSegment();
+      }
+      this.buffer.putInt(record.length);
+      this.buffer.putInt((int) crc.getValue());
+      this.buffer.put(record);
+      this.appended = this.segmentStart + this.buffer.position();
+      this.bytesSinceSnapshot += record.length + HEADER_SIZE;
+      return this.appended;
+    }
+  }
+
+  /**
+   * Waits until all records up to the given position are forced to disk. Threads calling this method at the same time
+   * share one force of the segment.
+   *
+   * @param position the position returned by {@link #append(BookingTo)}.
+   */
+  public void sync(long position) {
+
+    if (!this.fsync || this.durable >= position) {
+      return;
+    }
+    this.syncLock.lock();
+    try {
+      // a force of another thread may have covered the position while this thread was waiting for the lock
+      if (this.durable >= position) {
+        return;
+      }
+      this.durable = force();
+    } finally {
+      this.syncLock.unlock();
+    }
+  }
+
+  /**
+   * @return {@code true} if the segments written since the last snapshot exceed the snapshot threshold.
+   */
+  public synchronized boolean isSnapshotDue() {
+
+    return this.bytesSinceSnapshot >= this.snapshotThreshold;
+  }
+
+  /**
+   * Starts a new segment for a snapshot. The snapshot must contain every booking saved before this call, bookings saved
+   * later are appended to the new segment.
+   *
+   * @return the number of the new segment, to be passed to {@link #writeSnapshot(long, Collection)}.
+   */
+  public synchronized long startSnapshot() {
+
+    rollSegment();
+    this.bytesSinceSnapshot = 0;
+    return this.segment;
+  }
+
+  /**
+   * Writes a snapshot and deletes the segments and snapshots it replaces. The snapshot becomes visible atomically after
+   * it was written completely.
+   *
+   * @param number the segment number returned by {@link #startSnapshot()}.
+   * @param bookings all bookings, the bookings may change while they are written.
+   */
+  public void writeSnapshot(long number, Collection<BookingTo> bookings) {
+
+    Path file = snapshotFile(number);
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try {
+      try (FileOutputStream out = new FileOutputStream(temporary.toFile());
+          DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16))) {
+        CRC32C crc = new CRC32C();
+        for (BookingTo booking : bookings) {
+          byte[] record = this.writer.writeValueAsBytes(booking);
+          crc.reset();
+          crc.update(record);
+          data.writeInt(record.length);
+          data.writeInt((int) crc.getValue());
+          data.write(record);
+        }
+        data.flush();
+        out.getFD().sync();
+      }
+      Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+      // the rename has to be durable before the segments it replaces are gone
+      syncDirectory();
+      for (long segmentNumber : numbers(SEGMENT)) {
+        if (segmentNumber < number) {
+          Files.deleteIfExists(segmentFile(segmentNumber));
+        }
+      }
+      for (long snapshotNumber : numbers(SNAPSHOT)) {
+        if (snapshotNumber < number) {
+          Files.deleteIfExists(snapshotFile(snapshotNumber));
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Snapshot " + file + " could not be written", e);
+    }
+  }
+
+  /**
+   * Forces the segments to disk if fsync is enabled. Records appended afterwards fail.
+   */
+  @Override
+  public void close() {
+
+    this.syncLock.lock();
+    try {
+      MappedByteBuffer current;
+      synchronized (this) {
+        current = this.buffer;
+        this.buffer = null;
+      }
+      if (this.fsync) {
+        force();
+        if (current != null) {
+          current.force();
+        }
+      }
+    } finally {
+      this.syncLock.unlock();
+    }
+  }
+
+  /**
+   * Forces the full segments and the current one without blocking the appends, called with the sync lock.
+   *
+   * @return the position up to which the records are forced.
+   */
+  private long force() {
+
+    long target;
+    MappedByteBuffer current;
+    List<MappedByteBuffer> previous;
+    synchronized (this) {
+      target = this.appended;
+      current = this.buffer;
+      previous = new ArrayList<>(this.rolled);
+    }
+    // records of previous segments are not covered by forcing the current one
+    for (MappedByteBuffer segmentBuffer : previous) {
+      segmentBuffer.force();
+    }
+    synchronized (this) {
+      this.rolled.subList(0, previous.size()).clear();
+    }
+    if (current != null) {
+      current.force();
+    }
+    return target;
+  }
+
+  private void rollSegment() {
+
+    if (this.fsync) {
+      // forced by the next sync, so the appends are not blocked by it
+      this.rolled.add(this.buffer);
+    }
+    this.segmentStart += this.segmentSize;
+    this.appended = this.segmentStart;
+    try {
+      openSegment(this.segment + 1);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Segment " + (this.segment + 1) + " could not be created", e);
+    }
+  }
+
+  private void openSegment(long number) throws IOException {
+
+    try (FileChannel channel = FileChannel.open(segmentFile(number), StandardOpenOption.CREATE_NEW,
+        StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      // the mapping grows the file, the unwritten rest is zero and ends the replay
+      this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, this.segmentSize);
+    }
+    this.segment = number;
+  }
+
+  /**
+   * Reads the records of a segment or snapshot. The records are decoded in parallel batches and passed to the consumer
+   * in their order.
+   *
+   * @return the number of bytes of the complete records.
+   */
+  private long readRecords(InputStream in, Consumer<BookingTo> bookings) throws IOException {
+
+    DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+    CRC32C crc = new CRC32C();
+    byte[][] records = new byte[RECOVERY_BATCH_SIZE][];
+    long bytes = 0;
+    boolean end = false;
+    while (!end) {
+      int count = 0;
+      while (count < records.length) {
+        byte[] record = readRecord(data, crc);
+        if (record == null) {
+          end = true;
+          break;
+        }
+        records[count++] = record;
+        bytes += record.length + HEADER_SIZE;
+      }
+      BookingTo[] decoded = new BookingTo[count];
+      Arrays.parallelSetAll(decoded, i -> decode(records[i]));
+      for (BookingTo booking : decoded) {
+        bookings.accept(booking);
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * @return the payload of the next record or {@code null} at the end of the records.
+   */
+  private byte[] readRecord(DataInputStream data, CRC32C crc) throws IOException {
+
+    try {
+      int length = data.readInt();
+      if (length <= 0 || length > this.segmentSize) {
+        return null;
+      }
+      int checksum = data.readInt();
+      byte[] record = new byte[length];
+      data.readFully(record);
+      crc.reset();
+      crc.update(record);
+      // a record that was not written completely before a crash
+      return (int) crc.getValue() == checksum ? record : null;
+    } catch (EOFException e) {
+      return null;
+    }
+  }
+
+  private BookingTo decode(byte[] record) {
+
+    try {
+      return this.reader.readValue(record);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Booking could not be read from the journal", e);
+    }
+  }
+
+  private OptionalLong latest(Pattern pattern) throws IOException {
+
+    List<Long> numbers = numbers(pattern);
+    return numbers.isEmpty() ? OptionalLong.empty() : OptionalLong.of(numbers.get(numbers.size() - 1));
+  }
+
+  /**
+   * Forces the entries of the directory, e.g. a renamed snapshot, to disk.
+   */
+  private void syncDirectory() throws IOException {
+
+    try (FileChannel channel = FileChannel.open(this.directory, StandardOpenOption.READ)) {
+      channel.force(true);
+    }
+  }
+
+  /**
+   * @return the numbers of the files matching the pattern in ascending order.
+   */
+  private List<Long> numbers(Pattern pattern) throws IOException {
+
+    List<Long> numbers = new ArrayList<>();
+    try (Stream<Path> files = Files.list(this.directory)) {
+      files.forEach(file -> {
+        Matcher matcher = pattern.matcher(file.getFileName().toString());
+        if (matcher.matches()) {
+          numbers.add(Long.parseLong(matcher.group(1)));
+        }
+      });
+    }
+    numbers.sort(null);
+    return numbers;
+  }
+
+  private Path segmentFile(long number) {
+
+    return this.directory.resolve(String.format("journal-%016d.log", number));
+  }
+
+  private Path snapshotFile(long number) {
+
+    return this.directory.resolve(String.format("snapshot-%016d.bin", number));
+  }
+
+}
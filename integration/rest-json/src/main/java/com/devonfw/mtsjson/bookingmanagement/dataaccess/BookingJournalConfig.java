@@ -0,0 +1,42 @@
+package com.devonfw.mtsjson.bookingmanagement.dataaccess;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Creates the {@link BookingJournal} if {@code mts.journal.directory} is set, otherwise the bookings are only kept in
+ * memory. The bookings are written as Smile with the modules and settings of the JSON mapper, which is smaller and
+ * faster to read than JSON.
+ */
+@Configuration
+@ConditionalOnProperty(name = "mts.journal.directory")
+public class BookingJournalConfig {
+
+  /**
+   * @param directory the directory of the journal.
+   * @param fsync whether a save waits until its booking is forced to disk.
+   * @param segmentSize the size of a memory-mapped segment file.
+   * @param snapshotAfter the size of the segments after which a snapshot is written.
+   * @param builder the builder of the JSON mapper of Spring Boot.
+   * @return the journal, closed by the {@link BookingRepository}.
+   */
+  @Bean(destroyMethod = "")
+  public BookingJournal bookingJournal(@Value("${mts.journal.directory}") Path directory,
+      @Value("${mts.journal.fsync:true}") boolean fsync, @Value("${mts.journal.segment-size:64MB}") DataSize segmentSize,
+      @Value("${mts.journal.snapshot-after:256MB}") DataSize snapshotAfter, Jackson2ObjectMapperBuilder builder) {
+
+    SmileMapper mapper = new SmileMapper();
+    builder.configure(mapper);
+    return new BookingJournal(directory, mapper, Math.toIntExact(segmentSize.toBytes()), fsync,
+        snapshotAfter.toBytes());
+  }
+
+}
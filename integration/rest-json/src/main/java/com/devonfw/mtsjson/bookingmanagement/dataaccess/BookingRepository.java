@@ -0,0 +1,329 @@
+package com.devonfw.mtsjson.bookingmanagement.dataaccess;
+
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Repository;
+
+import com.devonfw.mtsjson.bookingmanagement.common.exception.OptimisticLockingException;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingSearchCriteriaTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.FeeTotalTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+/**
+ * In-memory store of all bookings.
+ *
+ * Bookings are kept in a {@link ConcurrentHashMap}, so reads never block and writes only lock the bin of the written
+ * booking. Concurrent updates of the same booking are detected with the modificationCounter of the booking and its
+ * invited guests (optimistic locking) instead of a global lock.
+ *
+ * If a {@link BookingJournal} is configured, every saved booking is appended to it and the bookings are recovered from
+ * it on startup. A save returns after its booking is durable, the snapshots of the journal are written in the
+ * background.
+ */
+@Repository
+public class BookingRepository {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BookingRepository.class);
+
+  private final Map<Long, BookingTo> bookings = new ConcurrentHashMap<>();
+
+  private final IdAllocator bookingIds = new IdAllocator();
+
+  private final IdAllocator guestIds = new IdAllocator();
+
+  private final BookingIndex index = new BookingIndex();
+
+  private final BookingJournal journal;
+
+  /**
+   * Saves hold the read lock while they append to the journal and update the map, the write lock is held to start a
+   * snapshot, so every booking is either contained in the snapshot or appended after it was started.
+   */
+  private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+  private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+
+  private final ExecutorService snapshotExecutor;
+
+  /**
+   * Creates a repository that keeps the bookings only in memory.
+   */
+  public BookingRepository() {
+
+    this(null);
+  }
+
+  /**
+   * @param journal the journal to recover the bookings from and to append saved bookings to or {@code null} to keep
+   *        the bookings only in memory.
+   */
+  @Autowired
+  public BookingRepository(@Nullable BookingJournal journal) {
+
+    this.journal = journal;
+    if (journal == null) {
+      this.snapshotExecutor = null;
+      return;
+    }
+    long start = System.nanoTime();
+    journal.recover(this::recovered);
+    LOG.info("Recovered {} bookings in {} ms", this.bookings.size(), (System.nanoTime() - start) / 1_000_000);
+    CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("booking-snapshot-");
+    threadFactory.setDaemon(true);
+    this.snapshotExecutor = Executors.newSingleThreadExecutor(threadFactory);
+    snapshotIfDue();
+  }
+
+  /**
+   * @param id the id of the booking.
+   * @return the booking or {@code null} if there is no booking with this id.
+   */
+  public BookingTo findById(Long id) {
+
+    return this.bookings.get(id);
+  }
+
+  /**
+   * @param criteria the criteria of the search, all given criteria must match.
+   * @return the matching bookings ordered by {@code bookingDate} and id, bookings without date last.
+   */
+  public List<BookingTo> findByCriteria(BookingSearchCriteriaTo criteria) {
+
+    return this.index.find(criteria);
+  }
+
+  /**
+   * @param from the inclusive start of the {@code bookingDate} or {@code null}.
+   * @param to the exclusive end of the {@code bookingDate} or {@code null}.
+   * @return the totals and averages of the reservation fees by currency, day of the {@code bookingDate} in UTC and
+   *         invited guest types, ordered by currency, day and guest types.
+   */
+  public List<FeeTotalTo> aggregateFees(ZonedDateTime from, ZonedDateTime to) {
+
+    return this.index.aggregateFees(from, to);
+  }
+
+  /**
+   * @return the columnar snapshot of all bookings saved before this call, created from the previous snapshot and the
+   *         bookings saved since then.
+   */
+  public BookingSnapshot snapshot() {
+
+    return this.index.snapshot();
+  }
+
+  /**
+   * @return a weakly consistent view of all bookings.
+   */
+  public Collection<BookingTo> findAll() {
+
+    return this.bookings.values();
+  }
+
+  /**
+   * @return the number of stored bookings.
+   */
+  public int count() {
+
+    return this.bookings.size();
+  }
+
+  /**
+   * Stores a booking. A booking without id is created with a new id and a modificationCounter of 0. A booking with id
+   * replaces the stored booking if its modificationCounter matches the stored one, the counter is then incremented.
+   * Invited guests are treated the same way. A booking with an unknown id is created with that id.
+   *
+   * @param booking the booking to store.
+   * @return the stored booking.
+   * @throws OptimisticLockingException if the booking or one of its invited guests was modified concurrently.
+   */
+  public BookingTo save(BookingTo booking) {
+
+    if (this.journal == null) {
+      return store(booking, null);
+    }
+    long[] position = new long[1];
+    BookingTo saved;
+    this.snapshotLock.readLock().lock();
+    try {
+      saved = store(booking, position);
+    } finally {
+      this.snapshotLock.readLock().unlock();
+    }
+    this.journal.sync(position[0]);
+    snapshotIfDue();
+    return saved;
+  }
+
+  /**
+   * @param position receives the position of the booking in the journal or {@code null} without journal.
+   */
+  private BookingTo store(BookingTo booking, long[] position) {
+
+    Long id = booking.getId();
+    if (id == null) {
+      return insert(booking, position);
+    }
+    this.bookingIds.reserve(id);
+    return this.bookings.compute(id, (key, stored) -> {
+      BookingTo result;
+      if (stored == null) {
+        assignGuestIds(booking);
+        result = booking;
+      } else {
+        result = update(stored, booking);
+      }
+      // appended and indexed while the booking is locked, so the updates of a booking are applied in the same order
+      append(result, position);
+      this.index.put(result);
+      return result;
+    });
+  }
+
+  private BookingTo insert(BookingTo booking, long[] position) {
+
+    booking.setModificationCounter(0);
+    assignGuestIds(booking);
+    // ids from ranges reserved before an id was assigned elsewhere might already be taken
+    BookingTo result;
+    do {
+      booking.setId(this.bookingIds.next());
+      result = this.bookings.compute(booking.getId(), (key, stored) -> {
+        if (stored != null) {
+          return stored;
+        }
+        // visible only after it was appended and indexed, so an update of the new booking is appended after it
+        append(booking, position);
+        this.index.put(booking);
+        return booking;
+      });
+    } while (result != booking);
+    return booking;
+  }
+
+  private void append(BookingTo booking, long[] position) {
+
+    if (position != null) {
+      position[0] = this.journal.append(booking);
+    }
+  }
+
+  private void recovered(BookingTo booking) {
+
+    this.bookings.put(booking.getId(), booking);
+    this.index.put(booking);
+    this.bookingIds.reserve(booking.getId());
+    if (booking.getInvitedGuests() != null) {
+      for (InvitedGuestTo guest : booking.getInvitedGuests()) {
+        this.guestIds.reserve(guest.getId());
+      }
+    }
+  }
+
+  private void snapshotIfDue() {
+
+    if (!this.journal.isSnapshotDue() || !this.snapshotRunning.compareAndSet(false, true)) {
+      return;
+    }
+    long number;
+    this.snapshotLock.writeLock().lock();
+    try {
+      number = this.journal.startSnapshot();
+    } finally {
+      this.snapshotLock.writeLock().unlock();
+    }
+    this.snapshotExecutor.execute(() -> {
+      try {
+        long start = System.nanoTime();
+        this.journal.writeSnapshot(number, this.bookings.values());
+        LOG.info("Wrote snapshot {} of {} bookings in {} ms", number, this.bookings.size(),
+            (System.nanoTime() - start) / 1_000_000);
+      } catch (RuntimeException e) {
+        LOG.error("Snapshot {} failed, the journal is kept", number, e);
+      } finally {
+        this.snapshotRunning.set(false);
+      }
+    });
+  }
+
+  /**
+   * Waits for a running snapshot and closes the journal.
+   */
+  @PreDestroy
+  public void close() throws InterruptedException {
+
+    if (this.journal != null) {
+      this.snapshotExecutor.shutdown();
+      this.snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+      this.journal.close();
+    }
+  }
+
+  private BookingTo update(BookingTo stored, BookingTo booking) {
+
+    if (stored.getModificationCounter() != booking.getModificationCounter()) {
+      throw new OptimisticLockingException("Booking " + booking.getId() + " was modified, expected modificationCounter "
+          + stored.getModificationCounter() + " but was " + booking.getModificationCounter());
+    }
+    Map<Long, InvitedGuestTo> storedGuests = new HashMap<>();
+    if (stored.getInvitedGuests() != null) {
+      for (InvitedGuestTo guest : stored.getInvitedGuests()) {
+        storedGuests.put(guest.getId(), guest);
+      }
+    }
+    List<InvitedGuestTo> guests = booking.getInvitedGuests();
+    if (guests != null) {
+      for (InvitedGuestTo guest : guests) {
+        InvitedGuestTo storedGuest = storedGuests.get(guest.getId());
+        if (storedGuest != null && storedGuest.getModificationCounter() != guest.getModificationCounter()) {
+          throw new OptimisticLockingException("Invited guest " + guest.getId() + " was modified, expected modificationCounter "
+              + storedGuest.getModificationCounter() + " but was " + guest.getModificationCounter());
+        }
+      }
+      for (InvitedGuestTo guest : guests) {
+        if (guest.getId() == null) {
+          guest.setId(this.guestIds.next());
+          guest.setModificationCounter(0);
+        } else if (storedGuests.containsKey(guest.getId())) {
+          guest.setModificationCounter(guest.getModificationCounter() + 1);
+        }
+      }
+    }
+    booking.setModificationCounter(stored.getModificationCounter() + 1);
+    return booking;
+  }
+
+  private void assignGuestIds(BookingTo booking) {
+
+    if (booking.getInvitedGuests() == null) {
+      return;
+    }
+    for (InvitedGuestTo guest : booking.getInvitedGuests()) {
+      if (guest.getId() == null) {
+        guest.setId(this.guestIds.next());
+        guest.setModificationCounter(0);
+      } else {
+        this.guestIds.reserve(guest.getId());
+      }
+    }
+  }
+}
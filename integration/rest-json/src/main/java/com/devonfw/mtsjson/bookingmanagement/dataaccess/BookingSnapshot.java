@@ -0,0 +1,355 @@
+package com.devonfw.mtsjson.bookingmanagement.dataaccess;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.money.MonetaryAmount;
+
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+/**
+ * Read-only columnar copy of the bookings outside of the heap, for scans and exports over all bookings.
+ *
+ * Every row is a booking with its id, its dates in epoch seconds, its fee as unscaled value and scale, its currency
+ * code and the number of invited adults and children, 45 bytes per booking instead of the object graph of a
+ * {@link BookingTo}. The rows are stored in chunks of {@value #CHUNK_ROWS} rows, every chunk is one direct
+ * {@link ByteBuffer} with one column after the other, so a scan of a column reads consecutive memory.
+ *
+ * A snapshot never changes. The {@link BookingRepository} creates the next snapshot from the previous one by copying
+ * only the chunks with saved bookings, the other chunks are shared.
+ *
+ * The memory of a direct buffer is only released when the garbage collector collects its chunk, the heap usage of a
+ * replaced chunk is small, so many replaced chunks can wait for a collection. {@code -XX:MaxDirectMemorySize} limits
+ * their memory, when it is reached the JVM triggers a collection before it allocates the next chunk.
+ */
+public final class BookingSnapshot {
+
+  /** The rows per chunk. */
+  public static final int CHUNK_ROWS = 1 << 12;
+
+  private static final int CHUNK_SHIFT = 12;
+
+  private static final int ROW_MASK = CHUNK_ROWS - 1;
+
+  /** Value of the date columns for a booking without date. */
+  public static final long NO_DATE = Long.MIN_VALUE;
+
+  /** Scale of a booking without fee. */
+  private static final byte NO_FEE = Byte.MIN_VALUE;
+
+  /** Scale of a fee that does not fit into the columns, it is kept in {@link Chunk#largeFees}. */
+  private static final byte LARGE_FEE = Byte.MIN_VALUE + 1;
+
+  /** Currency of a code that is not three ASCII characters, the code is kept in {@link Chunk#otherCurrencies}. */
+  private static final int OTHER_CURRENCY = -1;
+
+  private static final int IDS = 0;
+
+  private static final int BOOKED_AT = IDS + 8 * CHUNK_ROWS;
+
+  private static final int BOOKING_DATES = BOOKED_AT + 8 * CHUNK_ROWS;
+
+  private static final int FEES = BOOKING_DATES + 8 * CHUNK_ROWS;
+
+  private static final int CURRENCIES = FEES + 8 * CHUNK_ROWS;
+
+  private static final int ADULTS = CURRENCIES + 4 * CHUNK_ROWS;
+
+  private static final int CHILDREN = ADULTS + 4 * CHUNK_ROWS;
+
+  private static final int SCALES = CHILDREN + 4 * CHUNK_ROWS;
+
+  private static final int CHUNK_BYTES = SCALES + CHUNK_ROWS;
+
+  static final BookingSnapshot EMPTY = new BookingSnapshot(new Chunk[0], 0);
+
+  private final Chunk[] chunks;
+
+  private final int size;
+
+  private BookingSnapshot(Chunk[] chunks, int size) {
+
+    this.chunks = chunks;
+    this.size = size;
+  }
+
+  /**
+   * @return the number of rows.
+   */
+  public int size() {
+
+    return this.size;
+  }
+
+  /**
+   * @param row the row from 0 to {@link #size()} - 1.
+   * @return the id of the booking.
+   */
+  public long id(int row) {
+
+    return buffer(row).getLong(IDS + 8 * (row & ROW_MASK));
+  }
+
+  /**
+   * @param row the row.
+   * @return the {@code bookedAt} in epoch seconds or {@link #NO_DATE}.
+   */
+  public long bookedAt(int row) {
+
+    return buffer(row).getLong(BOOKED_AT + 8 * (row & ROW_MASK));
+  }
+
+  /**
+   * @param row the row.
+   * @return the {@code bookingDate} in epoch seconds or {@link #NO_DATE}.
+   */
+  public long bookingDate(int row) {
+
+    return buffer(row).getLong(BOOKING_DATES + 8 * (row & ROW_MASK));
+  }
+
+  /**
+   * @param row the row.
+   * @return the currency code of the fee or {@code null} if the booking has no fee.
+   */
+  public String currency(int row) {
+
+    int code = buffer(row).getInt(CURRENCIES + 4 * (row & ROW_MASK));
+    if (code == 0) {
+      return null;
+    } else if (code == OTHER_CURRENCY) {
+      return this.chunks[row >>> CHUNK_SHIFT].otherCurrencies.get(row & ROW_MASK);
+    }
+    return new String(new char[] { (char) (code >>> 16), (char) ((code >>> 8) & 0xFF), (char) (code & 0xFF) });
+  }
+
+  /**
+   * @param row the row.
+   * @return {@code true} if the booking has a fee.
+   */
+  public boolean hasFee(int row) {
+
+    return scale(row) != NO_FEE;
+  }
+
+  /**
+   * The fee in minor units, the fee is {@code feeMinorUnits(row) * 10^-feeScale(row)}.
+   *
+   * @param row the row.
+   * @return the unscaled value of the fee.
+   * @throws IllegalStateException if the booking has no fee or the fee does not fit into a {@code long}, see
+   *         {@link #isFeeMinorUnits(int)}.
+   */
+  public long feeMinorUnits(int row) {
+
+    if (!isFeeMinorUnits(row)) {
+      throw new IllegalStateException("The fee of row " + row + " is not kept in minor units");
+    }
+    return buffer(row).getLong(FEES + 8 * (row & ROW_MASK));
+  }
+
+  /**
+   * @param row the row.
+   * @return the scale of {@link #feeMinorUnits(int)}.
+   */
+  public int feeScale(int row) {
+
+    return scale(row);
+  }
+
+  /**
+   * @param row the row.
+   * @return {@code true} if the booking has a fee that fits into {@link #feeMinorUnits(int)}.
+   */
+  public boolean isFeeMinorUnits(int row) {
+
+    byte scale = scale(row);
+    return scale != NO_FEE && scale != LARGE_FEE;
+  }
+
+  /**
+   * @param row the row.
+   * @return the fee or {@code null} if the booking has no fee.
+   */
+  public BigDecimal fee(int row) {
+
+    byte scale = scale(row);
+    if (scale == NO_FEE) {
+      return null;
+    } else if (scale == LARGE_FEE) {
+      return this.chunks[row >>> CHUNK_SHIFT].largeFees.get(row & ROW_MASK);
+    }
+    return BigDecimal.valueOf(buffer(row).getLong(FEES + 8 * (row & ROW_MASK)), scale);
+  }
+
+  /**
+   * @param row the row.
+   * @return the number of invited adults.
+   */
+  public int adults(int row) {
+
+    return buffer(row).getInt(ADULTS + 4 * (row & ROW_MASK));
+  }
+
+  /**
+   * @param row the row.
+   * @return the number of invited children.
+   */
+  public int children(int row) {
+
+    return buffer(row).getInt(CHILDREN + 4 * (row & ROW_MASK));
+  }
+
+  private byte scale(int row) {
+
+    return buffer(row).get(SCALES + (row & ROW_MASK));
+  }
+
+  private ByteBuffer buffer(int row) {
+
+    if (row < 0 || row >= this.size) {
+      throw new IndexOutOfBoundsException("Row " + row + " of " + this.size);
+    }
+    return this.chunks[row >>> CHUNK_SHIFT].buffer;
+  }
+
+  /**
+   * Creates the next snapshot, the chunks of the given rows are copied and all other chunks are shared.
+   *
+   * @param size the number of rows of the next snapshot.
+   * @param rows the rows that were added or changed since this snapshot in ascending order.
+   * @param bookings the bookings of these rows.
+   * @return the next snapshot.
+   */
+  BookingSnapshot update(int size, int[] rows, List<BookingTo> bookings) {
+
+    Chunk[] nextChunks = Arrays.copyOf(this.chunks, (size + CHUNK_ROWS - 1) >>> CHUNK_SHIFT);
+    Chunk copied = null;
+    for (int i = 0; i < rows.length; i++) {
+      int chunkIndex = rows[i] >>> CHUNK_SHIFT;
+      // the rows are ascending, so every chunk is copied once
+      if (copied == null || copied != nextChunks[chunkIndex]) {
+        Chunk chunk = nextChunks[chunkIndex];
+        copied = chunk == null ? new Chunk() : chunk.copy();
+        nextChunks[chunkIndex] = copied;
+      }
+      copied.set(rows[i] & ROW_MASK, bookings.get(i));
+    }
+    return new BookingSnapshot(nextChunks, size);
+  }
+
+  /**
+   * {@link #CHUNK_ROWS} rows in one direct buffer.
+   */
+  private static final class Chunk {
+
+    private final ByteBuffer buffer;
+
+    /** The fees of the rows with {@link BookingSnapshot#LARGE_FEE}, usually empty. */
+    private final Map<Integer, BigDecimal> largeFees;
+
+    /** The currency codes of the rows with {@link BookingSnapshot#OTHER_CURRENCY}, usually empty. */
+    private final Map<Integer, String> otherCurrencies;
+
+    private Chunk() {
+
+      this(ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.nativeOrder()), new HashMap<>(), new HashMap<>());
+    }
+
+    private Chunk(ByteBuffer buffer, Map<Integer, BigDecimal> largeFees, Map<Integer, String> otherCurrencies) {
+
+      this.buffer = buffer;
+      this.largeFees = largeFees;
+      this.otherCurrencies = otherCurrencies;
+    }
+
+    private Chunk copy() {
+
+      ByteBuffer copy = ByteBuffer.allocateDirect(CHUNK_BYTES).order(ByteOrder.nativeOrder());
+      copy.put(this.buffer.duplicate().clear());
+      return new Chunk(copy, new HashMap<>(this.largeFees), new HashMap<>(this.otherCurrencies));
+    }
+
+    private void set(int offset, BookingTo booking) {
+
+      this.buffer.putLong(IDS + 8 * offset, booking.getId());
+      this.buffer.putLong(BOOKED_AT + 8 * offset, epochSecond(booking.getBookedAt()));
+      this.buffer.putLong(BOOKING_DATES + 8 * offset, epochSecond(booking.getBookingDate()));
+      int adults = 0;
+      int children = 0;
+      if (booking.getInvitedGuests() != null) {
+        for (InvitedGuestTo guest : booking.getInvitedGuests()) {
+          if (guest instanceof InvitedAdultTo) {
+            adults++;
+          } else if (guest instanceof InvitedChildTo) {
+            children++;
+          }
+        }
+      }
+      this.buffer.putInt(ADULTS + 4 * offset, adults);
+      this.buffer.putInt(CHILDREN + 4 * offset, children);
+      this.largeFees.remove(offset);
+      this.otherCurrencies.remove(offset);
+      MonetaryAmount reservationFee = booking.getReservationFee();
+      if (reservationFee == null) {
+        this.buffer.putInt(CURRENCIES + 4 * offset, 0);
+        this.buffer.putLong(FEES + 8 * offset, 0);
+        this.buffer.put(SCALES + offset, NO_FEE);
+        return;
+      }
+      String currency = reservationFee.getCurrency().getCurrencyCode();
+      int code = currencyCode(currency);
+      if (code == OTHER_CURRENCY) {
+        this.otherCurrencies.put(offset, currency);
+      }
+      this.buffer.putInt(CURRENCIES + 4 * offset, code);
+      BigDecimal fee = reservationFee.getNumber().numberValue(BigDecimal.class);
+      byte scale = LARGE_FEE;
+      long minorUnits = 0;
+      if (fee.scale() > LARGE_FEE && fee.scale() <= Byte.MAX_VALUE && fee.precision() <= 18) {
+        // at most 18 digits always fit into a long
+        scale = (byte) fee.scale();
+        minorUnits = fee.unscaledValue().longValue();
+      } else {
+        this.largeFees.put(offset, fee);
+      }
+      this.buffer.putLong(FEES + 8 * offset, minorUnits);
+      this.buffer.put(SCALES + offset, scale);
+    }
+
+    private static long epochSecond(ZonedDateTime date) {
+
+      return date == null ? NO_DATE : date.toEpochSecond();
+    }
+
+    /**
+     * @return the three ASCII characters of an ISO 4217 code in one {@code int} or {@link BookingSnapshot#OTHER_CURRENCY}
+     *         for any other code, e.g. of a custom currency.
+     */
+    private static int currencyCode(String code) {
+
+      if (code.length() != 3) {
+        return OTHER_CURRENCY;
+      }
+      int packed = 0;
+      for (int i = 0; i < 3; i++) {
+        char c = code.charAt(i);
+        if (c == 0 || c > 0x7F) {
+          return OTHER_CURRENCY;
+        }
+        packed = packed << 8 | c;
+      }
+      return packed;
+    }
+  }
+
+}
@@ -0,0 +1,511 @@
+package com.devonfw.mtsjson.bookingmanagement.dataaccess;
+
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingSearchCriteriaTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.FeeTotalTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+/**
+ * The reservation fees of the {@link BookingIndex} as columns of primitive arrays, with the same row numbers as the
+ * index.
+ *
+ * Every fee is kept as {@code long} in minor units at the scale of its currency, which is the largest scale of the fees
+ * of the currency but at least its default fraction digits. The fees are summed with fork-join over ranges of rows and
+ * only the totals are converted back to {@link MonetaryAmount}, so no {@code BigDecimal} is created per booking. Fees
+ * that do not fit into a {@code long} at the scale of their currency and sums that overflow are summed as
+ * {@code BigDecimal} instead, so the results are always exact.
+ *
+ * Saves of different rows write the columns concurrently with the read lock of the index. The version of a row is odd
+ * while the row is written, so a sum reads a row again instead of mixing two versions of it. The arrays are only grown
+ * and currencies only added or rescaled with the write lock of the index.
+ */
+class FeeColumns {
+
+  /** The rows summed by one task without splitting them further. */
+  private static final int SEQUENTIAL_ROWS = 1 << 14;
+
+  /** Fees with a larger scale are not kept in minor units, 10^18 still fits into a {@code long}. */
+  private static final int MAX_SCALE = 18;
+
+  /** The minor units of the rows that are summed as {@code BigDecimal}, so a sum started before is repeated. */
+  private static final long DECIMAL = Long.MIN_VALUE;
+
+  private static final long NO_DATE = Long.MIN_VALUE;
+
+  private static final int NO_DAY = Integer.MIN_VALUE;
+
+  private static final int NO_CURRENCY = -1;
+
+  private static final byte ADULT = 1;
+
+  private static final byte CHILD = 2;
+
+  private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+  static {
+    POWERS_OF_TEN[0] = 1;
+    for (int i = 1; i <= MAX_SCALE; i++) {
+      POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+    }
+  }
+
+  private final Map<String, Integer> currencyIds = new HashMap<>();
+
+  private final List<CurrencyUnit> currencies = new ArrayList<>();
+
+  /** The scale of the minor units of every currency. */
+  private int[] currencyScales = new int[8];
+
+  /** The fee of every row in minor units at the scale of its currency or {@link #DECIMAL}. */
+  private long[] amounts;
+
+  private int[] currencyOfRows;
+
+  /** The {@code bookingDate} of every row in epoch seconds or {@link #NO_DATE}. */
+  private long[] bookingDates;
+
+  /** The {@link #ADULT} and {@link #CHILD} bits of the invited guests of every row. */
+  private byte[] guestTypes;
+
+  /** The fees of the rows, only read for the rows that are summed as {@code BigDecimal}. */
+  private BigDecimal[] fees;
+
+  /** The version of every row, odd while the row is written. */
+  private AtomicIntegerArray versions;
+
+  /** The rows whose fee does not fit into a {@code long} at the scale of its currency. */
+  private final RowBitmap decimalRows;
+
+  private final AtomicInteger rowCount = new AtomicInteger();
+
+  /**
+   * @param capacity the initial number of rows.
+   */
+  FeeColumns(int capacity) {
+
+    this.amounts = new long[capacity];
+    this.currencyOfRows = new int[capacity];
+    Arrays.fill(this.currencyOfRows, NO_CURRENCY);
+    this.bookingDates = new long[capacity];
+    this.guestTypes = new byte[capacity];
+    this.fees = new BigDecimal[capacity];
+    this.versions = new AtomicIntegerArray(capacity);
+    this.decimalRows = new RowBitmap(capacity);
+  }
+
+  /**
+   * Grows the columns, called with the write lock of the index.
+   *
+   * @param capacity the new number of rows.
+   */
+  void grow(int capacity) {
+
+    int previous = this.amounts.length;
+    this.amounts = Arrays.copyOf(this.amounts, capacity);
+    this.currencyOfRows = Arrays.copyOf(this.currencyOfRows, capacity);
+    Arrays.fill(this.currencyOfRows, previous, capacity, NO_CURRENCY);
+    this.bookingDates = Arrays.copyOf(this.bookingDates, capacity);
+    this.guestTypes = Arrays.copyOf(this.guestTypes, capacity);
+    this.fees = Arrays.copyOf(this.fees, capacity);
+    AtomicIntegerArray grown = new AtomicIntegerArray(capacity);
+    for (int row = 0; row < previous; row++) {
+      grown.set(row, this.versions.get(row));
+    }
+    this.versions = grown;
+    this.decimalRows.grow(capacity);
+  }
+
+  /**
+   * @param booking the booking to save.
+   * @return {@code true} if the currency of the fee is known and its scale fits, so {@link #put} only needs the read
+   *         lock of the index.
+   */
+  boolean isPrepared(BookingTo booking) {
+
+    MonetaryAmount reservationFee = booking.getReservationFee();
+    if (reservationFee == null) {
+      return true;
+    }
+    Integer currency = this.currencyIds.get(reservationFee.getCurrency().getCurrencyCode());
+    int scale = reservationFee.getNumber().numberValue(BigDecimal.class).scale();
+    return currency != null && (scale > MAX_SCALE || scale <= this.currencyScales[currency]);
+  }
+
+  /**
+   * Adds the currency of the fee and increases its scale if needed, called with the write lock of the index.
+   *
+   * @param booking the booking to save.
+   */
+  void prepare(BookingTo booking) {
+
+    MonetaryAmount reservationFee = booking.getReservationFee();
+    if (reservationFee == null) {
+      return;
+    }
+    int currency = currencyId(reservationFee.getCurrency());
+    int scale = reservationFee.getNumber().numberValue(BigDecimal.class).scale();
+    if (scale <= MAX_SCALE && scale > this.currencyScales[currency]) {
+      rescale(currency, scale);
+    }
+  }
+
+  /**
+   * Sets the columns of a row, called with the read lock of the index after {@link #prepare}. Rows are written
+   * concurrently, but not the same row.
+   *
+   * @param row the row of the booking in the index.
+   * @param booking the stored booking.
+   */
+  void put(int row, BookingTo booking) {
+
+    int version = this.versions.get(row);
+    this.versions.set(row, version + 1);
+    // the columns must not be written before the version is odd
+    VarHandle.storeStoreFence();
+    write(row, booking);
+    this.versions.set(row, version + 2);
+    this.rowCount.accumulateAndGet(row + 1, Math::max);
+  }
+
+  private void write(int row, BookingTo booking) {
+
+    this.bookingDates[row] = booking.getBookingDate() == null ? NO_DATE : booking.getBookingDate().toEpochSecond();
+    this.guestTypes[row] = guestTypes(booking.getInvitedGuests());
+    MonetaryAmount reservationFee = booking.getReservationFee();
+    if (reservationFee == null) {
+      this.currencyOfRows[row] = NO_CURRENCY;
+      this.fees[row] = null;
+      this.decimalRows.clear(row);
+      return;
+    }
+    BigDecimal fee = reservationFee.getNumber().numberValue(BigDecimal.class);
+    int currency = this.currencyIds.get(reservationFee.getCurrency().getCurrencyCode());
+    this.currencyOfRows[row] = currency;
+    this.fees[row] = fee;
+    long amount = DECIMAL;
+    if (fee.scale() <= MAX_SCALE && fee.scale() >= -MAX_SCALE) {
+      try {
+        // the scale of the moved number is 0, so the unscaled value is read without creating a BigInteger
+        amount = fee.movePointRight(this.currencyScales[currency]).longValueExact();
+      } catch (ArithmeticException e) {
+        // summed as BigDecimal
+      }
+    }
+    this.amounts[row] = amount;
+    if (amount == DECIMAL) {
+      this.decimalRows.set(row);
+    } else {
+      this.decimalRows.clear(row);
+    }
+  }
+
+  /**
+   * Sums the fees by currency, day of the {@code bookingDate} in UTC and guest types, called with the read lock of the
+   * index.
+   *
+   * @param from the inclusive start of the {@code bookingDate} in epoch seconds or {@code null}.
+   * @param to the exclusive end of the {@code bookingDate} in epoch seconds or {@code null}.
+   * @return the totals ordered by currency, day and guest types, bookings without date last.
+   */
+  List<FeeTotalTo> aggregate(Long from, Long to) {
+
+    long fromSecond = from == null ? Long.MIN_VALUE : from;
+    long toSecond = to == null ? Long.MAX_VALUE : to;
+    if (this.decimalRows.isEmpty()) {
+      try {
+        Groups groups = ForkJoinPool.commonPool().invoke(new SumTask(0, this.rowCount.get(), fromSecond, toSecond));
+        return totals(groups);
+      } catch (ArithmeticException e) {
+        // a sum overflowed or a fee saved meanwhile is summed as BigDecimal, the fees are summed as BigDecimal below
+      }
+    }
+    return decimalTotals(fromSecond, toSecond);
+  }
+
+  private int currencyId(CurrencyUnit currency) {
+
+    Integer id = this.currencyIds.get(currency.getCurrencyCode());
+    if (id == null) {
+      id = this.currencies.size();
+      this.currencyIds.put(currency.getCurrencyCode(), id);
+      this.currencies.add(currency);
+      if (id == this.currencyScales.length) {
+        this.currencyScales = Arrays.copyOf(this.currencyScales, id * 2);
+      }
+      this.currencyScales[id] = Math.min(Math.max(currency.getDefaultFractionDigits(), 0), MAX_SCALE);
+    }
+    return id;
+  }
+
+  /**
+   * Increases the scale of a currency and the minor units of its rows, rows that no longer fit into a {@code long} are
+   * summed as {@code BigDecimal}.
+   */
+  private void rescale(int currency, int scale) {
+
+    long factor = POWERS_OF_TEN[scale - this.currencyScales[currency]];
+    for (int row = 0; row < this.rowCount.get(); row++) {
+      if (this.currencyOfRows[row] == currency && this.amounts[row] != DECIMAL) {
+        try {
+          this.amounts[row] = Math.multiplyExact(this.amounts[row], factor);
+        } catch (ArithmeticException e) {
+          this.amounts[row] = DECIMAL;
+          this.decimalRows.set(row);
+        }
+      }
+    }
+    this.currencyScales[currency] = scale;
+  }
+
+  private static byte guestTypes(List<InvitedGuestTo> guests) {
+
+    byte types = 0;
+    if (guests != null) {
+      for (InvitedGuestTo guest : guests) {
+        if (guest instanceof InvitedAdultTo) {
+          types |= ADULT;
+        } else if (guest instanceof InvitedChildTo) {
+          types |= CHILD;
+        }
+      }
+    }
+    return types;
+  }
+
+  /**
+   * @return the key of the group of a row, the currency, guest types and day packed into a {@code long}.
+   */
+  private static long key(int currency, int guestTypes, int day) {
+
+    return ((long) currency << 34) | ((long) guestTypes << 32) | (day & 0xFFFF_FFFFL);
+  }
+
+  private static int day(long epochSecond) {
+
+    return epochSecond == NO_DATE ? NO_DAY : (int) Math.floorDiv(epochSecond, 86_400L);
+  }
+
+  private List<FeeTotalTo> totals(Groups groups) {
+
+    List<FeeTotalTo> totals = new ArrayList<>(groups.size);
+    for (int slot = 0; slot < groups.keys.length; slot++) {
+      if (groups.counts[slot] > 0) {
+        long key = groups.keys[slot];
+        int currency = (int) (key >>> 34);
+        totals.add(total(key, BigDecimal.valueOf(groups.sums[slot], this.currencyScales[currency]),
+            groups.counts[slot]));
+      }
+    }
+    return sorted(totals);
+  }
+
+  /**
+   * Sums the fees as {@code BigDecimal} if a fee does not fit into a {@code long} or a sum overflows.
+   */
+  private List<FeeTotalTo> decimalTotals(long from, long to) {
+
+    Map<Long, BigDecimal> sums = new HashMap<>();
+    Map<Long, Long> counts = new HashMap<>();
+    for (int row = 0; row < this.rowCount.get(); row++) {
+      long bookingDate;
+      int currency;
+      byte types;
+      BigDecimal fee;
+      int version;
+      do {
+        version = this.versions.get(row);
+        bookingDate = this.bookingDates[row];
+        currency = this.currencyOfRows[row];
+        types = this.guestTypes[row];
+        fee = this.fees[row];
+        VarHandle.loadLoadFence();
+      } while ((version & 1) != 0 || version != this.versions.get(row));
+      if (currency != NO_CURRENCY && bookingDate >= from && bookingDate < to) {
+        long key = key(currency, types, day(bookingDate));
+        sums.merge(key, fee, BigDecimal::add);
+        counts.merge(key, 1L, Long::sum);
+      }
+    }
+    List<FeeTotalTo> totals = new ArrayList<>(sums.size());
+    sums.forEach((key, total) -> totals.add(total(key, total, counts.get(key))));
+    return sorted(totals);
+  }
+
+  private FeeTotalTo total(long key, BigDecimal total, long count) {
+
+    CurrencyUnit currency = this.currencies.get((int) (key >>> 34));
+    int types = (int) (key >>> 32) & (ADULT | CHILD);
+    int day = (int) key;
+    List<String> guestTypes = new ArrayList<>(2);
+    if ((types & ADULT) != 0) {
+      guestTypes.add(BookingSearchCriteriaTo.ADULT);
+    }
+    if ((types & CHILD) != 0) {
+      guestTypes.add(BookingSearchCriteriaTo.CHILD);
+    }
+    Money money = Money.of(total, currency);
+    return new FeeTotalTo(currency.getCurrencyCode(), day == NO_DAY ? null : LocalDate.ofEpochDay(day), guestTypes,
+        count, money, money.divide(count));
+  }
+
+  private static List<FeeTotalTo> sorted(List<FeeTotalTo> totals) {
+
+    totals.sort(Comparator.comparing(FeeTotalTo::getCurrency)
+        .thenComparing(FeeTotalTo::getDay, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(total -> total.getGuestTypes().size())
+        .thenComparing(total -> String.join(",", total.getGuestTypes())));
+    return totals;
+  }
+
+  /**
+   * Sums the fees of a range of rows, ranges of more than {@link #SEQUENTIAL_ROWS} rows are split in halves.
+   */
+  private final class SumTask extends RecursiveTask<Groups> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int start;
+
+    private final int end;
+
+    private final long from;
+
+    private final long to;
+
+    private SumTask(int start, int end, long from, long to) {
+
+      this.start = start;
+      this.end = end;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected Groups compute() {
+
+      if (this.end - this.start <= SEQUENTIAL_ROWS) {
+        return sum();
+      }
+      int middle = (this.start + this.end) >>> 1;
+      SumTask second = new SumTask(middle, this.end, this.from, this.to);
+      second.fork();
+      Groups groups = new SumTask(this.start, middle, this.from, this.to).compute();
+      groups.addAll(second.join());
+      return groups;
+    }
+
+    private Groups sum() {
+
+      Groups groups = new Groups();
+      long[] rowAmounts = FeeColumns.this.amounts;
+      int[] rowCurrencies = FeeColumns.this.currencyOfRows;
+      long[] rowDates = FeeColumns.this.bookingDates;
+      byte[] rowGuestTypes = FeeColumns.this.guestTypes;
+      AtomicIntegerArray rowVersions = FeeColumns.this.versions;
+      for (int row = this.start; row < this.end; row++) {
+        long bookingDate;
+        int currency;
+        byte types;
+        long amount;
+        int version;
+        do {
+          version = rowVersions.get(row);
+          bookingDate = rowDates[row];
+          currency = rowCurrencies[row];
+          types = rowGuestTypes[row];
+          amount = rowAmounts[row];
+          // the columns must be read before the version is checked again
+          VarHandle.loadLoadFence();
+        } while ((version & 1) != 0 || version != rowVersions.get(row));
+        if (currency != NO_CURRENCY && bookingDate >= this.from && bookingDate < this.to) {
+          if (amount == DECIMAL) {
+            throw new ArithmeticException("Fee of row " + row + " is summed as BigDecimal");
+          }
+          groups.add(key(currency, types, day(bookingDate)), amount, 1);
+        }
+      }
+      return groups;
+    }
+  }
+
+  /**
+   * Open addressing hash map from the key of a group to its sum in minor units and its count.
+   */
+  private static final class Groups {
+
+    private long[] keys = new long[16];
+
+    private long[] sums = new long[16];
+
+    private long[] counts = new long[16];
+
+    private int size;
+
+    /**
+     * @throws ArithmeticException if the sum overflows.
+     */
+    void add(long key, long sum, long count) {
+
+      int mask = this.keys.length - 1;
+      int slot = Long.hashCode(key * 0x9E37_79B9_7F4A_7C15L) & mask;
+      while (this.counts[slot] > 0 && this.keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      if (this.counts[slot] == 0) {
+        this.keys[slot] = key;
+        this.sums[slot] = sum;
+        this.counts[slot] = count;
+        if (++this.size * 2 > this.keys.length) {
+          grow();
+        }
+        return;
+      }
+      this.sums[slot] = Math.addExact(this.sums[slot], sum);
+      this.counts[slot] += count;
+    }
+
+    void addAll(Groups other) {
+
+      for (int slot = 0; slot < other.keys.length; slot++) {
+        if (other.counts[slot] > 0) {
+          add(other.keys[slot], other.sums[slot], other.counts[slot]);
+        }
+      }
+    }
+
+    private void grow() {
+
+      Groups grown = new Groups();
+      int capacity = this.keys.length * 2;
+      grown.keys = new long[capacity];
+      grown.sums = new long[capacity];
+      grown.counts = new long[capacity];
+      grown.addAll(this);
+      this.keys = grown.keys;
+      this.sums = grown.sums;
+      this.counts = grown.counts;
+    }
+  }
+
+}
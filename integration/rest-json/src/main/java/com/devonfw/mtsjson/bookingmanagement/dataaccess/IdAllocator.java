@@ -0,0 +1,97 @@
+package com.devonfw.mtsjson.bookingmanagement.dataaccess;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hands out unique ids without contention between threads.
+ *
+ * The ids are allocated from a few shared stripes, every stripe reserves a range of {@link #RANGE_SIZE} ids with a
+ * single atomic operation and then allocates ids from this range. A thread starts at the stripe it got last time and
+ * takes the first stripe from there that is not in use, a new thread starts at the first stripe. So without contention
+ * all ids come from the first stripe and are ascending, while concurrent threads move to other stripes and then stay
+ * there instead of all trying the first stripe again. The stripes do not belong to threads, so a new thread per
+ * request (e.g. a virtual thread) does not reserve a new range. Ids are unique but not globally ascending.
+ */
+public class IdAllocator {
+
+  /** Number of ids a stripe reserves at once. */
+  public static final int RANGE_SIZE = 1024;
+
+  private final AtomicLong nextRangeStart = new AtomicLong(1);
+
+  private final Stripe[] stripes;
+
+  /** Index of the stripe the current thread got last time, unset for a new thread. */
+  private final ThreadLocal<Integer> lastStripe = new ThreadLocal<>();
+
+  /**
+   * The constructor.
+   */
+  public IdAllocator() {
+
+    this.stripes = new Stripe[Math.max(2, Runtime.getRuntime().availableProcessors())];
+    for (int i = 0; i < this.stripes.length; i++) {
+      this.stripes[i] = new Stripe();
+    }
+  }
+
+  /**
+   * @return a new id that was not returned before.
+   */
+  public long next() {
+
+    Integer last = this.lastStripe.get();
+    int start = last == null ? 0 : last.intValue();
+    for (int i = start; i < start + this.stripes.length; i++) {
+      int index = i % this.stripes.length;
+      Stripe stripe = this.stripes[index];
+      if (stripe.tryLock()) {
+        if (index != start) {
+          this.lastStripe.set(index);
+        }
+        return next(stripe);
+      }
+    }
+    // all stripes are in use, wait for the one of this thread
+    Stripe stripe = this.stripes[start];
+    stripe.lock();
+    return next(stripe);
+  }
+
+  private long next(Stripe stripe) {
+
+    try {
+      if (stripe.next == stripe.end) {
+        stripe.next = this.nextRangeStart.getAndAdd(RANGE_SIZE);
+        stripe.end = stripe.next + RANGE_SIZE;
+      }
+      return stripe.next++;
+    } finally {
+      stripe.unlock();
+    }
+  }
+
+  /**
+   * Makes sure that ranges reserved from now on only contain ids greater than the given one. Used for ids that were
+   * assigned elsewhere, e.g. by an import.
+   *
+   * @param id an id that is in use.
+   */
+  public void reserve(long id) {
+
+    this.nextRangeStart.accumulateAndGet(id + 1, Math::max);
+  }
+
+  /**
+   * The range of ids of a stripe, guarded by the lock of the stripe. A {@link ReentrantLock} instead of
+   * {@code synchronized} does not pin virtual threads to their carrier.
+   */
+  @SuppressWarnings("serial")
+  private static final class Stripe extends ReentrantLock {
+
+    private long next;
+
+    private long end;
+  }
+}
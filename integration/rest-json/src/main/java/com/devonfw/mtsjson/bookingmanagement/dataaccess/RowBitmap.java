@@ -0,0 +1,101 @@
+package com.devonfw.mtsjson.bookingmanagement.dataaccess;
+
+import java.util.BitSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitmap of the rows of the {@link BookingIndex} that is set by concurrent saves.
+ *
+ * Every bit is set and cleared with a compare-and-set of its word, so saves of different rows never lose each other's
+ * bits. The words are only replaced by {@link #grow(int)}, which is called with the write lock of the index.
+ */
+final class RowBitmap {
+
+  private AtomicLongArray words;
+
+  /**
+   * @param capacity the number of rows.
+   */
+  RowBitmap(int capacity) {
+
+    this.words = new AtomicLongArray(wordCount(capacity));
+  }
+
+  /**
+   * @param capacity the new number of rows, larger than the current one.
+   */
+  void grow(int capacity) {
+
+    AtomicLongArray grown = new AtomicLongArray(wordCount(capacity));
+    for (int i = 0; i < this.words.length(); i++) {
+      grown.set(i, this.words.get(i));
+    }
+    this.words = grown;
+  }
+
+  /**
+   * @param row the row.
+   * @return {@code true} if the bit of the row is set.
+   */
+  boolean get(int row) {
+
+    return (this.words.get(row >>> 6) & (1L << row)) != 0;
+  }
+
+  /**
+   * @param row the row to set.
+   */
+  void set(int row) {
+
+    int index = row >>> 6;
+    long mask = 1L << row;
+    long word = this.words.get(index);
+    while ((word & mask) == 0 && !this.words.weakCompareAndSetVolatile(index, word, word | mask)) {
+      word = this.words.get(index);
+    }
+  }
+
+  /**
+   * @param row the row to clear.
+   */
+  void clear(int row) {
+
+    int index = row >>> 6;
+    long mask = 1L << row;
+    long word = this.words.get(index);
+    while ((word & mask) != 0 && !this.words.weakCompareAndSetVolatile(index, word, word & ~mask)) {
+      word = this.words.get(index);
+    }
+  }
+
+  /**
+   * @return {@code true} if no bit is set.
+   */
+  boolean isEmpty() {
+
+    for (int i = 0; i < this.words.length(); i++) {
+      if (this.words.get(i) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return a copy of the bits, bits set or cleared meanwhile might be missing.
+   */
+  BitSet toBitSet() {
+
+    long[] copy = new long[this.words.length()];
+    for (int i = 0; i < copy.length; i++) {
+      copy[i] = this.words.get(i);
+    }
+    return BitSet.valueOf(copy);
+  }
+
+  private static int wordCount(int capacity) {
+
+    return (capacity + 63) >>> 6;
+  }
+
+}
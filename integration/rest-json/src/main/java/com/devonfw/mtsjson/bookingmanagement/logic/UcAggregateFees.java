@@ -0,0 +1,40 @@
+package com.devonfw.mtsjson.bookingmanagement.logic;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.devonfw.mtsjson.bookingmanagement.common.exception.InvalidSearchCriteriaException;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.service.model.FeeTotalTo;
+
+@Component
+public class UcAggregateFees {
+
+  private final BookingRepository bookingRepository;
+
+  public UcAggregateFees(BookingRepository bookingRepository) {
+
+    this.bookingRepository = bookingRepository;
+  }
+
+  /**
+   * Sums the reservation fees of the bookings in minor units, without creating a {@code MonetaryAmount} per booking.
+   * Bookings without fee are not counted.
+   *
+   * @param bookingDateFrom the inclusive start of the {@code bookingDate} or {@code null}.
+   * @param bookingDateTo the exclusive end of the {@code bookingDate} or {@code null}.
+   * @return the totals and averages of the fees by currency, day of the {@code bookingDate} in UTC and invited guest
+   *         types, ordered by currency, day and guest types.
+   * @throws InvalidSearchCriteriaException if the start is after the end.
+   */
+  public List<FeeTotalTo> aggregateFees(ZonedDateTime bookingDateFrom, ZonedDateTime bookingDateTo) {
+
+    if (bookingDateFrom != null && bookingDateTo != null && bookingDateFrom.isAfter(bookingDateTo)) {
+      throw new InvalidSearchCriteriaException("bookingDateFrom must not be after bookingDateTo");
+    }
+    return this.bookingRepository.aggregateFees(bookingDateFrom, bookingDateTo);
+  }
+
+}
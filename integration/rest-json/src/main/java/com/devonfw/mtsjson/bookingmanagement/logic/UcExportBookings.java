@@ -0,0 +1,73 @@
+package com.devonfw.mtsjson.bookingmanagement.logic;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.springframework.stereotype.Component;
+
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingSnapshot;
+
+@Component
+public class UcExportBookings {
+
+  /** The header line of the export. */
+  public static final String HEADER = "id,bookedAt,bookingDate,reservationFee,currency,adults,children";
+
+  private final BookingRepository bookingRepository;
+
+  public UcExportBookings(BookingRepository bookingRepository) {
+
+    this.bookingRepository = bookingRepository;
+  }
+
+  /**
+   * @return the snapshot of all bookings saved before this call, to be exported with
+   *         {@link #exportBookings(BookingSnapshot, Writer)}.
+   */
+  public BookingSnapshot snapshot() {
+
+    return this.bookingRepository.snapshot();
+  }
+
+  /**
+   * Writes the bookings of the snapshot as CSV, one line per booking in the order they were created. The dates are
+   * ISO-8601 instants, missing values are empty.
+   *
+   * @param snapshot the snapshot to export.
+   * @param writer the writer of the CSV.
+   * @throws IOException if writing fails.
+   */
+  public void exportBookings(BookingSnapshot snapshot, Writer writer) throws IOException {
+
+    writer.write(HEADER);
+    writer.write('\n');
+    StringBuilder line = new StringBuilder(128);
+    for (int row = 0; row < snapshot.size(); row++) {
+      line.setLength(0);
+      line.append(snapshot.id(row)).append(',');
+      appendDate(line, snapshot.bookedAt(row)).append(',');
+      appendDate(line, snapshot.bookingDate(row)).append(',');
+      BigDecimal fee = snapshot.fee(row);
+      if (fee != null) {
+        line.append(fee.toPlainString()).append(',').append(snapshot.currency(row));
+      } else {
+        line.append(',');
+      }
+      line.append(',').append(snapshot.adults(row)).append(',').append(snapshot.children(row)).append('\n');
+      writer.append(line);
+    }
+    writer.flush();
+  }
+
+  private static StringBuilder appendDate(StringBuilder line, long epochSecond) {
+
+    if (epochSecond != BookingSnapshot.NO_DATE) {
+      line.append(Instant.ofEpochSecond(epochSecond));
+    }
+    return line;
+  }
+
+}
@@ -0,0 +1,50 @@
+package com.devonfw.mtsjson.bookingmanagement.logic;
+
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.devonfw.mtsjson.bookingmanagement.common.exception.InvalidSearchCriteriaException;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingSearchCriteriaTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+
+@Component
+public class UcFindBooking {
+
+  /** The number of bookings returned if the criteria have no limit. */
+  public static final int DEFAULT_LIMIT = 1000;
+
+  private final BookingRepository bookingRepository;
+
+  public UcFindBooking(BookingRepository bookingRepository) {
+
+    this.bookingRepository = bookingRepository;
+  }
+
+  /**
+   * Searches bookings with the indexes of the repository, so only the matching bookings are read.
+   *
+   * @param criteria the criteria of the search, all given criteria must match.
+   * @return the matching bookings ordered by {@code bookingDate} and id, at most {@link #DEFAULT_LIMIT} if the criteria
+   *         have no limit.
+   * @throws InvalidSearchCriteriaException if a fee is given without currency or a value is unknown.
+   */
+  public List<BookingTo> findBookings(BookingSearchCriteriaTo criteria) {
+
+    if ((criteria.getMinFee() != null || criteria.getMaxFee() != null) && criteria.getCurrency() == null) {
+      throw new InvalidSearchCriteriaException("minFee and maxFee require a currency");
+    }
+    if (criteria.getGuestType() != null && !BookingSearchCriteriaTo.ADULT.equals(criteria.getGuestType())
+        && !BookingSearchCriteriaTo.CHILD.equals(criteria.getGuestType())) {
+      throw new InvalidSearchCriteriaException("Unknown guestType " + criteria.getGuestType());
+    }
+    int limit = criteria.getLimit() == null ? DEFAULT_LIMIT : criteria.getLimit();
+    if (limit < 1) {
+      throw new InvalidSearchCriteriaException("limit must be positive");
+    }
+    List<BookingTo> bookings = this.bookingRepository.findByCriteria(criteria);
+    return bookings.size() > limit ? bookings.subList(0, limit) : bookings;
+  }
+
+}
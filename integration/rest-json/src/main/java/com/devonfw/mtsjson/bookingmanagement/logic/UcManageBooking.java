@@ -1,24 +1,82 @@
 package com.devonfw.mtsjson.bookingmanagement.logic;
 
+import java.util.ArrayList;
 import java.util.List;
 
+import javax.money.MonetaryAmount;
+
 import org.springframework.stereotype.Component;
-import org.springframework.web.bind.annotation.PathVariable;
 
-import com.devonfw.mtsjson.bookingmanagement.common.exception.NotImplementedException;
+import com.devonfw.mtsjson.bookingmanagement.common.exception.BookingNotFoundException;
+import com.devonfw.mtsjson.bookingmanagement.common.exception.InvalidBookingException;
+import com.devonfw.mtsjson.bookingmanagement.common.exception.OptimisticLockingException;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
 import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
 
 @Component
 public class UcManageBooking {
 
+  private final BookingRepository bookingRepository;
+
+  public UcManageBooking(BookingRepository bookingRepository) {
+
+    this.bookingRepository = bookingRepository;
+  }
+
+  /**
+   * Creates new bookings or updates existing ones. Every booking is stored on its own, if one of them fails the
+   * bookings before it stay stored.
+   *
+   * @param bookingDetails the bookings to store, bookings without id are created.
+   * @return the stored bookings with their ids and modificationCounters.
+   * @throws OptimisticLockingException if a booking was modified concurrently.
+   */
   public List<BookingTo> createBooking(List<BookingTo> bookingDetails) {
 
-    throw new NotImplementedException("Logic Not implemented");
+    List<BookingTo> result = new ArrayList<>(bookingDetails.size());
+    for (BookingTo booking : bookingDetails) {
+      result.add(this.bookingRepository.save(booking));
+    }
+    return result;
+  }
+
+  /**
+   * Checks a booking before it is stored: the booking and its invited guests must not be {@code null} and the
+   * reservation fee must not be negative.
+   *
+   * @param booking the booking to check.
+   * @throws InvalidBookingException if the booking is invalid.
+   */
+  public void validateBooking(BookingTo booking) {
 
+    if (booking == null) {
+      throw new InvalidBookingException("Booking must not be null");
+    }
+    if (booking.getInvitedGuests() != null) {
+      for (InvitedGuestTo guest : booking.getInvitedGuests()) {
+        if (guest == null) {
+          throw new InvalidBookingException("Invited guest must not be null");
+        }
+      }
+    }
+    MonetaryAmount reservationFee = booking.getReservationFee();
+    if (reservationFee != null && reservationFee.isNegative()) {
+      throw new InvalidBookingException("Reservation fee " + reservationFee + " must not be negative");
+    }
   }
 
-  public BookingTo getBooking(@PathVariable Long id) {
+  /**
+   * @param id the id of the booking.
+   * @return the booking.
+   * @throws BookingNotFoundException if there is no booking with this id.
+   */
+  public BookingTo getBooking(Long id) {
 
-    throw new NotImplementedException("Logic Not implemented");
+    BookingTo booking = this.bookingRepository.findById(id);
+    if (booking == null) {
+      throw new BookingNotFoundException(id);
+    }
+    return booking;
   }
 }
@@ -0,0 +1,247 @@
+package com.devonfw.mtsjson.bookingmanagement.service.batch;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.devonfw.mtsjson.bookingmanagement.logic.UcManageBooking;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Imports bookings from a file with one JSON booking per line (NDJSON), e.g. for a backfill.
+ *
+ * The file is split into chunks that end at a line break, every chunk is memory-mapped and parsed by one of the parser
+ * threads with the JSON mapper of the application. The parsed bookings are stored in batches by
+ * {@link UcManageBooking#createBooking(List)} on the calling thread. The queue between them holds at most two batches
+ * per parser, so the parsers wait while the batches are stored and the heap only holds the batches in flight, not the
+ * file.
+ */
+@Component
+public class BookingImport {
+
+  private static final Logger LOG = LoggerFactory.getLogger(BookingImport.class);
+
+  /** Marks the end of the batches of one chunk. */
+  private static final List<BookingTo> END = List.of();
+
+  private final ObjectReader reader;
+
+  private final UcManageBooking ucManageBooking;
+
+  public BookingImport(ObjectMapper objectMapper, UcManageBooking ucManageBooking) {
+
+    this.reader = objectMapper.readerFor(BookingTo.class);
+    this.ucManageBooking = ucManageBooking;
+  }
+
+  /**
+   * Imports the bookings of the file. The bookings are stored in any order, bookings without id are created. If a line
+   * cannot be read or a booking cannot be stored the import stops, the bookings stored before stay stored.
+   *
+   * @param file the file with one booking per line.
+   * @param threads the number of parser threads.
+   * @param batchSize the number of bookings stored at once.
+   * @param chunkSize the size of the chunks in bytes, a chunk is extended to the next line break.
+   * @return the number of imported bookings, the duration and the peak heap.
+   * @throws UncheckedIOException if the file cannot be read or has an invalid booking.
+   */
+  public Result importBookings(Path file, int threads, int batchSize, int chunkSize) {
+
+    List<MemoryPoolMXBean> heap = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP).collect(Collectors.toList());
+    heap.forEach(MemoryPoolMXBean::resetPeakUsage);
+    long start = System.nanoTime();
+    long imported = 0;
+    long size;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      size = channel.size();
+      List<long[]> chunks = split(channel, size, chunkSize);
+      BlockingQueue<List<BookingTo>> batches = new ArrayBlockingQueue<>(2 * threads);
+      AtomicReference<Throwable> failure = new AtomicReference<>();
+      ExecutorService parsers = Executors.newFixedThreadPool(threads, parserThreads());
+      try {
+        for (long[] chunk : chunks) {
+          parsers.execute(() -> parse(channel, chunk[0], chunk[1], batchSize, batches, failure));
+        }
+        int ended = 0;
+        while (ended < chunks.size() && failure.get() == null) {
+          List<BookingTo> batch = batches.take();
+          if (batch == END) {
+            ended++;
+          } else {
+            this.ucManageBooking.createBooking(batch);
+            imported += batch.size();
+          }
+        }
+      } finally {
+        // also stops the parsers waiting for a full queue if storing a batch failed
+        parsers.shutdownNow();
+        parsers.awaitTermination(1, TimeUnit.MINUTES);
+      }
+      if (failure.get() instanceof IOException) {
+        throw (IOException) failure.get();
+      } else if (failure.get() instanceof Error) {
+        throw (Error) failure.get();
+      } else if (failure.get() != null) {
+        throw (RuntimeException) failure.get();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Bookings could not be imported from " + file + " after " + imported
+          + " bookings", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Import of " + file + " was interrupted after " + imported + " bookings", e);
+    }
+    long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+    long peakHeap = heap.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+    Result result = new Result(imported, size, millis, peakHeap);
+    LOG.info("Imported {} bookings ({} MB) from {} in {} ms, {} bookings/s, {} MB/s, peak heap {} MB", imported,
+        size >> 20, file, millis, imported * 1000 / millis, (size >> 20) * 1000 / millis, peakHeap >> 20);
+    return result;
+  }
+
+  /**
+   * Parses the bookings of one chunk and puts them into the queue in batches, followed by {@link #END}.
+   */
+  private void parse(FileChannel channel, long from, long to, int batchSize, BlockingQueue<List<BookingTo>> batches,
+      AtomicReference<Throwable> failure) {
+
+    try {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+      try (MappingIterator<BookingTo> bookings = this.reader.readValues(new ByteBufferBackedInputStream(buffer))) {
+        List<BookingTo> batch = new ArrayList<>(batchSize);
+        while (bookings.hasNextValue()) {
+          batch.add(bookings.nextValue());
+          if (batch.size() == batchSize) {
+            batches.put(batch);
+            batch = new ArrayList<>(batchSize);
+          }
+        }
+        if (!batch.isEmpty()) {
+          batches.put(batch);
+        }
+      }
+    } catch (JsonProcessingException e) {
+      failure.compareAndSet(null, new IOException("Invalid booking" + location(from, e) + ": " + e.getOriginalMessage(),
+          e));
+    } catch (IOException | RuntimeException | Error e) {
+      failure.compareAndSet(null, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      // always ends the chunk, otherwise the import would wait for it forever, unless the import stopped the parsers
+      if (!Thread.currentThread().isInterrupted()) {
+        try {
+          batches.put(END);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the byte of the invalid booking in the file or nothing if the parser does not know it.
+   */
+  private static String location(long from, JsonProcessingException e) {
+
+    if (e.getLocation() == null || e.getLocation().getByteOffset() < 0) {
+      return "";
+    }
+    return " at byte " + (from + e.getLocation().getByteOffset());
+  }
+
+  /**
+   * @return the ranges of the chunks, every chunk but the last ends behind a line break.
+   */
+  private static List<long[]> split(FileChannel channel, long size, int chunkSize) throws IOException {
+
+    List<long[]> chunks = new ArrayList<>();
+    ByteBuffer probe = ByteBuffer.allocate(8192);
+    long from = 0;
+    while (from < size) {
+      long to = Math.min(from + chunkSize, size);
+      boolean lineEnd = false;
+      while (to < size && !lineEnd) {
+        probe.clear();
+        int read = channel.read(probe, to);
+        for (int i = 0; i < read && !lineEnd; i++) {
+          lineEnd = probe.get(i) == '\n';
+          to++;
+        }
+      }
+      chunks.add(new long[] { from, to });
+      from = to;
+    }
+    return chunks;
+  }
+
+  private static ThreadFactory parserThreads() {
+
+    AtomicInteger number = new AtomicInteger();
+    return runnable -> {
+      Thread thread = new Thread(runnable, "booking-import-" + number.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
+  /**
+   * The outcome of an import.
+   */
+  @Getter
+  @AllArgsConstructor
+  public static final class Result {
+
+    /** The number of imported bookings. */
+    private final long bookings;
+
+    /** The size of the file. */
+    private final long bytes;
+
+    /** The duration of the import. */
+    private final long millis;
+
+    /** The sum of the peak usage of the heap memory pools during the import. */
+    private final long peakHeapBytes;
+
+    /**
+     * @return the imported bookings per second.
+     */
+    public long getBookingsPerSecond() {
+
+      return this.bookings * 1000 / this.millis;
+    }
+  }
+
+}
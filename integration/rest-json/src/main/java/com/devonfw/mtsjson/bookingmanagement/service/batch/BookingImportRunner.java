@@ -0,0 +1,79 @@
+package com.devonfw.mtsjson.bookingmanagement.service.batch;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Imports the bookings of {@code mts.import.file} with the {@link BookingImport} after the application is started,
+ * e.g. {@code java -jar mts-json.jar --mts.import.file=bookings.ndjson --mts.import.exit=true}. If the import fails the
+ * application does not start. With {@code mts.import.exit} the main method exits after the start with the exit code of
+ * this runner.
+ */
+@Component
+@ConditionalOnProperty(name = "mts.import.file")
+public class BookingImportRunner implements ApplicationRunner, ExitCodeGenerator {
+
+  private final BookingImport bookingImport;
+
+  private final Path file;
+
+  private final int threads;
+
+  private final int batchSize;
+
+  private final DataSize chunkSize;
+
+  private final boolean exit;
+
+  private volatile boolean imported;
+
+  /**
+   * @param bookingImport the import.
+   * @param file the file with one JSON booking per line.
+   * @param threads the number of parser threads, by default one per processor.
+   * @param batchSize the number of bookings stored at once.
+   * @param chunkSize the size of the chunks of the file parsed by one thread.
+   * @param exit whether the application exits after the import instead of serving the bookings.
+   */
+  public BookingImportRunner(BookingImport bookingImport, @Value("${mts.import.file}") Path file,
+      @Value("${mts.import.threads:0}") int threads, @Value("${mts.import.batch-size:1000}") int batchSize,
+      @Value("${mts.import.chunk-size:8MB}") DataSize chunkSize, @Value("${mts.import.exit:false}") boolean exit) {
+
+    this.bookingImport = bookingImport;
+    this.file = file;
+    this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    this.batchSize = batchSize;
+    this.chunkSize = chunkSize;
+    this.exit = exit;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+
+    this.bookingImport.importBookings(this.file, this.threads, this.batchSize,
+        Math.toIntExact(this.chunkSize.toBytes()));
+    this.imported = true;
+  }
+
+  /**
+   * @return {@code true} if the application exits after the import instead of serving the bookings.
+   */
+  public boolean isExit() {
+
+    return this.exit;
+  }
+
+  @Override
+  public int getExitCode() {
+
+    return this.imported ? 0 : 1;
+  }
+
+}
@@ -0,0 +1,39 @@
+package com.devonfw.mtsjson.bookingmanagement.service.json;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Message converters for the binary formats {@code application/cbor} and {@code application/x-jackson-smile}.
+ *
+ * The mappers are configured by the {@link Jackson2ObjectMapperBuilder} of Spring Boot, so they use the same modules
+ * (e.g. the {@link BookingJsonModule}) and settings as the JSON mapper. Spring Boot puts them at the place of the
+ * default converters of the same type, which is after the JSON converter, so JSON stays the default if the client
+ * accepts any media type.
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+
+    CBORMapper mapper = new CBORMapper();
+    builder.configure(mapper);
+    return new MappingJackson2CborHttpMessageConverter(mapper);
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+
+    SmileMapper mapper = new SmileMapper();
+    builder.configure(mapper);
+    return new MappingJackson2SmileHttpMessageConverter(mapper);
+  }
+
+}
@@ -0,0 +1,19 @@
+package com.devonfw.mtsjson.bookingmanagement.service.json;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the {@link BookingJsonModule} on the {@code ObjectMapper} of Spring Boot. Modules declared as bean are
+ * registered after the default modules, so its serializers replace the ones of the {@code JavaTimeModule}.
+ */
+@Configuration
+public class BookingJsonConfig {
+
+  @Bean
+  public BookingJsonModule bookingJsonModule() {
+
+    return new BookingJsonModule();
+  }
+
+}
@@ -0,0 +1,26 @@
+package com.devonfw.mtsjson.bookingmanagement.service.json;
+
+import java.time.ZonedDateTime;
+
+import javax.money.MonetaryAmount;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Jackson module with the serializers for the date and money fields of the booking management. Dates are written as
+ * UTC timestamps with second precision and amounts as object of amount and currency.
+ */
+public class BookingJsonModule extends SimpleModule {
+
+  private static final long serialVersionUID = 1L;
+
+  public BookingJsonModule() {
+
+    super(BookingJsonModule.class.getSimpleName());
+    addSerializer(ZonedDateTime.class, new UtcDateTimeSerializer());
+    addDeserializer(ZonedDateTime.class, new UtcDateTimeDeserializer());
+    addSerializer(MonetaryAmount.class, new MonetaryAmountSerializer());
+    addDeserializer(MonetaryAmount.class, new MonetaryAmountDeserializer());
+  }
+
+}
@@ -0,0 +1,100 @@
+package com.devonfw.mtsjson.bookingmanagement.service.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import javax.money.CurrencyUnit;
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Reads a {@link MonetaryAmount} written by {@link MonetaryAmountSerializer} as {@link Money}.
+ *
+ * The currency is looked up by comparing the characters of the parser with the currencies read before, so no
+ * {@code String} is created and no currency provider is queried for known currencies.
+ */
+public class MonetaryAmountDeserializer extends StdDeserializer<MonetaryAmount> {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Currencies read so far, replaced as a whole when a new currency is added. A currency that is lost by concurrent
+   * additions is simply added again.
+   */
+  private volatile CurrencyUnit[] currencies = new CurrencyUnit[0];
+
+  public MonetaryAmountDeserializer() {
+
+    super(MonetaryAmount.class);
+  }
+
+  @Override
+  public MonetaryAmount deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.START_OBJECT) {
+      token = p.nextToken();
+    }
+    BigDecimal amount = null;
+    CurrencyUnit currency = null;
+    for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+      String field = p.currentName();
+      p.nextToken();
+      if (MonetaryAmountSerializer.AMOUNT.getValue().equals(field)) {
+        amount = p.currentToken() == JsonToken.VALUE_STRING ? new BigDecimal(p.getText().trim()) : p.getDecimalValue();
+      } else if (MonetaryAmountSerializer.CURRENCY.getValue().equals(field)) {
+        currency = currency(p);
+      } else {
+        // fails or skips the value depending on DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES
+        ctxt.handleUnknownProperty(p, this, MonetaryAmount.class, field);
+      }
+    }
+    if (amount == null) {
+      return (MonetaryAmount) ctxt.reportInputMismatch(this, "Missing property: 'amount'");
+    }
+    if (currency == null) {
+      return (MonetaryAmount) ctxt.reportInputMismatch(this, "Missing property: 'currency'");
+    }
+    return Money.of(amount, currency);
+  }
+
+  private CurrencyUnit currency(JsonParser p) throws IOException {
+
+    char[] text = p.getTextCharacters();
+    int offset = p.getTextOffset();
+    int length = p.getTextLength();
+    CurrencyUnit[] known = this.currencies;
+    for (CurrencyUnit currency : known) {
+      if (matches(currency.getCurrencyCode(), text, offset, length)) {
+        return currency;
+      }
+    }
+    CurrencyUnit currency = Monetary.getCurrency(p.getText());
+    CurrencyUnit[] extended = Arrays.copyOf(known, known.length + 1);
+    extended[known.length] = currency;
+    this.currencies = extended;
+    return currency;
+  }
+
+  private static boolean matches(String code, char[] text, int offset, int length) {
+
+    if (code.length() != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (code.charAt(i) != text[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+}
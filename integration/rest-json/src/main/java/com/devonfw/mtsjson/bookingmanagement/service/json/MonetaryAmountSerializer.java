@@ -0,0 +1,121 @@
+package com.devonfw.mtsjson.bookingmanagement.service.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+
+import javax.money.MonetaryAmount;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a {@link MonetaryAmount} as object with the fields {@code amount} and {@code currency}, e.g.
+ * {@code {"amount":200.00,"currency":"USD"}}. The amount has at least the default fraction digits of its currency.
+ *
+ * The output is the same as with the {@code MoneyModule} of jackson-datatype-money, but the field names are pre-encoded
+ * and amounts whose unscaled value fits into a {@code long} are written as digits without scaling and formatting a
+ * {@code BigDecimal}. The digits are formatted into a char array that is created once per serialization call and kept
+ * as attribute of the {@link SerializerProvider}, amounts without fraction digits are written as {@code long}.
+ */
+public class MonetaryAmountSerializer extends StdSerializer<MonetaryAmount> {
+
+  private static final long serialVersionUID = 1L;
+
+  static final SerializableString AMOUNT = new SerializedString("amount");
+
+  static final SerializableString CURRENCY = new SerializedString("currency");
+
+  private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+  100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L, 1_000_000_000_000L, 10_000_000_000_000L,
+  100_000_000_000_000L, 1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L };
+
+  /** Sign, 19 digits of a long, the decimal point and a leading zero. */
+  private static final int LENGTH = 22;
+
+  /** Key of the per-call attribute holding the char array for the digits. */
+  private static final Object BUFFER = new Object();
+
+  public MonetaryAmountSerializer() {
+
+    super(MonetaryAmount.class);
+  }
+
+  @Override
+  public void serialize(MonetaryAmount value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+
+    gen.writeStartObject(value);
+    gen.writeFieldName(AMOUNT);
+    writeAmount(value, gen, provider);
+    gen.writeFieldName(CURRENCY);
+    gen.writeString(value.getCurrency().getCurrencyCode());
+    gen.writeEndObject();
+  }
+
+  private static void writeAmount(MonetaryAmount value, JsonGenerator gen, SerializerProvider provider)
+      throws IOException {
+
+    BigDecimal number = value.getNumber().numberValueExact(BigDecimal.class);
+    int scale = Math.max(number.scale(), value.getCurrency().getDefaultFractionDigits());
+    // BigDecimal.toString switches to exponent notation below 10^-6, keep the generic path for those amounts
+    int adjustedExponent = number.signum() == 0 ? -scale : number.precision() - number.scale() - 1;
+    // binary formats like CBOR would write the digits as string, they get the BigDecimal
+    if (gen.canWriteFormattedNumbers() && number.scale() >= 0 && scale < POWERS_OF_TEN.length
+        && number.precision() <= 18 && adjustedExponent >= -6) {
+      // the scale of the moved number is 0, so the unscaled value is read without creating a BigInteger
+      long unscaled = number.scale() == 0 ? number.longValue() : number.movePointRight(number.scale()).longValueExact();
+      long factor = POWERS_OF_TEN[scale - number.scale()];
+      long scaled = unscaled * factor;
+      if (unscaled == 0 || (scaled / factor == unscaled && scaled != Long.MIN_VALUE)) {
+        if (scale == 0) {
+          gen.writeNumber(scaled);
+        } else {
+          char[] buffer = buffer(provider);
+          int length = format(scaled, scale, buffer);
+          gen.writeNumber(buffer, buffer.length - length, length);
+        }
+        return;
+      }
+    }
+    // the unscaled value overflows a long
+    gen.writeNumber(number.setScale(scale));
+  }
+
+  private static char[] buffer(SerializerProvider provider) {
+
+    char[] buffer = (char[]) provider.getAttribute(BUFFER);
+    if (buffer == null) {
+      buffer = new char[LENGTH];
+      provider.setAttribute(BUFFER, buffer);
+    }
+    return buffer;
+  }
+
+  /**
+   * Writes the digits of {@code unscaled / 10^scale} right aligned into the buffer.
+   *
+   * @return the number of written characters.
+   */
+  private static int format(long unscaled, int scale, char[] buffer) {
+
+    boolean negative = unscaled < 0;
+    long rest = Math.abs(unscaled);
+    int position = buffer.length;
+    int digits = 0;
+    do {
+      if (digits == scale && scale > 0) {
+        buffer[--position] = '.';
+      }
+      buffer[--position] = (char) ('0' + rest % 10);
+      rest /= 10;
+      digits++;
+    } while (rest > 0 || digits <= scale);
+    if (negative) {
+      buffer[--position] = '-';
+    }
+    return buffer.length - position;
+  }
+
+}
@@ -0,0 +1,147 @@
+package com.devonfw.mtsjson.bookingmanagement.service.json;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+
+/**
+ * Reads a {@link ZonedDateTime} written with the pattern {@value UtcDateTimeSerializer#PATTERN} and converts it to UTC.
+ *
+ * Timestamps in exactly this format are parsed directly from the characters of the parser without creating a
+ * {@code String}, everything else is parsed with the formatter. Like a lenient {@code @JsonFormat} numbers are accepted
+ * as epoch seconds and an empty string as {@code null}.
+ */
+public class UtcDateTimeDeserializer extends StdScalarDeserializer<ZonedDateTime> {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The zone of the read dates, the same as a {@code @JsonFormat} with time zone UTC. */
+  private static final ZoneId UTC = ZoneId.of("UTC");
+
+  private static final int[] DAYS_PER_MONTH = { 31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+  public UtcDateTimeDeserializer() {
+
+    super(ZonedDateTime.class);
+  }
+
+  @Override
+  public ZonedDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+
+    JsonToken token = p.currentToken();
+    if (token == JsonToken.VALUE_NUMBER_INT) {
+      return ofEpochSecond(p.getLongValue(), 0);
+    }
+    if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+      BigDecimal value = p.getDecimalValue();
+      long seconds = value.longValue();
+      return ofEpochSecond(seconds, value.subtract(BigDecimal.valueOf(seconds)).movePointRight(9).intValue());
+    }
+    if (token != JsonToken.VALUE_STRING) {
+      return (ZonedDateTime) ctxt.handleUnexpectedToken(ZonedDateTime.class, p);
+    }
+    char[] text = p.getTextCharacters();
+    int offset = p.getTextOffset();
+    int length = p.getTextLength();
+    long epochSecond = parseEpochSecond(text, offset, length);
+    if (epochSecond != Long.MIN_VALUE) {
+      return ofEpochSecond(epochSecond, 0);
+    }
+    String value = p.getText().trim();
+    if (value.isEmpty()) {
+      return null;
+    }
+    try {
+      return ZonedDateTime.parse(value, UtcDateTimeSerializer.FORMATTER).withZoneSameInstant(UTC);
+    } catch (DateTimeException e) {
+      return (ZonedDateTime) ctxt.handleWeirdStringValue(ZonedDateTime.class, value, e.getMessage());
+    }
+  }
+
+  private static ZonedDateTime ofEpochSecond(long epochSecond, int nanos) {
+
+    return ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSecond, nanos), UTC);
+  }
+
+  /**
+   * @return the epoch second of a timestamp like {@code 2022-09-09T12:51:40+05:30} or {@code 2022-09-09T07:21:40Z} or
+   *         {@link Long#MIN_VALUE} if the text has a different format or is not a valid date.
+   */
+  private static long parseEpochSecond(char[] text, int offset, int length) {
+
+    if ((length != 20 && length != 25) || text[offset + 4] != '-' || text[offset + 7] != '-'
+        || text[offset + 10] != 'T' || text[offset + 13] != ':' || text[offset + 16] != ':') {
+      return Long.MIN_VALUE;
+    }
+    int year = digits(text, offset, 4);
+    int month = digits(text, offset + 5, 2);
+    int day = digits(text, offset + 8, 2);
+    int hour = digits(text, offset + 11, 2);
+    int minute = digits(text, offset + 14, 2);
+    int second = digits(text, offset + 17, 2);
+    if (year < 0 || month < 1 || month > 12 || day < 1 || day > DAYS_PER_MONTH[month - 1] || hour < 0 || hour > 23
+        || minute < 0 || minute > 59 || second < 0 || second > 59 || (month == 2 && day == 29 && !isLeapYear(year))) {
+      return Long.MIN_VALUE;
+    }
+    int offsetSeconds;
+    char sign = text[offset + 19];
+    if (length == 20) {
+      if (sign != 'Z') {
+        return Long.MIN_VALUE;
+      }
+      offsetSeconds = 0;
+    } else {
+      int offsetHours = digits(text, offset + 20, 2);
+      int offsetMinutes = digits(text, offset + 23, 2);
+      if ((sign != '+' && sign != '-') || text[offset + 22] != ':' || offsetHours < 0 || offsetHours > 18
+          || offsetMinutes < 0 || offsetMinutes > 59) {
+        return Long.MIN_VALUE;
+      }
+      offsetSeconds = (sign == '-' ? -1 : 1) * (offsetHours * 3600 + offsetMinutes * 60);
+    }
+    return epochDay(year, month, day) * 86400 + hour * 3600 + minute * 60 + second - offsetSeconds;
+  }
+
+  /**
+   * @return the value of the decimal digits or -1 if one of the characters is no digit.
+   */
+  private static int digits(char[] text, int offset, int length) {
+
+    int value = 0;
+    for (int i = offset; i < offset + length; i++) {
+      int digit = text[i] - '0';
+      if (digit < 0 || digit > 9) {
+        return -1;
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static boolean isLeapYear(int year) {
+
+    return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+  }
+
+  /**
+   * @return the epoch day of the date, see http://howardhinnant.github.io/date_algorithms.html#days_from_civil
+   */
+  private static long epochDay(int year, int month, int day) {
+
+    long y = month <= 2 ? year - 1 : year;
+    long era = Math.floorDiv(y, 400);
+    long yearOfEra = y - era * 400;
+    long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+    long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097 + dayOfEra - 719468;
+  }
+
+}
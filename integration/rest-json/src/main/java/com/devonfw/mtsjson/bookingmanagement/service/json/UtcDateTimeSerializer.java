@@ -0,0 +1,83 @@
+package com.devonfw.mtsjson.bookingmanagement.service.json;
+
+import java.io.IOException;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Writes a {@link ZonedDateTime} as UTC timestamp with second precision, e.g. {@code 2022-09-09T07:21:40Z}.
+ *
+ * The output is the same as with the pattern {@value #PATTERN} and time zone UTC, but the characters are computed from
+ * the epoch second into a small char array, so no formatter, {@code LocalDateTime} or {@code String} is created per
+ * value. The array is not kept in a {@code ThreadLocal}, with virtual threads every request would create a new one
+ * anyway.
+ */
+public class UtcDateTimeSerializer extends StdSerializer<ZonedDateTime> {
+
+  private static final long serialVersionUID = 1L;
+
+  /** The pattern of the written timestamps. */
+  public static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ssXXX";
+
+  /** Formatter for years that do not have exactly four digits. */
+  static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern(PATTERN).withZone(ZoneOffset.UTC);
+
+  private static final int LENGTH = 20;
+
+  public UtcDateTimeSerializer() {
+
+    super(ZonedDateTime.class);
+  }
+
+  @Override
+  public void serialize(ZonedDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+
+    long epochSecond = value.toEpochSecond();
+    long epochDay = Math.floorDiv(epochSecond, 86400);
+    int secondOfDay = (int) Math.floorMod(epochSecond, 86400);
+
+    // civil date from epoch day, see http://howardhinnant.github.io/date_algorithms.html#civil_from_days
+    long shifted = epochDay + 719468;
+    long era = Math.floorDiv(shifted, 146097);
+    long dayOfEra = shifted - era * 146097;
+    long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+    long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+    long shiftedMonth = (5 * dayOfYear + 2) / 153;
+    int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+    int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+    long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+    if (year < 0 || year > 9999) {
+      gen.writeString(FORMATTER.format(value));
+      return;
+    }
+    char[] buffer = new char[LENGTH];
+    writeDigits(buffer, 0, (int) year, 4);
+    buffer[4] = '-';
+    writeDigits(buffer, 5, month, 2);
+    buffer[7] = '-';
+    writeDigits(buffer, 8, day, 2);
+    buffer[10] = 'T';
+    writeDigits(buffer, 11, secondOfDay / 3600, 2);
+    buffer[13] = ':';
+    writeDigits(buffer, 14, secondOfDay / 60 % 60, 2);
+    buffer[16] = ':';
+    writeDigits(buffer, 17, secondOfDay % 60, 2);
+    buffer[19] = 'Z';
+    gen.writeString(buffer, 0, LENGTH);
+  }
+
+  private static void writeDigits(char[] buffer, int offset, int value, int length) {
+
+    for (int i = offset + length - 1; i >= offset; i--) {
+      buffer[i] = (char) ('0' + value % 10);
+      value /= 10;
+    }
+  }
+
+}
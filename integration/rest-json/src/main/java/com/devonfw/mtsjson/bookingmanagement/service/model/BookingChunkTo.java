@@ -0,0 +1,34 @@
+package com.devonfw.mtsjson.bookingmanagement.service.model;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The result of storing one chunk of the bookings of a streamed request, either the stored bookings or the error that
+ * stopped the request.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingChunkTo {
+
+  /** The number of the chunk, starting with 0. */
+  private int chunk;
+
+  /** The index of the first booking of the chunk in the request. */
+  private long first;
+
+  /** The stored bookings with their ids and modificationCounters. */
+  private List<BookingTo> bookings;
+
+  /** The error that stopped the request, the chunks before were stored. */
+  private String error;
+}
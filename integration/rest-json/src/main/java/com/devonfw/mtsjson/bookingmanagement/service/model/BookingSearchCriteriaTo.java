@@ -0,0 +1,49 @@
+package com.devonfw.mtsjson.bookingmanagement.service.model;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+import org.springframework.format.annotation.DateTimeFormat;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Criteria to search bookings, all given criteria must match. The dates are ISO date-times and the range is
+ * {@code [bookingDateFrom, bookingDateTo)}, the fees are compared in the given currency and the range includes both
+ * bounds.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class BookingSearchCriteriaTo {
+
+  /** {@link #getGuestType() Guest type} of bookings with an {@link InvitedAdultTo}. */
+  public static final String ADULT = "Adult";
+
+  /** {@link #getGuestType() Guest type} of bookings with an {@link InvitedChildTo}. */
+  public static final String CHILD = "Child";
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private ZonedDateTime bookingDateFrom;
+
+  @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+  private ZonedDateTime bookingDateTo;
+
+  private BigDecimal minFee;
+
+  private BigDecimal maxFee;
+
+  /** The currency of {@link #getMinFee() minFee} and {@link #getMaxFee() maxFee}. */
+  private String currency;
+
+  /** {@link #ADULT} or {@link #CHILD} for bookings inviting at least one guest of this type. */
+  private String guestType;
+
+  /** {@code true} for bookings with a child that needs a special chair, {@code false} for bookings without. */
+  private Boolean needsSpecialChair;
+
+  /** The maximum number of bookings to return. */
+  private Integer limit;
+}
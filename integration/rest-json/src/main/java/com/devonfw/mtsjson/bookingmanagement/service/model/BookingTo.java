@@ -6,14 +6,15 @@ import java.util.List;
 
 import javax.money.MonetaryAmount;
 
-import com.fasterxml.jackson.annotation.JsonFormat;
-import com.fasterxml.jackson.annotation.OptBoolean;
-
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+/**
+ * A booking. The dates are written as UTC timestamps and the reservation fee as amount and currency by the
+ * {@link com.devonfw.mtsjson.bookingmanagement.service.json.BookingJsonModule}.
+ */
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,10 +27,8 @@ public class BookingTo implements Serializable {
 
   private List<InvitedGuestTo> invitedGuests;
 
-  @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ssXXX", timezone = "UTC", lenient = OptBoolean.TRUE)
   private ZonedDateTime bookedAt;
 
-  @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ssXXX", timezone = "UTC", lenient = OptBoolean.TRUE)
   private ZonedDateTime bookingDate;
 
   private MonetaryAmount reservationFee;
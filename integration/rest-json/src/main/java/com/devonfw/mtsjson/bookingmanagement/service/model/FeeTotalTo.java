@@ -0,0 +1,40 @@
+package com.devonfw.mtsjson.bookingmanagement.service.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import javax.money.MonetaryAmount;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * The total and average reservation fee of the bookings of one currency, day and combination of guest types.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeeTotalTo {
+
+  /** The currency code of the fees. */
+  private String currency;
+
+  /** The day of the {@code bookingDate} in UTC or {@code null} for bookings without date. */
+  private LocalDate day;
+
+  /**
+   * The {@link BookingSearchCriteriaTo#ADULT guest types} invited by the bookings, empty for bookings without guests.
+   * A booking inviting adults and children is only counted in the group of both, so the groups do not overlap.
+   */
+  private List<String> guestTypes;
+
+  /** The number of bookings. */
+  private long count;
+
+  private MonetaryAmount total;
+
+  private MonetaryAmount average;
+}
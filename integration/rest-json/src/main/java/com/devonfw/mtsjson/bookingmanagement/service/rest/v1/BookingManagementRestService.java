@@ -1,34 +1,140 @@
 package com.devonfw.mtsjson.bookingmanagement.service.rest.v1;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
 import java.util.List;
 
+import javax.servlet.http.HttpServletResponse;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.devonfw.mtsjson.bookingmanagement.common.exception.InvalidBookingException;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingSnapshot;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcAggregateFees;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcExportBookings;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcFindBooking;
 import com.devonfw.mtsjson.bookingmanagement.logic.UcManageBooking;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingSearchCriteriaTo;
 import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.FeeTotalTo;
 
 @RestController
 @RequestMapping("/services/rest/bookingmanagement/v1")
 public class BookingManagementRestService {
 
+  /** The largest chunk of {@link #createBookingStream}. */
+  public static final int MAX_CHUNK_SIZE = 10_000;
+
   @Autowired
   private UcManageBooking booking;
 
+  @Autowired
+  private UcFindBooking findBooking;
+
+  @Autowired
+  private UcAggregateFees aggregateFees;
+
+  @Autowired
+  private UcExportBookings exportBookings;
+
+  @Autowired
+  private BookingStreaming streaming;
+
+  @Autowired
+  private BookingMetrics metrics;
+
   @PostMapping("/booking")
   public List<BookingTo> createBooking(@RequestBody List<BookingTo> bookingDetails) {
 
-    return this.booking.createBooking(bookingDetails);
+    this.metrics.recordInvitedGuests("createBooking", bookingDetails);
+    return this.metrics.time("createBooking", () -> this.booking.createBooking(bookingDetails));
+  }
+
+  /**
+   * Creates or updates the bookings of a JSON array like {@link #createBooking(List)}, but stores them in chunks while
+   * the request is read and streams the results of the chunks, for requests of any size.
+   *
+   * @param request the JSON array of bookings.
+   * @param chunkSize the number of bookings stored at once, at most {@link #MAX_CHUNK_SIZE}.
+   * @param response the response, a JSON array of {@code BookingChunkTo}.
+   * @throws IOException if the request cannot be read or the response cannot be written.
+   */
+  @PostMapping(path = "/booking/stream", consumes = MediaType.APPLICATION_JSON_VALUE)
+  public void createBookingStream(InputStream request, @RequestParam(defaultValue = "1000") int chunkSize,
+      HttpServletResponse response) throws IOException {
+
+    if (chunkSize < 1 || chunkSize > MAX_CHUNK_SIZE) {
+      throw new InvalidBookingException("chunkSize must be between 1 and " + MAX_CHUNK_SIZE);
+    }
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    this.streaming.createBookings(request, response.getOutputStream(), chunkSize);
   }
 
   @GetMapping("/booking/{id}")
   public BookingTo getBooking(@PathVariable Long id) {
 
-    return this.booking.getBooking(id);
+    BookingTo result = this.metrics.time("getBooking", () -> this.booking.getBooking(id));
+    this.metrics.recordInvitedGuests("getBooking", List.of(result));
+    return result;
+  }
+
+  /**
+   * Searches bookings, e.g.
+   * {@code /booking/search?bookingDateFrom=2022-09-01T18:00:00Z&bookingDateTo=2022-09-02T00:00:00Z&needsSpecialChair=true}.
+   *
+   * @param criteria the criteria from the query parameters, all given criteria must match.
+   * @return the matching bookings ordered by {@code bookingDate} and id.
+   */
+  @GetMapping("/booking/search")
+  public List<BookingTo> findBookings(BookingSearchCriteriaTo criteria) {
+
+    return this.metrics.time("findBookings", () -> this.findBooking.findBookings(criteria));
+  }
+
+  /**
+   * Sums the reservation fees, e.g. {@code /booking/fees?bookingDateFrom=2022-09-01T00:00:00Z&bookingDateTo=2022-10-01T00:00:00Z}.
+   *
+   * @param bookingDateFrom the inclusive start of the {@code bookingDate} or {@code null}.
+   * @param bookingDateTo the exclusive end of the {@code bookingDate} or {@code null}.
+   * @return the totals and averages of the fees by currency, day and invited guest types.
+   */
+  @GetMapping("/booking/fees")
+  public List<FeeTotalTo> aggregateFees(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime bookingDateFrom,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime bookingDateTo) {
+
+    return this.metrics.time("aggregateFees", () -> this.aggregateFees.aggregateFees(bookingDateFrom, bookingDateTo));
+  }
+
+  /**
+   * Exports all bookings as CSV from the columnar snapshot, see {@link UcExportBookings#HEADER} for the columns.
+   *
+   * @return the CSV, written while it is sent.
+   */
+  @GetMapping(path = "/booking/export", produces = "text/csv")
+  public ResponseEntity<StreamingResponseBody> exportBookings() {
+
+    BookingSnapshot snapshot = this.metrics.time("exportBookings", this.exportBookings::snapshot);
+    StreamingResponseBody body = out -> {
+      Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+      this.exportBookings.exportBookings(snapshot, writer);
+    };
+    return ResponseEntity.ok().contentType(MediaType.parseMediaType("text/csv")).body(body);
   }
 }
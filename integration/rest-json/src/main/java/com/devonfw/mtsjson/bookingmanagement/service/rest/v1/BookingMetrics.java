@@ -0,0 +1,68 @@
+package com.devonfw.mtsjson.bookingmanagement.service.rest.v1;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Meters of the booking use cases, exported with the other metrics at {@code /actuator/prometheus}.
+ *
+ * {@code booking.usecase} times the use case without reading and writing the JSON, compared with the
+ * {@code http.server.requests} of the same operation it shows whether the time is spent in the logic or in the mapping.
+ * {@code booking.invited.guests} is the number of invited guests per created or returned booking.
+ */
+@Component
+public class BookingMetrics {
+
+  private static final double MAX_EXPECTED_GUESTS = 1000;
+
+  private final MeterRegistry meterRegistry;
+
+  public BookingMetrics(MeterRegistry meterRegistry) {
+
+    this.meterRegistry = meterRegistry;
+  }
+
+  /**
+   * @param <T> the result of the use case.
+   * @param operation the name of the use case, used as tag.
+   * @param useCase calls the use case.
+   * @return the result of the use case.
+   */
+  public <T> T time(String operation, Supplier<T> useCase) {
+
+    Timer.Sample sample = Timer.start(this.meterRegistry);
+    String exception = "none";
+    try {
+      return useCase.get();
+    } catch (RuntimeException e) {
+      exception = e.getClass().getSimpleName();
+      throw e;
+    } finally {
+      sample.stop(Timer.builder("booking.usecase").tag("operation", operation).tag("exception", exception)
+          .publishPercentileHistogram().register(this.meterRegistry));
+    }
+  }
+
+  /**
+   * @param operation the name of the use case, used as tag.
+   * @param bookings the bookings created or returned by the use case.
+   */
+  public void recordInvitedGuests(String operation, List<BookingTo> bookings) {
+
+    DistributionSummary summary = DistributionSummary.builder("booking.invited.guests").baseUnit("guests")
+        .tag("operation", operation).publishPercentileHistogram().minimumExpectedValue(1.0)
+        .maximumExpectedValue(MAX_EXPECTED_GUESTS).register(this.meterRegistry);
+    for (BookingTo booking : bookings) {
+      summary.record(booking.getInvitedGuests() == null ? 0 : booking.getInvitedGuests().size());
+    }
+  }
+
+}
@@ -0,0 +1,172 @@
+package com.devonfw.mtsjson.bookingmanagement.service.rest.v1;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.devonfw.mtsjson.bookingmanagement.common.exception.InvalidBookingException;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcManageBooking;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingChunkTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Stores a JSON array of bookings while it is read, for requests too large to be bound as {@code List<BookingTo>}.
+ *
+ * The bookings are read one by one with a {@link JsonParser}, validated and stored in chunks by
+ * {@link UcManageBooking}, the chunks are recorded by the {@link BookingMetrics} like regular requests. The result of
+ * every chunk is written as soon as it is stored, so the heap only holds one chunk of the request and of the response,
+ * whatever the size of the request.
+ */
+@Component
+public class BookingStreaming {
+
+  private final ObjectMapper objectMapper;
+
+  private final UcManageBooking ucManageBooking;
+
+  private final BookingMetrics metrics;
+
+  public BookingStreaming(ObjectMapper objectMapper, UcManageBooking ucManageBooking, BookingMetrics metrics) {
+
+    this.objectMapper = objectMapper;
+    this.ucManageBooking = ucManageBooking;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Reads the bookings of the request and writes a JSON array of {@link BookingChunkTo}. A request that is not a JSON
+   * array is rejected before anything is written. An invalid booking or a failure to store a chunk is written as last
+   * element with an {@code error}, the chunks before stay stored. Bookings of the failed chunk before the failing one
+   * may be stored as well.
+   *
+   * @param request the JSON array of bookings.
+   * @param response the stream for the JSON array of results.
+   * @param chunkSize the number of bookings stored at once.
+   * @throws InvalidBookingException if the request is empty or not a JSON array, nothing is written then.
+   * @throws IOException if the request cannot be read or the response cannot be written.
+   */
+  public void createBookings(InputStream request, OutputStream response, int chunkSize) throws IOException {
+
+    EndOfRequest end = new EndOfRequest(request);
+    try (JsonParser parser = this.objectMapper.createParser(end)) {
+      startArray(parser);
+      try (JsonGenerator generator = this.objectMapper.createGenerator(response)) {
+        generator.writeStartArray();
+        int chunk = 0;
+        long index = 0;
+        long first = 0;
+        try {
+          List<BookingTo> bookings = new ArrayList<>(chunkSize);
+          for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (token == null) {
+              throw new InvalidBookingException(endsWithinArray(index));
+            }
+            BookingTo booking = token == JsonToken.VALUE_NULL ? null : parser.readValueAs(BookingTo.class);
+            try {
+              this.ucManageBooking.validateBooking(booking);
+            } catch (InvalidBookingException e) {
+              throw new InvalidBookingException("Booking " + index + ": " + e.getMessage());
+            }
+            bookings.add(booking);
+            index++;
+            if (bookings.size() == chunkSize) {
+              write(generator, new BookingChunkTo(chunk++, first, createBooking(bookings), null));
+              bookings = new ArrayList<>(chunkSize);
+              first = index;
+            }
+          }
+          if (!bookings.isEmpty()) {
+            write(generator, new BookingChunkTo(chunk, first, createBooking(bookings), null));
+          }
+        } catch (JsonProcessingException e) {
+          write(generator, new BookingChunkTo(chunk, first, null, end.reached ? endsWithinArray(index)
+              : "Booking " + index + " is invalid JSON: " + e.getOriginalMessage()));
+        } catch (RuntimeException e) {
+          write(generator, new BookingChunkTo(chunk, first, null, e.getMessage()));
+        }
+        generator.writeEndArray();
+      }
+    }
+  }
+
+  /**
+   * Reads the start of the array of bookings, before the response is started, so that a request that is no array at
+   * all is answered with {@code 400 Bad Request}.
+   */
+  private static void startArray(JsonParser parser) throws IOException {
+
+    JsonToken token;
+    try {
+      token = parser.nextToken();
+    } catch (JsonProcessingException e) {
+      throw new InvalidBookingException("Request is invalid JSON: " + e.getOriginalMessage());
+    }
+    if (token == null) {
+      throw new InvalidBookingException("Request is empty, it must be a JSON array of bookings");
+    } else if (token != JsonToken.START_ARRAY) {
+      throw new InvalidBookingException("Request must be a JSON array of bookings");
+    }
+  }
+
+  private static String endsWithinArray(long index) {
+
+    return "Request ends within the array of bookings after " + index + " complete bookings";
+  }
+
+  /**
+   * @return the stored bookings, recorded as {@code createBooking} like the bookings of a regular request.
+   */
+  private List<BookingTo> createBooking(List<BookingTo> bookings) {
+
+    this.metrics.recordInvitedGuests("createBooking", bookings);
+    return this.metrics.time("createBooking", () -> this.ucManageBooking.createBooking(bookings));
+  }
+
+  private static void write(JsonGenerator generator, BookingChunkTo result) throws IOException {
+
+    generator.writeObject(result);
+    // sends the result of the chunk now instead of when the buffer of the response is full
+    generator.flush();
+  }
+
+  /**
+   * Tells if the request was read to its end, to tell a request that was cut off from invalid JSON.
+   */
+  private static final class EndOfRequest extends FilterInputStream {
+
+    private boolean reached;
+
+    private EndOfRequest(InputStream in) {
+
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+
+      int b = super.read();
+      this.reached |= b < 0;
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+
+      int n = super.read(b, off, len);
+      this.reached |= n < 0;
+      return n;
+    }
+
+  }
+
+}
@@ -0,0 +1,312 @@
+package com.devonfw.mtsjson.general;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.boot.actuate.metrics.web.servlet.WebMvcTagsProvider;
+import org.springframework.boot.web.servlet.error.ErrorAttributes;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+
+/**
+ * Records the size of the request and response bodies as {@code http.server.request.size} and
+ * {@code http.server.response.size} with percentile histograms. The tags are created by the {@link WebMvcTagsProvider}
+ * of the {@code http.server.requests} timer of Spring Boot, so large payloads can be related to slow requests.
+ *
+ * The bytes are counted while the application reads and writes the bodies, so chunked and streamed bodies are measured
+ * as well. Characters written to the {@code Writer} of the response are counted with the length they have in the
+ * character encoding of the response.
+ */
+@Component
+public class HttpExchangeSizeFilter extends OncePerRequestFilter {
+
+  private static final double MAX_EXPECTED_SIZE = 64 * 1024 * 1024;
+
+  private final MeterRegistry meterRegistry;
+
+  private final WebMvcTagsProvider tagsProvider;
+
+  public HttpExchangeSizeFilter(MeterRegistry meterRegistry, WebMvcTagsProvider tagsProvider) {
+
+    this.meterRegistry = meterRegistry;
+    this.tagsProvider = tagsProvider;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    CountingRequest countingRequest = new CountingRequest(request);
+    CountingResponse countingResponse = new CountingResponse(response);
+    filterChain.doFilter(countingRequest, countingResponse);
+    if (request.isAsyncStarted()) {
+      // streamed responses are written after the filter chain returned
+      request.getAsyncContext().addListener(new AsyncListener() {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+
+          record(request, response, countingRequest.bytes, countingResponse.bytes);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+
+        }
+      });
+    } else {
+      record(request, response, countingRequest.bytes, countingResponse.bytes);
+    }
+  }
+
+  private void record(HttpServletRequest request, HttpServletResponse response, long requestBytes,
+      long responseBytes) {
+
+    Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+    Throwable exception = (Throwable) request.getAttribute(ErrorAttributes.ERROR_ATTRIBUTE);
+    if (exception == null) {
+      exception = (Throwable) request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE);
+    }
+    Iterable<Tag> tags = this.tagsProvider.getTags(request, response, handler, exception);
+    summary("http.server.request.size", tags).record(requestBytes);
+    summary("http.server.response.size", tags).record(responseBytes);
+  }
+
+  private DistributionSummary summary(String name, Iterable<Tag> tags) {
+
+    return DistributionSummary.builder(name).baseUnit("bytes").tags(tags).publishPercentileHistogram()
+        .minimumExpectedValue(1.0).maximumExpectedValue(MAX_EXPECTED_SIZE).register(this.meterRegistry);
+  }
+
+  private static final class CountingRequest extends HttpServletRequestWrapper {
+
+    private long bytes;
+
+    private ServletInputStream inputStream;
+
+    private CountingRequest(HttpServletRequest request) {
+
+      super(request);
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+
+      if (this.inputStream == null) {
+        ServletInputStream delegate = super.getInputStream();
+        this.inputStream = new ServletInputStream() {
+
+          @Override
+          public int read() throws IOException {
+
+            int b = delegate.read();
+            if (b >= 0) {
+              CountingRequest.this.bytes++;
+            }
+            return b;
+          }
+
+          @Override
+          public int read(byte[] b, int off, int len) throws IOException {
+
+            int count = delegate.read(b, off, len);
+            if (count > 0) {
+              CountingRequest.this.bytes += count;
+            }
+            return count;
+          }
+
+          @Override
+          public boolean isFinished() {
+
+            return delegate.isFinished();
+          }
+
+          @Override
+          public boolean isReady() {
+
+            return delegate.isReady();
+          }
+
+          @Override
+          public void setReadListener(ReadListener readListener) {
+
+            delegate.setReadListener(readListener);
+          }
+        };
+      }
+      return this.inputStream;
+    }
+  }
+
+  private static final class CountingResponse extends HttpServletResponseWrapper {
+
+    private volatile long bytes;
+
+    private ServletOutputStream outputStream;
+
+    private PrintWriter writer;
+
+    private CountingResponse(HttpServletResponse response) {
+
+      super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+
+      if (this.outputStream == null) {
+        ServletOutputStream delegate = super.getOutputStream();
+        this.outputStream = new ServletOutputStream() {
+
+          @Override
+          public void write(int b) throws IOException {
+
+            delegate.write(b);
+            CountingResponse.this.bytes++;
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) throws IOException {
+
+            delegate.write(b, off, len);
+            CountingResponse.this.bytes += len;
+          }
+
+          @Override
+          public void flush() throws IOException {
+
+            delegate.flush();
+          }
+
+          @Override
+          public void close() throws IOException {
+
+            delegate.close();
+          }
+
+          @Override
+          public boolean isReady() {
+
+            return delegate.isReady();
+          }
+
+          @Override
+          public void setWriteListener(WriteListener writeListener) {
+
+            delegate.setWriteListener(writeListener);
+          }
+        };
+      }
+      return this.outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+
+      if (this.writer == null) {
+        PrintWriter delegate = super.getWriter();
+        Charset charset = Charset.forName(getCharacterEncoding());
+        CharsetEncoder encoder = charset.newEncoder().onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        // PrintWriter does not buffer, everything is passed to the writer of the container
+        this.writer = new PrintWriter(new Writer() {
+
+          @Override
+          public void write(char[] cbuf, int off, int len) {
+
+            delegate.write(cbuf, off, len);
+            CountingResponse.this.bytes += encodedLength(cbuf, off, len, charset, encoder);
+          }
+
+          @Override
+          public void flush() {
+
+            delegate.flush();
+          }
+
+          @Override
+          public void close() {
+
+            delegate.close();
+          }
+        });
+      }
+      return this.writer;
+    }
+  }
+
+  /**
+   * @return the number of bytes the characters have in the given charset. UTF-8 and charsets with one byte per
+   *         character are counted without encoding, other charsets are encoded into a small scratch buffer.
+   */
+  private static long encodedLength(char[] cbuf, int off, int len, Charset charset, CharsetEncoder encoder) {
+
+    if (charset.equals(StandardCharsets.UTF_8)) {
+      long bytes = 0;
+      for (int i = off; i < off + len; i++) {
+        char c = cbuf[i];
+        if (c < 0x80) {
+          bytes++;
+        } else if (c < 0x800 || Character.isSurrogate(c)) {
+          // both chars of a surrogate pair together take four bytes
+          bytes += 2;
+        } else {
+          bytes += 3;
+        }
+      }
+      return bytes;
+    }
+    if (encoder.maxBytesPerChar() == 1.0f) {
+      return len;
+    }
+    CharBuffer in = CharBuffer.wrap(cbuf, off, len);
+    ByteBuffer out = ByteBuffer.allocate(256);
+    long bytes = 0;
+    CoderResult result;
+    do {
+      result = encoder.encode(in, out, false);
+      bytes += out.position();
+      out.clear();
+    } while (result.isOverflow());
+    return bytes;
+  }
+
+}
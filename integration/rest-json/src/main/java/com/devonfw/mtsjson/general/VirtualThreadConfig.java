@@ -0,0 +1,75 @@
+package com.devonfw.mtsjson.general;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+/**
+ * Runs the request handling of Tomcat on virtual threads if {@code spring.threads.virtual.enabled=true}. Every request
+ * gets its own virtual thread, so handlers blocking on downstream calls no longer wait for one of the
+ * {@code server.tomcat.threads.max} platform threads. Streaming responses like the booking export are written by the
+ * application task executor, it is replaced by the virtual thread executor as well.
+ *
+ * The property has the same name as in Spring Boot 3.2, which supports virtual threads itself. Virtual threads require
+ * Java 21, the application fails to start if they are enabled on an older Java version.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+  /**
+   * @return an executor starting a new virtual thread for every task.
+   */
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService virtualThreadExecutor() {
+
+    return newVirtualThreadPerTaskExecutor();
+  }
+
+  /**
+   * @param virtualThreadExecutor the executor for the requests.
+   * @return a customizer replacing the thread pool of Tomcat with the virtual thread executor.
+   */
+  @Bean
+  public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+      ExecutorService virtualThreadExecutor) {
+
+    return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+  }
+
+  /**
+   * @param virtualThreadExecutor the executor for the async requests.
+   * @return the executor used by Spring MVC for async requests like streaming responses.
+   */
+  @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+  public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+
+    return new TaskExecutorAdapter(virtualThreadExecutor);
+  }
+
+  /**
+   * The application is compiled for Java 11, so the Java 21 API is called by reflection.
+   *
+   * @return the result of {@code Executors.newVirtualThreadPerTaskExecutor()}.
+   */
+  static ExecutorService newVirtualThreadPerTaskExecutor() {
+
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (NoSuchMethodException e) {
+      throw new IllegalStateException(
+          "spring.threads.virtual.enabled requires Java 21 but the application runs on Java " + Runtime.version(), e);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Virtual threads could not be created", e);
+    }
+  }
+
+}
@@ -0,0 +1,232 @@
+package com.devonfw.mtsjson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.devonfw.mtsjson.general.AdaptiveConcurrencyLimiter;
+import com.devonfw.mtsjson.general.AdmissionControlFilter;
+import com.devonfw.mtsjson.general.TokenBucketRateLimiter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionControlTest {
+
+  private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private static final String BOOKING = "/services/rest/bookingmanagement/v1/booking";
+
+  /**
+   * @Input : A burst of requests of one client, then requests after waiting
+   * @Output: The burst is allowed, further requests wait for the refill, other clients are not limited
+   */
+  @Test
+  public void testTokenBucket() {
+
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 100);
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, limiter.tryAcquire("partner", 0));
+    }
+    assertEquals(SECOND / 10, limiter.tryAcquire("partner", 0));
+    assertEquals(0, limiter.tryAcquire("other", 0));
+    assertEquals(0, limiter.tryAcquire("partner", SECOND / 10));
+    assertTrue(limiter.tryAcquire("partner", SECOND / 10) > 0);
+    for (int i = 0; i < 5; i++) {
+      assertEquals(0, limiter.tryAcquire("partner", 10 * SECOND));
+    }
+    assertTrue(limiter.tryAcquire("partner", 10 * SECOND) > 0);
+  }
+
+  /**
+   * @Input : More clients than the limiter keeps, each with an empty bucket, then many new clients from several threads
+   * @Output: The least recently seen client is forgotten, the number of buckets exceeds the maximum at most by the
+   *         number of threads adding clients at the same time
+   */
+  @Test
+  public void testTokenBucketForgetsLeastRecentClients() throws Exception {
+
+    TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2, 3);
+    for (String client : List.of("busy", "idle1", "idle2")) {
+      limiter.tryAcquire(client, 0);
+      limiter.tryAcquire(client, 0);
+    }
+    assertTrue(limiter.tryAcquire("busy", 1) > 0);
+
+    limiter.tryAcquire("new1", 2);
+    limiter.tryAcquire("new2", 3);
+
+    assertEquals(3, limiter.getClients());
+    assertTrue(limiter.tryAcquire("busy", 4) > 0);
+    assertEquals(0, limiter.tryAcquire("idle1", 5));
+
+    Thread[] threads = new Thread[4];
+    for (int t = 0; t < threads.length; t++) {
+      String prefix = "rotating" + t + "-";
+      threads[t] = new Thread(() -> {
+        for (int i = 0; i < 1000; i++) {
+          limiter.tryAcquire(prefix + i, 6 + i);
+        }
+      });
+      threads[t].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertTrue(limiter.getClients() <= 3 + threads.length);
+    limiter.tryAcquire("last", 2000);
+    assertEquals(3, limiter.getClients());
+  }
+
+  /**
+   * @Input : Requests up to the limit completing in time, then slow and failed requests
+   * @Output: The limit grows while it is used, shrinks on overload and never leaves its bounds
+   */
+  @Test
+  public void testAimdLimit() {
+
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 6, 100, 0.5);
+    for (int i = 0; i < 4; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    assertFalse(limiter.tryAcquire());
+    assertEquals(4, limiter.getInflight());
+
+    limiter.release(0, 10, false);
+    assertEquals(5, limiter.getLimit());
+    limiter.release(0, 10, false);
+    assertEquals(6, limiter.getLimit());
+    limiter.release(0, 10, false);
+    limiter.release(0, 10, false);
+    assertEquals(6, limiter.getLimit());
+
+    assertTrue(limiter.tryAcquire());
+    limiter.release(0, 10, false);
+    assertEquals(6, limiter.getLimit());
+
+    assertTrue(limiter.tryAcquire());
+    limiter.release(0, 1000, false);
+    assertEquals(3, limiter.getLimit());
+    assertTrue(limiter.tryAcquire());
+    limiter.release(1000, 1010, true);
+    assertEquals(2, limiter.getLimit());
+    assertTrue(limiter.tryAcquire());
+    limiter.release();
+    assertEquals(2, limiter.getLimit());
+    assertEquals(0, limiter.getInflight());
+  }
+
+  /**
+   * @Input : Many slow requests started before the first of them completed, then a slow request started after it
+   * @Output: The requests of the same round decrease the limit once, the next round decreases it again
+   */
+  @Test
+  public void testAimdLimitDecreasesOncePerRound() {
+
+    AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 5, 100, 100, 0.9);
+    for (int i = 0; i < 20; i++) {
+      assertTrue(limiter.tryAcquire());
+    }
+    for (int i = 0; i < 20; i++) {
+      limiter.release(i, 1000 + i, false);
+    }
+    assertEquals(90, limiter.getLimit());
+
+    assertTrue(limiter.tryAcquire());
+    limiter.release(1000, 2000, true);
+    assertEquals(81, limiter.getLimit());
+  }
+
+  /**
+   * @Input : Requests of one client above its burst and a request while the concurrency limit is reached
+   * @Output: 429 and 503 with Retry-After, counted by reason, other and excluded paths are not limited
+   */
+  @Test
+  public void testFilterRejectsOverload() throws ServletException, IOException {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    AdmissionControlFilter filter = new AdmissionControlFilter("/services/rest/bookingmanagement/",
+        List.of(BOOKING + "/changes"), List.of(), "X-Client-Id", List.of("127.0.0.1"), 1, 2, 100, 1, 1, 1, 1000, 0.9,
+        meterRegistry);
+
+    assertEquals(200, call(filter, "partner", BOOKING).getStatus());
+    assertEquals(200, call(filter, "partner", BOOKING).getStatus());
+    MockHttpServletResponse limited = call(filter, "partner", BOOKING);
+    assertEquals(429, limited.getStatus());
+    assertEquals("1", limited.getHeader("Retry-After"));
+    assertEquals(200, call(filter, "partner", "/actuator/health").getStatus());
+    assertEquals(200, call(filter, "partner", BOOKING + "/changes").getStatus());
+
+    MockHttpServletResponse[] concurrent = new MockHttpServletResponse[1];
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", BOOKING);
+    request.addHeader("X-Client-Id", "first");
+    filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+      assertEquals(1.0, meterRegistry.get("booking.admission.inflight").gauge().value());
+      concurrent[0] = call(filter, "second", BOOKING);
+    });
+    assertEquals(503, concurrent[0].getStatus());
+    assertEquals("1", concurrent[0].getHeader("Retry-After"));
+
+    assertEquals(1.0, meterRegistry.get("booking.admission.rejected").tag("reason", "rate").counter().count());
+    assertEquals(1.0, meterRegistry.get("booking.admission.rejected").tag("reason", "concurrency").counter().count());
+    assertEquals(0.0, meterRegistry.get("booking.admission.inflight").gauge().value());
+    assertEquals(1.0, meterRegistry.get("booking.admission.limit").gauge().value());
+    assertEquals(3.0, meterRegistry.get("booking.admission.clients").gauge().value());
+  }
+
+  /**
+   * @Input : Requests with a new X-Client-Id each from an address that is no trusted proxy
+   * @Output: The requests share the bucket of the address and are limited
+   */
+  @Test
+  public void testFilterIgnoresClientIdOfUntrustedAddress() throws ServletException, IOException {
+
+    AdmissionControlFilter filter = new AdmissionControlFilter("/services/rest/bookingmanagement/", List.of(),
+        List.of(), "X-Client-Id", List.of("10.0.0.1"), 1, 2, 100, 10, 1, 10, 1000, 0.9, new SimpleMeterRegistry());
+
+    assertEquals(200, call(filter, "first", BOOKING).getStatus());
+    assertEquals(200, call(filter, "second", BOOKING).getStatus());
+    assertEquals(429, call(filter, "third", BOOKING).getStatus());
+  }
+
+  /**
+   * @Input : Requests above a latency threshold of 0 with a path that is unmeasured only for POST
+   * @Output: The batch does not decrease the limit, the GET of the same prefix does
+   */
+  @Test
+  public void testFilterDoesNotMeasureUnmeasuredMethod() throws ServletException, IOException {
+
+    MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    AdmissionControlFilter filter = new AdmissionControlFilter("/services/rest/bookingmanagement/", List.of(),
+        List.of("POST " + BOOKING), "X-Client-Id", List.of(), 100, 100, 100, 10, 1, 10, 0, 0.5, meterRegistry);
+
+    filter.doFilter(new MockHttpServletRequest("POST", BOOKING), new MockHttpServletResponse(),
+        new MockFilterChain());
+    assertEquals(10.0, meterRegistry.get("booking.admission.limit").gauge().value());
+    filter.doFilter(new MockHttpServletRequest("GET", BOOKING + "/1"), new MockHttpServletResponse(),
+        new MockFilterChain());
+    assertEquals(5.0, meterRegistry.get("booking.admission.limit").gauge().value());
+  }
+
+  private static MockHttpServletResponse call(AdmissionControlFilter filter, String client, String uri)
+      throws ServletException, IOException {
+
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+    request.addHeader("X-Client-Id", client);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+
+}
@@ -0,0 +1,128 @@
+package com.devonfw.mtsjson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcManageBooking;
+import com.devonfw.mtsjson.bookingmanagement.service.batch.BookingImport;
+import com.devonfw.mtsjson.bookingmanagement.service.json.BookingJsonModule;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class BookingImportTest {
+
+  private static final ZonedDateTime TONIGHT = ZonedDateTime.parse("2022-09-10T18:00:00Z");
+
+  @TempDir
+  Path directory;
+
+  private final ObjectMapper objectMapper = new Jackson2ObjectMapperBuilder().modulesToInstall(new BookingJsonModule())
+      .build();
+
+  private BookingRepository bookingRepository;
+
+  private BookingImport bookingImport;
+
+  @BeforeEach
+  public void createImport() {
+
+    this.bookingRepository = new BookingRepository();
+    this.bookingImport = new BookingImport(this.objectMapper, new UcManageBooking(this.bookingRepository));
+  }
+
+  private static BookingTo booking(int i) {
+
+    BookingTo booking = new BookingTo();
+    booking.setBookedAt(TONIGHT.minusDays(1));
+    booking.setBookingDate(TONIGHT.plusMinutes(i));
+    booking.setReservationFee(Money.of(BigDecimal.valueOf(i, 2), "EUR"));
+    booking.setInvitedGuests(
+        new ArrayList<>(List.of(new InvitedAdultTo("guest" + i + "@gmail.com"), new InvitedChildTo(i % 2 == 0))));
+    return booking;
+  }
+
+  private Path write(List<String> lines) throws IOException {
+
+    return Files.write(this.directory.resolve("bookings.ndjson"), String.join("\n", lines)
+        .getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @Input : 10000 bookings with adults and children, one per line, in chunks of 4KB parsed by three threads
+   * @Output: All bookings are created with their guest types and values
+   */
+  @Test
+  public void testImportBookings() throws IOException {
+
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < 10_000; i++) {
+      lines.add(this.objectMapper.writeValueAsString(booking(i)));
+      if (i % 1000 == 0) {
+        lines.add("");
+      }
+    }
+
+    BookingImport.Result result = this.bookingImport.importBookings(write(lines), 3, 100, 4096);
+
+    assertEquals(10_000, result.getBookings());
+    assertEquals(Files.size(this.directory.resolve("bookings.ndjson")), result.getBytes());
+    assertTrue(result.getPeakHeapBytes() > 0);
+    assertEquals(10_000, this.bookingRepository.count());
+    Map<String, BookingTo> byEmail = this.bookingRepository.findAll().stream().collect(
+        Collectors.toMap(booking -> ((InvitedAdultTo) booking.getInvitedGuests().get(0)).getEmail(), Function.identity()));
+    for (int i = 0; i < 10_000; i++) {
+      BookingTo imported = byEmail.get("guest" + i + "@gmail.com");
+      assertEquals(TONIGHT.plusMinutes(i).toInstant(), imported.getBookingDate().toInstant());
+      assertEquals(0, BigDecimal.valueOf(i, 2)
+          .compareTo(imported.getReservationFee().getNumber().numberValue(BigDecimal.class)));
+      assertEquals(i % 2 == 0, ((InvitedChildTo) imported.getInvitedGuests().get(1)).isNeedsSpecialChair());
+    }
+  }
+
+  /**
+   * @Input : An invalid line after 100 valid bookings in a single chunk
+   * @Output: The import stops with the byte offset of the invalid line, the bookings before it are stored
+   */
+  @Test
+  public void testInvalidBookingStopsImport() throws IOException {
+
+    List<String> lines = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      lines.add(this.objectMapper.writeValueAsString(booking(i)));
+    }
+    long offset = String.join("\n", lines).length() + 1;
+    lines.add("{\"bookingDate\": 42, \"invitedGuests\": [{\"guestType\": \"Pet\"}]}");
+
+    UncheckedIOException e = assertThrows(UncheckedIOException.class,
+        () -> this.bookingImport.importBookings(write(lines), 1, 10, 1 << 20));
+
+    assertTrue(e.getCause().getMessage().startsWith("Invalid booking at byte "), e.getCause().getMessage());
+    long reported = Long.parseLong(e.getCause().getMessage().replaceAll("Invalid booking at byte (\\d+):.*", "$1"));
+    assertTrue(reported >= offset && reported < offset + 64, reported + " is not in line at " + offset);
+    assertEquals(100, this.bookingRepository.count());
+  }
+
+}
@@ -0,0 +1,149 @@
+package com.devonfw.mtsjson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingJournal;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.service.json.BookingJsonModule;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+class BookingJournalTest {
+
+  private static final int SEGMENT_SIZE = 64 * 1024;
+
+  @TempDir
+  Path directory;
+
+  private BookingRepository open(long snapshotThreshold) {
+
+    // configured like the mapper of the BookingJournalConfig
+    SmileMapper mapper = new SmileMapper();
+    new Jackson2ObjectMapperBuilder().modulesToInstall(new BookingJsonModule()).configure(mapper);
+    return new BookingRepository(new BookingJournal(this.directory, mapper, SEGMENT_SIZE, true, snapshotThreshold));
+  }
+
+  private static BookingTo booking(Long id, int modificationCounter, String email) {
+
+    BookingTo booking = new BookingTo();
+    booking.setId(id);
+    booking.setModificationCounter(modificationCounter);
+    InvitedAdultTo adult = new InvitedAdultTo(email);
+    booking.setInvitedGuests(new ArrayList<>(List.of(adult)));
+    return booking;
+  }
+
+  private List<String> files(String prefix) throws IOException {
+
+    try (Stream<Path> files = Files.list(this.directory)) {
+      return files.map(file -> file.getFileName().toString()).filter(name -> name.startsWith(prefix)).sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  /**
+   * @Input : Bookings created and updated, then the repository is opened again
+   * @Output: The last version of every booking is recovered and new ids do not collide with recovered ones
+   */
+  @Test
+  public void testRecoverAfterRestart() throws InterruptedException {
+
+    BookingRepository repository = open(Long.MAX_VALUE);
+    BookingTo first = repository.save(booking(null, 0, "first@gmail.com"));
+    BookingTo second = repository.save(booking(null, 0, "second@gmail.com"));
+    Long guestId = first.getInvitedGuests().get(0).getId();
+    BookingTo update = booking(first.getId(), 0, "changed@gmail.com");
+    update.getInvitedGuests().get(0).setId(guestId);
+    repository.save(update);
+    repository.close();
+
+    BookingRepository restarted = open(Long.MAX_VALUE);
+    assertEquals(2, restarted.findAll().size());
+    BookingTo recovered = restarted.findById(first.getId());
+    assertEquals(1, recovered.getModificationCounter());
+    assertEquals("changed@gmail.com", ((InvitedAdultTo) recovered.getInvitedGuests().get(0)).getEmail());
+    assertEquals(guestId, recovered.getInvitedGuests().get(0).getId());
+    assertNotNull(restarted.findById(second.getId()));
+    BookingTo third = restarted.save(booking(null, 0, "third@gmail.com"));
+    assertTrue(third.getId() > second.getId());
+    assertTrue(third.getInvitedGuests().get(0).getId() > second.getInvitedGuests().get(0).getId());
+    restarted.close();
+  }
+
+  /**
+   * @Input : More bookings than fit below the snapshot threshold
+   * @Output: A snapshot replaces the old segments and all bookings are recovered from the snapshot and the new segment
+   */
+  @Test
+  public void testSnapshotCompactsJournal() throws IOException, InterruptedException {
+
+    BookingRepository repository = open(SEGMENT_SIZE);
+    for (int i = 0; i < 3000; i++) {
+      repository.save(booking(null, 0, "guest" + i + "@gmail.com"));
+    }
+    repository.close();
+
+    assertEquals(1, files("snapshot-").size());
+    List<String> segments = files("journal-");
+    String snapshot = files("snapshot-").get(0);
+    String firstSegment = "journal-" + snapshot.substring("snapshot-".length(), snapshot.length() - ".bin".length())
+        + ".log";
+    assertTrue(segments.get(0).compareTo(firstSegment) >= 0, segments + " not replaced by " + snapshot);
+
+    BookingRepository restarted = open(SEGMENT_SIZE);
+    assertEquals(3000, restarted.findAll().size());
+    restarted.close();
+  }
+
+  /**
+   * @Input : The last record of the journal is damaged like by a crash while it was written
+   * @Output: The bookings before it are recovered
+   */
+  @Test
+  public void testRecoverIgnoresIncompleteRecord() throws IOException, InterruptedException {
+
+    BookingRepository repository = open(Long.MAX_VALUE);
+    repository.save(booking(null, 0, "first@gmail.com"));
+    BookingTo second = repository.save(booking(null, 0, "second@gmail.com"));
+    repository.close();
+
+    Path segment = this.directory.resolve(files("journal-").get(0));
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      // overwrite the first byte of the second payload, which is followed by zeros like an unwritten record
+      ByteBuffer header = ByteBuffer.allocate(4);
+      channel.read(header, 0);
+      long secondRecord = 8 + header.flip().getInt();
+      channel.write(ByteBuffer.wrap(new byte[] { 0x7f }), secondRecord + 8);
+    }
+
+    BookingRepository restarted = open(Long.MAX_VALUE);
+    assertEquals(1, restarted.findAll().size());
+    assertNull(restarted.findById(second.getId()));
+    BookingTo third = restarted.save(booking(null, 0, "third@gmail.com"));
+    restarted.close();
+
+    BookingRepository again = open(Long.MAX_VALUE);
+    assertEquals(third.getId(), again.findById(third.getId()).getId());
+    again.close();
+  }
+
+}
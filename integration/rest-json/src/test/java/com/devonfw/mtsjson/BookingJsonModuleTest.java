@@ -0,0 +1,118 @@
+package com.devonfw.mtsjson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+import org.zalando.jackson.datatype.money.MoneyModule;
+
+import com.devonfw.mtsjson.bookingmanagement.service.json.BookingJsonModule;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.OptBoolean;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+class BookingJsonModuleTest {
+
+  private static final List<String> CURRENCIES = List.of("USD", "EUR", "JPY", "BHD");
+
+  private static final List<ZoneId> ZONES = List.of(ZoneOffset.UTC, ZoneId.of("Asia/Kolkata"),
+      ZoneId.of("Europe/Berlin"), ZoneId.of("America/St_Johns"));
+
+  private final ObjectMapper objectMapper = JsonMapper.builder().addModule(new BookingJsonModule()).build();
+
+  /** The mapping used before the {@link BookingJsonModule}. */
+  private final ObjectMapper referenceMapper = JsonMapper.builder().addModule(new JavaTimeModule())
+      .addModule(new MoneyModule()).addMixIn(BookingTo.class, JsonFormatMixIn.class).build();
+
+  private abstract static class JsonFormatMixIn {
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ssXXX", timezone = "UTC", lenient = OptBoolean.TRUE)
+    private ZonedDateTime bookedAt;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ssXXX", timezone = "UTC", lenient = OptBoolean.TRUE)
+    private ZonedDateTime bookingDate;
+  }
+
+  /**
+   * @Input : Bookings with random dates, time zones and amounts
+   * @Output: The JSON is the same as with the JavaTimeModule and MoneyModule and can be read by both mappers
+   */
+  @Test
+  public void testSameJsonAsReferenceMapping() throws Exception {
+
+    Random random = new Random(42);
+    for (int i = 0; i < 10000; i++) {
+      BookingTo booking = new BookingTo((long) i, 0, List.of(), dateTime(random), dateTime(random), amount(random));
+
+      String json = this.objectMapper.writeValueAsString(booking);
+      assertEquals(this.referenceMapper.writeValueAsString(booking), json);
+
+      BookingTo read = this.objectMapper.readValue(json, BookingTo.class);
+      BookingTo readByReference = this.referenceMapper.readValue(json, BookingTo.class);
+      assertEquals(readByReference.getBookedAt(), read.getBookedAt());
+      assertEquals(readByReference.getBookingDate(), read.getBookingDate());
+      assertEquals(readByReference.getReservationFee(), read.getReservationFee());
+    }
+  }
+
+  /**
+   * @Input : A list of bookings with random amounts written in one call
+   * @Output: The JSON is the same as with the MoneyModule, the digit buffer of the call is reused for every amount
+   */
+  @Test
+  public void testSameJsonForListOfBookings() throws Exception {
+
+    Random random = new Random(7);
+    List<BookingTo> bookings = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      bookings.add(new BookingTo((long) i, 0, List.of(), dateTime(random), dateTime(random), amount(random)));
+    }
+    assertEquals(this.referenceMapper.writeValueAsString(bookings), this.objectMapper.writeValueAsString(bookings));
+  }
+
+  /**
+   * @Input : Timestamps with offsets, as epoch seconds and empty
+   * @Output: The dates are converted to UTC, the empty string to null
+   */
+  @Test
+  public void testReadDates() throws Exception {
+
+    BookingTo booking = this.objectMapper.readValue(
+        "{\"bookedAt\":\"2022-09-09T12:51:40+05:30\",\"bookingDate\":1662813000,\"reservationFee\":null}",
+        BookingTo.class);
+    assertEquals(ZonedDateTime.parse("2022-09-09T07:21:40Z[UTC]"), booking.getBookedAt());
+    assertEquals(ZonedDateTime.parse("2022-09-10T12:30:00Z[UTC]"), booking.getBookingDate());
+
+    booking = this.objectMapper.readValue("{\"bookedAt\":\"\",\"bookingDate\":\"2020-02-29T00:00:00-01:00\"}",
+        BookingTo.class);
+    assertNull(booking.getBookedAt());
+    assertEquals(ZonedDateTime.parse("2020-02-29T01:00:00Z[UTC]"), booking.getBookingDate());
+  }
+
+  private static ZonedDateTime dateTime(Random random) {
+
+    long epochSecond = random.nextInt(Integer.MAX_VALUE) * 2L - Integer.MAX_VALUE;
+    Instant instant = Instant.ofEpochSecond(epochSecond, random.nextInt(1_000_000_000));
+    return ZonedDateTime.ofInstant(instant, ZONES.get(random.nextInt(ZONES.size())));
+  }
+
+  private static Money amount(Random random) {
+
+    BigDecimal amount = BigDecimal.valueOf(random.nextInt() / (random.nextInt(1000) + 1), random.nextInt(12) - 2);
+    return Money.of(amount, CURRENCIES.get(random.nextInt(CURRENCIES.size())));
+  }
+
+}
@@ -1,6 +1,8 @@
 package com.devonfw.mtsjson;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.ZonedDateTime;
@@ -20,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -31,21 +34,35 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
 import com.devonfw.mtsjson.bookingmanagement.logic.UcManageBooking;
+import com.devonfw.mtsjson.bookingmanagement.service.json.BookingJsonModule;
 import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
 import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
 import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
 import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 
 @ActiveProfiles("test")
 @ExtendWith(SpringExtension.class)
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @EnableAutoConfiguration
 @AutoConfigureMockMvc
+@AutoConfigureMetrics
 @TestPropertySource(locations = "classpath:test.properties")
 class BookingRestServiceTest {
 
+  private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+  private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
   private static final Logger logger = LoggerFactory.getLogger(MtsJsonApplication.class);
 
   @MockBean
@@ -57,6 +74,12 @@ class BookingRestServiceTest {
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @Autowired
+  private BookingRepository bookingRepository;
+
   @Captor
   ArgumentCaptor<List<BookingTo>> bookingCaptor;
 
@@ -232,4 +255,149 @@ class BookingRestServiceTest {
 
   }
 
+  /**
+   * @Input : Booking requested with Accept application/cbor and with any media type
+   * @Output: The booking is returned as CBOR including the guestType of the guests, JSON stays the default
+   */
+  @Test
+  public void testGetBookingAsCbor() throws Exception {
+
+    BookingTo mockResult = new BookingTo(5L, 0, this.invitedGuests, BOOKED_AT_INDIA, BOOKING_DATE_GERMANY,
+        this.reservationFee);
+    Mockito.when(this.ucManageBooking.getBooking(5L)).thenReturn(mockResult);
+
+    MvcResult mvcResult = this.mockMvc
+        .perform(MockMvcRequestBuilders.get("/services/rest/bookingmanagement/v1/booking/5").accept(CBOR))
+        .andExpect(status().isOk()).andExpect(content().contentType(CBOR)).andReturn();
+
+    BookingTo booking = binaryMapper(new CBORMapper()).readValue(mvcResult.getResponse().getContentAsByteArray(),
+        BookingTo.class);
+    assertTrue(booking.getInvitedGuests().get(0) instanceof InvitedAdultTo);
+    assertTrue(booking.getInvitedGuests().get(1) instanceof InvitedChildTo);
+    assertEquals(BOOKED_AT_INDIA.toInstant(), booking.getBookedAt().toInstant());
+    assertEquals(this.reservationFee, booking.getReservationFee());
+
+    this.mockMvc.perform(MockMvcRequestBuilders.get("/services/rest/bookingmanagement/v1/booking/5")
+        .accept(MediaType.ALL)).andExpect(content().contentType(MediaType.APPLICATION_JSON));
+  }
+
+  /**
+   * @Input : Bookings with Adult and Child as invitedGuests posted as Smile
+   * @Output: The guests are detected as adult and child like with JSON
+   */
+  @Test
+  public void testCreateBookingWithInvitedGuestsAsSmile() throws Exception {
+
+    BookingTo input = new BookingTo(6L, 0, this.invitedGuests, BOOKED_AT_INDIA, BOOKING_DATE_GERMANY,
+        this.reservationFee);
+    Mockito.when(this.ucManageBooking.createBooking(Mockito.any())).thenReturn(List.of(input));
+    ObjectMapper smileMapper = binaryMapper(new SmileMapper());
+
+    MvcResult mvcResult = this.mockMvc
+        .perform(MockMvcRequestBuilders.post("/services/rest/bookingmanagement/v1/booking").contentType(SMILE)
+            .accept(SMILE).content(smileMapper.writeValueAsBytes(List.of(input))))
+        .andExpect(status().isOk()).andExpect(content().contentType(SMILE)).andReturn();
+
+    Mockito.verify(this.ucManageBooking).createBooking(this.bookingCaptor.capture());
+    List<InvitedGuestTo> guests = this.bookingCaptor.getValue().get(0).getInvitedGuests();
+    assertTrue(guests.get(0) instanceof InvitedAdultTo);
+    assertTrue(guests.get(1) instanceof InvitedChildTo);
+    assertEquals(1, smileMapper.readValue(mvcResult.getResponse().getContentAsByteArray(), BookingTo[].class).length);
+  }
+
+  /**
+   * @Input : Booking requested by id, then the Prometheus metrics
+   * @Output: The request, the use case, the payload size and the guests of the booking are measured with histograms
+   */
+  @Test
+  public void testMetricsInPrometheusFormat() throws Exception {
+
+    BookingTo mockResult = new BookingTo(7L, 0, this.invitedGuests, BOOKED_AT_INDIA, BOOKING_DATE_GERMANY,
+        this.reservationFee);
+    Mockito.when(this.ucManageBooking.getBooking(7L)).thenReturn(mockResult);
+    String uri = "/services/rest/bookingmanagement/v1/booking/{id}";
+    double responseBytes = responseSize(uri);
+    MvcResult booking = this.mockMvc.perform(MockMvcRequestBuilders.get("/services/rest/bookingmanagement/v1/booking/7"))
+        .andExpect(status().isOk()).andReturn();
+
+    String metrics = this.mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus")).andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    assertTrue(metrics.contains("http_server_requests_seconds_bucket{exception=\"None\",method=\"GET\","
+        + "outcome=\"SUCCESS\",status=\"200\",uri=\"" + uri + "\""));
+    assertTrue(metrics.contains("booking_usecase_seconds_bucket{exception=\"none\",operation=\"getBooking\""));
+    assertTrue(metrics.contains("http_server_response_size_bytes_bucket{exception=\"None\",method=\"GET\","
+        + "outcome=\"SUCCESS\",status=\"200\",uri=\"" + uri + "\""));
+    assertTrue(metrics.contains("booking_invited_guests_bucket{operation=\"getBooking\",le=\"2.0\","));
+    assertEquals(booking.getResponse().getContentAsByteArray().length, responseSize(uri) - responseBytes);
+  }
+
+  /**
+   * @Input : Request of a path without a controller
+   * @Output: The payload sizes have the same tags as the request timer of Spring Boot
+   */
+  @Test
+  public void testPayloadSizeOfUnknownPathHasTagsOfRequestTimer() throws Exception {
+
+    this.mockMvc.perform(MockMvcRequestBuilders.get("/services/rest/bookingmanagement/v1/unknown/7"))
+        .andExpect(status().isNotFound());
+
+    Timer timer = this.meterRegistry.find("http.server.requests").tag("status", "404").timer();
+    DistributionSummary summary = this.meterRegistry.find("http.server.request.size").tag("status", "404").summary();
+    assertEquals(timer.getId().getTags(), summary.getId().getTags());
+    assertEquals("CLIENT_ERROR", summary.getId().getTag("outcome"));
+  }
+
+  /**
+   * @Input : Bookings of an evening with and without a child that needs a special chair, searched with a date range
+   *         in another time zone
+   * @Output: Only the booking with the special chair is returned
+   */
+  @Test
+  public void testFindBookingsOfEveningWithSpecialChair() throws Exception {
+
+    BookingTo withChair = new BookingTo(null, 0, new ArrayList<>(List.of(new InvitedChildTo(true))), BOOKED_AT_INDIA,
+        BOOKING_DATE_INDIA, this.reservationFee);
+    BookingTo withoutChair = new BookingTo(null, 0, new ArrayList<>(List.of(new InvitedChildTo(false))),
+        BOOKED_AT_INDIA, BOOKING_DATE_INDIA, this.reservationFee);
+    this.bookingRepository.save(withChair);
+    this.bookingRepository.save(withoutChair);
+
+    MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders.get("/services/rest/bookingmanagement/v1/booking/search")
+        .param("bookingDateFrom", "2022-09-10T17:00:00+05:30").param("bookingDateTo", "2022-09-10T18:00:00+05:30")
+        .param("guestType", "Child").param("needsSpecialChair", "true")).andExpect(status().isOk()).andReturn();
+
+    BookingTo[] bookings = this.objectMapper.readValue(mvcResult.getResponse().getContentAsString(), BookingTo[].class);
+    assertEquals(1, bookings.length);
+    assertEquals(withChair.getId(), bookings[0].getId());
+    this.mockMvc.perform(MockMvcRequestBuilders.get("/services/rest/bookingmanagement/v1/booking/search")
+        .param("minFee", "10")).andExpect(status().isBadRequest());
+  }
+
+  /**
+   * @Input : Streamed creation with a JSON object and with an empty body instead of an array of bookings
+   * @Output: Both requests are rejected with 400 Bad Request instead of a 200 with an error element
+   */
+  @Test
+  public void testCreateBookingStreamRejectsNoArray() throws Exception {
+
+    for (String body : new String[] { "{\"bookings\":[]}", "" }) {
+      this.mockMvc.perform(MockMvcRequestBuilders.post("/services/rest/bookingmanagement/v1/booking/stream")
+          .contentType(MediaType.APPLICATION_JSON).content(body)).andExpect(status().isBadRequest());
+    }
+  }
+
+  private double responseSize(String uri) {
+
+    DistributionSummary summary = this.meterRegistry.find("http.server.response.size").tag("uri", uri)
+        .tag("status", "200").summary();
+    return summary == null ? 0 : summary.totalAmount();
+  }
+
+  private static ObjectMapper binaryMapper(ObjectMapper mapper) {
+
+    // like the mapper of Spring Boot, guestType is both type id and property
+    return mapper.registerModule(new BookingJsonModule()).disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  }
+
 }
@@ -0,0 +1,151 @@
+package com.devonfw.mtsjson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.devonfw.mtsjson.bookingmanagement.common.exception.InvalidBookingException;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcManageBooking;
+import com.devonfw.mtsjson.bookingmanagement.service.json.BookingJsonModule;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingChunkTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.rest.v1.BookingMetrics;
+import com.devonfw.mtsjson.bookingmanagement.service.rest.v1.BookingStreaming;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BookingStreamingTest {
+
+  private static final ZonedDateTime TONIGHT = ZonedDateTime.parse("2022-09-10T18:00:00Z");
+
+  private final ObjectMapper objectMapper = new Jackson2ObjectMapperBuilder().modulesToInstall(new BookingJsonModule())
+      .build();
+
+  private BookingRepository bookingRepository;
+
+  private BookingStreaming bookingStreaming;
+
+  @BeforeEach
+  public void createStreaming() {
+
+    this.bookingRepository = new BookingRepository();
+    this.bookingStreaming = new BookingStreaming(this.objectMapper, new UcManageBooking(this.bookingRepository),
+        new BookingMetrics(new SimpleMeterRegistry()));
+  }
+
+  private static List<BookingTo> bookings(int size) {
+
+    List<BookingTo> bookings = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      BookingTo booking = new BookingTo();
+      booking.setBookingDate(TONIGHT.plusMinutes(i));
+      booking.setReservationFee(Money.of(BigDecimal.valueOf(i, 2), "EUR"));
+      booking.setInvitedGuests(List.of(new InvitedAdultTo("guest" + i + "@gmail.com"), new InvitedChildTo(false)));
+      bookings.add(booking);
+    }
+    return bookings;
+  }
+
+  private List<BookingChunkTo> createBookings(String request, int chunkSize) throws IOException {
+
+    ByteArrayOutputStream response = new ByteArrayOutputStream();
+    this.bookingStreaming.createBookings(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)), response,
+        chunkSize);
+    return this.objectMapper.readValue(response.toByteArray(), new TypeReference<List<BookingChunkTo>>() {
+    });
+  }
+
+  /**
+   * @Input : 2500 bookings with adults and children stored in chunks of 1000
+   * @Output: Three chunks with the stored bookings in the order of the request
+   */
+  @Test
+  public void testCreateBookingsInChunks() throws IOException {
+
+    List<BookingChunkTo> chunks = createBookings(this.objectMapper.writeValueAsString(bookings(2500)), 1000);
+
+    assertEquals(3, chunks.size());
+    assertEquals(2500, this.bookingRepository.count());
+    for (int i = 0; i < 3; i++) {
+      BookingChunkTo chunk = chunks.get(i);
+      assertEquals(i, chunk.getChunk());
+      assertEquals(i * 1000, chunk.getFirst());
+      assertNull(chunk.getError());
+      assertEquals(i < 2 ? 1000 : 500, chunk.getBookings().size());
+      BookingTo first = chunk.getBookings().get(0);
+      assertEquals(TONIGHT.plusMinutes(i * 1000).toInstant(), first.getBookingDate().toInstant());
+      assertTrue(first.getInvitedGuests().get(1) instanceof InvitedChildTo);
+      assertEquals(first.getId(), this.bookingRepository.findById(first.getId()).getId());
+    }
+  }
+
+  /**
+   * @Input : A negative fee at booking 1500 and a request cut off after booking 1200
+   * @Output: The first chunk is stored, the error is written as last element with the index of the booking
+   */
+  @Test
+  public void testErrorStopsRequest() throws IOException {
+
+    List<BookingTo> bookings = bookings(2500);
+    bookings.get(1500).setReservationFee(Money.of(-1, "EUR"));
+
+    List<BookingChunkTo> chunks = createBookings(this.objectMapper.writeValueAsString(bookings), 1000);
+
+    assertEquals(2, chunks.size());
+    assertEquals(1000, chunks.get(0).getBookings().size());
+    assertEquals(1, chunks.get(1).getChunk());
+    assertEquals(1000, chunks.get(1).getFirst());
+    assertNull(chunks.get(1).getBookings());
+    assertTrue(chunks.get(1).getError().startsWith("Booking 1500: Reservation fee"), chunks.get(1).getError());
+    assertEquals(1000, this.bookingRepository.count());
+
+    String json = this.objectMapper.writeValueAsString(bookings(1300));
+    chunks = createBookings(json.substring(0, json.indexOf("{\"id\"", json.length() * 1200 / 1300 + 10)), 500);
+
+    assertEquals(3, chunks.size());
+    assertTrue(chunks.get(2).getError().startsWith("Request ends within the array of bookings"), chunks.get(2).getError());
+    assertEquals(2000, this.bookingRepository.count());
+  }
+
+  /**
+   * @Input : An empty request, a JSON object, invalid JSON and an array of invalid JSON
+   * @Output: The requests that are no array are rejected without writing a response, the array gets an error element
+   */
+  @Test
+  public void testRequestMustBeArray() throws IOException {
+
+    for (String request : new String[] { "", "{\"bookings\":[]}", "bookings" }) {
+      ByteArrayOutputStream response = new ByteArrayOutputStream();
+      InvalidBookingException e = assertThrows(InvalidBookingException.class, () -> this.bookingStreaming
+          .createBookings(new ByteArrayInputStream(request.getBytes(StandardCharsets.UTF_8)), response, 10));
+      assertEquals(0, response.size(), e.getMessage());
+    }
+
+    List<BookingChunkTo> chunks = createBookings("[{\"bookingDate\":}]", 10);
+
+    assertEquals(1, chunks.size());
+    assertTrue(chunks.get(0).getError().startsWith("Booking 0 is invalid JSON"), chunks.get(0).getError());
+    assertEquals(0, this.bookingRepository.count());
+  }
+
+}
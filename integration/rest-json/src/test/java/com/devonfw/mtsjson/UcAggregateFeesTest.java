@@ -0,0 +1,190 @@
+package com.devonfw.mtsjson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devonfw.mtsjson.bookingmanagement.common.exception.InvalidSearchCriteriaException;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcAggregateFees;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.FeeTotalTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+class UcAggregateFeesTest {
+
+  private static final ZonedDateTime TONIGHT = ZonedDateTime.parse("2022-09-10T18:00:00Z");
+
+  private BookingRepository bookingRepository;
+
+  private UcAggregateFees ucAggregateFees;
+
+  @BeforeEach
+  public void createUseCase() {
+
+    this.bookingRepository = new BookingRepository();
+    this.ucAggregateFees = new UcAggregateFees(this.bookingRepository);
+  }
+
+  private BookingTo save(ZonedDateTime bookingDate, String fee, String currency, InvitedGuestTo... guests) {
+
+    BookingTo booking = new BookingTo();
+    booking.setBookingDate(bookingDate);
+    booking.setReservationFee(fee == null ? null : Money.of(new BigDecimal(fee), currency));
+    booking.setInvitedGuests(new ArrayList<>(List.of(guests)));
+    return this.bookingRepository.save(booking);
+  }
+
+  private static BigDecimal number(MonetaryAmount amount) {
+
+    return amount.getNumber().numberValue(BigDecimal.class);
+  }
+
+  /**
+   * @Input : Bookings of two days and currencies with adults, children, both and without guests
+   * @Output: One total per currency, day and combination of guest types
+   */
+  @Test
+  public void testAggregateByCurrencyDayAndGuestTypes() {
+
+    save(TONIGHT, "20.50", "EUR", new InvitedAdultTo("user@gmail.com"));
+    save(TONIGHT.plusHours(2), "10", "EUR", new InvitedAdultTo("other@gmail.com"));
+    save(TONIGHT, "5.25", "EUR", new InvitedAdultTo("user@gmail.com"), new InvitedChildTo(true));
+    save(TONIGHT, "7", "EUR", new InvitedChildTo(false));
+    save(TONIGHT.plusDays(1), "1000", "JPY");
+    save(null, "3.333", "EUR");
+    save(TONIGHT, null, null, new InvitedAdultTo("user@gmail.com"));
+
+    List<FeeTotalTo> totals = this.ucAggregateFees.aggregateFees(null, null);
+
+    assertEquals(5, totals.size());
+    LocalDate day = LocalDate.of(2022, 9, 10);
+    assertTotal(totals.get(0), "EUR", day, List.of("Adult"), 2, "30.50", "15.25");
+    assertTotal(totals.get(1), "EUR", day, List.of("Child"), 1, "7", "7");
+    assertTotal(totals.get(2), "EUR", day, List.of("Adult", "Child"), 1, "5.25", "5.25");
+    assertTotal(totals.get(3), "EUR", null, List.of(), 1, "3.333", "3.333");
+    assertTotal(totals.get(4), "JPY", day.plusDays(1), List.of(), 1, "1000", "1000");
+  }
+
+  private static void assertTotal(FeeTotalTo total, String currency, LocalDate day, List<String> guestTypes,
+      long count, String sum, String average) {
+
+    assertEquals(currency, total.getCurrency());
+    assertEquals(day, total.getDay());
+    assertEquals(guestTypes, total.getGuestTypes());
+    assertEquals(count, total.getCount());
+    assertEquals(0, new BigDecimal(sum).compareTo(number(total.getTotal())));
+    assertEquals(currency, total.getTotal().getCurrency().getCurrencyCode());
+    assertEquals(0, new BigDecimal(average).compareTo(number(total.getAverage())));
+  }
+
+  /**
+   * @Input : 100000 bookings with random fees of up to three decimals in three currencies, updated bookings included
+   * @Output: The same totals and averages as summing the {@link Money} of the bookings
+   */
+  @Test
+  public void testSameResultAsSumOfMoney() {
+
+    Random random = new Random(42);
+    String[] currencies = { "EUR", "USD", "JPY" };
+    List<BookingTo> saved = new ArrayList<>();
+    for (int i = 0; i < 100_000; i++) {
+      InvitedGuestTo[] guests = random.nextBoolean() ? new InvitedGuestTo[] { new InvitedAdultTo("user@gmail.com") }
+          : new InvitedGuestTo[] { new InvitedChildTo(false) };
+      BigDecimal fee = BigDecimal.valueOf(1 + random.nextInt(1_000_000), random.nextInt(4));
+      saved.add(save(TONIGHT.plusHours(random.nextInt(24 * 30)), fee.toPlainString(),
+          currencies[random.nextInt(currencies.length)], guests));
+    }
+    for (int i = 0; i < 1000; i++) {
+      BookingTo booking = saved.get(random.nextInt(saved.size()));
+      booking.setReservationFee(Money.of(BigDecimal.valueOf(1 + random.nextInt(100), 1), "USD"));
+      this.bookingRepository.save(booking);
+    }
+
+    Map<String, Money> expected = new TreeMap<>();
+    Map<String, Long> counts = new TreeMap<>();
+    for (BookingTo booking : this.bookingRepository.findAll()) {
+      String key = booking.getReservationFee().getCurrency().getCurrencyCode() + " "
+          + booking.getBookingDate().withZoneSameInstant(ZoneOffset.UTC).toLocalDate() + " "
+          + (booking.getInvitedGuests().get(0) instanceof InvitedAdultTo ? "[Adult]" : "[Child]");
+      expected.merge(key, Money.from(booking.getReservationFee()), Money::add);
+      counts.merge(key, 1L, Long::sum);
+    }
+
+    List<FeeTotalTo> totals = this.ucAggregateFees.aggregateFees(null, null);
+
+    assertEquals(expected.size(), totals.size());
+    for (FeeTotalTo total : totals) {
+      String key = total.getCurrency() + " " + total.getDay() + " " + total.getGuestTypes();
+      Money sum = expected.get(key);
+      assertEquals(number(sum), number(total.getTotal()), key);
+      assertEquals(number(sum.divide(counts.get(key))), number(total.getAverage()), key);
+      assertEquals(counts.get(key), total.getCount(), key);
+    }
+  }
+
+  /**
+   * @Input : Fees with more decimals than before, with too many decimals for a long and sums overflowing a long
+   * @Output: The exact totals
+   */
+  @Test
+  public void testLargeFeesAreSummedExactly() {
+
+    save(TONIGHT, "1.5", "EUR");
+    save(TONIGHT, "0.125", "EUR");
+    assertEquals(0, new BigDecimal("1.625").compareTo(total(0)));
+
+    save(TONIGHT, "90000000000000000.00", "USD");
+    save(TONIGHT, "90000000000000000.00", "USD");
+    assertEquals(0, new BigDecimal("180000000000000000").compareTo(total(1)));
+
+    save(TONIGHT, "0.0000000000000000000001", "EUR");
+    assertEquals(0, new BigDecimal("1.6250000000000000000001").compareTo(total(0)));
+  }
+
+  private BigDecimal total(int index) {
+
+    return number(this.ucAggregateFees.aggregateFees(null, null).get(index).getTotal());
+  }
+
+  /**
+   * @Input : Bookings before, during and after a range of booking dates
+   * @Output: Only the fees of the range, an inverted range is rejected
+   */
+  @Test
+  public void testAggregateDateRange() {
+
+    save(TONIGHT.minusSeconds(1), "1", "EUR");
+    save(TONIGHT, "2", "EUR");
+    save(TONIGHT.plusHours(5), "4", "EUR");
+    save(TONIGHT.plusHours(6), "8", "EUR");
+
+    List<FeeTotalTo> totals = this.ucAggregateFees.aggregateFees(TONIGHT, TONIGHT.plusHours(6));
+
+    assertEquals(1, totals.size());
+    assertEquals(0, new BigDecimal("6").compareTo(number(totals.get(0).getTotal())));
+    assertEquals(2, totals.get(0).getCount());
+    assertNull(this.ucAggregateFees.aggregateFees(TONIGHT.plusDays(1), null).stream().findAny().orElse(null));
+    assertThrows(InvalidSearchCriteriaException.class,
+        () -> this.ucAggregateFees.aggregateFees(TONIGHT.plusHours(1), TONIGHT));
+  }
+
+}
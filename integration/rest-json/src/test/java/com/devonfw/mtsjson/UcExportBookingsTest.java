@@ -0,0 +1,178 @@
+package com.devonfw.mtsjson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.money.CurrencyUnit;
+
+import org.javamoney.moneta.CurrencyUnitBuilder;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingSnapshot;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcExportBookings;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+class UcExportBookingsTest {
+
+  private static final ZonedDateTime TONIGHT = ZonedDateTime.parse("2022-09-10T18:00:00Z");
+
+  private BookingRepository bookingRepository;
+
+  private UcExportBookings ucExportBookings;
+
+  @BeforeEach
+  public void createUseCase() {
+
+    this.bookingRepository = new BookingRepository();
+    this.ucExportBookings = new UcExportBookings(this.bookingRepository);
+  }
+
+  private BookingTo save(ZonedDateTime bookingDate, String fee, String currency, InvitedGuestTo... guests) {
+
+    BookingTo booking = new BookingTo();
+    booking.setBookedAt(TONIGHT.minusDays(1));
+    booking.setBookingDate(bookingDate);
+    booking.setReservationFee(fee == null ? null : Money.of(new BigDecimal(fee), currency));
+    booking.setInvitedGuests(new ArrayList<>(List.of(guests)));
+    return this.bookingRepository.save(booking);
+  }
+
+  /**
+   * @Input : Bookings with and without date, fee and guests
+   * @Output: One CSV line per booking in the order of creation
+   */
+  @Test
+  public void testExportBookings() throws IOException {
+
+    BookingTo first = save(TONIGHT, "20.50", "EUR", new InvitedAdultTo("user@gmail.com"), new InvitedChildTo(true),
+        new InvitedChildTo(false));
+    BookingTo second = save(null, null, null);
+
+    StringWriter csv = new StringWriter();
+    this.ucExportBookings.exportBookings(this.ucExportBookings.snapshot(), csv);
+
+    assertEquals(UcExportBookings.HEADER + "\n" //
+        + first.getId() + ",2022-09-09T18:00:00Z,2022-09-10T18:00:00Z,20.5,EUR,1,2\n" //
+        + second.getId() + ",2022-09-09T18:00:00Z,,,,0,0\n", csv.toString());
+  }
+
+  /**
+   * @Input : A snapshot, then updated and new bookings
+   * @Output: The next snapshot has the changes, the previous snapshot is unchanged and reused without changes
+   */
+  @Test
+  public void testSnapshotIsUpdatedIncrementally() {
+
+    BookingTo booking = save(TONIGHT, "10", "EUR", new InvitedAdultTo("user@gmail.com"));
+    BookingSnapshot first = this.bookingRepository.snapshot();
+    assertSame(first, this.bookingRepository.snapshot());
+
+    booking.setReservationFee(Money.of(new BigDecimal("12.75"), "USD"));
+    booking.setInvitedGuests(List.of(new InvitedChildTo(false)));
+    this.bookingRepository.save(booking);
+    save(null, "1234567890123456789.01", "EUR");
+    BookingSnapshot second = this.bookingRepository.snapshot();
+
+    assertEquals(1, first.size());
+    assertEquals(0, new BigDecimal("10").compareTo(first.fee(0)));
+    assertEquals("EUR", first.currency(0));
+    assertEquals(1, first.adults(0));
+    assertEquals(2, second.size());
+    assertEquals(booking.getId().longValue(), second.id(0));
+    assertEquals(1275, second.feeMinorUnits(0));
+    assertEquals(2, second.feeScale(0));
+    assertEquals("USD", second.currency(0));
+    assertEquals(0, second.adults(0));
+    assertEquals(1, second.children(0));
+    assertEquals(BookingSnapshot.NO_DATE, second.bookingDate(1));
+    assertEquals(new BigDecimal("1234567890123456789.01"), second.fee(1));
+    assertFalse(second.isFeeMinorUnits(1));
+    assertThrows(IllegalStateException.class, () -> second.feeMinorUnits(1));
+    assertThrows(IndexOutOfBoundsException.class, () -> second.id(2));
+  }
+
+  /**
+   * @Input : Bookings with custom currencies whose codes are not three ASCII characters
+   * @Output: The snapshot and the export keep their codes
+   */
+  @Test
+  public void testExportBookingsWithCustomCurrencies() throws IOException {
+
+    CurrencyUnit bitcoin = CurrencyUnitBuilder.of("BITCOIN", "test").setDefaultFractionDigits(8).build();
+    CurrencyUnit taler = CurrencyUnitBuilder.of("TÄL", "test").build();
+    BookingTo first = save(TONIGHT, "20", "EUR");
+    BookingTo second = save(TONIGHT, null, null);
+    second.setReservationFee(Money.of(new BigDecimal("0.00012"), bitcoin));
+    this.bookingRepository.save(second);
+    BookingTo third = save(TONIGHT, null, null);
+    third.setReservationFee(Money.of(new BigDecimal("3"), taler));
+    this.bookingRepository.save(third);
+
+    BookingSnapshot snapshot = this.ucExportBookings.snapshot();
+    StringWriter csv = new StringWriter();
+    this.ucExportBookings.exportBookings(snapshot, csv);
+
+    assertEquals("EUR", snapshot.currency(0));
+    assertEquals("BITCOIN", snapshot.currency(1));
+    assertEquals("TÄL", snapshot.currency(2));
+    assertEquals(UcExportBookings.HEADER + "\n" //
+        + first.getId() + ",2022-09-09T18:00:00Z,2022-09-10T18:00:00Z,20,EUR,0,0\n" //
+        + second.getId() + ",2022-09-09T18:00:00Z,2022-09-10T18:00:00Z,0.00012,BITCOIN,0,0\n" //
+        + third.getId() + ",2022-09-09T18:00:00Z,2022-09-10T18:00:00Z,3,TÄL,0,0\n", csv.toString());
+
+    // a saved booking with a three letter code replaces the custom code
+    second.setReservationFee(Money.of(BigDecimal.ONE, "USD"));
+    this.bookingRepository.save(second);
+    assertEquals("USD", this.ucExportBookings.snapshot().currency(1));
+    assertEquals("BITCOIN", snapshot.currency(1));
+  }
+
+  /**
+   * @Input : More bookings than fit into one chunk, some updated after the first snapshot
+   * @Output: The snapshot has the same values as the bookings
+   */
+  @Test
+  public void testSnapshotOfManyBookings() {
+
+    List<BookingTo> saved = new ArrayList<>();
+    for (int i = 0; i < BookingSnapshot.CHUNK_ROWS * 2 + 10; i++) {
+      saved.add(save(TONIGHT.plusMinutes(i), BigDecimal.valueOf(i, 2).toPlainString(), "EUR"));
+    }
+    this.bookingRepository.snapshot();
+    for (int i = 0; i < saved.size(); i += 1000) {
+      saved.get(i).setReservationFee(null);
+      this.bookingRepository.save(saved.get(i));
+    }
+
+    BookingSnapshot snapshot = this.bookingRepository.snapshot();
+
+    assertEquals(saved.size(), snapshot.size());
+    for (int row = 0; row < snapshot.size(); row++) {
+      assertEquals(saved.get(row).getId().longValue(), snapshot.id(row));
+      assertEquals(TONIGHT.plusMinutes(row).toEpochSecond(), snapshot.bookingDate(row));
+      if (row % 1000 == 0) {
+        assertNull(snapshot.fee(row));
+        assertNull(snapshot.currency(row));
+      } else {
+        assertEquals(0, BigDecimal.valueOf(row, 2).compareTo(snapshot.fee(row)));
+      }
+    }
+  }
+
+}
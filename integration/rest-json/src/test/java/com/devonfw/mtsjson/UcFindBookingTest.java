@@ -0,0 +1,187 @@
+package com.devonfw.mtsjson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devonfw.mtsjson.bookingmanagement.common.exception.InvalidSearchCriteriaException;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcFindBooking;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingSearchCriteriaTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.FeeTotalTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedChildTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+class UcFindBookingTest {
+
+  private static final ZonedDateTime TONIGHT = ZonedDateTime.parse("2022-09-10T18:00:00Z");
+
+  private BookingRepository bookingRepository;
+
+  private UcFindBooking ucFindBooking;
+
+  @BeforeEach
+  public void createUseCase() {
+
+    this.bookingRepository = new BookingRepository();
+    this.ucFindBooking = new UcFindBooking(this.bookingRepository);
+  }
+
+  private BookingTo save(ZonedDateTime bookingDate, String fee, String currency, InvitedGuestTo... guests) {
+
+    BookingTo booking = new BookingTo();
+    booking.setBookingDate(bookingDate);
+    booking.setReservationFee(fee == null ? null : Money.of(new BigDecimal(fee), currency));
+    booking.setInvitedGuests(new ArrayList<>(List.of(guests)));
+    return this.bookingRepository.save(booking);
+  }
+
+  private static InvitedChildTo child(boolean needsSpecialChair) {
+
+    return new InvitedChildTo(needsSpecialChair);
+  }
+
+  private List<Long> find(BookingSearchCriteriaTo criteria) {
+
+    return this.ucFindBooking.findBookings(criteria).stream().map(BookingTo::getId).collect(Collectors.toList());
+  }
+
+  private static BookingSearchCriteriaTo tonight() {
+
+    BookingSearchCriteriaTo criteria = new BookingSearchCriteriaTo();
+    criteria.setBookingDateFrom(TONIGHT);
+    criteria.setBookingDateTo(TONIGHT.plusHours(6));
+    return criteria;
+  }
+
+  /**
+   * @Input : Bookings before, during and after the evening with and without a child that needs a special chair
+   * @Output: The bookings of the evening with a special chair ordered by bookingDate
+   */
+  @Test
+  public void testFindByDateAndSpecialChair() {
+
+    long late = save(TONIGHT.plusHours(3), null, null, child(true)).getId();
+    save(TONIGHT.minusSeconds(1), null, null, child(true));
+    long early = save(TONIGHT, null, null, new InvitedAdultTo("user@gmail.com"), child(true)).getId();
+    long withoutChair = save(TONIGHT.plusHours(1), null, null, child(false)).getId();
+    save(TONIGHT.plusHours(6), null, null, child(true));
+    save(null, null, null, child(true));
+
+    BookingSearchCriteriaTo criteria = tonight();
+    criteria.setNeedsSpecialChair(true);
+    assertEquals(List.of(early, late), find(criteria));
+
+    criteria.setNeedsSpecialChair(false);
+    assertEquals(List.of(withoutChair), find(criteria));
+
+    criteria.setNeedsSpecialChair(null);
+    criteria.setGuestType(BookingSearchCriteriaTo.ADULT);
+    assertEquals(List.of(early), find(criteria));
+  }
+
+  /**
+   * @Input : Bookings with fees in different currencies, one of them is updated
+   * @Output: The bookings with a fee in the range of the currency, the update is indexed
+   */
+  @Test
+  public void testFindByFeeFollowsUpdates() {
+
+    long cheap = save(TONIGHT, "5.00", "EUR").getId();
+    BookingTo medium = save(TONIGHT, "12.5", "EUR");
+    save(TONIGHT, "12.50", "USD");
+    long expensive = save(TONIGHT, "20", "EUR").getId();
+
+    BookingSearchCriteriaTo criteria = new BookingSearchCriteriaTo();
+    criteria.setCurrency("EUR");
+    criteria.setMinFee(new BigDecimal("12.50"));
+    criteria.setMaxFee(new BigDecimal("20"));
+    assertEquals(List.of(medium.getId(), expensive), find(criteria));
+
+    criteria.setMaxFee(null);
+    criteria.setLimit(1);
+    assertEquals(List.of(medium.getId()), find(criteria));
+
+    medium.setReservationFee(Money.of(1, "EUR"));
+    this.bookingRepository.save(medium);
+    criteria.setLimit(null);
+    assertEquals(List.of(expensive), find(criteria));
+    criteria.setMinFee(null);
+    criteria.setMaxFee(BigDecimal.TEN);
+    assertEquals(List.of(cheap, medium.getId()), find(criteria));
+  }
+
+  /**
+   * @Input : A fee without currency, an unknown guest type and a limit of 0
+   * @Output: The criteria are rejected
+   */
+  @Test
+  public void testInvalidCriteria() {
+
+    BookingSearchCriteriaTo criteria = new BookingSearchCriteriaTo();
+    criteria.setMinFee(BigDecimal.ONE);
+    assertThrows(InvalidSearchCriteriaException.class, () -> this.ucFindBooking.findBookings(criteria));
+
+    BookingSearchCriteriaTo guestType = new BookingSearchCriteriaTo();
+    guestType.setGuestType("Baby");
+    assertThrows(InvalidSearchCriteriaException.class, () -> this.ucFindBooking.findBookings(guestType));
+
+    BookingSearchCriteriaTo limit = new BookingSearchCriteriaTo();
+    limit.setLimit(0);
+    assertThrows(InvalidSearchCriteriaException.class, () -> this.ucFindBooking.findBookings(limit));
+  }
+
+  /**
+   * @Input : Many threads creating and updating bookings at the same time, more than the initial rows of the index
+   * @Output: Every booking is found and aggregated with the fee of its update
+   */
+  @Test
+  public void testParallelSavesAreIndexed() throws Exception {
+
+    int threads = 8;
+    int bookingsPerThread = 2000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < bookingsPerThread; j++) {
+            BookingTo booking = save(TONIGHT.plusMinutes(j), "12.5", "EUR", child(j % 2 == 0));
+            // the larger scale rescales the fees of the currency while the other threads save
+            booking.setReservationFee(Money.of(new BigDecimal("20.125"), "EUR"));
+            this.bookingRepository.save(booking);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    BookingSearchCriteriaTo criteria = new BookingSearchCriteriaTo();
+    criteria.setCurrency("EUR");
+    criteria.setMinFee(new BigDecimal("20.125"));
+    criteria.setMaxFee(new BigDecimal("20.125"));
+    assertEquals(threads * bookingsPerThread, this.bookingRepository.findByCriteria(criteria).size());
+    criteria.setNeedsSpecialChair(true);
+    assertEquals(threads * bookingsPerThread / 2, this.bookingRepository.findByCriteria(criteria).size());
+    assertEquals(threads * bookingsPerThread, this.bookingRepository.snapshot().size());
+    List<FeeTotalTo> totals = this.bookingRepository.aggregateFees(null, null);
+    assertEquals(threads * bookingsPerThread, totals.stream().mapToLong(FeeTotalTo::getCount).sum());
+  }
+}
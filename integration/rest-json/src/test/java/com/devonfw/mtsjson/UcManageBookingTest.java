@@ -0,0 +1,141 @@
+package com.devonfw.mtsjson;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.devonfw.mtsjson.bookingmanagement.common.exception.BookingNotFoundException;
+import com.devonfw.mtsjson.bookingmanagement.common.exception.OptimisticLockingException;
+import com.devonfw.mtsjson.bookingmanagement.dataaccess.BookingRepository;
+import com.devonfw.mtsjson.bookingmanagement.logic.UcManageBooking;
+import com.devonfw.mtsjson.bookingmanagement.service.model.BookingTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedAdultTo;
+import com.devonfw.mtsjson.bookingmanagement.service.model.InvitedGuestTo;
+
+class UcManageBookingTest {
+
+  private UcManageBooking ucManageBooking;
+
+  @BeforeEach
+  public void createUseCase() {
+
+    this.ucManageBooking = new UcManageBooking(new BookingRepository());
+  }
+
+  private static BookingTo booking(Long id, int modificationCounter, InvitedGuestTo... guests) {
+
+    BookingTo booking = new BookingTo();
+    booking.setId(id);
+    booking.setModificationCounter(modificationCounter);
+    booking.setInvitedGuests(new ArrayList<>(List.of(guests)));
+    return booking;
+  }
+
+  private static InvitedAdultTo adult(Long id, int modificationCounter) {
+
+    InvitedAdultTo adult = new InvitedAdultTo("user@gmail.com");
+    adult.setId(id);
+    adult.setModificationCounter(modificationCounter);
+    return adult;
+  }
+
+  /**
+   * @Input : Bookings and guests without id
+   * @Output: Ids are assigned and the booking can be read again
+   */
+  @Test
+  public void testCreateAndGetBooking() {
+
+    BookingTo created = this.ucManageBooking.createBooking(List.of(booking(null, 5, adult(null, 3)))).get(0);
+
+    assertEquals(0, created.getModificationCounter());
+    assertEquals(0, created.getInvitedGuests().get(0).getModificationCounter());
+    assertEquals(created, this.ucManageBooking.getBooking(created.getId()));
+    assertThrows(BookingNotFoundException.class, () -> this.ucManageBooking.getBooking(created.getId() + 1));
+  }
+
+  /**
+   * @Input : Two updates based on the same modificationCounter
+   * @Output: The first update increments the counters, the second one is rejected
+   */
+  @Test
+  public void testConcurrentUpdateIsDetected() {
+
+    BookingTo created = this.ucManageBooking.createBooking(List.of(booking(null, 0, adult(null, 0)))).get(0);
+    Long guestId = created.getInvitedGuests().get(0).getId();
+
+    BookingTo updated = this.ucManageBooking.createBooking(List.of(booking(created.getId(), 0, adult(guestId, 0))))
+        .get(0);
+    assertEquals(1, updated.getModificationCounter());
+    assertEquals(1, updated.getInvitedGuests().get(0).getModificationCounter());
+
+    assertThrows(OptimisticLockingException.class,
+        () -> this.ucManageBooking.createBooking(List.of(booking(created.getId(), 0, adult(guestId, 1)))));
+    assertThrows(OptimisticLockingException.class,
+        () -> this.ucManageBooking.createBooking(List.of(booking(created.getId(), 1, adult(guestId, 0)))));
+    assertEquals(updated, this.ucManageBooking.getBooking(created.getId()));
+  }
+
+  /**
+   * @Input : Many threads creating bookings at the same time
+   * @Output: Every booking gets a distinct id
+   */
+  @Test
+  public void testParallelCreateAssignsUniqueIds() throws Exception {
+
+    int threads = 8;
+    int bookingsPerThread = 5000;
+    Set<Long> ids = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int i = 0; i < threads; i++) {
+        futures.add(executor.submit(() -> {
+          for (int j = 0; j < bookingsPerThread; j++) {
+            ids.add(this.ucManageBooking.createBooking(List.of(booking(null, 0))).get(0).getId());
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(threads * bookingsPerThread, ids.size());
+    assertNotEquals(null, this.ucManageBooking.getBooking(ids.iterator().next()));
+  }
+
+  /**
+   * @Input : Bookings created one after the other, each by a new thread like with a virtual thread per request
+   * @Output: The ids are consecutive instead of skipping a range per thread
+   */
+  @Test
+  public void testNewThreadPerBookingGetsConsecutiveIds() throws Exception {
+
+    List<Long> ids = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        ids.add(executor.submit(() -> this.ucManageBooking.createBooking(List.of(booking(null, 0))).get(0).getId())
+            .get());
+      } finally {
+        executor.shutdown();
+      }
+    }
+    for (int i = 1; i < ids.size(); i++) {
+      assertEquals(ids.get(0) + i, ids.get(i));
+    }
+  }
+}
@@ -3,12 +3,14 @@ package com.devonfw.devon4j.examples.service.openapidemo;
 import com.devonfw.devon4j.generated.client.handler.ApiException;
 import com.devonfw.devon4j.generated.client.model.BookingTO;
 import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingManager;
+import com.devonfw.startup.ContextExitConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 import java.util.Collection;
 
@@ -16,6 +18,7 @@ import java.util.Collection;
  * Small example main application to get a list of all bookings
  */
 @SpringBootApplication
+@Import(ContextExitConfig.class)
 public class OpenapidemoApplication implements CommandLineRunner {
 
 	private static Logger log = LoggerFactory.getLogger(OpenapidemoApplication.class);
@@ -0,0 +1,81 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
+
+import com.devonfw.devon4j.generated.client.handler.ApiException;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * This class limits the number of async requests that are in flight at the same time
+ * Further requests are queued and sent as soon as a running request completes
+ *
+ * The HttpClient fails requests exceeding the concurrent streams allowed by a HTTP/2 server
+ * instead of waiting, so a caller fanning out hundreds of requests needs this limit
+ */
+public class AsyncRequestLimiter {
+
+    /**
+     * A request that is started by the limiter
+     * @param <T> the type of the response
+     */
+    @FunctionalInterface
+    public interface AsyncRequest<T> {
+
+        CompletableFuture<T> send() throws ApiException;
+    }
+
+    private final Semaphore permits;
+
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    public AsyncRequestLimiter(int maxConcurrentRequests) {
+        this.permits = new Semaphore(maxConcurrentRequests);
+    }
+
+    /**
+     * Function to send the request now or as soon as less than the maximum number of requests are in flight
+     * @param request the request to send
+     * @return a future completed with the result of the request
+     */
+    public <T> CompletableFuture<T> submit(AsyncRequest<T> request) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        waiting.add(() -> start(request, result));
+        drain();
+        return result;
+    }
+
+    private <T> void start(AsyncRequest<T> request, CompletableFuture<T> result) {
+        CompletableFuture<T> response;
+        try {
+            response = request.send();
+        } catch (ApiException | RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((value, error) -> {
+            permits.release();
+            drain();
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete(value);
+            }
+        });
+    }
+
+    /**
+     * Function to start waiting requests while permits are available
+     * Every submit and every completion calls it, so no waiting request is left behind
+     */
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release();
+            } else {
+                next.run();
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
+
+import com.devonfw.devon4j.generated.client.handler.ApiException;
+import com.devonfw.devon4j.generated.client.model.BookingTO;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class collects bookings requested by id and loads them with one request per batch
+ *
+ * The ids requested within the batch window after the first id of a batch are sent together,
+ * a batch reaching the maximum batch size is sent at once. Every caller gets its own future,
+ * callers requesting the same id in the same batch share it.
+ * A booking missing in the response completes its future with an ApiException with code 404,
+ * a failed request completes the futures of all ids of the batch with its error
+ */
+public class BookingBatchLoader {
+
+    private static final int NOT_FOUND = 404;
+
+    /**
+     * The request loading the bookings of a batch
+     */
+    @FunctionalInterface
+    public interface BatchRequest {
+
+        CompletableFuture<List<BookingTO>> send(List<Long> ids) throws ApiException;
+    }
+
+    private final BatchRequest batchRequest;
+
+    private final int maxBatchSize;
+
+    private final Executor delayedExecutor;
+
+    /**
+     * The futures of the ids of the batch that is not sent yet, guarded by this
+     */
+    private Map<Long, CompletableFuture<BookingTO>> pending = new LinkedHashMap<>();
+
+    /**
+     * Number of the batch that is not sent yet, so the window of a batch sent because it was full does not send the next one
+     */
+    private long batchNumber;
+
+    /**
+     * @param batchRequest the request to load the bookings of a batch
+     * @param maxBatchSize the maximum number of ids sent with one request
+     * @param window the time the ids of a batch are collected before it is sent
+     */
+    public BookingBatchLoader(BatchRequest batchRequest, int maxBatchSize, Duration window) {
+        this.batchRequest = batchRequest;
+        this.maxBatchSize = maxBatchSize;
+        this.delayedExecutor = CompletableFuture.delayedExecutor(window.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Function to add a booking to the current batch
+     * @param bookingId the id of the booking
+     * @return a future completed with the booking when the batch is loaded
+     */
+    public CompletableFuture<BookingTO> load(long bookingId) {
+        CompletableFuture<BookingTO> booking;
+        Map<Long, CompletableFuture<BookingTO>> full = null;
+        synchronized (this) {
+            booking = pending.get(bookingId);
+            if (booking != null) {
+                return booking;
+            }
+            booking = new CompletableFuture<>();
+            pending.put(bookingId, booking);
+            if (pending.size() >= maxBatchSize) {
+                full = takePending();
+            } else if (pending.size() == 1) {
+                long number = batchNumber;
+                delayedExecutor.execute(() -> sendAfterWindow(number));
+            }
+        }
+        if (full != null) {
+            send(full);
+        }
+        return booking;
+    }
+
+    private void sendAfterWindow(long number) {
+        Map<Long, CompletableFuture<BookingTO>> batch;
+        synchronized (this) {
+            if (number != batchNumber || pending.isEmpty()) {
+                return;
+            }
+            batch = takePending();
+        }
+        send(batch);
+    }
+
+    private Map<Long, CompletableFuture<BookingTO>> takePending() {
+        Map<Long, CompletableFuture<BookingTO>> batch = pending;
+        pending = new LinkedHashMap<>();
+        batchNumber++;
+        return batch;
+    }
+
+    private void send(Map<Long, CompletableFuture<BookingTO>> batch) {
+        CompletableFuture<List<BookingTO>> response;
+        try {
+            response = batchRequest.send(new ArrayList<>(batch.keySet()));
+        } catch (ApiException | RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete((bookings, error) -> {
+            if (error != null) {
+                batch.values().forEach(booking -> booking.completeExceptionally(error));
+                return;
+            }
+            Map<Long, BookingTO> bookingsById = new HashMap<>();
+            for (BookingTO booking : bookings) {
+                bookingsById.put(booking.getId(), booking);
+            }
+            batch.forEach((id, booking) -> {
+                BookingTO loaded = bookingsById.get(id);
+                if (loaded == null) {
+                    booking.completeExceptionally(new ApiException(NOT_FOUND, "Booking " + id + " not found"));
+                } else {
+                    booking.complete(loaded);
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,130 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
+
+import com.devonfw.devon4j.generated.client.handler.ApiException;
+import com.devonfw.devon4j.generated.client.handler.ApiResponse;
+import com.devonfw.devon4j.generated.client.model.BookingTO;
+import com.devonfw.devon4j.generated.client.service.BookingApi;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is a read-through cache for bookings loaded by id with the generated Booking Api
+ *
+ * A booking is returned from the cache without a request until its time to live has passed.
+ * Afterwards it is revalidated by sending its ETag as If-None-Match, the server then answers
+ * with an empty 304 response if the booking is not modified. If the cache is full the least
+ * recently used booking is evicted.
+ *
+ * The cached bookings are shared by all callers and must not be modified
+ */
+public class BookingCache {
+
+    private static final int NOT_MODIFIED = 304;
+
+    private static final int NOT_FOUND = 404;
+
+    private final BookingApi bookingApi;
+
+    private final long timeToLiveNanos;
+
+    /**
+     * The cached bookings by id in access order, guarded by itself
+     */
+    private final Map<Long, Entry> entries;
+
+    /**
+     * @param bookingApi the api to load the bookings
+     * @param maxSize the maximum number of cached bookings
+     * @param timeToLive the time a booking is returned without revalidation
+     */
+    public BookingCache(BookingApi bookingApi, int maxSize, Duration timeToLive) {
+        this.bookingApi = bookingApi;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Function to get a booking from the cache or from the Api if it is not cached or expired
+     * @param bookingId the id of the booking
+     * @return the booking
+     * @throws ApiException if the booking can not be loaded, e.g. with code 404 if it does not exist
+     */
+    public BookingTO get(long bookingId) throws ApiException {
+        Entry cached;
+        synchronized (entries) {
+            cached = entries.get(bookingId);
+        }
+        long now = System.nanoTime();
+        if (cached != null && now - cached.validatedAt < timeToLiveNanos) {
+            return cached.booking;
+        }
+        try {
+            ApiResponse<BookingTO> response = bookingApi.getBookingByIdWithHttpInfo(bookingId,
+                cached == null ? null : cached.eTag);
+            put(bookingId, new Entry(response.getData(), eTag(response.getHeaders()), now));
+            return response.getData();
+        } catch (ApiException e) {
+            if (e.getCode() == NOT_MODIFIED && cached != null) {
+                put(bookingId, new Entry(cached.booking, cached.eTag, now));
+                return cached.booking;
+            }
+            if (e.getCode() == NOT_FOUND) {
+                invalidate(bookingId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Function to remove a booking from the cache, e.g. because it was modified by this client
+     * @param bookingId the id of the booking
+     */
+    public void invalidate(long bookingId) {
+        synchronized (entries) {
+            entries.remove(bookingId);
+        }
+    }
+
+    /**
+     * @return the number of cached bookings
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void put(long bookingId, Entry entry) {
+        synchronized (entries) {
+            entries.put(bookingId, entry);
+        }
+    }
+
+    private static String eTag(Map<String, List<String>> headers) {
+        List<String> values = headers.get("ETag");
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+
+    private static class Entry {
+
+        private final BookingTO booking;
+
+        private final String eTag;
+
+        private final long validatedAt;
+
+        private Entry(BookingTO booking, String eTag, long validatedAt) {
+            this.booking = booking;
+            this.eTag = eTag;
+            this.validatedAt = validatedAt;
+        }
+    }
+}
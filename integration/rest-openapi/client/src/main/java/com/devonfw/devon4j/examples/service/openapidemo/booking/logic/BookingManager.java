@@ -1,11 +1,24 @@
 package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
 
 import com.devonfw.devon4j.generated.client.handler.ApiException;
+import com.devonfw.devon4j.generated.client.model.BookingResultTO;
 import com.devonfw.devon4j.generated.client.model.BookingTO;
+import com.devonfw.devon4j.generated.client.model.InvitedGuestTO;
 import com.devonfw.devon4j.generated.client.service.BookingApi;
+import com.devonfw.devon4j.generated.client.service.BookingAsyncApi;
+import com.devonfw.devon4j.generated.client.service.InvitedGuestApi;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * The BookingManger class is collection of functions that interact with the Booking api
@@ -14,10 +27,42 @@ import java.util.Collection;
 @Component
 public class BookingManager {
 
+    /**
+     * Maximum number of bookings sent with one batch request
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * Maximum number of ids the server accepts with one request to /booking/byIds
+     */
+    public static final int MAX_IDS = 1000;
+
+    private static final int NOT_FOUND = 404;
+
     private BookingApi bookingApi;
 
-    public BookingManager(BookingApi bookingApi) {
+    private BookingAsyncApi bookingAsyncApi;
+
+    private InvitedGuestApi invitedGuestApi;
+
+    private BookingCache bookingCache;
+
+    private AsyncRequestLimiter asyncRequestLimiter;
+
+    private BookingBatchLoader bookingBatchLoader;
+
+    public BookingManager(BookingApi bookingApi, BookingAsyncApi bookingAsyncApi, InvitedGuestApi invitedGuestApi,
+            BookingCache bookingCache, @Value("${MyThaiApi.client.max-concurrent-requests:100}") int maxConcurrentRequests,
+            @Value("${MyThaiApi.client.batch.max-size:100}") int maxBatchSize,
+            @Value("${MyThaiApi.client.batch.window:2ms}") Duration batchWindow) {
         this.bookingApi = bookingApi;
+        this.bookingAsyncApi = bookingAsyncApi;
+        this.invitedGuestApi = invitedGuestApi;
+        this.bookingCache = bookingCache;
+        this.asyncRequestLimiter = new AsyncRequestLimiter(maxConcurrentRequests);
+        this.bookingBatchLoader = new BookingBatchLoader(
+            ids -> asyncRequestLimiter.submit(() -> bookingAsyncApi.getBookingsByIds(ids)),
+            Math.min(maxBatchSize, MAX_IDS), batchWindow);
     }
 
     /**
@@ -25,15 +70,84 @@ public class BookingManager {
      * @return returns all bookings
      */
     public Collection<BookingTO> getAllBookings() throws ApiException {
-        return bookingApi.getBookingAll();
+        return bookingApi.getBookingAll(null, null, null);
+    }
+
+    /**
+     * Function to get all Bookings from the Api with every invited guest loaded only once
+     * The bookings are requested with the ids of their guests and the guests are requested separately,
+     * so a guest invited to many bookings is transferred and held in memory once
+     * @return returns all bookings, bookings inviting the same guest share the same InvitedGuestTO
+     */
+    public List<BookingTO> getAllBookingsWithSharedGuests() throws ApiException {
+        List<BookingTO> bookings = bookingApi.getBookingAll(null, null, "ids");
+        Map<Long, InvitedGuestTO> guestsById = new HashMap<>();
+        for (InvitedGuestTO guest : invitedGuestApi.getInvitedGuestAll()) {
+            guestsById.put(guest.getId(), guest);
+        }
+        for (BookingTO booking : bookings) {
+            if (booking.getInvitedGuestIds() != null) {
+                List<InvitedGuestTO> guests = new ArrayList<>(booking.getInvitedGuestIds().size());
+                for (Long guestId : booking.getInvitedGuestIds()) {
+                    InvitedGuestTO guest = guestsById.get(guestId);
+                    if (guest == null) {
+                        // the guest was created after the guests were loaded
+                        guest = invitedGuestApi.getInvitedGuestById(guestId);
+                        guestsById.put(guestId, guest);
+                    }
+                    guests.add(guest);
+                }
+                booking.invitedGuests(guests).invitedGuestIds(null);
+            }
+        }
+        return bookings;
+    }
+
+    /**
+     * Function to get one page of Bookings from the Api by using the generated client
+     * @param limit the maximum number of bookings on the page
+     * @param cursor the id of the last booking of the previous page or null for the first page
+     * @return returns the bookings of the page ordered by id
+     */
+    public List<BookingTO> getBookingPage(int limit, Long cursor) throws ApiException {
+        return bookingApi.getBookingAll(limit, cursor, null);
     }
 
     /**
      * Function to get a single Booking from the Api by using the generated client
-     * @return returns one Booking
+     * The booking is cached, so repeated lookups are answered from the cache or revalidated with its ETag
+     * @return returns one Booking, it must not be modified
      */
     public BookingTO getBookingById(long bookingId) throws ApiException {
-        return bookingApi.getBookingById(bookingId);
+        return bookingCache.get(bookingId);
+    }
+
+    /**
+     * Function to get many Bookings from the Api with one request per batch of ids
+     * The ids are sent in batches of at most MyThaiApi.client.batch.max-size ids to /booking/byIds
+     * @return returns the found Bookings by id in the order of the ids, ids without a booking are missing
+     */
+    public Map<Long, BookingTO> getBookingsByIds(Collection<Long> bookingIds) throws ApiException {
+        Map<Long, CompletableFuture<BookingTO>> loading = new LinkedHashMap<>();
+        for (Long bookingId : bookingIds) {
+            loading.computeIfAbsent(bookingId, bookingBatchLoader::load);
+        }
+        Map<Long, BookingTO> bookings = new LinkedHashMap<>();
+        for (Map.Entry<Long, CompletableFuture<BookingTO>> booking : loading.entrySet()) {
+            try {
+                bookings.put(booking.getKey(), booking.getValue().join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof ApiException) {
+                    ApiException error = (ApiException) e.getCause();
+                    if (error.getCode() == NOT_FOUND) {
+                        continue;
+                    }
+                    throw error;
+                }
+                throw e;
+            }
+        }
+        return bookings;
     }
 
     /**
@@ -41,6 +155,71 @@ public class BookingManager {
      * @return returns the created Booking
      */
     public BookingTO createBooking(BookingTO newBooking) throws ApiException {
-        return bookingApi.createBooking(newBooking);
+        BookingTO created = bookingApi.createBooking(newBooking);
+        invalidate(created);
+        return created;
+    }
+
+    /**
+     * Function to create many Bookings from the Api by using the generated batch endpoint
+     * The bookings are sent in batches of at most {@link #MAX_BATCH_SIZE} bookings per request
+     * @return returns one result per booking, the index of a result is the position of the booking in newBookings
+     */
+    public List<BookingResultTO> createBookings(List<BookingTO> newBookings) throws ApiException {
+        List<BookingResultTO> results = new ArrayList<>(newBookings.size());
+        for (int from = 0; from < newBookings.size(); from += MAX_BATCH_SIZE) {
+            int to = Math.min(from + MAX_BATCH_SIZE, newBookings.size());
+            for (BookingResultTO result : bookingApi.createBookingBatch(newBookings.subList(from, to))) {
+                invalidate(result.getBooking());
+                results.add(result.index(result.getIndex() + from));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Function to remove a booking saved by this client from the cache, a booking with the same id is replaced
+     */
+    private void invalidate(BookingTO booking) {
+        if (booking != null && booking.getId() != null) {
+            bookingCache.invalidate(booking.getId());
+        }
+    }
+
+    /**
+     * Function to get all Bookings from the Api without blocking the calling thread
+     * @return a future completed with all bookings or with an ApiException
+     */
+    public CompletableFuture<List<BookingTO>> getAllBookingsAsync() {
+        return asyncRequestLimiter.submit(() -> bookingAsyncApi.getBookingAll(null, null, null));
+    }
+
+    /**
+     * Function to get a single Booking from the Api without blocking the calling thread
+     * Many lookups can be started at once, at most max-concurrent-requests of them are sent at the same time
+     * @return a future completed with the Booking or with an ApiException
+     */
+    public CompletableFuture<BookingTO> getBookingByIdAsync(long bookingId) {
+        return asyncRequestLimiter.submit(() -> bookingAsyncApi.getBookingById(bookingId, null));
+    }
+
+    /**
+     * Function to get a single Booking from the Api without blocking the calling thread
+     * The lookups started within MyThaiApi.client.batch.window are sent together with one request to /booking/byIds,
+     * so a caller looking up thousands of bookings one after the other sends one request per batch
+     * @return a future completed with the Booking or with an ApiException, with code 404 if the booking does not exist
+     */
+    public CompletableFuture<BookingTO> getBookingByIdBatched(long bookingId) {
+        return bookingBatchLoader.load(bookingId);
+    }
+
+    /**
+     * Function to create a Booking from the Api without blocking the calling thread
+     * Like createBooking the created booking is removed from the cache before the future is completed
+     * @return a future completed with the created Booking or with an ApiException
+     */
+    public CompletableFuture<BookingTO> createBookingAsync(BookingTO newBooking) {
+        return asyncRequestLimiter.submit(() -> bookingAsyncApi.createBooking(newBooking))
+            .whenComplete((created, exception) -> invalidate(created));
     }
 }
@@ -0,0 +1,321 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Authenticator;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is a HttpClient sending compressed request bodies and accepting compressed responses
+ * It wraps the HttpClient shared by the generated apis, because their interceptors can replace
+ * neither the body of a request nor the body of a response
+ *
+ * Request bodies of at least minRequestSize bytes, like the batches of createBooking, are sent with Content-Encoding gzip
+ * Every request accepts gzip, a compressed response body is decompressed before it is passed to the body handler
+ * of the generated api, the Content-Encoding header of the response is left as it is
+ */
+public class CompressingHttpClient extends HttpClient {
+
+    private static final String GZIP = "gzip";
+
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+    private final HttpClient delegate;
+
+    private final long minRequestSize;
+
+    /**
+     * @param delegate the HttpClient sending the requests
+     * @param minRequestSize the minimum size of a request body to compress it
+     */
+    public CompressingHttpClient(HttpClient delegate, long minRequestSize) {
+        this.delegate = delegate;
+        this.minRequestSize = minRequestSize;
+    }
+
+    @Override
+    public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> responseBodyHandler)
+            throws IOException, InterruptedException {
+        return delegate.send(compress(request), decompressing(responseBodyHandler));
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+            HttpResponse.BodyHandler<T> responseBodyHandler) {
+        try {
+            return delegate.sendAsync(compress(request), decompressing(responseBodyHandler));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public <T> CompletableFuture<HttpResponse<T>> sendAsync(HttpRequest request,
+            HttpResponse.BodyHandler<T> responseBodyHandler, HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+        try {
+            return delegate.sendAsync(compress(request), decompressing(responseBodyHandler), pushPromiseHandler);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Function to copy a request accepting gzip, its body is compressed if it is large enough
+     * @param request the request built by the generated api
+     * @return the request to send
+     */
+    private HttpRequest compress(HttpRequest request) throws IOException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(request.uri())
+            .expectContinue(request.expectContinue());
+        request.timeout().ifPresent(builder::timeout);
+        request.version().ifPresent(builder::version);
+        request.headers().map().forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        if (request.headers().firstValue(ACCEPT_ENCODING).isEmpty()) {
+            builder.header(ACCEPT_ENCODING, GZIP);
+        }
+        HttpRequest.BodyPublisher body = request.bodyPublisher().orElse(HttpRequest.BodyPublishers.noBody());
+        if (body.contentLength() >= minRequestSize && request.headers().firstValue(CONTENT_ENCODING).isEmpty()) {
+            body = HttpRequest.BodyPublishers.ofByteArray(gzip(body));
+            builder.header(CONTENT_ENCODING, GZIP);
+        }
+        return builder.method(request.method(), body).build();
+    }
+
+    /**
+     * Function to compress a request body, the generated apis publish their bodies from a byte array,
+     * so they are read without waiting
+     */
+    private static byte[] gzip(HttpRequest.BodyPublisher body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        CompletableFuture<Void> published = new CompletableFuture<>();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            body.subscribe(new Flow.Subscriber<>() {
+                @Override
+                public void onSubscribe(Flow.Subscription subscription) {
+                    subscription.request(Long.MAX_VALUE);
+                }
+
+                @Override
+                public void onNext(ByteBuffer item) {
+                    byte[] bytes = new byte[item.remaining()];
+                    item.get(bytes);
+                    try {
+                        out.write(bytes);
+                    } catch (IOException e) {
+                        published.completeExceptionally(e);
+                    }
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    published.completeExceptionally(throwable);
+                }
+
+                @Override
+                public void onComplete() {
+                    published.complete(null);
+                }
+            });
+            published.join();
+        } catch (CompletionException e) {
+            throw new IOException("The request body could not be compressed", e.getCause());
+        }
+        return compressed.toByteArray();
+    }
+
+    private static <T> HttpResponse.BodyHandler<T> decompressing(HttpResponse.BodyHandler<T> handler) {
+        return responseInfo -> isGzip(responseInfo.headers())
+            ? new GunzipBodySubscriber<>(handler.apply(responseInfo))
+            : handler.apply(responseInfo);
+    }
+
+    private static boolean isGzip(HttpHeaders headers) {
+        return headers.firstValue(CONTENT_ENCODING).map(GZIP::equalsIgnoreCase).orElse(false);
+    }
+
+    @Override
+    public Optional<CookieHandler> cookieHandler() {
+        return delegate.cookieHandler();
+    }
+
+    @Override
+    public Optional<Duration> connectTimeout() {
+        return delegate.connectTimeout();
+    }
+
+    @Override
+    public Redirect followRedirects() {
+        return delegate.followRedirects();
+    }
+
+    @Override
+    public Optional<ProxySelector> proxy() {
+        return delegate.proxy();
+    }
+
+    @Override
+    public SSLContext sslContext() {
+        return delegate.sslContext();
+    }
+
+    @Override
+    public SSLParameters sslParameters() {
+        return delegate.sslParameters();
+    }
+
+    @Override
+    public Optional<Authenticator> authenticator() {
+        return delegate.authenticator();
+    }
+
+    @Override
+    public Version version() {
+        return delegate.version();
+    }
+
+    @Override
+    public Optional<Executor> executor() {
+        return delegate.executor();
+    }
+
+    @Override
+    public WebSocket.Builder newWebSocketBuilder() {
+        return delegate.newWebSocketBuilder();
+    }
+
+    /**
+     * This subscriber is receiving a gzip compressed body and passes it decompressed to the subscriber of the api
+     * The compressed body is collected first, it is decompressed in chunks as far as the subscriber of the api requests them,
+     * so only the small compressed body and not the decompressed one is held in memory
+     */
+    private static final class GunzipBodySubscriber<T> implements HttpResponse.BodySubscriber<T>, Flow.Subscription {
+
+        private static final int CHUNK_SIZE = 16 * 1024;
+
+        private final HttpResponse.BodySubscriber<T> downstream;
+
+        private final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+
+        private final AtomicLong demand = new AtomicLong();
+
+        private final AtomicInteger drains = new AtomicInteger();
+
+        private volatile Flow.Subscription upstream;
+
+        private volatile InputStream decompressed;
+
+        private volatile boolean cancelled;
+
+        private boolean completed;
+
+        private GunzipBodySubscriber(HttpResponse.BodySubscriber<T> downstream) {
+            this.downstream = downstream;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            upstream = subscription;
+            subscription.request(Long.MAX_VALUE);
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> item) {
+            for (ByteBuffer buffer : item) {
+                byte[] bytes = new byte[buffer.remaining()];
+                buffer.get(bytes);
+                compressed.write(bytes, 0, bytes.length);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            downstream.onError(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            try {
+                decompressed = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()), CHUNK_SIZE);
+            } catch (IOException e) {
+                downstream.onError(e);
+                return;
+            }
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            demand.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+        }
+
+        /**
+         * Function to pass decompressed chunks to the subscriber of the api as long as it requests them
+         * Only one thread is passing chunks at a time, a request while passing them is served by this thread
+         */
+        private void drain() {
+            if (drains.getAndIncrement() != 0) {
+                return;
+            }
+            do {
+                InputStream in = decompressed;
+                while (in != null && !completed && !cancelled && demand.get() > 0) {
+                    byte[] chunk = new byte[CHUNK_SIZE];
+                    int length;
+                    try {
+                        length = in.readNBytes(chunk, 0, CHUNK_SIZE);
+                    } catch (IOException e) {
+                        completed = true;
+                        downstream.onError(e);
+                        break;
+                    }
+                    if (length > 0) {
+                        demand.decrementAndGet();
+                        downstream.onNext(List.of(ByteBuffer.wrap(chunk, 0, length)));
+                    }
+                    if (length < CHUNK_SIZE) {
+                        completed = true;
+                        downstream.onComplete();
+                    }
+                }
+            } while (drains.decrementAndGet() != 0);
+        }
+    }
+}
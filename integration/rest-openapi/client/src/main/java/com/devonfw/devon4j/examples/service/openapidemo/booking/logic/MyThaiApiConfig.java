@@ -2,14 +2,25 @@ package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
 
 import com.devonfw.devon4j.generated.client.handler.ApiClient;
 import com.devonfw.devon4j.generated.client.service.BookingApi;
+import com.devonfw.devon4j.generated.client.service.BookingAsyncApi;
 import com.devonfw.devon4j.generated.client.service.InvitedGuestApi;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * This class is a configuration for the generated api client
  * The api client can set a basepath, this path can be set with a string in the settings
+ *
+ * All generated apis share one HttpClient, so they share its connections and the executor
+ * that is used to send the requests and to handle the responses of the async apis
  */
 @Configuration
 public class MyThaiApiConfig {
@@ -20,9 +31,116 @@ public class MyThaiApiConfig {
     @Value("${MyThaiApi.host.uri:}")
     private String hostInfoBasePath;
 
+    /**
+     * The number of threads of the executor of the HttpClient
+     */
+    @Value("${MyThaiApi.client.threads:8}")
+    private int threads;
+
+    /**
+     * Whether the HttpClient sends the requests and handles the responses on virtual threads, requires Java 21
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * The preferred http version, HTTP_2 falls back to HTTP_1_1 if the server does not support it
+     */
+    @Value("${MyThaiApi.client.http-version:HTTP_2}")
+    private HttpClient.Version httpVersion;
+
+    /**
+     * The maximum time to establish a connection
+     */
+    @Value("${MyThaiApi.client.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    /**
+     * The maximum time to wait for the response of a request
+     */
+    @Value("${MyThaiApi.client.read-timeout:30s}")
+    private Duration readTimeout;
+
+    /**
+     * Whether request bodies are sent compressed and compressed responses are accepted
+     */
+    @Value("${MyThaiApi.client.compression.enabled:true}")
+    private boolean compression;
+
+    /**
+     * The minimum size of a request body to send it compressed
+     */
+    @Value("${MyThaiApi.client.compression.min-request-size:2KB}")
+    private DataSize compressionMinRequestSize;
+
+    /**
+     * The maximum number of bookings in the BookingCache
+     */
+    @Value("${MyThaiApi.cache.max-size:1000}")
+    private int cacheMaxSize;
+
+    /**
+     * The time a cached booking is used without asking the server if it is modified
+     */
+    @Value("${MyThaiApi.cache.time-to-live:10s}")
+    private Duration cacheTimeToLive;
+
+    /**
+     * Function to create the executor of the HttpClient, it is shut down with the application
+     * @return a virtual thread per task executor if virtual threads are enabled, else a fixed thread pool with daemon threads
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService myThaiApiExecutor() {
+        if (virtualThreads) {
+            return newVirtualThreadPerTaskExecutor();
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("MyThaiApi-http-");
+        threadFactory.setDaemon(true);
+        return Executors.newFixedThreadPool(threads, threadFactory);
+    }
+
+    /**
+     * Function to create a virtual thread executor, the Java 21 api is called by reflection
+     * because the application is compiled for Java 11
+     * @return the result of Executors.newVirtualThreadPerTaskExecutor()
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(
+                "spring.threads.virtual.enabled requires Java 21 but the application runs on Java " + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads could not be created", e);
+        }
+    }
+
+    /**
+     * Function to create the HttpClient shared by all generated apis
+     * @return the HttpClient configured by the properties, compressing requests and accepting compressed responses
+     * if compression is enabled
+     */
+    @Bean
+    public HttpClient myThaiApiHttpClient() {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .executor(myThaiApiExecutor())
+            .version(httpVersion)
+            .connectTimeout(connectTimeout)
+            .build();
+        return compression ? new CompressingHttpClient(httpClient, compressionMinRequestSize.toBytes()) : httpClient;
+    }
+
     @Bean
     public ApiClient apiClient(){
-        ApiClient client = new ApiClient();
+        HttpClient httpClient = myThaiApiHttpClient();
+        //The generated ApiClient builds a new HttpClient for every api, return the shared one instead
+        ApiClient client = new ApiClient() {
+            @Override
+            public HttpClient getHttpClient() {
+                return httpClient;
+            }
+        };
+        client.setReadTimeout(readTimeout);
 
         //Overwrite basepath from properties file
         if(!hostInfoBasePath.isEmpty()){
@@ -45,4 +163,31 @@ public class MyThaiApiConfig {
         return new BookingApi(apiClient());
     }
 
+    /**
+     * Function to make the generated async Booking Api available in the entire application
+     * @return a instance of the generated and configured Client returning CompletableFutures
+     */
+    @Bean
+    public BookingAsyncApi bookingAsyncApi(){
+        return new BookingAsyncApi(apiClient());
+    }
+
+    /**
+     * Function to make the generated InvitedGuest Api available in the entire application
+     * @return a instance of the generated and configured Client
+     */
+    @Bean
+    public InvitedGuestApi invitedGuestApi(){
+        return new InvitedGuestApi(apiClient());
+    }
+
+    /**
+     * Function to create the cache for bookings loaded by id
+     * @return a BookingCache configured by the properties
+     */
+    @Bean
+    public BookingCache bookingCache(){
+        return new BookingCache(bookingApi(), cacheMaxSize, cacheTimeToLive);
+    }
+
 }
@@ -2,9 +2,14 @@ package com.devonfw.devon4j.examples.service.openapidemo;
 
 import com.devonfw.devon4j.generated.client.handler.ApiClient;
 import com.devonfw.devon4j.generated.client.handler.ApiException;
+import com.devonfw.devon4j.generated.client.model.BookingResultTO;
 import com.devonfw.devon4j.generated.client.model.BookingTO;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingCache;
 import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingManager;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.CompressingHttpClient;
 import com.devonfw.devon4j.generated.client.service.BookingApi;
+import com.devonfw.devon4j.generated.client.service.BookingAsyncApi;
+import com.devonfw.devon4j.generated.client.service.InvitedGuestApi;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.tomakehurst.wiremock.WireMockServer;
@@ -14,17 +19,32 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class BookingClientTest {
 
     private final String basePath = "/api/v1";
     private ApiClient apiClient = new ApiClient().setBasePath(basePath);
     private BookingApi bookingApi = new BookingApi(apiClient);
-    private BookingManager bookingManager = new BookingManager(bookingApi);
+    private BookingAsyncApi bookingAsyncApi = new BookingAsyncApi(apiClient);
+    private InvitedGuestApi invitedGuestApi = new InvitedGuestApi(apiClient);
+    private BookingCache bookingCache = new BookingCache(bookingApi, 100, Duration.ofMinutes(1));
+    private BookingManager bookingManager = new BookingManager(bookingApi, bookingAsyncApi, invitedGuestApi, bookingCache, 100,
+        100, Duration.ofMillis(50));
 
     private WireMockServer wireMockServer;
 
@@ -68,6 +88,34 @@ public class BookingClientTest {
         assertEquals("[{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":[]}]" ,resultString);
     }
 
+    @Test
+    public void testGetAllBookingsWithSharedGuestsClient() throws ApiException {
+        wireMockServer.stubFor(get("/api/v1/booking?guests=ids")
+                .willReturn(ok()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader(HttpHeaders.CONNECTION, "close")
+                        .withBody("[{\"id\":1,\"modificationCounter\":0,\"invitedGuestIds\":[7]},"
+                            + "{\"id\":2,\"modificationCounter\":0,\"invitedGuestIds\":[7,8]}]")));
+        wireMockServer.stubFor(get("/api/v1/invitedGuest")
+                .willReturn(ok()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader(HttpHeaders.CONNECTION, "close")
+                        .withBody("[{\"id\":7,\"modificationCounter\":0,\"email\":\"guest7@email.com\"}]")));
+        wireMockServer.stubFor(get("/api/v1/invitedGuest/8")
+                .willReturn(ok()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader(HttpHeaders.CONNECTION, "close")
+                        .withBody("{\"id\":8,\"modificationCounter\":0,\"email\":\"guest8@email.com\"}")));
+
+        List<BookingTO> bookings = bookingManager.getAllBookingsWithSharedGuests();
+
+        assertEquals(2, bookings.size());
+        assertSame(bookings.get(0).getInvitedGuests().get(0), bookings.get(1).getInvitedGuests().get(0));
+        assertEquals("guest7@email.com", bookings.get(0).getInvitedGuests().get(0).getEmail());
+        assertEquals("guest8@email.com", bookings.get(1).getInvitedGuests().get(1).getEmail());
+        assertEquals(null, bookings.get(1).getInvitedGuestIds());
+    }
+
     @Test
     public void testCreateBookingClient() throws JsonProcessingException, ApiException {
         wireMockServer.
@@ -83,4 +131,230 @@ public class BookingClientTest {
         String resultString = new ObjectMapper().writeValueAsString(result);
         assertEquals("{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":[]}" ,resultString);
     }
+
+    @Test
+    public void testCreateBookingsClient() throws ApiException {
+        wireMockServer.
+            stubFor(post("/api/v1/booking/batch")
+            .willReturn(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withHeader(HttpHeaders.CONNECTION, "close")
+                    .withBody("[{\"index\":0,\"status\":\"CREATED\",\"booking\":{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":[]}}]")));
+
+        List<BookingTO> newBookings = new ArrayList<>();
+        for (int i = 0; i <= BookingManager.MAX_BATCH_SIZE; i++) {
+            newBookings.add(new BookingTO().modificationCounter(0));
+        }
+
+        List<BookingResultTO> results = bookingManager.createBookings(newBookings);
+
+        wireMockServer.verify(2, postRequestedFor(urlEqualTo("/api/v1/booking/batch")));
+        assertEquals(2, results.size());
+        assertEquals(BookingManager.MAX_BATCH_SIZE, results.get(1).getIndex());
+        assertEquals(BookingResultTO.StatusEnum.CREATED, results.get(1).getStatus());
+    }
+
+    @Test
+    public void testCreateBookingsClientWithCompression() throws ApiException {
+        HttpClient compressingHttpClient = new CompressingHttpClient(HttpClient.newHttpClient(), 2048);
+        ApiClient compressingApiClient = new ApiClient() {
+            @Override
+            public HttpClient getHttpClient() {
+                return compressingHttpClient;
+            }
+        }.setBasePath(basePath);
+        BookingApi compressingBookingApi = new BookingApi(compressingApiClient);
+        BookingManager compressingManager = new BookingManager(compressingBookingApi, bookingAsyncApi, invitedGuestApi,
+            bookingCache, 100, 100, Duration.ofMillis(50));
+
+        StringBuilder responseBody = new StringBuilder("[");
+        for (int i = 0; i < BookingManager.MAX_BATCH_SIZE; i++) {
+            responseBody.append(i == 0 ? "" : ",").append("{\"index\":").append(i)
+                .append(",\"status\":\"CREATED\",\"booking\":{\"id\":").append(i)
+                .append(",\"modificationCounter\":0,\"invitedGuests\":[]}}");
+        }
+        responseBody.append("]");
+        wireMockServer.stubFor(post("/api/v1/booking/batch")
+            .withHeader(HttpHeaders.CONTENT_ENCODING, equalTo("gzip"))
+            .withRequestBody(matchingJsonPath("$[999].modificationCounter"))
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withHeader(HttpHeaders.CONNECTION, "close")
+                .withBody(responseBody.toString())));
+
+        List<BookingTO> newBookings = new ArrayList<>();
+        for (int i = 0; i < BookingManager.MAX_BATCH_SIZE; i++) {
+            newBookings.add(new BookingTO().modificationCounter(0));
+        }
+
+        List<BookingResultTO> results = compressingManager.createBookings(newBookings);
+
+        wireMockServer.verify(1, postRequestedFor(urlEqualTo("/api/v1/booking/batch"))
+            .withHeader(HttpHeaders.ACCEPT_ENCODING, containing("gzip")));
+        assertEquals(BookingManager.MAX_BATCH_SIZE, results.size());
+        assertEquals(999L, results.get(999).getBooking().getId());
+    }
+
+    @Test
+    public void testGetBookingsByIdAsyncClient() {
+        wireMockServer.stubFor(get(urlPathMatching("/api/v1/booking/[0-9]+"))
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withBody("{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":[]}")
+                .withFixedDelay(100)));
+
+        List<CompletableFuture<BookingTO>> futures = new ArrayList<>();
+        for (long i = 0; i < 200; i++) {
+            futures.add(bookingManager.getBookingByIdAsync(i));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+
+        wireMockServer.verify(200, getRequestedFor(urlPathMatching("/api/v1/booking/[0-9]+")));
+        for (CompletableFuture<BookingTO> future : futures) {
+            assertEquals(1L, future.join().getId());
+        }
+    }
+
+    @Test
+    public void testGetBookingsByIdsClient() throws ApiException {
+        //the ids are sent in batches of 100, booking 250 does not exist
+        for (long from = 1; from <= 250; from += 100) {
+            long to = Math.min(from + 99, 250);
+            List<String> ids = new ArrayList<>();
+            StringBuilder body = new StringBuilder("[");
+            for (long id = from; id <= to; id++) {
+                ids.add(String.valueOf(id));
+                if (id < 250) {
+                    body.append(id == from ? "" : ",").append("{\"id\":").append(id).append(",\"modificationCounter\":0}");
+                }
+            }
+            wireMockServer.stubFor(get(urlPathEqualTo("/api/v1/booking/byIds"))
+                .withQueryParam("ids", equalTo(String.join(",", ids)))
+                .willReturn(ok()
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(body.append("]").toString())));
+        }
+
+        List<Long> bookingIds = new ArrayList<>();
+        for (long id = 1; id <= 250; id++) {
+            bookingIds.add(id);
+        }
+        Map<Long, BookingTO> bookings = bookingManager.getBookingsByIds(bookingIds);
+
+        wireMockServer.verify(3, getRequestedFor(urlPathEqualTo("/api/v1/booking/byIds")));
+        assertEquals(249, bookings.size());
+        assertEquals(1L, bookings.keySet().iterator().next());
+        assertEquals(249L, bookings.get(249L).getId());
+    }
+
+    @Test
+    public void testGetBookingsByIdsClientSendsAtMostMaxIdsPerRequest() throws Exception {
+        wireMockServer.stubFor(get(urlPathEqualTo("/api/v1/booking/byIds"))
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[]")));
+        //a configured batch size above the limit of the server is reduced to it
+        BookingManager largeBatchManager = new BookingManager(bookingApi, bookingAsyncApi, invitedGuestApi, bookingCache,
+            100, 5000, Duration.ofMillis(50));
+
+        List<Long> bookingIds = new ArrayList<>();
+        for (long id = 1; id <= 1500; id++) {
+            bookingIds.add(id);
+        }
+
+        assertTrue(largeBatchManager.getBookingsByIds(bookingIds).isEmpty());
+        wireMockServer.verify(2, getRequestedFor(urlPathEqualTo("/api/v1/booking/byIds")));
+    }
+
+    @Test
+    public void testGetBookingByIdBatchedClient() throws Exception {
+        wireMockServer.stubFor(get(urlPathEqualTo("/api/v1/booking/byIds"))
+            .withQueryParam("ids", equalTo("3,1,2"))
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withBody("[{\"id\":3,\"modificationCounter\":0},{\"id\":1,\"modificationCounter\":2}]")));
+
+        CompletableFuture<BookingTO> third = bookingManager.getBookingByIdBatched(3L);
+        CompletableFuture<BookingTO> first = bookingManager.getBookingByIdBatched(1L);
+        CompletableFuture<BookingTO> missing = bookingManager.getBookingByIdBatched(2L);
+        //the same id in the same batch shares the lookup
+        assertSame(first, bookingManager.getBookingByIdBatched(1L));
+
+        assertEquals(3L, third.get().getId());
+        assertEquals(2, first.get().getModificationCounter());
+        ExecutionException exception = assertThrows(ExecutionException.class, missing::get);
+        assertEquals(404, ((ApiException) exception.getCause()).getCode());
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/api/v1/booking/byIds")));
+    }
+
+    @Test
+    public void testCreateBookingAsyncClientFailure() {
+        wireMockServer.stubFor(post("/api/v1/booking")
+            .willReturn(badRequest()
+                .withHeader(HttpHeaders.CONNECTION, "close")));
+
+        CompletableFuture<BookingTO> future = bookingManager.createBookingAsync(new BookingTO().modificationCounter(0));
+
+        ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+        assertEquals(400, ((ApiException) exception.getCause()).getCode());
+    }
+
+    @Test
+    public void testGetBookingByIdIsCached() throws ApiException {
+        wireMockServer.stubFor(get("/api/v1/booking/1")
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("ETag", "\"0\"")
+                .withHeader(HttpHeaders.CONNECTION, "close")
+                .withBody("{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":[]}")));
+
+        BookingTO first = bookingManager.getBookingById(1L);
+
+        assertSame(first, bookingManager.getBookingById(1L));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/api/v1/booking/1")));
+    }
+
+    @Test
+    public void testCreateBookingAsyncInvalidatesCachedBooking() throws Exception {
+        wireMockServer.stubFor(get("/api/v1/booking/1")
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withHeader(HttpHeaders.CONNECTION, "close")
+                .withBody("{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":[]}")));
+        wireMockServer.stubFor(post("/api/v1/booking")
+            .willReturn(created()
+                .withHeader("Content-Type", "application/json")
+                .withHeader(HttpHeaders.CONNECTION, "close")
+                .withBody("{\"id\":1,\"modificationCounter\":1,\"invitedGuests\":[]}")));
+
+        BookingTO first = bookingManager.getBookingById(1L);
+        bookingManager.createBookingAsync(new BookingTO().id(1L).modificationCounter(1)).get();
+
+        assertNotSame(first, bookingManager.getBookingById(1L));
+        wireMockServer.verify(2, getRequestedFor(urlEqualTo("/api/v1/booking/1")));
+    }
+
+    @Test
+    public void testGetBookingByIdRevalidatesWithETag() throws ApiException {
+        BookingManager revalidatingManager = new BookingManager(bookingApi, bookingAsyncApi, invitedGuestApi,
+            new BookingCache(bookingApi, 100, Duration.ZERO), 100, 100, Duration.ofMillis(50));
+        wireMockServer.stubFor(get("/api/v1/booking/1")
+            .willReturn(ok()
+                .withHeader("Content-Type", "application/json")
+                .withHeader("ETag", "\"0\"")
+                .withHeader(HttpHeaders.CONNECTION, "close")
+                .withBody("{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":[]}")));
+        wireMockServer.stubFor(get("/api/v1/booking/1")
+            .withHeader("If-None-Match", equalTo("\"0\""))
+            .willReturn(aResponse()
+                .withStatus(304)
+                .withHeader("ETag", "\"0\"")
+                .withHeader(HttpHeaders.CONNECTION, "close")));
+
+        BookingTO first = revalidatingManager.getBookingById(1L);
+
+        assertSame(first, revalidatingManager.getBookingById(1L));
+        wireMockServer.verify(1, getRequestedFor(urlEqualTo("/api/v1/booking/1"))
+            .withHeader("If-None-Match", equalTo("\"0\"")));
+    }
 }
@@ -0,0 +1,29 @@
+package com.devonfw.devon4j.examples.service.openapidemo.reactive;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.InvitedGuestRepository;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingChangeFeed;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingManager;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.InvitedGuestManager;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.service.BookingMetrics;
+import com.devonfw.devon4j.examples.service.openapidemo.config.BookingJournalConfig;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * The reactive variant of the openapidemo server, it handles the requests on the event loop of Netty
+ *
+ * The logic and data access are those of the servlet server, they are imported instead of scanned,
+ * because the packages of the servlet server also contain its controllers and servlet filters
+ */
+@SpringBootApplication
+@Import({BookingRepository.class, InvitedGuestRepository.class, BookingManager.class, InvitedGuestManager.class,
+    BookingChangeFeed.class, BookingMetrics.class, BookingJournalConfig.class})
+public class ReactiveOpenapidemoApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveOpenapidemoApplication.class, args);
+	}
+
+}
@@ -0,0 +1,288 @@
+package com.devonfw.devon4j.examples.service.openapidemo.reactive.booking.service;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingChange;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingChangeFeed;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingManager;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.service.BookingMetrics;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.service.BookingResponses;
+import com.devonfw.devon4j.generated.api.model.BookingResultTO;
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.devonfw.devon4j.generated.api.reactive.BookingApi;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * This class is implementing the generated reactive Booking Api endpoint
+ * It calls the same BookingManager as the BookingController of the servlet server
+ *
+ * Reads are answered on the event loop, because the bookings are kept in memory
+ * Writes may wait for the journal to force them to disk, so they are moved to the bounded elastic scheduler
+ * Lists of bookings are returned as Flux, they are written one booking after the other
+ * as fast as the client reads them instead of being serialized as a whole
+ * The api only lists json, the booking endpoints override the mappings of the interface to also produce and consume
+ * cbor and smile with the codecs of CodecConfig, the parameters keep the annotations of the interface
+ */
+@RestController
+public class ReactiveBookingController implements BookingApi {
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    /**
+     * Maximum number of ids of one request to /booking/byIds
+     */
+    static final int MAX_IDS = 1000;
+
+    static final String GUESTS_EMBEDDED = "embedded";
+
+    static final String GUESTS_AS_IDS = "ids";
+
+    /**
+     * Time after which a change stream is closed, EventSource reconnects with the Last-Event-ID
+     */
+    static final Duration CHANGE_STREAM_TIMEOUT = Duration.ofMinutes(30);
+
+    /**
+     * Maximum number of changes waiting for a slow client, if more changes are waiting the stream is closed
+     * and the client resumes with its Last-Event-ID
+     */
+    static final int CHANGE_STREAM_BUFFER_SIZE = 1000;
+
+    /**
+     * The BookingManager from the logic layer is called to manage all logic tasks
+     */
+    private BookingManager bookingManager;
+
+    /**
+     * The meters of the booking operations
+     */
+    private BookingMetrics metrics;
+
+    /**
+     * The feed of the created and updated bookings
+     */
+    private BookingChangeFeed bookingChangeFeed;
+
+    public ReactiveBookingController(BookingManager bookingManager, BookingMetrics metrics,
+            BookingChangeFeed bookingChangeFeed) {
+        this.bookingManager = bookingManager;
+        this.metrics = metrics;
+        this.bookingChangeFeed = bookingChangeFeed;
+    }
+
+    /**
+     * Create the post /booking endpoint to create new bookings
+     * @param bookingTO the Booking to create
+     * @param exchange the exchange of the request
+     * @return the created Booking with response code or 400 if the booking is invalid
+     */
+    @Override
+    @PostMapping(value = "/booking", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE },
+        consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public Mono<ResponseEntity<BookingTO>> createBooking(Mono<BookingTO> bookingTO, ServerWebExchange exchange) {
+        return bookingTO
+            .publishOn(Schedulers.boundedElastic())
+            .map(booking -> {
+                if (bookingManager.validate(booking) != null) {
+                    return ResponseEntity.badRequest().<BookingTO>build();
+                }
+                metrics.recordInvitedGuests("createBooking", List.of(booking));
+                return new ResponseEntity<>(metrics.time("createBooking", () -> bookingManager.createBooking(booking)),
+                    HttpStatus.CREATED);
+            })
+            .defaultIfEmpty(ResponseEntity.badRequest().build());
+    }
+
+    /**
+     * Create the post /booking/batch endpoint to create many bookings with one request
+     * The bookings are created while the request is read and every result is written as soon as its booking is created,
+     * so neither the batch nor the results are held in memory
+     * @param bookingTO the Bookings to create
+     * @param exchange the exchange of the request
+     * @return the result of every Booking with response code
+     */
+    @Override
+    @PostMapping(value = "/booking/batch", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE },
+        consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public Mono<ResponseEntity<Flux<BookingResultTO>>> createBookingBatch(Flux<BookingTO> bookingTO,
+            ServerWebExchange exchange) {
+        Flux<BookingResultTO> results = bookingTO
+            .index()
+            .publishOn(Schedulers.boundedElastic())
+            .map(booking -> {
+                metrics.recordInvitedGuests("createBookingBatch", List.of(booking.getT2()));
+                return bookingManager.tryCreateBooking(Math.toIntExact(booking.getT1()), booking.getT2());
+            });
+        return Mono.just(ResponseEntity.ok(results));
+    }
+
+    /**
+     * Creates the get /booking endpoint to get a list of all bookings
+     * If a limit or cursor is given only one page of bookings is returned,
+     * the X-Next-Cursor header then contains the cursor of the following page
+     * @param limit maximum number of bookings to return (optional)
+     * @param cursor only bookings with a greater id are returned (optional)
+     * @param guests ids to return only the ids of the invited guests (optional, default to embedded)
+     * @param exchange the exchange of the request
+     * @return the bookings with response code, they are written as fast as the client reads them
+     */
+    @Override
+    @GetMapping(value = "/booking", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public Mono<ResponseEntity<Flux<BookingTO>>> getBookingAll(Integer limit, Long cursor, String guests,
+            ServerWebExchange exchange) {
+        if ((limit != null && limit < 1) || !isGuestsParameter(guests)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        boolean guestIds = GUESTS_AS_IDS.equals(guests);
+        if (limit == null && cursor == null) {
+            Collection<BookingTO> bookings = metrics.time("getBookingAll", bookingManager::getAllBookings);
+            return Mono.just(ResponseEntity.ok(withGuestIds(Flux.fromIterable(bookings), guestIds)));
+        }
+        int pageSize = limit == null ? Integer.MAX_VALUE : limit;
+        List<BookingTO> page = metrics.time("getBookingPage", () -> bookingManager.getBookingPage(cursor, pageSize));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (limit != null && page.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return Mono.just(response.body(withGuestIds(Flux.fromIterable(page), guestIds)));
+    }
+
+    private static boolean isGuestsParameter(String guests) {
+        return guests == null || GUESTS_EMBEDDED.equals(guests) || GUESTS_AS_IDS.equals(guests);
+    }
+
+    private static Flux<BookingTO> withGuestIds(Flux<BookingTO> bookings, boolean guestIds) {
+        return guestIds ? bookings.map(BookingResponses::withGuestIds) : bookings;
+    }
+
+    /**
+     * Creates the get /booking/byIds endpoint to get many bookings by id with one request
+     * @param ids IDs of the bookings to return, at most {@link #MAX_IDS} (required)
+     * @param exchange the exchange of the request
+     * @return the found bookings in the order of the ids with response code or 400 if no or too many ids are given
+     */
+    @Override
+    @GetMapping(value = "/booking/byIds", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public Mono<ResponseEntity<Flux<BookingTO>>> getBookingsByIds(List<Long> ids, ServerWebExchange exchange) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_IDS || ids.contains(null)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        List<BookingTO> bookings = metrics.time("getBookingsByIds", () -> bookingManager.getBookings(ids));
+        metrics.recordInvitedGuests("getBookingsByIds", bookings);
+        return Mono.just(ResponseEntity.ok(Flux.fromIterable(bookings)));
+    }
+
+    /**
+     * Creates the get /booking/export endpoint to stream all bookings as newline delimited json
+     * Every booking is written as soon as the client reads the previous ones, so the bookings are never collected
+     * @param guests ids to export only the ids of the invited guests (optional, default to embedded)
+     * @param exchange the exchange of the request
+     * @return the stream of all bookings with response code
+     */
+    @Override
+    public Mono<ResponseEntity<Flux>> exportBookings(String guests, ServerWebExchange exchange) {
+        if (!isGuestsParameter(guests)) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        Flux<BookingTO> bookings = Flux.fromStream(bookingManager::streamAllBookings);
+        return Mono.just(ResponseEntity.ok().contentType(NDJSON)
+            .body(withGuestIds(bookings, GUESTS_AS_IDS.equals(guests))));
+    }
+
+    /**
+     * Creates the get /booking/changes endpoint to stream the created and updated bookings as server-sent events
+     * Every change is sent as booking event with its offset as id, a reset event tells the client to load all bookings again
+     * The changes are buffered for a slow client, if it falls too far behind the stream is closed and the client resumes
+     * with the offset of the last received change
+     * @param since offset of the last received change (optional)
+     * @param lastEventID offset of the last received change sent by EventSource on reconnect (optional)
+     * @param exchange the exchange of the request
+     * @return the stream of changes with response code or 400 if the offset is invalid
+     */
+    @Override
+    public Mono<ResponseEntity<Flux>> streamBookingChanges(Long since, String lastEventID, ServerWebExchange exchange) {
+        Long offset = since;
+        if (lastEventID != null && !lastEventID.isBlank()) {
+            try {
+                offset = Long.valueOf(lastEventID.trim());
+            } catch (NumberFormatException e) {
+                return Mono.just(ResponseEntity.badRequest().build());
+            }
+        }
+        Long startOffset = offset;
+        Flux<ServerSentEvent<Object>> events = Flux.<ServerSentEvent<Object>>create(sink -> {
+            BookingChangeFeed.Subscription subscription = bookingChangeFeed.subscribe(startOffset,
+                new BookingChangeFeed.Listener() {
+                    @Override
+                    public void onChange(BookingChange change) {
+                        sink.next(ServerSentEvent.builder()
+                            .id(String.valueOf(change.getOffset()))
+                            .event("booking")
+                            .data((Object) change.getBooking())
+                            .build());
+                    }
+
+                    @Override
+                    public void onReset(long offset) {
+                        sink.next(ServerSentEvent.builder()
+                            .id(String.valueOf(offset))
+                            .event("reset")
+                            .data((Object) offset)
+                            .build());
+                    }
+
+                    @Override
+                    public void onHeartbeat() {
+                        sink.next(ServerSentEvent.builder().comment("heartbeat").build());
+                    }
+                });
+            sink.onDispose(subscription::cancel);
+        })
+            .onBackpressureBuffer(CHANGE_STREAM_BUFFER_SIZE)
+            .take(CHANGE_STREAM_TIMEOUT);
+        return Mono.just(ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(events));
+    }
+
+    /**
+     * Creates a the get /booking/{id} endpoint to get a single booking by id
+     * The response contains the ETag of the booking, a client sending it as If-None-Match
+     * gets an empty 304 response as long as the booking is not modified
+     * @param bookingId ID of booking to return (required)
+     * @param ifNoneMatch ETags of cached versions of the booking (optional)
+     * @param exchange the exchange of the request
+     * @return the booking with the id with response code, 304 if it is not modified
+     * or 404 if there is no booking with this id
+     */
+    @Override
+    @GetMapping(value = "/booking/{bookingId}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public Mono<ResponseEntity<BookingTO>> getBookingById(Long bookingId, String ifNoneMatch,
+            ServerWebExchange exchange) {
+        Optional<BookingTO> booking = metrics.time("getBookingById", () -> bookingManager.getBooking(bookingId));
+        if (booking.isEmpty()) {
+            return Mono.just(ResponseEntity.notFound().build());
+        }
+        metrics.recordInvitedGuests("getBookingById", List.of(booking.get()));
+        String eTag = BookingResponses.eTag(booking.get());
+        if (ifNoneMatch != null && BookingResponses.matchesETag(ifNoneMatch, eTag)) {
+            return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build());
+        }
+        return Mono.just(ResponseEntity.ok().eTag(eTag).body(booking.get()));
+    }
+}
@@ -0,0 +1,66 @@
+package com.devonfw.devon4j.examples.service.openapidemo.reactive.booking.service;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.InvitedGuestManager;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import com.devonfw.devon4j.generated.api.reactive.InvitedGuestApi;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * This class is implementing the generated reactive InvitedGuest Api endpoint
+ * It calls the same InvitedGuestManager as the InvitedGuestController of the servlet server
+ */
+@RestController
+public class ReactiveInvitedGuestController implements InvitedGuestApi {
+
+    /**
+     * The InvitedGuestManager from the logic layer is called to manage all logic tasks
+     */
+    private InvitedGuestManager invitedGuestManager;
+
+    public ReactiveInvitedGuestController(InvitedGuestManager invitedGuestManager) {
+        this.invitedGuestManager = invitedGuestManager;
+    }
+
+    /**
+     * Create the post /invitedGuest endpoint to create new guests or change existing ones
+     * The guest is saved on the bounded elastic scheduler, because saving may wait for the journal
+     * @param invitedGuestTO the guest to save
+     * @param exchange the exchange of the request
+     * @return the saved guest with response code
+     */
+    @Override
+    public Mono<ResponseEntity<InvitedGuestTO>> createInvitedGuest(Mono<InvitedGuestTO> invitedGuestTO,
+            ServerWebExchange exchange) {
+        return invitedGuestTO
+            .publishOn(Schedulers.boundedElastic())
+            .map(guest -> new ResponseEntity<>(invitedGuestManager.saveInvitedGuest(guest), HttpStatus.CREATED))
+            .defaultIfEmpty(ResponseEntity.badRequest().build());
+    }
+
+    /**
+     * Creates the get /invitedGuest endpoint to get a list of all guests
+     * @param exchange the exchange of the request
+     * @return the guests with response code
+     */
+    @Override
+    public Mono<ResponseEntity<Flux<InvitedGuestTO>>> getInvitedGuestAll(ServerWebExchange exchange) {
+        return Mono.just(ResponseEntity.ok(Flux.fromIterable(invitedGuestManager.getAllInvitedGuests())));
+    }
+
+    /**
+     * Creates the get /invitedGuest/{guestId} endpoint to get a single guest by id
+     * @param guestId ID of guest to return (required)
+     * @param exchange the exchange of the request
+     * @return the guest with the id with response code or 404 if there is no guest with this id
+     */
+    @Override
+    public Mono<ResponseEntity<InvitedGuestTO>> getInvitedGuestById(Long guestId, ServerWebExchange exchange) {
+        return Mono.just(ResponseEntity.of(invitedGuestManager.getInvitedGuest(guestId)));
+    }
+}
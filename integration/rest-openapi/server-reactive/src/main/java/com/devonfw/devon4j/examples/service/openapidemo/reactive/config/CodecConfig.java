@@ -0,0 +1,79 @@
+package com.devonfw.devon4j.examples.service.openapidemo.reactive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class is configuring the codecs of the reactive server
+ * JSON arrays are written element by element with the {@link JsonArrayEncoder},
+ * application/cbor and application/x-jackson-smile are supported like in the servlet server
+ */
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper objectMapper;
+
+    private final Jackson2ObjectMapperBuilder builder;
+
+    public CodecConfig(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder) {
+        this.objectMapper = objectMapper;
+        this.builder = builder;
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.defaultCodecs().jackson2JsonEncoder(new JsonArrayEncoder(objectMapper));
+
+        //without explicit mime types the Jackson codecs of Spring fall back to application/json
+        SmileMapper smileMapper = new SmileMapper();
+        builder.configure(smileMapper);
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, SMILE));
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, SMILE));
+
+        CBORMapper cborMapper = new CBORMapper();
+        builder.configure(cborMapper);
+        configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        configurer.customCodecs().register(new CollectingCborEncoder(cborMapper));
+    }
+
+    /**
+     * The Jackson2CborEncoder of Spring cannot write a Flux, this encoder collects it and writes the list
+     */
+    private static final class CollectingCborEncoder extends Jackson2CborEncoder {
+
+        private CollectingCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream)
+                .collectList()
+                .map(list -> encodeValue(list, bufferFactory, listType, mimeType, hints))
+                .flux();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.devonfw.devon4j.examples.service.openapidemo.reactive.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This filter is decompressing request bodies sent with Content-Encoding gzip, like the batches of the client
+ * It is the reactive counterpart of the GzipRequestFilter of the servlet server
+ *
+ * Requests with another Content-Encoding than gzip or identity are rejected with 415 Unsupported Media Type
+ * The compressed body is collected and decompressed in chunks as the decoder requests them,
+ * a body larger than openapidemo.compression.max-request-size before or after decompression is rejected
+ */
+@Component
+public class GzipRequestWebFilter implements WebFilter {
+
+    private static final String GZIP = "gzip";
+
+    private static final String IDENTITY = "identity";
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+
+    private final int maxRequestSize;
+
+    public GzipRequestWebFilter(@Value("${openapidemo.compression.max-request-size:64MB}") DataSize maxRequestSize) {
+        this.maxRequestSize = Math.toIntExact(maxRequestSize.toBytes());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String encoding = exchange.getRequest().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || encoding.trim().equalsIgnoreCase(IDENTITY)) {
+            return chain.filter(exchange);
+        }
+        if (encoding.trim().equalsIgnoreCase(GZIP)) {
+            return chain.filter(exchange.mutate().request(new GzipRequest(exchange.getRequest(), maxRequestSize)).build());
+        }
+        exchange.getResponse().setStatusCode(HttpStatus.UNSUPPORTED_MEDIA_TYPE);
+        return exchange.getResponse().setComplete();
+    }
+
+    /**
+     * The request with the decompressed body, it hides the Content-Encoding and the Content-Length of the compressed body
+     */
+    private static final class GzipRequest extends ServerHttpRequestDecorator {
+
+        private final int maxSize;
+
+        private final HttpHeaders headers;
+
+        private GzipRequest(ServerHttpRequest request, int maxSize) {
+            super(request);
+            this.maxSize = maxSize;
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(request.getHeaders());
+            headers.remove(HttpHeaders.CONTENT_ENCODING);
+            headers.remove(HttpHeaders.CONTENT_LENGTH);
+            this.headers = HttpHeaders.readOnlyHttpHeaders(headers);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            return DataBufferUtils.join(super.getBody(), maxSize)
+                .flatMapMany(compressed -> Flux.using(
+                    () -> new GZIPInputStream(compressed.asInputStream(true), CHUNK_SIZE),
+                    this::decompress,
+                    GzipRequest::close));
+        }
+
+        private Flux<DataBuffer> decompress(InputStream in) {
+            return Flux.generate(() -> 0L, (bytes, sink) -> {
+                byte[] chunk = new byte[CHUNK_SIZE];
+                int length;
+                try {
+                    length = in.readNBytes(chunk, 0, CHUNK_SIZE);
+                } catch (IOException e) {
+                    sink.error(e);
+                    return bytes;
+                }
+                if (bytes + length > maxSize) {
+                    sink.error(new DataBufferLimitException(
+                        "The decompressed request body is larger than " + maxSize + " bytes"));
+                } else if (length == 0) {
+                    sink.complete();
+                } else {
+                    sink.next(DefaultDataBufferFactory.sharedInstance.wrap(ByteBuffer.wrap(chunk, 0, length)));
+                }
+                return bytes + length;
+            });
+        }
+
+        private static void close(InputStream in) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                //the body is read from memory, closing only releases the inflater
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.devonfw.devon4j.examples.service.openapidemo.reactive.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.reactivestreams.Publisher;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.codec.EncodingException;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This encoder is writing a Flux as JSON array one element after the other
+ * The Jackson2JsonEncoder of Spring collects all elements of a Flux into a list before it writes the array,
+ * so a large list of bookings would be held in memory as objects and as JSON
+ * This encoder writes the elements in batches when the connection requests them, a slow client therefore slows down
+ * the Flux instead of filling the memory. A batch is written to one buffer, because a write to the connection for every
+ * single element costs more than serializing it
+ *
+ * Single values and streaming media types like application/x-ndjson are written by the Jackson2JsonEncoder
+ */
+public class JsonArrayEncoder extends Jackson2JsonEncoder {
+
+    private static final byte[] START = {'['};
+
+    private static final String SEPARATOR = ",";
+
+    private static final int BATCH_SIZE = 64;
+
+    private static final byte[] END = {']'};
+
+    public JsonArrayEncoder(ObjectMapper mapper) {
+        super(mapper);
+    }
+
+    @Override
+    public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory, ResolvableType elementType,
+            @Nullable MimeType mimeType, @Nullable Map<String, Object> hints) {
+        if (inputStream instanceof Mono || isStreamingMediaType(mimeType)) {
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+        ObjectWriter writer = getObjectMapper().writerFor(getJavaType(elementType.getType(), null))
+            .withRootValueSeparator(SEPARATOR);
+        Flux<DataBuffer> elements = Flux.from(inputStream)
+            .buffer(BATCH_SIZE)
+            .index()
+            .map(batch -> encodeBatch(writer, batch.getT2(), batch.getT1() == 0, bufferFactory));
+        return Flux.concat(Mono.fromSupplier(() -> bufferFactory.wrap(START)), elements,
+            Mono.fromSupplier(() -> bufferFactory.wrap(END)));
+    }
+
+    /**
+     * Function to write a batch of elements separated by commas to one buffer
+     * @param writer the writer of the elements
+     * @param batch the elements
+     * @param first true for the first batch, the other batches start with a separator
+     * @param bufferFactory the factory of the buffer
+     * @return the buffer with the elements
+     */
+    private static DataBuffer encodeBatch(ObjectWriter writer, List<?> batch, boolean first,
+            DataBufferFactory bufferFactory) {
+        DataBuffer buffer = bufferFactory.allocateBuffer();
+        try (OutputStream out = buffer.asOutputStream()) {
+            if (!first) {
+                out.write(SEPARATOR.charAt(0));
+            }
+            try (SequenceWriter sequence = writer.writeValues(out)) {
+                sequence.writeAll(batch);
+            }
+            return buffer;
+        } catch (IOException e) {
+            DataBufferUtils.release(buffer);
+            throw new EncodingException("JSON encoding error: " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isStreamingMediaType(@Nullable MimeType mimeType) {
+        return mimeType != null && getStreamingMediaTypes().stream().anyMatch(mimeType::isCompatibleWith);
+    }
+}
@@ -0,0 +1,212 @@
+package com.devonfw.devon4j.examples.service.openapidemo.reactive;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
+import com.devonfw.devon4j.generated.api.model.BookingResultTO;
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@TestPropertySource(locations = "classpath:test.properties")
+public class ReactiveBookingControllerTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Test
+    public void testGetAllBookingsEndpoint() {
+        List<BookingTO> bookings = webTestClient.get().uri("/api/v1/booking")
+            .accept(MediaType.APPLICATION_JSON)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(BookingTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertEquals(bookingRepository.count(), bookings.size());
+        assertEquals(1, bookings.get(0).getInvitedGuests().size());
+        assertEquals(10, bookings.get(9).getInvitedGuests().size());
+    }
+
+    @Test
+    public void testGetBookingPageEndpointWithGuestIds() {
+        webTestClient.get().uri("/api/v1/booking?limit=2&cursor=2&guests=ids")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("X-Next-Cursor", "4")
+            .expectBody()
+            .json("[{\"id\":3,\"invitedGuestIds\":[0,1,2,3]},{\"id\":4,\"invitedGuestIds\":[0,1,2,3,4]}]");
+
+        webTestClient.get().uri("/api/v1/booking?guests=unknown")
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testGetBookingsByIdsEndpoint() {
+        webTestClient.get().uri("/api/v1/booking/byIds?ids=7,4711,3")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(2)
+            .jsonPath("$[0].id").isEqualTo(7)
+            .jsonPath("$[1].id").isEqualTo(3);
+
+        webTestClient.get().uri("/api/v1/booking/byIds?ids=")
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    public void testGetAllBookingsEndpointWithCbor() throws Exception {
+        byte[] body = webTestClient.get().uri("/api/v1/booking")
+            .accept(CBOR)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType(CBOR)
+            .expectBody(byte[].class)
+            .returnResult()
+            .getResponseBody();
+
+        BookingTO[] bookings = new CBORMapper().readValue(body, BookingTO[].class);
+        assertEquals(bookingRepository.count(), bookings.length);
+    }
+
+    @Test
+    public void testCreateBookingBatchEndpointWithGzip() throws Exception {
+        List<BookingTO> bookings = new ArrayList<>();
+        bookings.add(new BookingTO().id(5001L).modificationCounter(0));
+        bookings.add(new BookingTO().id(-1L).modificationCounter(0));
+        bookings.add(new BookingTO().id(5002L).modificationCounter(0));
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            objectMapper.writeValue(out, bookings);
+        }
+
+        List<BookingResultTO> results = webTestClient.post().uri("/api/v1/booking/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+            .bodyValue(compressed.toByteArray())
+            .exchange()
+            .expectStatus().isOk()
+            .expectBodyList(BookingResultTO.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertEquals(3, results.size());
+        assertEquals(BookingResultTO.StatusEnum.CREATED, results.get(0).getStatus());
+        assertEquals(1, results.get(1).getIndex());
+        assertEquals(BookingResultTO.StatusEnum.REJECTED, results.get(1).getStatus());
+        assertEquals(5002L, results.get(2).getBooking().getId());
+        assertEquals(5002L, bookingRepository.findById(5002L).orElseThrow().getId());
+
+        webTestClient.post().uri("/api/v1/booking/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CONTENT_ENCODING, "br")
+            .bodyValue(compressed.toByteArray())
+            .exchange()
+            .expectStatus().isEqualTo(415);
+    }
+
+    @Test
+    public void testGetBookingByIdEndpointWithETag() {
+        BookingTO booking = webTestClient.get().uri("/api/v1/booking/1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"")
+            .expectBody(BookingTO.class)
+            .returnResult()
+            .getResponseBody();
+        assertEquals(1L, booking.getId());
+
+        webTestClient.get().uri("/api/v1/booking/1")
+            .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+            .exchange()
+            .expectStatus().isNotModified();
+
+        webTestClient.get().uri("/api/v1/booking/4711")
+            .exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    public void testExportBookingsEndpoint() {
+        String export = webTestClient.get().uri("/api/v1/booking/export?guests=ids")
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentType("application/x-ndjson")
+            .expectBody(String.class)
+            .returnResult()
+            .getResponseBody();
+
+        assertEquals(bookingRepository.count(), export.split("\n").length);
+        assertTrue(export.startsWith("{\"id\":0,"), export);
+        assertTrue(export.split("\n")[0].contains("\"invitedGuestIds\":[0]"), export);
+    }
+
+    @Test
+    public void testStreamBookingChangesEndpoint() {
+        long offset = bookingRepository.lastChangeOffset();
+        bookingRepository.save(new BookingTO().id(4241L));
+
+        Flux<ServerSentEvent<BookingTO>> events = webTestClient.get().uri("/api/v1/booking/changes")
+            .header("Last-Event-ID", String.valueOf(offset))
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+            .returnResult(new ParameterizedTypeReference<ServerSentEvent<BookingTO>>() {
+            })
+            .getResponseBody();
+
+        StepVerifier.create(events)
+            .assertNext(event -> {
+                assertEquals(String.valueOf(offset + 1), event.id());
+                assertEquals("booking", event.event());
+                assertEquals(4241L, event.data().getId());
+            })
+            .then(() -> bookingRepository.save(new BookingTO().id(4242L)))
+            .assertNext(event -> assertEquals(4242L, event.data().getId()))
+            .thenCancel()
+            .verify(Duration.ofSeconds(5));
+
+        webTestClient.get().uri("/api/v1/booking/changes")
+            .header("Last-Event-ID", "unknown")
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+}
@@ -0,0 +1,294 @@
+package com.devonfw.devon4j.examples.service.openapidemo.reactive.load;
+
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compares the servlet server on Tomcat with the reactive server on Netty
+ *
+ * Both servers are started from their executable jars as separate processes with the same heap, so the memory of each
+ * can be read from /proc. The bookings are created with /booking/batch and for each number of connections the given
+ * number of clients load all bookings from /booking one after the other for the given time. The throughput, the latency
+ * percentiles, the failed requests, the live threads and the resident memory of the server are printed per server and
+ * number of connections, the memory per connection is the growth of the resident memory since the idle server.
+ *
+ * Build both jars with mvn package in ../server and in this module first.
+ * Arguments: [connections] [seconds] [bookings], default 50,200,800 10 1000
+ */
+public class LoadTest {
+
+    private static final String BOOKING_PATH = "/api/v1/booking";
+
+    private static final String THREADS_PATH = "/actuator/metrics/jvm.threads.live";
+
+    private static final String[] JARS = {
+        "../server/target/openapidemo-0.0.1-SNAPSHOT-exec.jar",
+        "target/openapidemo-reactive-0.0.1-SNAPSHOT-exec.jar"
+    };
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int[] connections = Arrays.stream((args.length > 0 ? args[0] : "50,200,800").split(","))
+            .mapToInt(Integer::parseInt).toArray();
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 10);
+        int bookingCount = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        System.out.printf("%-8s %11s %12s %8s %8s %7s %8s %8s %13s%n", "server", "connections", "requests/s", "p50 ms",
+            "p99 ms", "errors", "threads", "RSS MB", "KB/connection");
+        for (String jar : JARS) {
+            String name = jar.contains("reactive") ? "reactive" : "servlet";
+            int port = freePort();
+            Process server = start(jar, port);
+            try {
+                URI base = URI.create("http://localhost:" + port);
+                awaitStarted(client, base.resolve(THREADS_PATH));
+                createBookings(client, base.resolve(BOOKING_PATH + "/batch"), bookingCount);
+                URI uri = base.resolve(BOOKING_PATH);
+                //warm up the JIT before the idle memory is read
+                run(client, uri, 10, Duration.ofSeconds(5));
+                long idleRss = rssKb(server);
+                System.out.printf("%-8s %11d %12s %8s %8s %7s %8d %8.1f %13s%n", name, 0, "-", "-", "-", "-",
+                    threads(client, base), idleRss / 1024.0, "-");
+                for (int connectionCount : connections) {
+                    Result result = run(client, uri, connectionCount, duration, server, base);
+                    System.out.printf("%-8s %11d %12.1f %8.1f %8.1f %7d %8d %8.1f %13.1f%n", name, connectionCount,
+                        result.latencies.length / (double) duration.toSeconds(), result.percentile(0.5),
+                        result.percentile(0.99), result.errors, result.threads, result.rssKb / 1024.0,
+                        (result.rssKb - idleRss) / (double) connectionCount);
+                }
+            } finally {
+                server.destroy();
+                server.waitFor();
+            }
+        }
+        System.exit(0);
+    }
+
+    private static Process start(String jar, int port) throws IOException {
+        if (!new File(jar).isFile()) {
+            throw new IllegalStateException(jar + " not found, build it with mvn package");
+        }
+        //the same heap for both servers, command line arguments override their application.properties
+        //the admission control of the servlet server is off, all connections come from one client
+        return new ProcessBuilder("java", "-Xms256m", "-Xmx256m", "-jar", jar, "--server.port=" + port,
+            "--spring.main.banner-mode=off", "--logging.level.root=WARN", "--openapidemo.admission.enabled=false")
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void awaitStarted(HttpClient client, URI uri) throws InterruptedException {
+        long end = System.nanoTime() + Duration.ofSeconds(60).toNanos();
+        while (System.nanoTime() < end) {
+            try {
+                if (client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding())
+                    .statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                //the server is still starting
+            }
+            Thread.sleep(200);
+        }
+        throw new IllegalStateException("Server at " + uri + " did not start within 60 seconds");
+    }
+
+    private static void createBookings(HttpClient client, URI uri, int count) throws IOException, InterruptedException {
+        List<BookingTO> bookings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            bookings.add(new BookingTO().id(1000L + i).modificationCounter(0));
+        }
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofByteArray(OBJECT_MAPPER.writeValueAsBytes(bookings)))
+            .build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Creating the bookings failed with " + response.statusCode());
+        }
+    }
+
+    private static Result run(HttpClient client, URI uri, int connections, Duration duration)
+            throws InterruptedException, IOException {
+        return run(client, uri, connections, duration, null, null);
+    }
+
+    private static Result run(HttpClient client, URI uri, int connections, Duration duration, Process server, URI base)
+            throws InterruptedException, IOException {
+        HttpRequest request = HttpRequest.newBuilder(uri).header("Accept", "application/json").GET().build();
+        long end = System.nanoTime() + duration.toNanos();
+        List<Connection> workers = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            Connection connection = new Connection(client, request, end);
+            connection.setDaemon(true);
+            connection.start();
+            workers.add(connection);
+        }
+        //the memory and threads are read in the middle of the run, when all connections are open
+        long rssKb = 0;
+        int threads = 0;
+        if (server != null) {
+            Thread.sleep(duration.toMillis() / 2);
+            rssKb = rssKb(server);
+            threads = threads(client, base);
+        }
+        LatencyRecorder latencies = new LatencyRecorder();
+        int errors = 0;
+        for (Connection connection : workers) {
+            connection.join();
+            latencies.addAll(connection.latencies);
+            errors += connection.errors;
+        }
+        return new Result(latencies.toSortedArray(), errors, threads, rssKb);
+    }
+
+    /**
+     * Function to read the resident memory of the server process, it is only available on Linux
+     * @param server the process of the server
+     * @return the resident memory in KB or 0 if it is not available
+     */
+    private static long rssKb(Process server) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(server.pid()), "status");
+        if (!Files.isReadable(status)) {
+            return 0;
+        }
+        return Files.readAllLines(status).stream()
+            .filter(line -> line.startsWith("VmRSS:"))
+            .mapToLong(line -> Long.parseLong(line.replaceAll("[^0-9]", "")))
+            .findFirst()
+            .orElse(0);
+    }
+
+    private static int threads(HttpClient client, URI base) throws IOException, InterruptedException {
+        try {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(base.resolve(THREADS_PATH)).build(),
+                HttpResponse.BodyHandlers.ofString());
+            JsonNode metric = OBJECT_MAPPER.readTree(response.body());
+            return metric.path("measurements").path(0).path("value").asInt();
+        } catch (ConnectException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A client sending one request after the other until the end time
+     */
+    private static class Connection extends Thread {
+
+        private final HttpClient client;
+
+        private final HttpRequest request;
+
+        private final long end;
+
+        private final LatencyRecorder latencies = new LatencyRecorder();
+
+        private int errors;
+
+        Connection(HttpClient client, HttpRequest request, long end) {
+            this.client = client;
+            this.request = request;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < end) {
+                long start = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() == 200) {
+                        latencies.add(System.nanoTime() - start);
+                    } else {
+                        errors++;
+                    }
+                } catch (IOException e) {
+                    errors++;
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Growing array of latencies in nanoseconds
+     */
+    private static class LatencyRecorder {
+
+        private long[] values = new long[1024];
+
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LatencyRecorder other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] toSortedArray() {
+            long[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    /**
+     * The sorted latencies, the failed requests, the live threads and the resident memory of the server during a run
+     */
+    private static class Result {
+
+        private final long[] latencies;
+
+        private final int errors;
+
+        private final int threads;
+
+        private final long rssKb;
+
+        Result(long[] latencies, int errors, int threads, long rssKb) {
+            this.latencies = latencies;
+            this.errors = errors;
+            this.threads = threads;
+            this.rssKb = rssKb;
+        }
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
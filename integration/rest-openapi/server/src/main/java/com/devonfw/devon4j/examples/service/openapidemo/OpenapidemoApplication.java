@@ -1,9 +1,12 @@
 package com.devonfw.devon4j.examples.service.openapidemo;
 
+import com.devonfw.startup.ContextExitConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import(ContextExitConfig.class)
 public class OpenapidemoApplication {
 
 	public static void main(String[] args) {
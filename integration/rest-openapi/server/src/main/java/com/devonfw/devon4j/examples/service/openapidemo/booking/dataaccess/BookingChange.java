@@ -0,0 +1,32 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess;
+
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+
+/**
+ * A created or updated booking together with its offset in the {@link BookingChangeLog}
+ */
+public final class BookingChange {
+
+    private final long offset;
+
+    private final BookingTO booking;
+
+    public BookingChange(long offset, BookingTO booking) {
+        this.offset = offset;
+        this.booking = booking;
+    }
+
+    /**
+     * @return the offset of the change, offsets increase with every change
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return the booking as it was saved, it is shared with the repository and must not be changed
+     */
+    public BookingTO getBooking() {
+        return booking;
+    }
+}
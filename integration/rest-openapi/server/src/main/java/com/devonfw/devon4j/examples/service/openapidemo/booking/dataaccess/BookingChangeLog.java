@@ -0,0 +1,132 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess;
+
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The BookingChangeLog keeps the latest changes of the bookings in a ring buffer, so readers can follow the changes
+ * from an offset instead of comparing all bookings
+ *
+ * Every change gets the next offset. The offsets of a log start at its creation time in milliseconds times 1000,
+ * so an offset of a previous run of the application is older than all offsets of the current run.
+ * A lock and condition are used instead of a monitor, so virtual threads waiting for changes do not pin their carrier thread
+ */
+public class BookingChangeLog {
+
+    private final BookingTO[] bookings;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition appended = lock.newCondition();
+
+    private final long firstOffset;
+
+    /**
+     * Offset of the last change, firstOffset - 1 if there is none
+     */
+    private long lastOffset;
+
+    /**
+     * @param capacity the number of changes that are kept
+     */
+    public BookingChangeLog(int capacity) {
+        this(capacity, System.currentTimeMillis() * 1000);
+    }
+
+    /**
+     * @param capacity the number of changes that are kept
+     * @param firstOffset the offset of the first change
+     */
+    public BookingChangeLog(int capacity, long firstOffset) {
+        bookings = new BookingTO[capacity];
+        this.firstOffset = firstOffset;
+        lastOffset = firstOffset - 1;
+    }
+
+    /**
+     * Function to add a change, the oldest change is dropped if the log is full
+     * @param booking the saved booking
+     * @return the offset of the change
+     */
+    public long append(BookingTO booking) {
+        lock.lock();
+        try {
+            lastOffset++;
+            bookings[index(lastOffset)] = booking;
+            appended.signalAll();
+            return lastOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Function to return the offset of the last change
+     * @return the offset, a reader starting after it receives only new changes
+     */
+    public long lastOffset() {
+        lock.lock();
+        try {
+            return lastOffset;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Function to read the changes after an offset
+     * @param offset the offset of the last change the reader knows
+     * @param limit the maximum number of changes to return
+     * @return the changes in the order they were made or null if the changes after the offset are no longer kept
+     * or the offset is not one of this log
+     */
+    public List<BookingChange> read(long offset, int limit) {
+        lock.lock();
+        try {
+            long oldestOffset = Math.max(firstOffset, lastOffset - bookings.length + 1);
+            if (offset < oldestOffset - 1 || offset > lastOffset) {
+                return null;
+            }
+            int count = (int) Math.min(lastOffset - offset, limit);
+            List<BookingChange> changes = new ArrayList<>(count);
+            for (long next = offset + 1; next <= offset + count; next++) {
+                changes.add(new BookingChange(next, bookings[index(next)]));
+            }
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Function to wait until there is a change after an offset
+     * @param offset the offset of the last change the reader knows
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if there is a change after the offset, false if the timeout elapsed
+     */
+    public boolean await(long offset, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (lastOffset <= offset) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = appended.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int index(long offset) {
+        return (int) ((offset - firstOffset) % bookings.length);
+    }
+}
@@ -0,0 +1,584 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess;
+
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * The BookingJournal is an append-only log of the saved guests and bookings, the repositories are recovered from it on startup
+ *
+ * Every save appends a record to a memory-mapped segment file, a record is framed by its length and a CRC32C checksum
+ * and replay stops at the first incomplete record of a segment. Bookings are written with the ids of their guests,
+ * so replaying the records in order links them to the same stored guests again.
+ * A change returns after its records are forced to disk, changes running at the same time share one force (group commit)
+ * A full segment is forced by the next change as well, so no force blocks the appends and none runs without fsync
+ *
+ * When the segments written since the last snapshot exceed the snapshot threshold, a snapshot containing every guest
+ * and booking once is written in the background. The snapshot N replaces all segments before segment N,
+ * so a restart only reads the snapshot and the segments written since then
+ */
+public class BookingJournal implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BookingJournal.class);
+
+    private static final Pattern SEGMENT = Pattern.compile("journal-(\\d+)\\.log");
+
+    private static final Pattern SNAPSHOT = Pattern.compile("snapshot-(\\d+)\\.bin");
+
+    private static final byte GUEST = 1;
+
+    private static final byte BOOKING = 2;
+
+    /**
+     * Length, checksum and type in front of every record
+     */
+    private static final int HEADER_SIZE = 9;
+
+    /**
+     * Number of records that are decoded in parallel during recovery
+     */
+    private static final int RECOVERY_BATCH_SIZE = 8192;
+
+    /**
+     * The content of the repositories, used to recover and to write snapshots
+     */
+    public interface Content {
+
+        /**
+         * Function to restore a guest, a guest with the same id is replaced
+         * @param guest as it was saved
+         */
+        void restoreGuest(InvitedGuestTO guest);
+
+        /**
+         * Function to restore a booking, a booking with the same id is replaced
+         * @param booking as it was saved, with the ids of its guests instead of the guests
+         */
+        void restoreBooking(BookingTO booking);
+
+        /**
+         * Function to return all stored guests
+         * @return a weakly consistent view of the guests
+         */
+        Stream<InvitedGuestTO> guests();
+
+        /**
+         * Function to return all stored bookings
+         * @return a weakly consistent view of the bookings
+         */
+        Stream<BookingTO> bookings();
+    }
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final boolean fsync;
+
+    private final long snapshotThreshold;
+
+    private final ObjectWriter guestWriter;
+
+    private final ObjectWriter bookingWriter;
+
+    private final ObjectReader guestReader;
+
+    private final ObjectReader bookingReader;
+
+    /**
+     * Changes hold the read lock while they append and update the repositories, the write lock is held to start a snapshot,
+     * so every change is either contained in the snapshot or appended after it was started
+     */
+    private final ReadWriteLock changeLock = new ReentrantReadWriteLock();
+
+    /**
+     * Not a monitor, so virtual threads waiting for a force do not pin their carrier thread
+     */
+    private final ReentrantLock syncLock = new ReentrantLock();
+
+    private final AtomicBoolean snapshotRunning = new AtomicBoolean();
+
+    private final ExecutorService snapshotExecutor;
+
+    private Content content;
+
+    private long segment;
+
+    private MappedByteBuffer buffer;
+
+    /**
+     * The full segments not forced yet, forced by the next sync before the current one
+     */
+    private final List<MappedByteBuffer> rolled = new ArrayList<>();
+
+    /**
+     * Position of the end of the last appended record, counted over all segments of this process
+     */
+    private long appended;
+
+    /**
+     * Position up to which all records are forced to disk
+     */
+    private volatile long durable;
+
+    /**
+     * Start of the current segment in the positions of appended
+     */
+    private long segmentStart;
+
+    private long bytesSinceSnapshot;
+
+    /**
+     * @param directory of the segments and snapshots, created if it does not exist
+     * @param mapper used to write and read the records, a binary format like Smile is recommended
+     * @param segmentSize the size of a segment file, a record must fit into one segment
+     * @param fsync true to force the records to disk before a change returns, false to rely on the operating system,
+     *        the records then survive a crash of the process but not of the machine
+     * @param snapshotThreshold the number of bytes written to segments after which a snapshot is written
+     */
+    public BookingJournal(Path directory, ObjectMapper mapper, int segmentSize, boolean fsync, long snapshotThreshold) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.fsync = fsync;
+        this.snapshotThreshold = snapshotThreshold;
+        guestWriter = mapper.writerFor(InvitedGuestTO.class);
+        bookingWriter = mapper.writerFor(BookingTO.class);
+        guestReader = mapper.readerFor(InvitedGuestTO.class);
+        bookingReader = mapper.readerFor(BookingTO.class);
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("booking-snapshot-");
+        threadFactory.setDaemon(true);
+        snapshotExecutor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    /**
+     * Function to read the latest snapshot and all segments written after it into the repositories
+     * Must be called once before the first change, a new segment is opened for the changes
+     * @param content the repositories to restore, their changes are appended to this journal
+     */
+    public void recover(Content content) {
+        this.content = content;
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            List<Long> snapshots = numbers(SNAPSHOT);
+            long firstSegment = 0;
+            if (!snapshots.isEmpty()) {
+                firstSegment = snapshots.get(snapshots.size() - 1);
+                try (InputStream in = Files.newInputStream(snapshotFile(firstSegment))) {
+                    readRecords(in);
+                }
+            }
+            long lastSegment = firstSegment - 1;
+            for (long number : numbers(SEGMENT)) {
+                if (number >= firstSegment) {
+                    try (InputStream in = Files.newInputStream(segmentFile(number))) {
+                        bytesSinceSnapshot += readRecords(in);
+                    }
+                    lastSegment = number;
+                }
+            }
+            //The last segment may end with an incomplete record, so appending continues in a new one
+            openSegment(lastSegment + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Bookings could not be recovered from " + directory, e);
+        }
+        LOG.info("Recovered journal {} in {} ms", directory, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Function to run a change of the repositories
+     * The records appended by the change are durable when this function returns
+     * @param change updates the repositories and appends the records
+     * @return the result of the change
+     */
+    public <T> T write(Supplier<T> change) {
+        T result;
+        long position;
+        changeLock.readLock().lock();
+        try {
+            result = change.get();
+            synchronized (this) {
+                position = appended;
+            }
+        } finally {
+            changeLock.readLock().unlock();
+        }
+        sync(position);
+        snapshotIfDue();
+        return result;
+    }
+
+    /**
+     * Function to append a saved guest, must be called within {@link #write(Supplier)}
+     * @param guest the stored guest
+     */
+    public void appendGuest(InvitedGuestTO guest) {
+        append(GUEST, serialize(guestWriter, guest));
+    }
+
+    /**
+     * Function to append a saved booking, must be called within {@link #write(Supplier)}
+     * The invited guests are written as their ids, so the guests must be appended before
+     * @param booking the stored booking
+     */
+    public void appendBooking(BookingTO booking) {
+        append(BOOKING, serialize(bookingWriter, withGuestIds(booking)));
+    }
+
+    /**
+     * Function to wait for a running snapshot and to force the segments to disk if fsync is enabled
+     */
+    @Override
+    public void close() {
+        snapshotExecutor.shutdown();
+        try {
+            snapshotExecutor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        syncLock.lock();
+        try {
+            MappedByteBuffer current;
+            synchronized (this) {
+                current = buffer;
+                buffer = null;
+            }
+            if (fsync) {
+                force();
+                if (current != null) {
+                    current.force();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    private void append(byte type, byte[] record) {
+        if (record.length + HEADER_SIZE > segmentSize) {
+            throw new IllegalArgumentException("Record with " + record.length
+                + " bytes does not fit into a segment of " + segmentSize + " bytes");
+        }
+        int checksum = checksum(new CRC32C(), type, record);
+        synchronized (this) {
+            if (buffer.remaining() < record.length + HEADER_SIZE) {
+                rollSegment();
+            }
+            buffer.putInt(record.length);
+            buffer.putInt(checksum);
+            buffer.put(type);
+            buffer.put(record);
+            appended = segmentStart + buffer.position();
+            bytesSinceSnapshot += record.length + HEADER_SIZE;
+        }
+    }
+
+    private void sync(long position) {
+        if (!fsync || durable >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            //A force of another thread may have covered the position while this thread was waiting for the lock
+            if (durable >= position) {
+                return;
+            }
+            durable = force();
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Function to force the full segments and the current one without blocking the appends, called with the sync lock
+     * @return the position up to which the records are forced
+     */
+    private long force() {
+        long target;
+        MappedByteBuffer current;
+        List<MappedByteBuffer> previous;
+        synchronized (this) {
+            target = appended;
+            current = buffer;
+            previous = new ArrayList<>(rolled);
+        }
+        //Records of previous segments are not covered by forcing the current one
+        for (MappedByteBuffer segmentBuffer : previous) {
+            segmentBuffer.force();
+        }
+        synchronized (this) {
+            rolled.subList(0, previous.size()).clear();
+        }
+        if (current != null) {
+            current.force();
+        }
+        return target;
+    }
+
+    private void snapshotIfDue() {
+        synchronized (this) {
+            if (bytesSinceSnapshot < snapshotThreshold) {
+                return;
+            }
+        }
+        if (!snapshotRunning.compareAndSet(false, true)) {
+            return;
+        }
+        long number;
+        changeLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                rollSegment();
+                bytesSinceSnapshot = 0;
+                number = segment;
+            }
+        } finally {
+            changeLock.writeLock().unlock();
+        }
+        snapshotExecutor.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                writeSnapshot(number);
+                LOG.info("Wrote snapshot {} in {} ms", number, (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                LOG.error("Snapshot {} failed, the journal is kept", number, e);
+            } finally {
+                snapshotRunning.set(false);
+            }
+        });
+    }
+
+    private void writeSnapshot(long number) {
+        //Bookings are collected before the guests, so every guest they refer to is contained in the snapshot
+        List<BookingTO> bookings = content.bookings().collect(Collectors.toList());
+        Path file = snapshotFile(number);
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileOutputStream out = new FileOutputStream(temporary.toFile());
+                 DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 1 << 16))) {
+                CRC32C crc = new CRC32C();
+                for (InvitedGuestTO guest : (Iterable<InvitedGuestTO>) content.guests()::iterator) {
+                    writeRecord(data, crc, GUEST, serialize(guestWriter, guest));
+                }
+                for (BookingTO booking : bookings) {
+                    writeRecord(data, crc, BOOKING, serialize(bookingWriter, withGuestIds(booking)));
+                }
+                data.flush();
+                out.getFD().sync();
+            }
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+            //The rename has to be durable before the segments it replaces are gone
+            syncDirectory();
+            for (long segmentNumber : numbers(SEGMENT)) {
+                if (segmentNumber < number) {
+                    Files.deleteIfExists(segmentFile(segmentNumber));
+                }
+            }
+            for (long snapshotNumber : numbers(SNAPSHOT)) {
+                if (snapshotNumber < number) {
+                    Files.deleteIfExists(snapshotFile(snapshotNumber));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot " + file + " could not be written", e);
+        }
+    }
+
+    private static void writeRecord(DataOutputStream data, CRC32C crc, byte type, byte[] record) throws IOException {
+        data.writeInt(record.length);
+        data.writeInt(checksum(crc, type, record));
+        data.writeByte(type);
+        data.write(record);
+    }
+
+    private void rollSegment() {
+        if (fsync) {
+            //Forced by the next sync, so the changes are not blocked by it
+            rolled.add(buffer);
+        }
+        segmentStart += segmentSize;
+        appended = segmentStart;
+        try {
+            openSegment(segment + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Segment " + (segment + 1) + " could not be created", e);
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentFile(number), StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            //The mapping grows the file, the unwritten rest is zero and ends the replay
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        segment = number;
+    }
+
+    /**
+     * Function to read the records of a segment or snapshot into the repositories
+     * The records are decoded in parallel batches and restored in their order
+     * @return the number of bytes of the complete records
+     */
+    private long readRecords(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, 1 << 16));
+        CRC32C crc = new CRC32C();
+        byte[] types = new byte[RECOVERY_BATCH_SIZE];
+        byte[][] records = new byte[RECOVERY_BATCH_SIZE][];
+        long bytes = 0;
+        boolean end = false;
+        while (!end) {
+            int count = 0;
+            while (count < records.length) {
+                if (!readRecord(data, crc, types, records, count)) {
+                    end = true;
+                    break;
+                }
+                bytes += records[count].length + HEADER_SIZE;
+                count++;
+            }
+            Object[] decoded = new Object[count];
+            Arrays.parallelSetAll(decoded, i -> decode(types[i], records[i]));
+            for (Object record : decoded) {
+                if (record instanceof InvitedGuestTO) {
+                    content.restoreGuest((InvitedGuestTO) record);
+                } else {
+                    content.restoreBooking((BookingTO) record);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Function to read the next record
+     * @return false at the end of the records
+     */
+    private boolean readRecord(DataInputStream data, CRC32C crc, byte[] types, byte[][] records, int index)
+            throws IOException {
+        try {
+            int length = data.readInt();
+            if (length <= 0 || length > segmentSize) {
+                return false;
+            }
+            int checksum = data.readInt();
+            byte type = data.readByte();
+            byte[] record = new byte[length];
+            data.readFully(record);
+            //A record that was not written completely before a crash
+            if (checksum(crc, type, record) != checksum || (type != GUEST && type != BOOKING)) {
+                return false;
+            }
+            types[index] = type;
+            records[index] = record;
+            return true;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private Object decode(byte type, byte[] record) {
+        try {
+            return (type == GUEST ? guestReader : bookingReader).readValue(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Record could not be read from the journal", e);
+        }
+    }
+
+    private static byte[] serialize(ObjectWriter writer, Object value) {
+        try {
+            return writer.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Record could not be written to the journal", e);
+        }
+    }
+
+    private static int checksum(CRC32C crc, byte type, byte[] record) {
+        crc.reset();
+        crc.update(type);
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+
+    private static BookingTO withGuestIds(BookingTO booking) {
+        List<Long> guestIds = booking.getInvitedGuests() == null ? null : booking.getInvitedGuests().stream()
+            .map(InvitedGuestTO::getId)
+            .collect(Collectors.toList());
+        return new BookingTO()
+            .id(booking.getId())
+            .modificationCounter(booking.getModificationCounter())
+            .invitedGuestIds(guestIds);
+    }
+
+    /**
+     * Function to force the entries of the directory like a renamed snapshot to disk
+     */
+    private void syncDirectory() throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Function to list the numbers of the files matching the pattern
+     * @return the numbers in ascending order
+     */
+    private List<Long> numbers(Pattern pattern) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    numbers.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        numbers.sort(null);
+        return numbers;
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve(String.format("journal-%016d.log", number));
+    }
+
+    private Path snapshotFile(long number) {
+        return directory.resolve(String.format("snapshot-%016d.bin", number));
+    }
+}
@@ -0,0 +1,338 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess;
+
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The BookingRepository keeps all bookings in memory and is safe for concurrent use
+ *
+ * Bookings are stored in a primary index by id and a secondary index by the email of their invited guests.
+ * Reads by id are a single hash lookup, a page of bookings is read from a sorted map starting at its cursor
+ * and the list of all bookings is served from an immutable snapshot that is only rebuilt after the data was changed
+ * If a {@link BookingJournal} is configured every saved booking is appended to it,
+ * the bookings and guests are recovered from it on startup
+ * The latest changes are kept in a {@link BookingChangeLog}, so they can be followed without reading all bookings
+ */
+@Repository
+public class BookingRepository {
+
+    /**
+     * Number of changes kept in the change log
+     */
+    public static final int CHANGE_LOG_CAPACITY = 10_000;
+
+    /**
+     * Initial capacity of a page, so a large limit does not allocate more than the bookings found
+     */
+    private static final int PAGE_CAPACITY = 256;
+
+    /**
+     * Primary index of all bookings by their id
+     */
+    private final Map<Long, BookingTO> bookingsById = new ConcurrentHashMap<>();
+
+    /**
+     * The same bookings ordered by id, updated while the booking is locked in the primary index
+     */
+    private final ConcurrentNavigableMap<Long, BookingTO> bookingsInIdOrder = new ConcurrentSkipListMap<>();
+
+    /**
+     * Secondary index of booking ids by the email of an invited guest
+     */
+    private final Map<String, Set<Long>> bookingIdsByGuestEmail = new ConcurrentHashMap<>();
+
+    /**
+     * Source of ids for bookings that are saved without one
+     */
+    private final AtomicLong idSequence = new AtomicLong();
+
+    /**
+     * Incremented after every change, used to detect an outdated snapshot
+     */
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot = new Snapshot(0, Collections.emptyList());
+
+    private final BookingJournal journal;
+
+    private final BookingChangeLog changeLog = new BookingChangeLog(CHANGE_LOG_CAPACITY);
+
+    /**
+     * Create a repository that keeps the bookings only in memory
+     */
+    public BookingRepository() {
+        this(null, null);
+    }
+
+    /**
+     * @param invitedGuestRepository to restore the guests of the bookings into
+     * @param journal to recover the bookings from and to append saved bookings to or null to keep the bookings only in memory
+     */
+    @Autowired
+    public BookingRepository(InvitedGuestRepository invitedGuestRepository, @Nullable BookingJournal journal) {
+        this.journal = journal;
+        if (journal != null) {
+            journal.recover(new BookingJournal.Content() {
+                @Override
+                public void restoreGuest(InvitedGuestTO guest) {
+                    invitedGuestRepository.restore(guest);
+                }
+
+                @Override
+                public void restoreBooking(BookingTO booking) {
+                    restore(booking, invitedGuestRepository);
+                }
+
+                @Override
+                public Stream<InvitedGuestTO> guests() {
+                    return invitedGuestRepository.streamAll();
+                }
+
+                @Override
+                public Stream<BookingTO> bookings() {
+                    return streamAll();
+                }
+            });
+        }
+    }
+
+    /**
+     * Find a booking by id
+     * @param id of the booking
+     * @return the booking or empty if there is no booking with this id
+     */
+    public Optional<BookingTO> findById(Long id) {
+        return Optional.ofNullable(bookingsById.get(id));
+    }
+
+    /**
+     * Return all bookings ordered by id
+     * The returned list is an immutable snapshot, it is not affected by later changes
+     * @return all bookings
+     */
+    public List<BookingTO> findAll() {
+        Snapshot current = snapshot;
+        long currentVersion = version.get();
+        if (current.version != currentVersion) {
+            current = new Snapshot(currentVersion, copyBookings());
+            snapshot = current;
+        }
+        return current.bookings;
+    }
+
+    /**
+     * Return a page of bookings ordered by id
+     * The page is read from the bookings ordered by id starting after the cursor, so only the bookings of the page
+     * are visited, it reflects the changes made before it was read
+     * @param cursor only bookings with an id greater than the cursor are returned, all if null
+     * @param limit the maximum number of bookings to return
+     * @return the bookings of the page
+     */
+    public List<BookingTO> findPage(Long cursor, int limit) {
+        NavigableMap<Long, BookingTO> bookings = cursor == null ? bookingsInIdOrder
+            : bookingsInIdOrder.tailMap(cursor, false);
+        List<BookingTO> page = new ArrayList<>(Math.min(limit, PAGE_CAPACITY));
+        for (BookingTO booking : bookings.values()) {
+            if (page.size() >= limit) {
+                break;
+            }
+            page.add(booking);
+        }
+        return page;
+    }
+
+    /**
+     * Stream all bookings in no particular order
+     * The stream reads the primary index directly, so it reflects concurrent changes
+     * but does not need to copy all bookings first
+     * @return a stream of all bookings
+     */
+    public Stream<BookingTO> streamAll() {
+        return bookingsById.values().stream();
+    }
+
+    /**
+     * Find all bookings an invited guest with the given email takes part in
+     * @param email of the invited guest
+     * @return the bookings of the guest ordered by id
+     */
+    public List<BookingTO> findByGuestEmail(String email) {
+        Set<Long> bookingIds = bookingIdsByGuestEmail.get(email);
+        if (bookingIds == null) {
+            return Collections.emptyList();
+        }
+        return bookingIds.stream()
+            .sorted()
+            .map(bookingsById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * Return the changes after an offset
+     * @param offset of the last known change
+     * @param limit the maximum number of changes to return
+     * @return the changes in the order they were made or null if the changes after the offset are no longer kept
+     */
+    public List<BookingChange> findChangesAfter(long offset, int limit) {
+        return changeLog.read(offset, limit);
+    }
+
+    /**
+     * Wait until there is a change after an offset
+     * @param offset of the last known change
+     * @param timeoutMillis the maximum time to wait
+     * @return true if there is a change after the offset
+     */
+    public boolean awaitChangesAfter(long offset, long timeoutMillis) throws InterruptedException {
+        return changeLog.await(offset, timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Return the offset of the last change
+     * @return the offset, the changes after it are the changes made from now on
+     */
+    public long lastChangeOffset() {
+        return changeLog.lastOffset();
+    }
+
+    /**
+     * Return the number of stored bookings
+     * @return the number of bookings
+     */
+    public int count() {
+        return bookingsById.size();
+    }
+
+    /**
+     * Store a booking, a booking with the same id is replaced
+     * The modificationCounter of a replacing booking is set to the one of the replaced booking plus one,
+     * so it changes with every update and can be used as ETag
+     * If the booking has no id a new one is assigned
+     * @param booking to store
+     * @return the stored booking
+     */
+    public BookingTO save(BookingTO booking) {
+        return journal == null ? store(booking) : journal.write(() -> store(booking));
+    }
+
+    private BookingTO store(BookingTO booking) {
+        Long id = booking.getId();
+        if (id == null) {
+            id = idSequence.incrementAndGet();
+            booking.setId(id);
+        } else {
+            long providedId = id;
+            idSequence.accumulateAndGet(providedId, Math::max);
+        }
+        bookingsById.compute(id, (key, previous) -> {
+            if (previous != null) {
+                booking.setModificationCounter(modificationCounter(previous) + 1);
+            }
+            removeFromGuestIndex(previous);
+            addToGuestIndex(booking);
+            bookingsInIdOrder.put(key, booking);
+            //Appended while the booking is locked, so the journal has the updates of a booking in the same order
+            if (journal != null) {
+                journal.appendBooking(booking);
+            }
+            changeLog.append(booking);
+            return booking;
+        });
+        version.incrementAndGet();
+        return booking;
+    }
+
+    /**
+     * Function to restore a booking read from the journal, its modificationCounter is kept
+     * @param booking with the ids of its guests
+     * @param invitedGuestRepository containing the guests, they were restored before the booking
+     */
+    private void restore(BookingTO booking, InvitedGuestRepository invitedGuestRepository) {
+        if (booking.getInvitedGuestIds() != null) {
+            List<InvitedGuestTO> guests = new ArrayList<>(booking.getInvitedGuestIds().size());
+            for (Long guestId : booking.getInvitedGuestIds()) {
+                guests.add(invitedGuestRepository.findById(guestId).orElseThrow(
+                    () -> new IllegalStateException("Guest " + guestId + " of booking " + booking.getId() + " is missing in the journal")));
+            }
+            booking.invitedGuests(guests).invitedGuestIds(null);
+        }
+        idSequence.accumulateAndGet(booking.getId(), Math::max);
+        BookingTO previous = bookingsById.put(booking.getId(), booking);
+        bookingsInIdOrder.put(booking.getId(), booking);
+        removeFromGuestIndex(previous);
+        addToGuestIndex(booking);
+        version.incrementAndGet();
+    }
+
+    private static int modificationCounter(BookingTO booking) {
+        return booking.getModificationCounter() == null ? 0 : booking.getModificationCounter();
+    }
+
+    private List<BookingTO> copyBookings() {
+        return Collections.unmodifiableList(new ArrayList<>(bookingsInIdOrder.values()));
+    }
+
+    private void addToGuestIndex(BookingTO booking) {
+        if (booking.getInvitedGuests() == null) {
+            return;
+        }
+        for (InvitedGuestTO guest : booking.getInvitedGuests()) {
+            if (guest.getEmail() != null) {
+                bookingIdsByGuestEmail.compute(guest.getEmail(), (email, bookingIds) -> {
+                    Set<Long> ids = bookingIds == null ? ConcurrentHashMap.newKeySet() : bookingIds;
+                    ids.add(booking.getId());
+                    return ids;
+                });
+            }
+        }
+    }
+
+    private void removeFromGuestIndex(BookingTO booking) {
+        if (booking == null || booking.getInvitedGuests() == null) {
+            return;
+        }
+        for (InvitedGuestTO guest : booking.getInvitedGuests()) {
+            if (guest.getEmail() != null) {
+                bookingIdsByGuestEmail.computeIfPresent(guest.getEmail(), (email, bookingIds) -> {
+                    bookingIds.remove(booking.getId());
+                    return bookingIds.isEmpty() ? null : bookingIds;
+                });
+            }
+        }
+    }
+
+    /**
+     * Immutable list of all bookings together with the version it was created from
+     */
+    private static final class Snapshot {
+
+        private final long version;
+
+        private final List<BookingTO> bookings;
+
+        private Snapshot(long version, List<BookingTO> bookings) {
+            this.version = version;
+            this.bookings = bookings;
+        }
+    }
+}
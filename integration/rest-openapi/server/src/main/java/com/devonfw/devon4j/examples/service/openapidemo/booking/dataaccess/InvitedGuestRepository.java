@@ -0,0 +1,169 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess;
+
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * The InvitedGuestRepository keeps every invited guest once in memory and is safe for concurrent use
+ *
+ * Bookings reference the stored guest objects instead of their own copies, so a guest invited to many bookings
+ * is held only once. Guests are found by id or by email, reads are lock free while changes are serialized
+ * If a {@link BookingJournal} is configured every saved guest is appended to it
+ */
+@Repository
+public class InvitedGuestRepository {
+
+    /**
+     * Primary index of all guests by their id
+     */
+    private final Map<Long, InvitedGuestTO> guestsById = new ConcurrentHashMap<>();
+
+    /**
+     * Secondary index of guest ids by email, an email refers to the guest it was saved with last
+     */
+    private final Map<String, Long> guestIdsByEmail = new ConcurrentHashMap<>();
+
+    /**
+     * Source of ids for guests that are saved without one
+     */
+    private final AtomicLong idSequence = new AtomicLong();
+
+    private final BookingJournal journal;
+
+    /**
+     * Create a repository that keeps the guests only in memory
+     */
+    public InvitedGuestRepository() {
+        this(null);
+    }
+
+    /**
+     * @param journal to append the saved guests to or null to keep the guests only in memory
+     */
+    @Autowired
+    public InvitedGuestRepository(@Nullable BookingJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Find a guest by id
+     * @param id of the guest
+     * @return the guest or empty if there is no guest with this id
+     */
+    public Optional<InvitedGuestTO> findById(Long id) {
+        return Optional.ofNullable(guestsById.get(id));
+    }
+
+    /**
+     * Return all guests ordered by id
+     * @return an immutable list of all guests
+     */
+    public List<InvitedGuestTO> findAll() {
+        InvitedGuestTO[] guests = guestsById.values().toArray(new InvitedGuestTO[0]);
+        Arrays.sort(guests, Comparator.comparing(InvitedGuestTO::getId));
+        return Collections.unmodifiableList(Arrays.asList(guests));
+    }
+
+    /**
+     * Return the number of stored guests
+     * @return the number of guests
+     */
+    public int count() {
+        return guestsById.size();
+    }
+
+    /**
+     * Store a guest, a guest with the same id is replaced
+     * The modificationCounter of a replacing guest is set to the one of the replaced guest plus one
+     * If the guest has no id a new one is assigned
+     * @param guest to store
+     * @return the stored guest
+     */
+    public InvitedGuestTO save(InvitedGuestTO guest) {
+        return journal == null ? store(guest) : journal.write(() -> store(guest));
+    }
+
+    private synchronized InvitedGuestTO store(InvitedGuestTO guest) {
+        Long id = guest.getId();
+        if (id == null) {
+            id = idSequence.incrementAndGet();
+            guest.setId(id);
+        } else {
+            long providedId = id;
+            idSequence.accumulateAndGet(providedId, Math::max);
+        }
+        InvitedGuestTO previous = guestsById.put(id, guest);
+        if (previous != null) {
+            guest.setModificationCounter(modificationCounter(previous) + 1);
+            if (previous.getEmail() != null) {
+                guestIdsByEmail.remove(previous.getEmail(), id);
+            }
+        }
+        if (guest.getEmail() != null) {
+            guestIdsByEmail.put(guest.getEmail(), id);
+        }
+        if (journal != null) {
+            journal.appendGuest(guest);
+        }
+        return guest;
+    }
+
+    /**
+     * Find the stored guest a guest of a booking refers to, the guest is stored if it is unknown
+     * A guest with an id refers to the stored guest with this id, a guest without id to the stored guest with its email.
+     * The data of a known guest is not changed, guests are changed with {@link #save(InvitedGuestTO)}
+     * @param guest a guest of a booking
+     * @return the stored guest, the same object for all bookings referring to it
+     */
+    public InvitedGuestTO findOrSave(InvitedGuestTO guest) {
+        return journal == null ? findOrStore(guest) : journal.write(() -> findOrStore(guest));
+    }
+
+    private synchronized InvitedGuestTO findOrStore(InvitedGuestTO guest) {
+        Long id = guest.getId();
+        if (id == null && guest.getEmail() != null) {
+            id = guestIdsByEmail.get(guest.getEmail());
+        }
+        InvitedGuestTO stored = id == null ? null : guestsById.get(id);
+        return stored == null ? store(guest) : stored;
+    }
+
+    /**
+     * Restore a guest read from the journal, its modificationCounter is kept
+     * @param guest as it was saved
+     */
+    synchronized void restore(InvitedGuestTO guest) {
+        idSequence.accumulateAndGet(guest.getId(), Math::max);
+        InvitedGuestTO previous = guestsById.put(guest.getId(), guest);
+        if (previous != null && previous.getEmail() != null) {
+            guestIdsByEmail.remove(previous.getEmail(), guest.getId());
+        }
+        if (guest.getEmail() != null) {
+            guestIdsByEmail.put(guest.getEmail(), guest.getId());
+        }
+    }
+
+    /**
+     * Stream all guests in no particular order
+     * @return a stream of all guests, reflecting concurrent changes
+     */
+    Stream<InvitedGuestTO> streamAll() {
+        return guestsById.values().stream();
+    }
+
+    private static int modificationCounter(InvitedGuestTO guest) {
+        return guest.getModificationCounter() == null ? 0 : guest.getModificationCounter();
+    }
+}
@@ -0,0 +1,166 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingChange;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The BookingChangeFeed is passing the created and updated bookings to its subscribers
+ *
+ * A single dispatcher thread follows the change log of the {@link BookingRepository} and calls the listeners,
+ * so a subscriber does not need a thread of its own while it waits for changes.
+ * Every subscriber has its own offset, a subscriber that is behind receives the missed changes first.
+ * If the changes after the offset of a subscriber are no longer kept, it receives a reset and has to read all bookings again
+ */
+@Component
+public class BookingChangeFeed {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BookingChangeFeed.class);
+
+    /**
+     * Maximum number of changes passed to a subscriber before the next subscriber gets its turn
+     */
+    private static final int BATCH_SIZE = 100;
+
+    /**
+     * Maximum time until a new subscriber receives its missed changes
+     */
+    private static final long WAIT_MILLIS = 100;
+
+    /**
+     * A subscriber receives a heartbeat if there was no change for this time, so closed connections are detected
+     */
+    static final long HEARTBEAT_MILLIS = TimeUnit.SECONDS.toMillis(15);
+
+    /**
+     * The receiver of the changes, the calls are made by the dispatcher thread one after another
+     * A listener throwing an exception is unsubscribed
+     */
+    public interface Listener {
+
+        /**
+         * Function to receive a change
+         * @param change the created or updated booking with its offset
+         */
+        void onChange(BookingChange change) throws Exception;
+
+        /**
+         * Function to receive a reset, the changes after the offset of the subscriber are no longer kept
+         * @param offset the offset the subscriber continues after, the bookings have to be read again
+         */
+        void onReset(long offset) throws Exception;
+
+        /**
+         * Function to receive a heartbeat if there were no changes for a while
+         */
+        void onHeartbeat() throws Exception;
+    }
+
+    /**
+     * A subscription, its listener receives the changes until it is cancelled
+     */
+    public final class Subscription {
+
+        private final Listener listener;
+
+        private long offset;
+
+        private long lastCall = System.currentTimeMillis();
+
+        private Subscription(Listener listener, long offset) {
+            this.listener = listener;
+            this.offset = offset;
+        }
+
+        /**
+         * Function to stop the listener from receiving further changes
+         */
+        public void cancel() {
+            subscriptions.remove(this);
+        }
+    }
+
+    private final BookingRepository bookingRepository;
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    private final Thread dispatcher;
+
+    public BookingChangeFeed(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+        dispatcher = new Thread(this::dispatch, "booking-change-feed");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Function to subscribe to the changes of the bookings
+     * @param offset the offset of the last change the subscriber knows or null to receive only new changes
+     * @param listener receiving the changes
+     * @return the subscription to cancel
+     */
+    public Subscription subscribe(Long offset, Listener listener) {
+        Subscription subscription = new Subscription(listener,
+            offset == null ? bookingRepository.lastChangeOffset() : offset);
+        subscriptions.add(subscription);
+        return subscription;
+    }
+
+    /**
+     * Function to stop the dispatcher thread, the subscribers do not receive further changes
+     */
+    @PreDestroy
+    public void stop() {
+        dispatcher.interrupt();
+    }
+
+    private void dispatch() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                long offset = bookingRepository.lastChangeOffset();
+                for (Subscription subscription : subscriptions) {
+                    offset = Math.min(offset, subscription.offset);
+                }
+                bookingRepository.awaitChangesAfter(offset, WAIT_MILLIS);
+                long now = System.currentTimeMillis();
+                for (Subscription subscription : subscriptions) {
+                    try {
+                        notify(subscription, now);
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Exception e) {
+                        LOG.debug("Subscriber of booking changes is removed", e);
+                        subscription.cancel();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            //stopped
+        }
+    }
+
+    private void notify(Subscription subscription, long now) throws Exception {
+        List<BookingChange> changes = bookingRepository.findChangesAfter(subscription.offset, BATCH_SIZE);
+        if (changes == null) {
+            subscription.offset = bookingRepository.lastChangeOffset();
+            subscription.listener.onReset(subscription.offset);
+            subscription.lastCall = now;
+        } else if (!changes.isEmpty()) {
+            for (BookingChange change : changes) {
+                subscription.listener.onChange(change);
+                subscription.offset = change.getOffset();
+            }
+            subscription.lastCall = now;
+        } else if (now - subscription.lastCall >= HEARTBEAT_MILLIS) {
+            subscription.listener.onHeartbeat();
+            subscription.lastCall = now;
+        }
+    }
+}
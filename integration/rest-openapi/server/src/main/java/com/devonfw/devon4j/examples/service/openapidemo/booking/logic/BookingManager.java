@@ -1,5 +1,8 @@
 package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
 
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.InvitedGuestRepository;
+import com.devonfw.devon4j.generated.api.model.BookingResultTO;
 import com.devonfw.devon4j.generated.api.model.BookingTO;
 import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
 import org.springframework.stereotype.Component;
@@ -7,20 +10,37 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * The BookingManager is responsible for all logic
- * In this example it's only purpose is serving static data
+ * In this example the bookings are kept in the in-memory {@link BookingRepository}
+ * that is filled with example data on startup
+ * The invited guests of the bookings are kept once in the {@link InvitedGuestRepository},
+ * every booking refers to the stored guests instead of its own copies
  * In a real usecase business logic can be added here
  */
 @Component
 public class BookingManager {
 
+    private BookingRepository bookingRepository;
+
+    private InvitedGuestRepository invitedGuestRepository;
+
+    public BookingManager(BookingRepository bookingRepository, InvitedGuestRepository invitedGuestRepository) {
+        this.bookingRepository = bookingRepository;
+        this.invitedGuestRepository = invitedGuestRepository;
+        if (bookingRepository.count() == 0) {
+            getExampleBookingList().forEach(this::createBooking);
+        }
+    }
+
     /**
-     * Function to generate example date
-     * @return 10 Bookings with 0 to 9 guests
+     * Function to generate example data
+     * @return 10 Bookings with 1 to 10 guests
      */
-    private List<BookingTO> getBookingList(){
+    private List<BookingTO> getExampleBookingList(){
 
         List<BookingTO> bookingList = new ArrayList<>();
         List<InvitedGuestTO> guestList = new ArrayList<>();
@@ -48,26 +68,156 @@ public class BookingManager {
     /**
      * Find a booking by id
      * @param id of booking
-     * @return the found Booking
+     * @return the found Booking or empty if no booking has this id
+     */
+    public Optional<BookingTO> getBooking(Long id) {
+        return bookingRepository.findById(id);
+    }
+
+    /**
+     * Find multiple bookings by their ids
+     * @param ids of the bookings
+     * @return the found bookings in the order of the ids, ids without a booking are skipped
      */
-    public BookingTO getBooking(Long id) {
-        return getBookingList().get(5).id(id);
+    public List<BookingTO> getBookings(List<Long> ids) {
+        List<BookingTO> bookings = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            bookingRepository.findById(id).ifPresent(bookings::add);
+        }
+        return bookings;
     }
 
     /**
      * Return all bookings
-     * @return all 10 bookings
+     * @return an immutable snapshot of all bookings ordered by id
+     */
+    public List<BookingTO> getAllBookings() {
+        return bookingRepository.findAll();
+    }
+
+    /**
+     * Return a page of bookings
+     * @param cursor the id of the last booking of the previous page or null for the first page
+     * @param limit the maximum number of bookings on the page
+     * @return the bookings of the page ordered by id
      */
-    public Collection<BookingTO> getAllBookings() {
-        return getBookingList();
+    public List<BookingTO> getBookingPage(Long cursor, int limit) {
+        return bookingRepository.findPage(cursor, limit);
     }
 
     /**
-     * Should create a new booking (not implemented)
-     * @return returns the booking from request
+     * Return all bookings as a stream, used to export bookings without collecting them first
+     * @return a stream of all bookings
+     */
+    public Stream<BookingTO> streamAllBookings() {
+        return bookingRepository.streamAll();
+    }
+
+    /**
+     * Find all bookings of an invited guest
+     * @param email of the invited guest
+     * @return the bookings the guest is invited to
+     */
+    public Collection<BookingTO> getBookingsByGuestEmail(String email) {
+        return bookingRepository.findByGuestEmail(email);
+    }
+
+    /**
+     * Create a new booking, the booking gets a new id if it has none
+     * The invited guests and invitedGuestIds are replaced by the stored guests, unknown guests are stored
+     * @return returns the stored booking
      */
     public BookingTO createBooking(BookingTO bookingTO) {
-        return bookingTO;
+        return bookingRepository.save(linkGuests(bookingTO));
+    }
+
+    /**
+     * Create multiple bookings at once
+     * Every booking is validated and stored on its own, an invalid booking does not prevent the others from being created
+     * @param bookings the bookings to create
+     * @return one result per booking in the same order as the bookings
+     */
+    public List<BookingResultTO> createBookings(List<BookingTO> bookings) {
+        List<BookingResultTO> results = new ArrayList<>(bookings.size());
+        for (int i = 0; i < bookings.size(); i++) {
+            results.add(tryCreateBooking(i, bookings.get(i)));
+        }
+        return results;
+    }
+
+    /**
+     * Create one booking of a batch if it is valid
+     * @param index the position of the booking in the batch
+     * @param booking the booking to create
+     * @return the result with the created booking or the reason why the booking was rejected
+     */
+    public BookingResultTO tryCreateBooking(int index, BookingTO booking) {
+        BookingResultTO result = new BookingResultTO().index(index);
+        String error = validate(booking);
+        if (error == null) {
+            result.status(BookingResultTO.StatusEnum.CREATED).booking(createBooking(booking));
+        } else {
+            result.status(BookingResultTO.StatusEnum.REJECTED).message(error);
+        }
+        return result;
+    }
+
+    /**
+     * Check if a booking can be stored
+     * @param booking to check
+     * @return the reason why the booking is invalid or null if it is valid
+     */
+    public String validate(BookingTO booking) {
+        if (booking == null) {
+            return "Booking is missing";
+        }
+        if (booking.getId() != null && booking.getId() < 0) {
+            return "Booking id must not be negative";
+        }
+        if (booking.getInvitedGuests() != null && booking.getInvitedGuests().contains(null)) {
+            return "Invited guest is missing";
+        }
+        if (booking.getInvitedGuestIds() != null) {
+            for (Long guestId : booking.getInvitedGuestIds()) {
+                if (guestId == null || invitedGuestRepository.findById(guestId).isEmpty()) {
+                    return "Invited guest " + guestId + " does not exist";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Function to replace the invited guests of a booking by the stored guests
+     * The guests given by invitedGuestIds are added to the invited guests, every guest is invited once
+     * @param booking with guests as copies or ids, the ids must be valid
+     * @return the booking referring to the stored guests
+     */
+    private BookingTO linkGuests(BookingTO booking) {
+        if (booking.getInvitedGuests() == null && booking.getInvitedGuestIds() == null) {
+            return booking;
+        }
+        List<InvitedGuestTO> guests = new ArrayList<>();
+        if (booking.getInvitedGuests() != null) {
+            for (InvitedGuestTO guest : booking.getInvitedGuests()) {
+                addGuest(guests, invitedGuestRepository.findOrSave(guest));
+            }
+        }
+        if (booking.getInvitedGuestIds() != null) {
+            for (Long guestId : booking.getInvitedGuestIds()) {
+                addGuest(guests, invitedGuestRepository.findById(guestId).orElseThrow());
+            }
+        }
+        return booking.invitedGuests(guests).invitedGuestIds(null);
+    }
+
+    private static void addGuest(List<InvitedGuestTO> guests, InvitedGuestTO guest) {
+        for (InvitedGuestTO invited : guests) {
+            if (invited == guest) {
+                return;
+            }
+        }
+        guests.add(guest);
     }
 
 }
@@ -0,0 +1,90 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.InvitedGuestRepository;
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * The InvitedGuestManager is responsible for the logic of the invited guests
+ * The guests are kept once in the {@link InvitedGuestRepository} and referenced by the bookings,
+ * so a changed guest is also changed in all bookings it is invited to
+ */
+@Component
+public class InvitedGuestManager {
+
+    private InvitedGuestRepository invitedGuestRepository;
+
+    private BookingRepository bookingRepository;
+
+    public InvitedGuestManager(InvitedGuestRepository invitedGuestRepository, BookingRepository bookingRepository) {
+        this.invitedGuestRepository = invitedGuestRepository;
+        this.bookingRepository = bookingRepository;
+    }
+
+    /**
+     * Find a guest by id
+     * @param id of guest
+     * @return the found guest or empty if no guest has this id
+     */
+    public Optional<InvitedGuestTO> getInvitedGuest(Long id) {
+        return invitedGuestRepository.findById(id);
+    }
+
+    /**
+     * Return all guests
+     * @return all guests ordered by id
+     */
+    public List<InvitedGuestTO> getAllInvitedGuests() {
+        return invitedGuestRepository.findAll();
+    }
+
+    /**
+     * Create a new guest or replace the guest with the same id
+     * The bookings the replaced guest is invited to are saved again with the new guest,
+     * so their modificationCounter and ETag change as well
+     * @param guest to save, the guest gets a new id if it has none
+     * @return the stored guest
+     */
+    public synchronized InvitedGuestTO saveInvitedGuest(InvitedGuestTO guest) {
+        InvitedGuestTO previous = guest.getId() == null ? null : invitedGuestRepository.findById(guest.getId()).orElse(null);
+        InvitedGuestTO saved = invitedGuestRepository.save(guest);
+        if (previous != null) {
+            // bookings are shared with concurrent readers, so they are replaced instead of changed
+            Stream<BookingTO> candidates = previous.getEmail() == null ? bookingRepository.streamAll()
+                : bookingRepository.findByGuestEmail(previous.getEmail()).stream();
+            candidates.filter(booking -> invites(booking, previous))
+                .map(booking -> replaceGuest(booking, previous, saved))
+                .forEach(bookingRepository::save);
+        }
+        return saved;
+    }
+
+    private static boolean invites(BookingTO booking, InvitedGuestTO guest) {
+        if (booking.getInvitedGuests() != null) {
+            for (InvitedGuestTO invited : booking.getInvitedGuests()) {
+                if (invited == guest) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static BookingTO replaceGuest(BookingTO booking, InvitedGuestTO previous, InvitedGuestTO guest) {
+        List<InvitedGuestTO> guests = new ArrayList<>(booking.getInvitedGuests().size());
+        for (InvitedGuestTO invited : booking.getInvitedGuests()) {
+            guests.add(invited == previous ? guest : invited);
+        }
+        return new BookingTO()
+            .id(booking.getId())
+            .modificationCounter(booking.getModificationCounter())
+            .invitedGuests(guests);
+    }
+}
@@ -0,0 +1,193 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.logic;
+
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The SerializedBookingCache is sharing the lookup and the serialization of a booking between requests
+ *
+ * Concurrent lookups of the same booking in the same format wait for the lookup that is already in flight
+ * instead of calling the {@link BookingManager} and serializing the booking again.
+ * The booking is serialized when its bytes are needed the first time, so a lookup answered with 304 Not Modified
+ * does not serialize it. The serialized bytes are kept for openapidemo.booking-cache.time-to-live and are reused
+ * as long as the BookingManager returns the same booking with the same modificationCounter, a saved booking is
+ * therefore serialized again on the next lookup and never returned outdated after its lookup
+ */
+@Component
+public class SerializedBookingCache {
+
+    private final BookingManager bookingManager;
+
+    private final long timeToLiveNanos;
+
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<Key, CompletableFuture<Optional<SerializedBooking>>> inFlight = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<Key, SerializedBooking> cache = new ConcurrentHashMap<>();
+
+    public SerializedBookingCache(BookingManager bookingManager,
+            @Value("${openapidemo.booking-cache.time-to-live:10s}") Duration timeToLive,
+            @Value("${openapidemo.booking-cache.max-entries:10000}") int maxEntries) {
+        this.bookingManager = bookingManager;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Find a booking by id and serialize it
+     * @param id of booking
+     * @param writer the writer of the format, the bytes are cached per writer
+     * @return the found booking with its bytes or empty if no booking has this id
+     */
+    public Optional<SerializedBooking> getBooking(Long id, ObjectWriter writer) {
+        Key key = new Key(id, writer);
+        CompletableFuture<Optional<SerializedBooking>> lookup = new CompletableFuture<>();
+        CompletableFuture<Optional<SerializedBooking>> running = inFlight.putIfAbsent(key, lookup);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+            }
+        }
+        try {
+            Optional<SerializedBooking> result = bookingManager.getBooking(id).map(booking -> serialize(key, booking));
+            lookup.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, lookup);
+        }
+    }
+
+    private SerializedBooking serialize(Key key, BookingTO booking) {
+        long now = System.nanoTime();
+        SerializedBooking cached = cache.get(key);
+        if (cached != null && cached.isCurrent(booking, now)) {
+            return cached;
+        }
+        SerializedBooking serialized = new SerializedBooking(booking, key.writer, now + timeToLiveNanos);
+        if (cache.size() >= maxEntries) {
+            evict(now);
+        }
+        cache.put(key, serialized);
+        return serialized;
+    }
+
+    /**
+     * Function to make room for the next entries, the expired entries are removed and if that is not enough
+     * some current ones, about a sixteenth of the entries are removed so the cache is not scanned on every lookup
+     * @param now the current time in nanoseconds
+     */
+    private void evict(long now) {
+        int target = maxEntries - Math.max(1, maxEntries / 16);
+        cache.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        Iterator<SerializedBooking> entries = cache.values().iterator();
+        while (cache.size() > target && entries.hasNext()) {
+            entries.next();
+            entries.remove();
+        }
+    }
+
+    /**
+     * A booking with its serialized bytes
+     */
+    public static final class SerializedBooking {
+
+        private final BookingTO booking;
+
+        private final Integer modificationCounter;
+
+        private final ObjectWriter writer;
+
+        private volatile byte[] bytes;
+
+        private final long expiresAt;
+
+        private SerializedBooking(BookingTO booking, ObjectWriter writer, long expiresAt) {
+            this.booking = booking;
+            this.modificationCounter = booking.getModificationCounter();
+            this.writer = writer;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * Function to check if the bytes are still those of the booking
+         * The stored bookings are replaced or get a new modificationCounter when they are saved
+         * @param current the booking returned by the BookingManager
+         * @param now the current time in nanoseconds
+         * @return true if the bytes can be reused
+         */
+        private boolean isCurrent(BookingTO current, long now) {
+            return booking == current && Objects.equals(modificationCounter, current.getModificationCounter())
+                && expiresAt - now > 0;
+        }
+
+        public BookingTO getBooking() {
+            return booking;
+        }
+
+        /**
+         * The serialized booking, it is serialized on the first call and the array is shared and must not be changed
+         * @return the bytes of the booking
+         */
+        public byte[] getBytes() {
+            byte[] result = bytes;
+            if (result == null) {
+                synchronized (this) {
+                    result = bytes;
+                    if (result == null) {
+                        try {
+                            result = writer.writeValueAsBytes(booking);
+                        } catch (JsonProcessingException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        bytes = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Key {
+
+        private final Long id;
+
+        private final ObjectWriter writer;
+
+        private Key(Long id, ObjectWriter writer) {
+            this.id = id;
+            this.writer = writer;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return Objects.equals(id, other.id) && writer == other.writer;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(id) + System.identityHashCode(writer);
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.service;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingChange;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingChangeFeed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is sending the changes of the {@link BookingChangeFeed} to the clients as server-sent events
+ *
+ * The dispatcher thread of the feed only puts the events of a client into the bounded queue of the client,
+ * they are written by a sender thread, so a client that does not read its events does not stop the feed
+ * for the other clients. If the queue of a client is full it has fallen too far behind, its stream is completed
+ * after the queued events and the client resumes with its Last-Event-ID
+ *
+ * At most maxSubscribers clients are streamed at the same time, further clients are rejected
+ * The senders are virtual threads if the virtualThreadExecutor of the VirtualThreadConfig exists,
+ * otherwise a pool of at most maxSubscribers platform threads that are stopped after a minute without events
+ * A client that gets no sender because all of them are blocked by other clients is disconnected like a client
+ * that has fallen behind
+ */
+@Component
+public class BookingChangeStreams {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BookingChangeStreams.class);
+
+    private final BookingChangeFeed bookingChangeFeed;
+
+    private final int bufferSize;
+
+    private final int maxSubscribers;
+
+    private final AtomicInteger subscribers = new AtomicInteger();
+
+    /**
+     * The sender threads, a thread is only used while a client has queued events
+     */
+    private final ExecutorService senders;
+
+    /**
+     * True if the senders are created by this class and are stopped with it
+     */
+    private final boolean ownSenders;
+
+    /**
+     * @param bookingChangeFeed the feed of the changes
+     * @param bufferSize maximum number of changes waiting for a slow client, if more changes are waiting
+     * the stream is closed
+     * @param maxSubscribers maximum number of clients streamed at the same time
+     * @param virtualThreadExecutor the executor of the VirtualThreadConfig if virtual threads are enabled
+     */
+    public BookingChangeStreams(BookingChangeFeed bookingChangeFeed,
+            @Value("${openapidemo.booking-changes.buffer-size:1000}") int bufferSize,
+            @Value("${openapidemo.booking-changes.max-subscribers:1000}") int maxSubscribers,
+            @Qualifier("virtualThreadExecutor") Optional<ExecutorService> virtualThreadExecutor) {
+        this.bookingChangeFeed = bookingChangeFeed;
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.ownSenders = virtualThreadExecutor.isEmpty();
+        this.senders = virtualThreadExecutor.orElseGet(() -> {
+            AtomicInteger threads = new AtomicInteger();
+            return new ThreadPoolExecutor(0, maxSubscribers, 1, TimeUnit.MINUTES, new SynchronousQueue<>(), task -> {
+                Thread thread = new Thread(task, "booking-change-sender-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        });
+    }
+
+    /**
+     * Function to send the changes to a client
+     * @param offset the offset of the last change the client knows or null to receive only new changes
+     * @param emitter the events of the client
+     * @return the emitter or null if maxSubscribers clients are streamed already
+     */
+    public SseEmitter open(Long offset, SseEmitter emitter) {
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            return null;
+        }
+        Sender sender = new Sender(emitter);
+        BookingChangeFeed.Subscription subscription = bookingChangeFeed.subscribe(offset, sender);
+        emitter.onCompletion(() -> sender.close(subscription));
+        emitter.onTimeout(() -> sender.close(subscription));
+        emitter.onError(e -> sender.close(subscription));
+        return emitter;
+    }
+
+    /**
+     * Function to stop the sender threads
+     */
+    @PreDestroy
+    public void stop() {
+        if (ownSenders) {
+            senders.shutdownNow();
+        }
+    }
+
+    /**
+     * @return the number of clients streamed at the moment
+     */
+    public int getSubscribers() {
+        return subscribers.get();
+    }
+
+    /**
+     * The listener of one client, the feed calls it one after another and a sender thread drains its queue
+     */
+    private final class Sender implements BookingChangeFeed.Listener {
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<SseEmitter.SseEventBuilder> events = new ArrayBlockingQueue<>(bufferSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean unsubscribed = new AtomicBoolean();
+
+        private volatile boolean behind;
+
+        private volatile boolean closed;
+
+        private Sender(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void onChange(BookingChange change) throws IOException {
+            enqueue(SseEmitter.event()
+                .id(String.valueOf(change.getOffset()))
+                .name("booking")
+                .data(change.getBooking(), MediaType.APPLICATION_JSON));
+        }
+
+        @Override
+        public void onReset(long offset) throws IOException {
+            enqueue(SseEmitter.event().id(String.valueOf(offset)).name("reset").data(offset));
+        }
+
+        @Override
+        public void onHeartbeat() throws IOException {
+            enqueue(SseEmitter.event().comment("heartbeat"));
+        }
+
+        /**
+         * Function to queue an event, an exception unsubscribes the client from the feed
+         */
+        private void enqueue(SseEmitter.SseEventBuilder event) throws IOException {
+            if (closed) {
+                throw new IOException("The stream of booking changes is closed");
+            }
+            if (!events.offer(event)) {
+                //the queued events are still sent, then the stream is completed
+                behind = true;
+                schedule();
+                throw new IOException("The client is more than " + bufferSize + " changes behind");
+            }
+            schedule();
+        }
+
+        private void schedule() throws IOException {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    //the client resumes with its Last-Event-ID when a sender is free again
+                    closed = true;
+                    events.clear();
+                    emitter.complete();
+                    throw new IOException("No sender is available for the stream of booking changes", e);
+                }
+            }
+        }
+
+        private void drain() {
+            do {
+                try {
+                    SseEmitter.SseEventBuilder event;
+                    while (!closed && (event = events.poll()) != null) {
+                        emitter.send(event);
+                    }
+                    if (behind && !closed) {
+                        closed = true;
+                        emitter.complete();
+                    }
+                } catch (IOException | RuntimeException e) {
+                    //the container notifies the emitter about the failed write
+                    LOG.debug("Booking changes could not be sent", e);
+                    closed = true;
+                }
+                if (closed) {
+                    events.clear();
+                }
+                draining.set(false);
+            } while (!closed && (behind || !events.isEmpty()) && draining.compareAndSet(false, true));
+        }
+
+        private void close(BookingChangeFeed.Subscription subscription) {
+            closed = true;
+            //the emitter calls back once per completion, timeout and error
+            if (unsubscribed.compareAndSet(false, true)) {
+                subscription.cancel();
+                subscribers.decrementAndGet();
+            }
+        }
+    }
+}
@@ -1,13 +1,36 @@
 package com.devonfw.devon4j.examples.service.openapidemo.booking.service;
 
+import com.devonfw.devon4j.generated.api.model.BookingResultTO;
 import com.devonfw.devon4j.generated.api.model.BookingTO;
 import com.devonfw.devon4j.generated.api.service.BookingApi;
 import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingManager;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.SerializedBookingCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 /**
  * This class is implementing the generated Booking Api endpoint
@@ -17,46 +40,303 @@ import java.util.List;
  * besides the RestController the Models are also generated by the OpenApi Generator
  * (BookingTO, InvitedGuestTO) and are simple data classes
  *
+ * The api only lists json, the booking endpoints override the mappings of the interface to also produce and consume
+ * cbor and smile with the message converters of BinaryFormatConfig, the parameters keep the annotations of the interface
  */
 
 @RestController
 public class BookingController implements BookingApi {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    static final MediaType SMILE = MediaType.parseMediaType(SMILE_VALUE);
+
+    /**
+     * Maximum number of ids of one request to /booking/byIds
+     */
+    static final int MAX_IDS = 1000;
+
+    static final String GUESTS_EMBEDDED = "embedded";
+
+    static final String GUESTS_AS_IDS = "ids";
+
+    /**
+     * Time after which a change stream is closed, EventSource reconnects with the Last-Event-ID
+     */
+    static final long CHANGE_STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
     /**
      * The BookingManager from the logic layer is called to manage all logic tasks
      */
     private BookingManager bookingManager;
 
-    public BookingController(BookingManager bookingManager) {
+    /**
+     * The ObjectMapper configured by Spring, used to write streamed responses
+     */
+    private ObjectMapper objectMapper;
+
+    /**
+     * The meters of the booking operations
+     */
+    private BookingMetrics metrics;
+
+    /**
+     * The streams of the created and updated bookings
+     */
+    private BookingChangeStreams bookingChangeStreams;
+
+    /**
+     * The serialized bookings shared between the requests of /booking/{id}
+     */
+    private SerializedBookingCache serializedBookingCache;
+
+    /**
+     * The writers of a single booking per media type, json first so it is the default if any media type is accepted
+     */
+    private Map<MediaType, ObjectWriter> bookingWriters = new LinkedHashMap<>();
+
+    /**
+     * The current request, used to select the format of the serialized booking
+     */
+    private NativeWebRequest request;
+
+    public BookingController(BookingManager bookingManager, ObjectMapper objectMapper, BookingMetrics metrics,
+            BookingChangeStreams bookingChangeStreams, SerializedBookingCache serializedBookingCache,
+            MappingJackson2CborHttpMessageConverter cborConverter,
+            MappingJackson2SmileHttpMessageConverter smileConverter, NativeWebRequest request) {
         this.bookingManager = bookingManager;
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+        this.bookingChangeStreams = bookingChangeStreams;
+        this.serializedBookingCache = serializedBookingCache;
+        this.request = request;
+        bookingWriters.put(MediaType.APPLICATION_JSON, objectMapper.writerFor(BookingTO.class));
+        bookingWriters.put(CBOR, cborConverter.getObjectMapper().writerFor(BookingTO.class));
+        bookingWriters.put(SMILE, smileConverter.getObjectMapper().writerFor(BookingTO.class));
     }
 
     /**
      * Create the post /booking endpoint to create new bookings
      * @param bookingTO  the Booking to create
-     * @return the created Booking with response code
+     * @return the created Booking with response code or 400 if the booking is invalid
      */
     @Override
+    @PostMapping(value = "/booking", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE },
+        consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
     public ResponseEntity<BookingTO> createBooking(BookingTO bookingTO) {
-        return new ResponseEntity<>(bookingManager.createBooking(bookingTO), HttpStatus.CREATED);
+        if (bookingManager.validate(bookingTO) != null) {
+            return ResponseEntity.badRequest().build();
+        }
+        metrics.recordInvitedGuests("createBooking", List.of(bookingTO));
+        return new ResponseEntity<>(metrics.time("createBooking", () -> bookingManager.createBooking(bookingTO)),
+            HttpStatus.CREATED);
+    }
+
+    /**
+     * Create the post /booking/batch endpoint to create many bookings with one request
+     * @param bookingTO  the Bookings to create
+     * @return the result of every Booking with response code
+     */
+    @Override
+    @PostMapping(value = "/booking/batch", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE },
+        consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public ResponseEntity<List<BookingResultTO>> createBookingBatch(List<BookingTO> bookingTO) {
+        if (bookingTO == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        metrics.recordInvitedGuests("createBookingBatch", bookingTO);
+        return ResponseEntity.ok(metrics.time("createBookingBatch", () -> bookingManager.createBookings(bookingTO)));
     }
 
     /**
      * Creates the get /booking endpoint to get a list of all bookings
-     * @return a list of all bookings with response code
+     * If a limit or cursor is given only one page of bookings is returned,
+     * the X-Next-Cursor header then contains the cursor of the following page
+     * @param limit maximum number of bookings to return (optional)
+     * @param cursor only bookings with a greater id are returned (optional)
+     * @param guests ids to return only the ids of the invited guests (optional, default to embedded)
+     * @return a list of the bookings with response code
+     */
+    @Override
+    @GetMapping(value = "/booking", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public ResponseEntity<List<BookingTO>> getBookingAll(Integer limit, Long cursor, String guests) {
+        if ((limit != null && limit < 1) || !isGuestsParameter(guests)) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean guestIds = GUESTS_AS_IDS.equals(guests);
+        if (limit == null && cursor == null) {
+            List<BookingTO> bookings = metrics.time("getBookingAll", bookingManager::getAllBookings);
+            return ResponseEntity.ok(guestIds ? withGuestIds(bookings) : bookings);
+        }
+        int pageSize = limit == null ? Integer.MAX_VALUE : limit;
+        List<BookingTO> page = metrics.time("getBookingPage", () -> bookingManager.getBookingPage(cursor, pageSize));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (limit != null && page.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(guestIds ? withGuestIds(page) : page);
+    }
+
+    private static boolean isGuestsParameter(String guests) {
+        return guests == null || GUESTS_EMBEDDED.equals(guests) || GUESTS_AS_IDS.equals(guests);
+    }
+
+    /**
+     * Function to replace the invited guests of bookings by their ids
+     * A guest invited to many bookings is then sent only once with the /invitedGuest endpoint
+     * @param bookings the stored bookings, they are not changed
+     * @return copies of the bookings with invitedGuestIds instead of invitedGuests
+     */
+    private static List<BookingTO> withGuestIds(Collection<BookingTO> bookings) {
+        List<BookingTO> result = new ArrayList<>(bookings.size());
+        for (BookingTO booking : bookings) {
+            result.add(BookingResponses.withGuestIds(booking));
+        }
+        return result;
+    }
+
+    /**
+     * Creates the get /booking/byIds endpoint to get many bookings by id with one request
+     * @param ids IDs of the bookings to return, at most {@link #MAX_IDS} (required)
+     * @return the found bookings in the order of the ids with response code or 400 if no or too many ids are given
+     */
+    @Override
+    @GetMapping(value = "/booking/byIds", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public ResponseEntity<List<BookingTO>> getBookingsByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty() || ids.size() > MAX_IDS || ids.contains(null)) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<BookingTO> bookings = metrics.time("getBookingsByIds", () -> bookingManager.getBookings(ids));
+        metrics.recordInvitedGuests("getBookingsByIds", bookings);
+        return ResponseEntity.ok(bookings);
+    }
+
+    /**
+     * Creates the get /booking/export endpoint to stream all bookings as newline delimited json
+     * Every booking is written to the response as soon as it is serialized,
+     * so the bookings are never collected in memory
+     * @param guests ids to export only the ids of the invited guests (optional, default to embedded)
+     * @return the stream of all bookings with response code
      */
     @Override
-    public ResponseEntity<List<BookingTO>> getBookingAll() {
-        return new ResponseEntity(bookingManager.getAllBookings(), HttpStatus.OK);
+    public ResponseEntity<StreamingResponseBody> exportBookings(String guests) {
+        if (!isGuestsParameter(guests)) {
+            return ResponseEntity.badRequest().build();
+        }
+        boolean guestIds = GUESTS_AS_IDS.equals(guests);
+        ObjectWriter bookingWriter = objectMapper.writerFor(BookingTO.class)
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                Iterator<BookingTO> bookings = bookingManager.streamAllBookings().iterator();
+                while (bookings.hasNext()) {
+                    BookingTO booking = bookings.next();
+                    bookingWriter.writeValue(generator, guestIds ? BookingResponses.withGuestIds(booking) : booking);
+                    generator.writeRaw('\n');
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Creates the get /booking/changes endpoint to stream the created and updated bookings as server-sent events
+     * Every change is sent as booking event with its offset as id, so clients receive only the changes
+     * instead of polling and comparing all bookings. A reset event tells the client to load all bookings again
+     * A client falling too far behind is disconnected and resumes with its Last-Event-ID, see {@link BookingChangeStreams}
+     * @param since offset of the last received change (optional)
+     * @param lastEventID offset of the last received change sent by EventSource on reconnect (optional)
+     * @return the stream of changes with response code, 400 if the offset is invalid
+     * or 503 if openapidemo.booking-changes.max-subscribers clients are streamed already
+     */
+    @Override
+    public ResponseEntity<SseEmitter> streamBookingChanges(Long since, String lastEventID) {
+        Long offset = since;
+        if (lastEventID != null && !lastEventID.isBlank()) {
+            try {
+                offset = Long.valueOf(lastEventID.trim());
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        SseEmitter emitter = bookingChangeStreams.open(offset, new SseEmitter(CHANGE_STREAM_TIMEOUT_MILLIS));
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
     }
 
     /**
      * Creates a the get /booking/{id} endpoint to get a single booking by id
+     * The response contains the ETag of the booking, a client sending it as If-None-Match
+     * gets an empty 304 response as long as the booking is not modified
+     * Concurrent requests for the same booking share one lookup and the serialized booking is reused
+     * until the booking is saved again, see {@link SerializedBookingCache}
      * @param bookingId ID of booking to return (required)
-     * @return the booking with the id with response code
+     * @param ifNoneMatch ETags of cached versions of the booking (optional)
+     * @return the booking with the id with response code, 304 if it is not modified
+     * or 404 if there is no booking with this id
      */
     @Override
-    public ResponseEntity<BookingTO> getBookingById(Long bookingId) {
-        return new ResponseEntity(bookingManager.getBooking(bookingId), HttpStatus.OK);
+    @GetMapping(value = "/booking/{bookingId}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, SMILE_VALUE })
+    public ResponseEntity<BookingTO> getBookingById(Long bookingId, String ifNoneMatch) {
+        MediaType mediaType = selectMediaType();
+        if (mediaType == null) {
+            //none of the formats is accepted, the message converters answer with 406 Not Acceptable
+            return ResponseEntity.of(bookingManager.getBooking(bookingId));
+        }
+        ObjectWriter writer = bookingWriters.get(mediaType);
+        Optional<SerializedBookingCache.SerializedBooking> serialized = metrics.time("getBookingById",
+            () -> serializedBookingCache.getBooking(bookingId, writer));
+        if (serialized.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        BookingTO booking = serialized.get().getBooking();
+        metrics.recordInvitedGuests("getBookingById", List.of(booking));
+        String eTag = BookingResponses.eTag(booking);
+        if (ifNoneMatch != null && BookingResponses.matchesETag(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        //the booking is written from the cached bytes
+        SerializedBookingHttpMessageConverter.setSerializedBooking(request, serialized.get(), writer, mediaType);
+        return ResponseEntity.ok().eTag(eTag).contentType(mediaType).body(booking);
+    }
+
+    /**
+     * Function to select the format of a single booking by the Accept header of the request
+     * @return the most preferred of json, cbor and smile, json without Accept header
+     * or null if none of them is accepted
+     */
+    private MediaType selectMediaType() {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType.sortBySpecificityAndQuality(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType mediaType : bookingWriters.keySet()) {
+                if (acceptedType.includes(mediaType)) {
+                    return mediaType;
+                }
+            }
+        }
+        return null;
     }
 }
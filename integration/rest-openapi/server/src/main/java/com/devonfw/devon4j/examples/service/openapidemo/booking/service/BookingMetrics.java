@@ -0,0 +1,72 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.service;
+
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * This class is holding the meters of the booking operations, they are exported at /actuator/prometheus
+ *
+ * booking.usecase times the call of the BookingManager without reading and writing the request and response,
+ * compared with the http.server.requests of the same operation it shows if the time is spent in the logic or the mapping
+ * booking.invited.guests is the number of invited guests per created or returned booking
+ */
+@Component
+public class BookingMetrics {
+
+    private static final double MAX_EXPECTED_GUESTS = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    public BookingMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Function to time a call of the logic layer
+     * @param operation the name of the operation, used as tag
+     * @param useCase calls the logic layer
+     * @return the result of the call
+     */
+    public <T> T time(String operation, Supplier<T> useCase) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return useCase.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("booking.usecase")
+                .tag("operation", operation)
+                .tag("exception", exception)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Function to record the number of invited guests of bookings
+     * @param operation the name of the operation, used as tag
+     * @param bookings the bookings created or returned by the operation, null elements are ignored
+     */
+    public void recordInvitedGuests(String operation, Collection<BookingTO> bookings) {
+        DistributionSummary summary = DistributionSummary.builder("booking.invited.guests")
+            .baseUnit("guests")
+            .tag("operation", operation)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(1.0)
+            .maximumExpectedValue(MAX_EXPECTED_GUESTS)
+            .register(meterRegistry);
+        for (BookingTO booking : bookings) {
+            if (booking != null) {
+                summary.record(booking.getInvitedGuests() == null ? 0 : booking.getInvitedGuests().size());
+            }
+        }
+    }
+}
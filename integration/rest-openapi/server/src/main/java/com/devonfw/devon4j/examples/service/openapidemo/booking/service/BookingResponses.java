@@ -0,0 +1,62 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.service;
+
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class is providing the functions shared by the booking endpoints of the servlet and the reactive server
+ */
+public final class BookingResponses {
+
+    private BookingResponses() {
+    }
+
+    /**
+     * Function to create the ETag of a booking, the modificationCounter changes with every update
+     * @param booking the booking
+     * @return the quoted modificationCounter
+     */
+    public static String eTag(BookingTO booking) {
+        return "\"" + booking.getModificationCounter() + "\"";
+    }
+
+    /**
+     * Function to check a If-None-Match header, it may contain a list of ETags, weak ETags or *
+     * @param ifNoneMatch the value of the header
+     * @param eTag the current ETag
+     * @return true if one of the ETags matches the current ETag
+     */
+    public static boolean matchesETag(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Function to replace the invited guests of a booking by their ids
+     * A guest invited to many bookings is then sent only once with the /invitedGuest endpoint
+     * @param booking the stored booking, it is not changed
+     * @return a copy of the booking with invitedGuestIds instead of invitedGuests
+     */
+    public static BookingTO withGuestIds(BookingTO booking) {
+        BookingTO result = new BookingTO().id(booking.getId()).modificationCounter(booking.getModificationCounter());
+        if (booking.getInvitedGuests() != null) {
+            List<Long> guestIds = new ArrayList<>(booking.getInvitedGuests().size());
+            for (InvitedGuestTO guest : booking.getInvitedGuests()) {
+                guestIds.add(guest.getId());
+            }
+            result.setInvitedGuestIds(guestIds);
+        }
+        return result;
+    }
+}
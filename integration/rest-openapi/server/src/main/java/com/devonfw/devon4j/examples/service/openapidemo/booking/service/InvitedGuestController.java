@@ -0,0 +1,60 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.service;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.InvitedGuestManager;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import com.devonfw.devon4j.generated.api.service.InvitedGuestApi;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * This class is implementing the generated InvitedGuest Api endpoint
+ * Every guest is stored once and referenced by the bookings it is invited to,
+ * bookings requested with guests=ids only contain the ids of these guests
+ */
+@RestController
+public class InvitedGuestController implements InvitedGuestApi {
+
+    /**
+     * The InvitedGuestManager from the logic layer is called to manage all logic tasks
+     */
+    private InvitedGuestManager invitedGuestManager;
+
+    public InvitedGuestController(InvitedGuestManager invitedGuestManager) {
+        this.invitedGuestManager = invitedGuestManager;
+    }
+
+    /**
+     * Create the post /invitedGuest endpoint to create new guests or change existing ones
+     * @param invitedGuestTO the guest to save
+     * @return the saved guest with response code
+     */
+    @Override
+    public ResponseEntity<InvitedGuestTO> createInvitedGuest(InvitedGuestTO invitedGuestTO) {
+        if (invitedGuestTO == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return new ResponseEntity<>(invitedGuestManager.saveInvitedGuest(invitedGuestTO), HttpStatus.CREATED);
+    }
+
+    /**
+     * Creates the get /invitedGuest endpoint to get a list of all guests
+     * @return a list of the guests with response code
+     */
+    @Override
+    public ResponseEntity<List<InvitedGuestTO>> getInvitedGuestAll() {
+        return ResponseEntity.ok(invitedGuestManager.getAllInvitedGuests());
+    }
+
+    /**
+     * Creates the get /invitedGuest/{guestId} endpoint to get a single guest by id
+     * @param guestId ID of guest to return (required)
+     * @return the guest with the id with response code or 404 if there is no guest with this id
+     */
+    @Override
+    public ResponseEntity<InvitedGuestTO> getInvitedGuestById(Long guestId) {
+        return ResponseEntity.of(invitedGuestManager.getInvitedGuest(guestId));
+    }
+}
@@ -0,0 +1,107 @@
+package com.devonfw.devon4j.examples.service.openapidemo.booking.service;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.SerializedBookingCache;
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.io.IOException;
+
+/**
+ * This class is writing the booking of get /booking/{id} from the bytes of the {@link SerializedBookingCache}
+ *
+ * The BookingController keeps returning a BookingTO, it only puts the serialized booking into an attribute
+ * of the request. This converter is used for responses of requests with this attribute and writes the cached bytes
+ * as they are, all other bookings are written by the Jackson converters
+ */
+public class SerializedBookingHttpMessageConverter extends AbstractHttpMessageConverter<BookingTO> {
+
+    private static final String ATTRIBUTE = SerializedBookingHttpMessageConverter.class.getName() + ".booking";
+
+    public SerializedBookingHttpMessageConverter() {
+        super(MediaType.ALL);
+    }
+
+    /**
+     * Function to write the booking of the current response from its serialized bytes
+     * @param request the current request
+     * @param serialized the serialized booking, the body of the response
+     * @param writer the writer of the bytes
+     * @param mediaType the format of the bytes
+     */
+    static void setSerializedBooking(NativeWebRequest request, SerializedBookingCache.SerializedBooking serialized,
+            ObjectWriter writer, MediaType mediaType) {
+        request.setAttribute(ATTRIBUTE, new Serialized(serialized, writer, mediaType), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return BookingTO.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        Serialized serialized = current();
+        return serialized != null && supports(clazz)
+            && (mediaType == null || mediaType.isCompatibleWith(serialized.mediaType));
+    }
+
+    @Override
+    protected BookingTO readInternal(Class<? extends BookingTO> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Bookings are not read by " + getClass().getSimpleName(),
+            inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(BookingTO booking, MediaType contentType) {
+        Serialized serialized = current();
+        if (serialized == null || serialized.booking.getBooking() != booking) {
+            return null;
+        }
+        return (long) serialized.booking.getBytes().length;
+    }
+
+    @Override
+    protected void writeInternal(BookingTO booking, HttpOutputMessage outputMessage) throws IOException {
+        Serialized serialized = current();
+        if (serialized.booking.getBooking() == booking) {
+            outputMessage.getBody().write(serialized.booking.getBytes());
+        } else {
+            //the body was replaced after the booking was serialized
+            outputMessage.getBody().write(serialized.writer.writeValueAsBytes(booking));
+        }
+    }
+
+    private static Serialized current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes == null ? null
+            : (Serialized) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static final class Serialized {
+
+        private final SerializedBookingCache.SerializedBooking booking;
+
+        private final ObjectWriter writer;
+
+        private final MediaType mediaType;
+
+        private Serialized(SerializedBookingCache.SerializedBooking booking, ObjectWriter writer, MediaType mediaType) {
+            this.booking = booking;
+            this.writer = writer;
+            this.mediaType = mediaType;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.devonfw.devon4j.examples.service.openapidemo.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * This class is limiting the requests processed at the same time with a limit adjusted by additive increase
+ * and multiplicative decrease (AIMD) from the observed latency
+ *
+ * A request slower than the latency threshold or failing with a server error decreases the limit by the backoff ratio,
+ * the service is overloaded and fewer concurrent requests let it recover
+ * The limit is only decreased by requests that started after the last decrease, the requests that were already running
+ * report the same overload, so the limit is decreased once per round of requests instead of once per slow request
+ * A request completing in time while at least half of the limit is used increases the limit by one,
+ * so the limit only grows while it is actually reached
+ * Requests above the limit are rejected instead of waiting in a queue
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyThresholdNanos;
+
+    private final double backoffRatio;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+
+    private volatile int limit;
+
+    /**
+     * The System.nanoTime() of the last decrease, guarded by this
+     */
+    private long decreasedAt;
+
+    private boolean decreased;
+
+    /**
+     * @param initialLimit the limit at start
+     * @param minLimit the lowest limit
+     * @param maxLimit the highest limit
+     * @param latencyThresholdNanos the latency above which a request counts as overload
+     * @param backoffRatio the factor applied to the limit on overload, between 0 and 1
+     */
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+            double backoffRatio) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Requires 1 <= minLimit <= initialLimit <= maxLimit and 0 < backoffRatio < 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * Function to admit a request, release must be called when an admitted request is completed
+     * @return true if the request may be processed
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Function to release a completed request and adjust the limit
+     * @param startNanos the System.nanoTime() when the request was started
+     * @param endNanos the System.nanoTime() when the request was completed
+     * @param failed whether the request failed because of the service, e.g. with a server error
+     */
+    public void release(long startNanos, long endNanos, boolean failed) {
+        int current = inflight.getAndDecrement();
+        synchronized (this) {
+            if (failed || endNanos - startNanos > latencyThresholdNanos) {
+                if (!decreased || startNanos - decreasedAt >= 0) {
+                    limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                    decreasedAt = endNanos;
+                    decreased = true;
+                }
+            } else if (current * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+        }
+    }
+
+    /**
+     * Function to release a request without adjusting the limit,
+     * for requests whose duration depends on their size like the export
+     */
+    public void release() {
+        inflight.decrementAndGet();
+    }
+
+    /**
+     * @return the current limit
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * @return the number of requests being processed
+     */
+    public int getInflight() {
+        return inflight.get();
+    }
+}
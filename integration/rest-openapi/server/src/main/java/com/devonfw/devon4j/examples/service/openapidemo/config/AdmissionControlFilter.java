@@ -0,0 +1,216 @@
+package com.devonfw.devon4j.examples.service.openapidemo.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This filter is protecting the API against floods of requests, see openapidemo.admission in the application.properties
+ *
+ * Every client is limited by a TokenBucketRateLimiter and rejected with 429 Too Many Requests above its rate
+ * A client is identified by its address, only requests of the openapidemo.admission.trusted-proxies are identified
+ * by their openapidemo.admission.client-header, as any other client could send a new id with every request
+ * All requests together are limited by an AdaptiveConcurrencyLimiter, requests above its limit are rejected
+ * with 503 Service Unavailable
+ * Both answers have a Retry-After header and are sent without reading the request, so before the GzipRequestFilter
+ *
+ * The limiter is exported as booking.admission.limit, booking.admission.inflight, booking.admission.clients
+ * and booking.admission.rejected by reason
+ * The filter runs after the metrics filter of Spring Boot, so the rejected requests are part of http.server.requests
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(name = "openapidemo.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private final String path;
+
+    private final List<String> excludedPaths;
+
+    private final List<String> unmeasuredPaths;
+
+    private final String clientHeader;
+
+    private final Set<String> trustedProxies;
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    private final Counter rateRejected;
+
+    private final Counter concurrencyRejected;
+
+    /**
+     * @param path the prefix of the limited requests
+     * @param excludedPaths the prefixes of requests that are not limited, like the long-lived change stream
+     * @param unmeasuredPaths the prefixes of requests whose duration depends on their size,
+     *                        they count as concurrent requests but do not adjust the limit,
+     *                        a prefix like POST /booking only matches requests of this method
+     * @param clientHeader the header identifying the client of a request forwarded by a trusted proxy
+     * @param trustedProxies the addresses of the proxies whose client header is trusted
+     * @param permitsPerSecond the sustained requests per second of a client
+     * @param burst the requests a client may send at once after being idle
+     * @param maxClients the most clients with a bucket, the least recently seen client is forgotten for a new one
+     * @param initialLimit the concurrent requests at start
+     * @param minLimit the lowest limit of concurrent requests
+     * @param maxLimit the highest limit of concurrent requests
+     * @param latencyThresholdMillis the latency above which a request counts as overload
+     * @param backoffRatio the factor applied to the limit on overload
+     * @param meterRegistry the registry of the metrics
+     */
+    public AdmissionControlFilter(@Value("${openapidemo.admission.path:/api/v1/}") String path,
+            @Value("${openapidemo.admission.excluded-paths:}") List<String> excludedPaths,
+            @Value("${openapidemo.admission.unmeasured-paths:}") List<String> unmeasuredPaths,
+            @Value("${openapidemo.admission.client-header:X-Client-Id}") String clientHeader,
+            @Value("${openapidemo.admission.trusted-proxies:}") List<String> trustedProxies,
+            @Value("${openapidemo.admission.rate.permits-per-second:50}") double permitsPerSecond,
+            @Value("${openapidemo.admission.rate.burst:100}") int burst,
+            @Value("${openapidemo.admission.rate.max-clients:10000}") int maxClients,
+            @Value("${openapidemo.admission.concurrency.initial-limit:50}") int initialLimit,
+            @Value("${openapidemo.admission.concurrency.min-limit:5}") int minLimit,
+            @Value("${openapidemo.admission.concurrency.max-limit:500}") int maxLimit,
+            @Value("${openapidemo.admission.concurrency.latency-threshold-millis:250}") long latencyThresholdMillis,
+            @Value("${openapidemo.admission.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            MeterRegistry meterRegistry) {
+        this.path = path;
+        this.excludedPaths = excludedPaths;
+        this.unmeasuredPaths = unmeasuredPaths;
+        this.clientHeader = clientHeader;
+        this.trustedProxies = new HashSet<>(trustedProxies);
+        this.rateLimiter = new TokenBucketRateLimiter(permitsPerSecond, burst, maxClients);
+        this.concurrencyLimiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit,
+            latencyThresholdMillis * 1_000_000, backoffRatio);
+        Gauge.builder("booking.admission.limit", concurrencyLimiter, AdaptiveConcurrencyLimiter::getLimit)
+            .description("The limit of concurrent requests")
+            .register(meterRegistry);
+        Gauge.builder("booking.admission.inflight", concurrencyLimiter, AdaptiveConcurrencyLimiter::getInflight)
+            .description("The requests being processed")
+            .register(meterRegistry);
+        Gauge.builder("booking.admission.clients", rateLimiter, TokenBucketRateLimiter::getClients)
+            .description("The clients with a token bucket")
+            .register(meterRegistry);
+        this.rateRejected = Counter.builder("booking.admission.rejected")
+            .tag("reason", "rate")
+            .register(meterRegistry);
+        this.concurrencyRejected = Counter.builder("booking.admission.rejected")
+            .tag("reason", "concurrency")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith(path) || excludedPaths.stream().anyMatch(uri::startsWith);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        long wait = rateLimiter.tryAcquire(client(request), start);
+        if (wait > 0) {
+            rateRejected.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait);
+            return;
+        }
+        if (!concurrencyLimiter.tryAcquire()) {
+            concurrencyRejected.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 0);
+            return;
+        }
+        boolean measured = !isUnmeasured(request);
+        boolean released = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                //Streamed responses are written after the filter chain returned
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        release(start, response.getStatus() >= 500, measured);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+                released = true;
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            release(start, true, measured);
+            released = true;
+            throw e;
+        } finally {
+            if (!released) {
+                release(start, response.getStatus() >= 500, measured);
+            }
+        }
+    }
+
+    private void release(long start, boolean failed, boolean measured) {
+        if (measured) {
+            concurrencyLimiter.release(start, System.nanoTime(), failed);
+        } else {
+            concurrencyLimiter.release();
+        }
+    }
+
+    private boolean isUnmeasured(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        for (String unmeasured : unmeasuredPaths) {
+            int space = unmeasured.indexOf(' ');
+            if (space < 0 ? uri.startsWith(unmeasured)
+                : request.getMethod().equals(unmeasured.substring(0, space))
+                    && uri.startsWith(unmeasured.substring(space + 1))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String client(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (!trustedProxies.contains(address)) {
+            return address;
+        }
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isEmpty() ? address : client;
+    }
+
+    /**
+     * Function to answer without reading the request,
+     * the Retry-After is the time until the client has a token again or one second
+     */
+    private static void reject(HttpServletResponse response, HttpStatus status, long waitNanos) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000)));
+    }
+}
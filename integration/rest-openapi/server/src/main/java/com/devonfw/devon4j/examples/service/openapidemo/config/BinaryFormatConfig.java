@@ -0,0 +1,45 @@
+package com.devonfw.devon4j.examples.service.openapidemo.config;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * This class is registering the message converters for application/cbor and application/x-jackson-smile
+ * The mappers are configured by the Jackson2ObjectMapperBuilder of Spring Boot,
+ * so they use the same modules and settings as the json mapper
+ *
+ * Spring Boot puts the converters at the place of its default converters of the same type,
+ * which is after the json converter, so json stays the default if any media type is accepted
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    /**
+     * Function to create the message converter for application/cbor
+     * @param builder the builder configured by Spring Boot
+     * @return the cbor message converter
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        CBORMapper mapper = new CBORMapper();
+        builder.configure(mapper);
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+
+    /**
+     * Function to create the message converter for application/x-jackson-smile
+     * @param builder the builder configured by Spring Boot
+     * @return the smile message converter
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileMapper mapper = new SmileMapper();
+        builder.configure(mapper);
+        return new MappingJackson2SmileHttpMessageConverter(mapper);
+    }
+}
@@ -0,0 +1,42 @@
+package com.devonfw.devon4j.examples.service.openapidemo.config;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingJournal;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * This class is creating the BookingJournal if openapidemo.journal.directory is set,
+ * otherwise the bookings and guests are only kept in memory
+ * The records are written as Smile with the settings of the json mapper
+ */
+@Configuration
+@ConditionalOnProperty(name = "openapidemo.journal.directory")
+public class BookingJournalConfig {
+
+    /**
+     * Function to create the journal, it is closed after the repositories when the application stops
+     * @param directory of the journal
+     * @param fsync whether a change waits until its records are forced to disk
+     * @param segmentSize the size of a memory-mapped segment file
+     * @param snapshotAfter the size of the segments after which a snapshot is written
+     * @param builder the builder configured by Spring Boot
+     * @return the journal
+     */
+    @Bean
+    public BookingJournal bookingJournal(@Value("${openapidemo.journal.directory}") Path directory,
+                                         @Value("${openapidemo.journal.fsync:true}") boolean fsync,
+                                         @Value("${openapidemo.journal.segment-size:64MB}") DataSize segmentSize,
+                                         @Value("${openapidemo.journal.snapshot-after:256MB}") DataSize snapshotAfter,
+                                         Jackson2ObjectMapperBuilder builder) {
+        SmileMapper mapper = new SmileMapper();
+        builder.configure(mapper);
+        return new BookingJournal(directory, mapper, Math.toIntExact(segmentSize.toBytes()), fsync, snapshotAfter.toBytes());
+    }
+}
@@ -0,0 +1,214 @@
+package com.devonfw.devon4j.examples.service.openapidemo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * This filter is decompressing request bodies sent with Content-Encoding gzip, like the batches of the client
+ * The responses are compressed by Tomcat, see server.compression in the application.properties
+ *
+ * Requests with another Content-Encoding than gzip or identity are rejected with 415 Unsupported Media Type
+ * A decompressed body larger than openapidemo.compression.max-request-size is rejected with 400 Bad Request,
+ * so a small compressed request cannot expand to a body filling the memory
+ * The filter runs before the HttpExchangeSizeFilter, so http.server.request.size is the decompressed size
+ *
+ * A body read with a ReadListener is first collected compressed without blocking, at most max-request-size bytes,
+ * and then decompressed from memory for the listener of the application
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class GzipRequestFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    private static final String IDENTITY = "identity";
+
+    private final long maxRequestSize;
+
+    public GzipRequestFilter(@Value("${openapidemo.compression.max-request-size:64MB}") DataSize maxRequestSize) {
+        this.maxRequestSize = maxRequestSize.toBytes();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (encoding == null || encoding.trim().equalsIgnoreCase(IDENTITY)) {
+            filterChain.doFilter(request, response);
+        } else if (encoding.trim().equalsIgnoreCase(GZIP)) {
+            filterChain.doFilter(new GzipRequest(request, maxRequestSize), response);
+        } else {
+            response.sendError(HttpServletResponse.SC_UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Encoding " + encoding);
+        }
+    }
+
+    /**
+     * The request with the decompressed body, it hides the Content-Encoding and the Content-Length of the compressed body
+     */
+    private static final class GzipRequest extends HttpServletRequestWrapper {
+
+        private final long maxSize;
+
+        private ServletInputStream inputStream;
+
+        private GzipRequest(HttpServletRequest request, long maxSize) {
+            super(request);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (inputStream == null) {
+                ServletInputStream compressed = super.getInputStream();
+                inputStream = new ServletInputStream() {
+
+                    //Created with the first read, GZIPInputStream reads the gzip header in its constructor
+                    private InputStream decompressed;
+
+                    private long bytes;
+
+                    private boolean finished;
+
+                    //Set while a non-blocking read is collecting the compressed body
+                    private volatile boolean collecting;
+
+                    @Override
+                    public int read() throws IOException {
+                        int b = decompressed().read();
+                        count(b < 0 ? -1 : 1);
+                        return b;
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        int count = decompressed().read(b, off, len);
+                        count(count);
+                        return count;
+                    }
+
+                    private InputStream decompressed() throws IOException {
+                        if (collecting) {
+                            throw new IllegalStateException("The compressed request body is not complete yet");
+                        }
+                        if (decompressed == null) {
+                            decompressed = new GZIPInputStream(compressed, 8192);
+                        }
+                        return decompressed;
+                    }
+
+                    private void count(int count) throws IOException {
+                        if (count < 0) {
+                            finished = true;
+                        } else {
+                            bytes += count;
+                            if (bytes > maxSize) {
+                                throw new IOException("The decompressed request body is larger than " + maxSize + " bytes");
+                            }
+                        }
+                    }
+
+                    @Override
+                    public boolean isFinished() {
+                        return finished;
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return !collecting;
+                    }
+
+                    @Override
+                    public void setReadListener(ReadListener readListener) {
+                        collecting = true;
+                        ByteArrayOutputStream body = new ByteArrayOutputStream();
+                        compressed.setReadListener(new ReadListener() {
+                            @Override
+                            public void onDataAvailable() throws IOException {
+                                byte[] buffer = new byte[8192];
+                                while (compressed.isReady()) {
+                                    int count = compressed.read(buffer);
+                                    if (count < 0) {
+                                        return;
+                                    }
+                                    body.write(buffer, 0, count);
+                                    if (body.size() > maxSize) {
+                                        throw new IOException("The compressed request body is larger than " + maxSize + " bytes");
+                                    }
+                                }
+                            }
+
+                            @Override
+                            public void onAllDataRead() throws IOException {
+                                decompressed = new GZIPInputStream(new ByteArrayInputStream(body.toByteArray()), 8192);
+                                collecting = false;
+                                //The body is in memory, so the application reads it completely in onDataAvailable
+                                readListener.onDataAvailable();
+                                if (finished) {
+                                    readListener.onAllDataRead();
+                                }
+                            }
+
+                            @Override
+                            public void onError(Throwable t) {
+                                readListener.onError(t);
+                            }
+                        });
+                    }
+                };
+            }
+            return inputStream;
+        }
+
+        @Override
+        public int getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return -1;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return isHidden(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return isHidden(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                .filter(name -> !isHidden(name))
+                .collect(Collectors.toList()));
+        }
+
+        private static boolean isHidden(String name) {
+            return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+        }
+    }
+}
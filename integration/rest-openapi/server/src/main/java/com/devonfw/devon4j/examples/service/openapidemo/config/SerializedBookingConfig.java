@@ -0,0 +1,21 @@
+package com.devonfw.devon4j.examples.service.openapidemo.config;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.service.SerializedBookingHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * This class is registering the {@link SerializedBookingHttpMessageConverter} for the responses of Spring MVC
+ * It is put before the Jackson converters, it only writes the bookings the BookingController has serialized already
+ */
+@Configuration
+public class SerializedBookingConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new SerializedBookingHttpMessageConverter());
+    }
+}
@@ -0,0 +1,141 @@
+package com.devonfw.devon4j.examples.service.openapidemo.config;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class is limiting the requests per client with one token bucket per client
+ * A bucket holds up to burst tokens and is refilled with permitsPerSecond tokens per second, every request takes one token
+ *
+ * A bucket is a single long, the time at which it would be full again if no further token was taken
+ * A request moves this time by the refill interval of one token with a compare-and-set and is rejected
+ * if the time would be more than burst intervals ahead, so clients never wait for each other
+ * The buckets are refilled when they are used, so idle clients cost nothing but their entry
+ *
+ * About maxClients buckets are kept, when a new client exceeds the bound a few buckets are sampled
+ * and the full one or the one that has not been used for the longest time is removed
+ * Concurrent new clients can exceed the bound by their number until their own evictions catch up
+ */
+public class TokenBucketRateLimiter {
+
+    /**
+     * Number of buckets that are compared to find the one to remove
+     */
+    private static final int SAMPLES = 8;
+
+    /**
+     * The nanoseconds to refill one token
+     */
+    private final long interval;
+
+    /**
+     * The nanoseconds to refill an empty bucket
+     */
+    private final long capacity;
+
+    private final int maxClients;
+
+    private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @param permitsPerSecond the sustained requests per second of a client
+     * @param burst the requests a client may send at once after being idle
+     * @param maxClients the number of buckets that are kept
+     */
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst, int maxClients) {
+        if (permitsPerSecond <= 0 || burst < 1 || maxClients < 1) {
+            throw new IllegalArgumentException("permitsPerSecond, burst and maxClients must be positive");
+        }
+        this.interval = Math.max(1, Math.round(1e9 / permitsPerSecond));
+        this.capacity = burst * interval;
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Function to take a token of a client
+     * @param client the client of the request
+     * @param nanoTime the current System.nanoTime()
+     * @return 0 if the request is allowed, otherwise the nanoseconds until the client has a token again
+     */
+    public long tryAcquire(String client, long nanoTime) {
+        Bucket bucket = buckets.get(client);
+        if (bucket == null) {
+            Bucket created = new Bucket(nanoTime);
+            bucket = buckets.putIfAbsent(client, created);
+            if (bucket == null) {
+                bucket = created;
+                evict(client, nanoTime);
+            }
+        }
+        bucket.usedAt = nanoTime;
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - nanoTime < 0 ? nanoTime : fullAt) + interval;
+            long wait = next - nanoTime - capacity;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.weakCompareAndSetVolatile(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Function to remove sampled buckets until the bound is kept again, full buckets first and then the least recently used
+     * @param added the client that was just added and is not removed
+     * @param nanoTime the current System.nanoTime()
+     */
+    private void evict(String added, long nanoTime) {
+        while (buckets.size() > maxClients) {
+            Map.Entry<String, Bucket> eldest = null;
+            int sampled = 0;
+            for (Map.Entry<String, Bucket> entry : buckets.entrySet()) {
+                if (!entry.getKey().equals(added) && (eldest == null
+                    || entry.getValue().evictionOrder(nanoTime) < eldest.getValue().evictionOrder(nanoTime))) {
+                    eldest = entry;
+                }
+                if (++sampled == SAMPLES) {
+                    break;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            buckets.remove(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * @return the number of clients with a bucket
+     */
+    public int getClients() {
+        return buckets.size();
+    }
+
+    /**
+     * The time at which the bucket of one client is full again
+     */
+    @SuppressWarnings("serial")
+    private static final class Bucket extends AtomicLong {
+
+        /**
+         * The time of the last request, only used to choose the bucket to remove
+         */
+        private volatile long usedAt;
+
+        private Bucket(long nanoTime) {
+            super(nanoTime);
+            this.usedAt = nanoTime;
+        }
+
+        /**
+         * @return Long.MIN_VALUE for a full bucket that is the same as a new one, otherwise the time of its last use
+         */
+        private long evictionOrder(long nanoTime) {
+            return get() - nanoTime <= 0 ? Long.MIN_VALUE : usedAt;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.devonfw.devon4j.examples.service.openapidemo.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * This class is running the request handling on virtual threads if spring.threads.virtual.enabled is true
+ * Every request gets its own virtual thread, so handlers blocking on downstream calls
+ * no longer wait for one of the server.tomcat.threads.max platform threads
+ *
+ * Streaming responses like the booking export are written by the application task executor,
+ * it is replaced by the virtual thread executor as well
+ *
+ * The property has the same name as in Spring Boot 3.2, virtual threads require Java 21
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Function to create the executor starting a new virtual thread for every task
+     * @return the virtual thread executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadExecutor() {
+        return newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Function to replace the thread pool of Tomcat with the virtual thread executor
+     * @param virtualThreadExecutor the executor for the requests
+     * @return the customizer of the Tomcat protocol handler
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Function to run async requests like streaming responses on virtual threads
+     * @param virtualThreadExecutor the executor for the async requests
+     * @return the executor used by Spring MVC for async requests
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ExecutorService virtualThreadExecutor) {
+        return new TaskExecutorAdapter(virtualThreadExecutor);
+    }
+
+    /**
+     * Function to create a virtual thread executor, the Java 21 api is called by reflection
+     * because the application is compiled for Java 11
+     * @return the result of Executors.newVirtualThreadPerTaskExecutor()
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(
+                "spring.threads.virtual.enabled requires Java 21 but the application runs on Java " + Runtime.version(), e);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads could not be created", e);
+        }
+    }
+}
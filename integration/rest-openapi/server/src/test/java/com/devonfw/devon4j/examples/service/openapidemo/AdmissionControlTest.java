@@ -0,0 +1,164 @@
+package com.devonfw.devon4j.examples.service.openapidemo;
+
+import com.devonfw.devon4j.examples.service.openapidemo.config.AdaptiveConcurrencyLimiter;
+import com.devonfw.devon4j.examples.service.openapidemo.config.AdmissionControlFilter;
+import com.devonfw.devon4j.examples.service.openapidemo.config.TokenBucketRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdmissionControlTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testTokenBucketRefillsPerClient() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, 100);
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.tryAcquire("partner", 0));
+        }
+        assertEquals(SECOND / 10, limiter.tryAcquire("partner", 0));
+        assertEquals(0, limiter.tryAcquire("other", 0));
+        assertEquals(0, limiter.tryAcquire("partner", SECOND / 10));
+        assertTrue(limiter.tryAcquire("partner", SECOND / 10) > 0);
+    }
+
+    @Test
+    public void testTokenBucketKeepsAtMostMaxClients() throws Exception {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 2, 3);
+        for (String client : List.of("busy", "idle1", "idle2")) {
+            limiter.tryAcquire(client, 0);
+            limiter.tryAcquire(client, 0);
+        }
+        assertTrue(limiter.tryAcquire("busy", 1) > 0);
+        limiter.tryAcquire("new1", 2);
+        limiter.tryAcquire("new2", 3);
+        assertEquals(3, limiter.getClients());
+        //the least recently seen clients are forgotten
+        assertTrue(limiter.tryAcquire("busy", 4) > 0);
+        assertEquals(0, limiter.tryAcquire("idle1", 5));
+        //concurrent new clients exceed the bound at most by their number
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            String prefix = "rotating" + t + "-";
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    limiter.tryAcquire(prefix + i, 6 + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(limiter.getClients() <= 3 + threads.length);
+        limiter.tryAcquire("last", 2000);
+        assertEquals(3, limiter.getClients());
+    }
+
+    @Test
+    public void testAimdLimitFollowsLatency() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 2, 5, 100, 0.5);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+        limiter.release(0, 10, false);
+        limiter.release(0, 10, false);
+        assertEquals(5, limiter.getLimit());
+        limiter.release(0, 1000, false);
+        assertEquals(2, limiter.getLimit());
+        limiter.release(1000, 1010, true);
+        assertEquals(2, limiter.getLimit());
+        assertEquals(0, limiter.getInflight());
+    }
+
+    @Test
+    public void testAimdLimitDecreasesOncePerRound() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(100, 5, 100, 100, 0.9);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        //the slow requests started before the first of them completed
+        for (int i = 0; i < 20; i++) {
+            limiter.release(i, 1000 + i, false);
+        }
+        assertEquals(90, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+        limiter.release(1000, 2000, true);
+        assertEquals(81, limiter.getLimit());
+    }
+
+    @Test
+    public void testFilterRejectsOverloadWithRetryAfter() throws ServletException, IOException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionControlFilter filter = new AdmissionControlFilter("/api/v1/", List.of("/api/v1/booking/changes"),
+            List.of(), "X-Client-Id", List.of("127.0.0.1"), 1, 2, 100, 1, 1, 1, 1000, 0.9, meterRegistry);
+
+        assertEquals(200, call(filter, "partner", "/api/v1/booking").getStatus());
+        assertEquals(200, call(filter, "partner", "/api/v1/booking").getStatus());
+        MockHttpServletResponse limited = call(filter, "partner", "/api/v1/booking");
+        assertEquals(429, limited.getStatus());
+        assertEquals("1", limited.getHeader("Retry-After"));
+        assertEquals(200, call(filter, "partner", "/api/v1/booking/changes").getStatus());
+
+        MockHttpServletResponse[] concurrent = new MockHttpServletResponse[1];
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/booking");
+        request.addHeader("X-Client-Id", "first");
+        filter.doFilter(request, new MockHttpServletResponse(),
+            (req, res) -> concurrent[0] = call(filter, "second", "/api/v1/booking"));
+        assertEquals(503, concurrent[0].getStatus());
+        assertEquals("1", concurrent[0].getHeader("Retry-After"));
+
+        assertEquals(1.0, meterRegistry.get("booking.admission.rejected").tag("reason", "rate").counter().count());
+        assertEquals(1.0, meterRegistry.get("booking.admission.rejected").tag("reason", "concurrency").counter().count());
+        assertEquals(0.0, meterRegistry.get("booking.admission.inflight").gauge().value());
+    }
+
+    @Test
+    public void testFilterIgnoresClientIdOfUntrustedAddress() throws ServletException, IOException {
+        AdmissionControlFilter filter = new AdmissionControlFilter("/api/v1/", List.of(), List.of(), "X-Client-Id",
+            List.of("10.0.0.1"), 1, 2, 100, 10, 1, 10, 1000, 0.9, new SimpleMeterRegistry());
+
+        assertEquals(200, call(filter, "first", "/api/v1/booking").getStatus());
+        assertEquals(200, call(filter, "second", "/api/v1/booking").getStatus());
+        assertEquals(429, call(filter, "third", "/api/v1/booking").getStatus());
+    }
+
+    @Test
+    public void testFilterDoesNotMeasureUnmeasuredMethod() throws ServletException, IOException {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdmissionControlFilter filter = new AdmissionControlFilter("/api/v1/", List.of(),
+            List.of("POST /api/v1/invitedGuest"), "X-Client-Id", List.of(), 100, 100, 100, 10, 1, 10, 0, 0.5,
+            meterRegistry);
+
+        //every request is slower than the threshold of 0
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/v1/invitedGuest"), new MockHttpServletResponse(),
+            new MockFilterChain());
+        assertEquals(10.0, meterRegistry.get("booking.admission.limit").gauge().value());
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/v1/invitedGuest"), new MockHttpServletResponse(),
+            new MockFilterChain());
+        assertEquals(5.0, meterRegistry.get("booking.admission.limit").gauge().value());
+    }
+
+    private static MockHttpServletResponse call(AdmissionControlFilter filter, String client, String uri)
+            throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.addHeader("X-Client-Id", client);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
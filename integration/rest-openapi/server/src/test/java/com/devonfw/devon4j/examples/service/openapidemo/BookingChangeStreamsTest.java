@@ -0,0 +1,120 @@
+package com.devonfw.devon4j.examples.service.openapidemo;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingChangeFeed;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.service.BookingChangeStreams;
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookingChangeStreamsTest {
+
+    private BookingRepository bookingRepository = new BookingRepository();
+
+    private BookingChangeFeed bookingChangeFeed = new BookingChangeFeed(bookingRepository);
+
+    private BookingChangeStreams bookingChangeStreams = new BookingChangeStreams(bookingChangeFeed, 100, 2, Optional.empty());
+
+    @AfterEach
+    public void stop() {
+        bookingChangeStreams.stop();
+        bookingChangeFeed.stop();
+    }
+
+    @Test
+    public void testStalledClientDoesNotStopOtherClients() throws Exception {
+        CountDownLatch stalledSending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger stalledSent = new AtomicInteger();
+        CountDownLatch stalledCompleted = new CountDownLatch(1);
+        RecordingEmitter stalled = new RecordingEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                stalledSending.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                stalledSent.incrementAndGet();
+            }
+
+            @Override
+            public void complete() {
+                stalledCompleted.countDown();
+            }
+        };
+        RecordingEmitter reading = new RecordingEmitter();
+        bookingChangeStreams.open(null, stalled);
+        bookingChangeStreams.open(null, reading);
+
+        bookingRepository.save(new BookingTO());
+        assertTrue(stalledSending.await(10, TimeUnit.SECONDS));
+        //the stalled client does not block the feed, the other client receives every change
+        for (int i = 1; i <= 4; i++) {
+            for (int j = 0; j < 50; j++) {
+                bookingRepository.save(new BookingTO());
+            }
+            assertTrue(reading.awaitSent(1 + i * 50));
+        }
+
+        //the stalled client receives the queued changes, then its stream is completed
+        release.countDown();
+        assertTrue(stalledCompleted.await(10, TimeUnit.SECONDS));
+        assertEquals(101, stalledSent.get());
+    }
+
+    @Test
+    public void testSubscribersAreLimited() {
+        RecordingEmitter first = new RecordingEmitter();
+        bookingChangeStreams.open(null, first);
+        bookingChangeStreams.open(null, new RecordingEmitter());
+
+        assertNull(bookingChangeStreams.open(null, new RecordingEmitter()));
+        assertEquals(2, bookingChangeStreams.getSubscribers());
+        //a completed stream frees its place for a new client, also if the container calls back twice
+        first.completion.run();
+        first.completion.run();
+        assertEquals(1, bookingChangeStreams.getSubscribers());
+    }
+
+    /**
+     * An emitter counting the sent events
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final AtomicInteger sent = new AtomicInteger();
+
+        private Runnable completion;
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completion = callback;
+            super.onCompletion(callback);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sent.incrementAndGet();
+        }
+
+        boolean awaitSent(int count) throws InterruptedException {
+            long end = System.currentTimeMillis() + 10_000;
+            while (sent.get() < count && System.currentTimeMillis() < end) {
+                Thread.sleep(10);
+            }
+            return sent.get() == count;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.devonfw.devon4j.examples.service.openapidemo;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingJournal;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.InvitedGuestRepository;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingManager;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.InvitedGuestManager;
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookingJournalTest {
+
+    private static final int SEGMENT_SIZE = 64 * 1024;
+
+    @TempDir
+    Path directory;
+
+    private BookingJournal journal;
+
+    private InvitedGuestRepository invitedGuestRepository;
+
+    private BookingRepository bookingRepository;
+
+    private void start(long snapshotThreshold) {
+        //Configured like the mapper of the BookingJournalConfig
+        SmileMapper mapper = new SmileMapper();
+        new Jackson2ObjectMapperBuilder().configure(mapper);
+        journal = new BookingJournal(directory, mapper, SEGMENT_SIZE, true, snapshotThreshold);
+        invitedGuestRepository = new InvitedGuestRepository(journal);
+        bookingRepository = new BookingRepository(invitedGuestRepository, journal);
+    }
+
+    @AfterEach
+    public void stop() {
+        journal.close();
+    }
+
+    private List<String> files(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString())
+                .filter(name -> name.startsWith(prefix))
+                .sorted()
+                .collect(Collectors.toList());
+        }
+    }
+
+    @Test
+    public void testRecoverAfterRestart() {
+        start(Long.MAX_VALUE);
+        BookingManager bookingManager = new BookingManager(bookingRepository, invitedGuestRepository);
+        new InvitedGuestManager(invitedGuestRepository, bookingRepository)
+            .saveInvitedGuest(new InvitedGuestTO().id(5L).email("changed@email.com"));
+        BookingTO created = bookingManager.createBooking(new BookingTO().invitedGuestIds(List.of(5L)));
+        journal.close();
+
+        start(Long.MAX_VALUE);
+        //The example data is not created again
+        assertEquals(11, bookingRepository.count());
+        assertEquals(10, invitedGuestRepository.count());
+        InvitedGuestTO guest = invitedGuestRepository.findById(5L).get();
+        assertEquals("changed@email.com", guest.getEmail());
+        assertEquals(1, guest.getModificationCounter());
+        BookingTO booking = bookingRepository.findById(9L).get();
+        assertEquals(1, booking.getModificationCounter());
+        assertSame(guest, booking.getInvitedGuests().get(5));
+        assertSame(guest, bookingRepository.findById(created.getId()).get().getInvitedGuests().get(0));
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L, created.getId()),
+            bookingRepository.findByGuestEmail("changed@email.com").stream().map(BookingTO::getId).collect(Collectors.toList()));
+        assertEquals(created.getId() + 1, bookingRepository.save(new BookingTO()).getId());
+        assertEquals(10L, invitedGuestRepository.save(new InvitedGuestTO().email("new@email.com")).getId());
+    }
+
+    @Test
+    public void testSnapshotCompactsJournal() throws IOException {
+        start(SEGMENT_SIZE);
+        for (int i = 0; i < 2000; i++) {
+            InvitedGuestTO guest = invitedGuestRepository.findOrSave(new InvitedGuestTO().email("guest" + i + "@email.com"));
+            bookingRepository.save(new BookingTO().invitedGuests(List.of(guest)));
+        }
+        journal.close();
+
+        List<String> snapshots = files("snapshot-");
+        assertEquals(1, snapshots.size());
+        String snapshotNumber = snapshots.get(0).replaceAll("\\D", "");
+        assertTrue(files("journal-").stream().allMatch(segment -> segment.replaceAll("\\D", "").compareTo(snapshotNumber) >= 0));
+
+        start(SEGMENT_SIZE);
+        assertEquals(2000, bookingRepository.count());
+        assertEquals(2000, invitedGuestRepository.count());
+        assertSame(invitedGuestRepository.findById(2000L).get(), bookingRepository.findById(2000L).get().getInvitedGuests().get(0));
+    }
+
+    @Test
+    public void testRecoverIgnoresIncompleteRecord() throws IOException {
+        start(Long.MAX_VALUE);
+        bookingRepository.save(new BookingTO());
+        bookingRepository.save(new BookingTO());
+        journal.close();
+
+        Path segment = directory.resolve(files("journal-").get(0));
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            //Damage the second record like a crash while it was written, it is followed by zeros like an unwritten record
+            ByteBuffer length = ByteBuffer.allocate(4);
+            channel.read(length, 0);
+            long secondRecord = 9 + length.flip().getInt();
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), secondRecord + 9);
+        }
+
+        start(Long.MAX_VALUE);
+        assertEquals(1, bookingRepository.count());
+        assertTrue(bookingRepository.findById(2L).isEmpty());
+        assertEquals(2L, bookingRepository.save(new BookingTO()).getId());
+        journal.close();
+
+        start(Long.MAX_VALUE);
+        assertEquals(2, bookingRepository.count());
+    }
+}
@@ -0,0 +1,124 @@
+package com.devonfw.devon4j.examples.service.openapidemo;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingChange;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BookingRepositoryTest {
+
+    private BookingRepository bookingRepository = new BookingRepository();
+
+    @Test
+    public void testSaveAssignsIdAndFindsById() {
+        BookingTO booking = bookingRepository.save(new BookingTO().modificationCounter(0));
+
+        assertEquals(1L, booking.getId());
+        assertSame(booking, bookingRepository.findById(1L).get());
+        assertTrue(bookingRepository.findById(2L).isEmpty());
+    }
+
+    @Test
+    public void testFindAllReturnsStableSnapshot() {
+        bookingRepository.save(new BookingTO().id(2L));
+        bookingRepository.save(new BookingTO().id(1L));
+
+        List<BookingTO> snapshot = bookingRepository.findAll();
+        assertSame(snapshot, bookingRepository.findAll());
+
+        bookingRepository.save(new BookingTO());
+
+        assertEquals(2, snapshot.size());
+        assertEquals(1L, snapshot.get(0).getId());
+        assertEquals(3, bookingRepository.findAll().size());
+        assertEquals(3L, bookingRepository.findAll().get(2).getId());
+    }
+
+    @Test
+    public void testFindPageStartsAfterCursor() {
+        for (long id = 5; id >= 1; id--) {
+            bookingRepository.save(new BookingTO().id(id));
+        }
+
+        assertEquals(List.of(1L, 2L), ids(bookingRepository.findPage(null, 2)));
+        assertEquals(List.of(3L, 4L), ids(bookingRepository.findPage(2L, 2)));
+        assertEquals(List.of(5L), ids(bookingRepository.findPage(4L, 2)));
+        assertTrue(bookingRepository.findPage(5L, 2).isEmpty());
+
+        bookingRepository.save(new BookingTO().id(6L));
+        assertEquals(List.of(5L, 6L), ids(bookingRepository.findPage(4L, Integer.MAX_VALUE)));
+    }
+
+    private static List<Long> ids(List<BookingTO> bookings) {
+        return bookings.stream().map(BookingTO::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testFindByGuestEmailFollowsUpdates() {
+        InvitedGuestTO guest = new InvitedGuestTO().id(1L).email("guest@email.com");
+        bookingRepository.save(new BookingTO().id(1L).addInvitedGuestsItem(guest));
+        bookingRepository.save(new BookingTO().id(2L).addInvitedGuestsItem(guest));
+
+        assertEquals(2, bookingRepository.findByGuestEmail("guest@email.com").size());
+
+        bookingRepository.save(new BookingTO().id(1L));
+
+        List<BookingTO> bookings = bookingRepository.findByGuestEmail("guest@email.com");
+        assertEquals(1, bookings.size());
+        assertEquals(2L, bookings.get(0).getId());
+        assertTrue(bookingRepository.findByGuestEmail("unknown@email.com").isEmpty());
+    }
+
+    @Test
+    public void testSaveIncrementsModificationCounterOfReplacedBooking() {
+        bookingRepository.save(new BookingTO().id(1L).modificationCounter(0));
+
+        BookingTO replaced = bookingRepository.save(new BookingTO().id(1L).modificationCounter(0));
+        assertEquals(1, replaced.getModificationCounter());
+
+        assertEquals(2, bookingRepository.save(new BookingTO().id(1L)).getModificationCounter());
+        assertEquals(0, bookingRepository.save(new BookingTO().id(2L)).getModificationCounter());
+    }
+
+    @Test
+    public void testChangesAreReadAfterOffset() {
+        long offset = bookingRepository.lastChangeOffset();
+        bookingRepository.save(new BookingTO().id(1L));
+        bookingRepository.save(new BookingTO().id(2L));
+        bookingRepository.save(new BookingTO().id(1L));
+
+        List<BookingChange> changes = bookingRepository.findChangesAfter(offset, 10);
+        assertEquals(3, changes.size());
+        assertEquals(offset + 3, changes.get(2).getOffset());
+        assertEquals(1L, changes.get(2).getBooking().getId());
+        assertEquals(1, changes.get(2).getBooking().getModificationCounter());
+        assertEquals(List.of(offset + 2), bookingRepository.findChangesAfter(offset + 1, 1).stream()
+            .map(BookingChange::getOffset).collect(Collectors.toList()));
+        assertTrue(bookingRepository.findChangesAfter(offset + 3, 10).isEmpty());
+        //unknown offsets
+        assertNull(bookingRepository.findChangesAfter(offset + 4, 10));
+        assertNull(bookingRepository.findChangesAfter(offset - 1, 10));
+    }
+
+    @Test
+    public void testChangesBeyondCapacityAreDropped() {
+        long offset = bookingRepository.lastChangeOffset();
+        for (int i = 0; i <= BookingRepository.CHANGE_LOG_CAPACITY; i++) {
+            bookingRepository.save(new BookingTO());
+        }
+
+        assertNull(bookingRepository.findChangesAfter(offset, 10));
+        List<BookingChange> changes = bookingRepository.findChangesAfter(offset + 1, BookingRepository.CHANGE_LOG_CAPACITY);
+        assertEquals(BookingRepository.CHANGE_LOG_CAPACITY, changes.size());
+        assertEquals(2L, changes.get(0).getBooking().getId());
+    }
+}
@@ -1,8 +1,15 @@
 package com.devonfw.devon4j.examples.service.openapidemo;
 
+import com.devonfw.devon4j.generated.api.model.BookingResultTO;
 import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
 import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingManager;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -10,9 +17,11 @@ import org.mockito.Captor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
@@ -21,10 +30,19 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ActiveProfiles("test")
@@ -32,9 +50,14 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @EnableAutoConfiguration
 @AutoConfigureMockMvc
+@AutoConfigureMetrics
 @TestPropertySource(locations = "classpath:test.properties")
 public class BookingRestServiceTest {
 
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
     @MockBean
     private BookingManager bookingManager;
 
@@ -44,6 +67,12 @@ public class BookingRestServiceTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
     @Captor
     ArgumentCaptor<BookingTO> bookingCaptor;
 
@@ -74,6 +103,216 @@ public class BookingRestServiceTest {
         );
     }
 
+    @Test
+    public void testGetBookingPageEndpoint() throws Exception {
+
+        List<BookingTO> mockResult = new ArrayList<>();
+
+        for (long i = 3; i < 5; i++) {
+            BookingTO mockResultEntity = new BookingTO();
+            mockResultEntity.id(i).setModificationCounter(0);
+            mockResult.add(mockResultEntity);
+        }
+
+        Mockito.when(this.bookingManager.getBookingPage(2L, 2)).thenReturn(mockResult);
+
+        MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking?limit=2&cursor=2")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Next-Cursor", "4"))
+            .andReturn();
+
+        assertEquals(
+                "[{\"id\":3,\"modificationCounter\":0,\"invitedGuests\":null},{\"id\":4,\"modificationCounter\":0,\"invitedGuests\":null}]",
+                mvcResult.getResponse().getContentAsString()
+        );
+
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking?limit=0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetAllBookingsEndpointWithGuestIds() throws Exception {
+
+        InvitedGuestTO guest = new InvitedGuestTO().id(7L).modificationCounter(0).email("guest@email.com");
+        List<BookingTO> mockResult = new ArrayList<>();
+        mockResult.add(new BookingTO().id(1L).modificationCounter(0).addInvitedGuestsItem(guest));
+        mockResult.add(new BookingTO().id(2L).modificationCounter(0));
+
+        Mockito.when(this.bookingManager.getAllBookings()).thenReturn(mockResult);
+
+        MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking?guests=ids"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        assertEquals(
+                "[{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":null,\"invitedGuestIds\":[7]},{\"id\":2,\"modificationCounter\":0,\"invitedGuests\":null}]",
+                mvcResult.getResponse().getContentAsString()
+        );
+        assertEquals(1, mockResult.get(0).getInvitedGuests().size());
+
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking?guests=unknown"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetBookingsByIdsEndpoint() throws Exception {
+
+        BookingTO first = new BookingTO();
+        first.id(7L).setModificationCounter(0);
+        BookingTO second = new BookingTO();
+        second.id(3L).setModificationCounter(1);
+
+        Mockito.when(this.bookingManager.getBookings(List.of(7L, 4711L, 3L))).thenReturn(List.of(first, second));
+
+        MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/byIds?ids=7,4711,3"))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        assertEquals(
+                "[{\"id\":7,\"modificationCounter\":0,\"invitedGuests\":null},{\"id\":3,\"modificationCounter\":1,\"invitedGuests\":null}]",
+                mvcResult.getResponse().getContentAsString()
+        );
+
+        StringBuilder tooManyIds = new StringBuilder("0");
+        for (int i = 1; i <= 1000; i++) {
+            tooManyIds.append(',').append(i);
+        }
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/byIds?ids=" + tooManyIds))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testExportBookingsEndpoint() throws Exception {
+
+        BookingTO first = new BookingTO();
+        first.id(1L).setModificationCounter(0);
+        BookingTO second = new BookingTO();
+        second.id(2L).setModificationCounter(0);
+
+        Mockito.when(this.bookingManager.streamAllBookings()).thenReturn(Stream.of(first, second));
+
+        MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        this.mockMvc.perform(asyncDispatch(mvcResult))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson"));
+
+        assertEquals(
+                "{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":null}\n{\"id\":2,\"modificationCounter\":0,\"invitedGuests\":null}\n",
+                mvcResult.getResponse().getContentAsString()
+        );
+    }
+
+    @Test
+    public void testStreamBookingChangesEndpoint() throws Exception {
+        long offset = bookingRepository.lastChangeOffset();
+        bookingRepository.save(new BookingTO().id(4241L));
+
+        MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/changes")
+            .header("Last-Event-ID", String.valueOf(offset)))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        bookingRepository.save(new BookingTO().id(4242L));
+
+        String events = awaitContent(mvcResult, "4242");
+        assertEquals(200, mvcResult.getResponse().getStatus());
+        assertEquals("text/event-stream", mvcResult.getResponse().getContentType());
+        assertTrue(events.startsWith("id:" + (offset + 1) + "\nevent:booking\ndata:{\"id\":4241,"), events);
+        assertTrue(events.contains("id:" + (offset + 2) + "\nevent:booking\ndata:{\"id\":4242,"), events);
+
+        //the changes after an unknown offset are not kept
+        MvcResult reset = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/changes?since=1"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertTrue(awaitContent(reset, "reset").startsWith("id:" + (offset + 2) + "\nevent:reset\n"));
+
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/changes")
+            .header("Last-Event-ID", "unknown"))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static String awaitContent(MvcResult mvcResult, String expected) throws Exception {
+        long end = System.currentTimeMillis() + 5000;
+        String content = mvcResult.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+            content = mvcResult.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    @Test
+    public void testCreateBookingBatchEndpoint() throws Exception {
+
+        List<BookingTO> bookings = new ArrayList<>();
+        bookings.add(new BookingTO().id(1L).modificationCounter(0));
+        bookings.add(null);
+
+        List<BookingResultTO> mockResult = new ArrayList<>();
+        mockResult.add(new BookingResultTO().index(0).status(BookingResultTO.StatusEnum.CREATED).booking(bookings.get(0)));
+        mockResult.add(new BookingResultTO().index(1).status(BookingResultTO.StatusEnum.REJECTED).message("Booking is missing"));
+
+        Mockito.when(this.bookingManager.createBookings(bookings)).thenReturn(mockResult);
+
+        MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders
+            .post("/api/v1/booking/batch")
+            .content(objectMapper.writeValueAsString(bookings))
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andReturn();
+
+        assertEquals(
+                "[{\"index\":0,\"status\":\"CREATED\",\"message\":null,\"booking\":{\"id\":1,\"modificationCounter\":0,\"invitedGuests\":null}},"
+                + "{\"index\":1,\"status\":\"REJECTED\",\"message\":\"Booking is missing\",\"booking\":null}]",
+                mvcResult.getResponse().getContentAsString()
+        );
+    }
+
+    @Test
+    public void testCreateBookingBatchEndpointWithGzip() throws Exception {
+
+        List<BookingTO> bookings = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            bookings.add(new BookingTO().id(id).modificationCounter(0));
+        }
+        List<BookingResultTO> mockResult = new ArrayList<>();
+        Mockito.when(this.bookingManager.createBookings(bookings)).thenReturn(mockResult);
+
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            objectMapper.writeValue(out, bookings);
+        }
+
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .post("/api/v1/booking/batch")
+            .content(compressed.toByteArray())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(status().isOk());
+
+        Mockito.verify(this.bookingManager).createBookings(bookings);
+
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .post("/api/v1/booking/batch")
+            .content(compressed.toByteArray())
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CONTENT_ENCODING, "br"))
+            .andExpect(status().isUnsupportedMediaType());
+    }
+
     @Test
     public void testCreateBookingEndpoint() throws Exception {
 
@@ -102,4 +341,119 @@ public class BookingRestServiceTest {
                 objectMapper.writeValueAsString(verifyBooking)
         );
     }
+
+    @Test
+    public void testCreateBookingEndpointWithCbor() throws Exception {
+
+        ObjectMapper cborMapper = new CBORMapper();
+        BookingTO booking = new BookingTO();
+        booking.id(1L).setModificationCounter(0);
+
+        Mockito.when(this.bookingManager.createBooking(booking)).thenReturn(booking);
+
+        MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders
+            .post("/api/v1/booking")
+            .content(cborMapper.writeValueAsBytes(booking))
+            .contentType(CBOR)
+            .accept(CBOR))
+            .andExpect(status().isCreated())
+            .andExpect(content().contentType(CBOR))
+            .andReturn();
+
+        assertEquals(booking, cborMapper.readValue(mvcResult.getResponse().getContentAsByteArray(), BookingTO.class));
+    }
+
+    @Test
+    public void testGetBookingByIdEndpointWithSmile() throws Exception {
+
+        BookingTO booking = new BookingTO();
+        booking.id(1L).setModificationCounter(0);
+
+        Mockito.when(this.bookingManager.getBooking(1L)).thenReturn(Optional.of(booking));
+
+        MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/1")
+            .accept(SMILE))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(SMILE))
+            .andReturn();
+
+        assertEquals(booking, new SmileMapper().readValue(mvcResult.getResponse().getContentAsByteArray(), BookingTO.class));
+
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/1")
+            .accept(MediaType.ALL))
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void testGetBookingByIdEndpointWithETag() throws Exception {
+
+        BookingTO booking = new BookingTO();
+        booking.id(1L).setModificationCounter(3);
+
+        Mockito.when(this.bookingManager.getBooking(1L)).thenReturn(Optional.of(booking));
+
+        //the cached bytes are written with their length
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/1"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"3\""))
+            .andExpect(header().string("Content-Length", String.valueOf(objectMapper.writeValueAsBytes(booking).length)));
+
+        MvcResult mvcResult = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/1")
+            .header("If-None-Match", "\"2\", W/\"3\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string("ETag", "\"3\""))
+            .andReturn();
+        assertEquals(0, mvcResult.getResponse().getContentLength());
+
+        booking.setModificationCounter(4);
+
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/1")
+            .header("If-None-Match", "\"3\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string("ETag", "\"4\""));
+    }
+
+    @Test
+    public void testMetricsInPrometheusFormat() throws Exception {
+
+        InvitedGuestTO guest = new InvitedGuestTO().id(1L).modificationCounter(0);
+        BookingTO booking = new BookingTO().id(1L).modificationCounter(0).addInvitedGuestsItem(guest);
+
+        Mockito.when(this.bookingManager.getBooking(1L)).thenReturn(Optional.of(booking));
+        Mockito.when(this.bookingManager.streamAllBookings()).thenReturn(Stream.of(booking, booking));
+
+        this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/1"))
+            .andExpect(status().isOk());
+
+        double exportedBytes = responseSize("/api/v1/booking/export");
+        MvcResult export = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/api/v1/booking/export"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        this.mockMvc.perform(asyncDispatch(export))
+            .andExpect(status().isOk());
+
+        String metrics = this.mockMvc.perform(MockMvcRequestBuilders
+            .get("/actuator/prometheus"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+
+        assertTrue(metrics.contains("http_server_requests_seconds_bucket{exception=\"None\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/v1/booking/{bookingId}\""));
+        assertTrue(metrics.contains("booking_usecase_seconds_bucket{exception=\"none\",operation=\"getBookingById\""));
+        assertTrue(metrics.contains("booking_invited_guests_bucket{operation=\"getBookingById\",le=\"1.0\","));
+        assertTrue(metrics.contains("http_server_response_size_bytes_bucket{exception=\"None\",method=\"GET\",outcome=\"SUCCESS\",status=\"200\",uri=\"/api/v1/booking/{bookingId}\""));
+        //the export is streamed after the request was handled, it is recorded when the response is complete
+        assertEquals(export.getResponse().getContentAsByteArray().length, responseSize("/api/v1/booking/export") - exportedBytes);
+    }
+
+    private double responseSize(String uri) {
+        DistributionSummary summary = this.meterRegistry.find("http.server.response.size").tag("uri", uri).summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
 }
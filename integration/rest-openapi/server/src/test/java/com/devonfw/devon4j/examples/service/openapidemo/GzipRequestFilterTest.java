@@ -0,0 +1,115 @@
+package com.devonfw.devon4j.examples.service.openapidemo;
+
+import com.devonfw.devon4j.examples.service.openapidemo.config.GzipRequestFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GzipRequestFilterTest {
+
+    @Test
+    public void testNonBlockingReadOfCompressedBody() throws Exception {
+        byte[] body = "[{\"modificationCounter\":0,\"invitedGuests\":[]}]".repeat(1000).getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/booking/batch");
+        request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        new GzipRequestFilter(DataSize.ofMegabytes(1)).doFilter(
+            new NonBlockingRequest(request, compressed.toByteArray()), new MockHttpServletResponse(),
+            (servletRequest, servletResponse) -> {
+                ServletInputStream in = servletRequest.getInputStream();
+                in.setReadListener(new ReadListener() {
+                    @Override
+                    public void onDataAvailable() throws IOException {
+                        byte[] buffer = new byte[1000];
+                        while (in.isReady() && !in.isFinished()) {
+                            int count = in.read(buffer);
+                            if (count > 0) {
+                                read.write(buffer, 0, count);
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onAllDataRead() {
+                        allDataRead.set(true);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                        error.set(t);
+                    }
+                });
+            });
+
+        assertNull(error.get());
+        assertTrue(allDataRead.get());
+        assertArrayEquals(body, read.toByteArray());
+    }
+
+    /**
+     * A request with a body that supports a ReadListener, the listener is called with the whole body at once
+     */
+    private static final class NonBlockingRequest extends HttpServletRequestWrapper {
+
+        private final ByteArrayInputStream body;
+
+        private NonBlockingRequest(MockHttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return body.read();
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return body.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.devonfw.devon4j.examples.service.openapidemo;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.BookingRepository;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.dataaccess.InvitedGuestRepository;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingManager;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.InvitedGuestManager;
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.devonfw.devon4j.generated.api.model.InvitedGuestTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class InvitedGuestManagerTest {
+
+    private BookingRepository bookingRepository = new BookingRepository();
+
+    private InvitedGuestRepository invitedGuestRepository = new InvitedGuestRepository();
+
+    private BookingManager bookingManager = new BookingManager(bookingRepository, invitedGuestRepository);
+
+    private InvitedGuestManager invitedGuestManager = new InvitedGuestManager(invitedGuestRepository, bookingRepository);
+
+    @Test
+    public void testBookingsShareStoredGuests() {
+        // the example data has 10 guests with the ids 0 to 9
+        assertEquals(10, invitedGuestRepository.count());
+
+        BookingTO byCopy = bookingManager.createBooking(new BookingTO()
+            .addInvitedGuestsItem(new InvitedGuestTO().email("guest3.email@email.com"))
+            .addInvitedGuestsItem(new InvitedGuestTO().email("new@email.com")));
+        BookingTO byId = bookingManager.createBooking(new BookingTO().invitedGuestIds(List.of(3L, 3L)));
+
+        assertEquals(11, invitedGuestRepository.count());
+        InvitedGuestTO guest = invitedGuestRepository.findById(3L).get();
+        assertSame(guest, byCopy.getInvitedGuests().get(0));
+        assertSame(guest, byId.getInvitedGuests().get(0));
+        assertEquals(1, byId.getInvitedGuests().size());
+        assertNull(byId.getInvitedGuestIds());
+        assertEquals(10L, byCopy.getInvitedGuests().get(1).getId());
+
+        assertEquals("Invited guest 42 does not exist",
+            bookingManager.validate(new BookingTO().invitedGuestIds(List.of(42L))));
+    }
+
+    @Test
+    public void testChangedGuestIsReplacedInBookings() {
+        BookingTO booking = bookingManager.getBooking(9L).get();
+
+        InvitedGuestTO changed = invitedGuestManager.saveInvitedGuest(
+            new InvitedGuestTO().id(5L).email("changed@email.com"));
+
+        assertEquals(1, changed.getModificationCounter());
+        BookingTO updated = bookingManager.getBooking(9L).get();
+        assertSame(changed, updated.getInvitedGuests().get(5));
+        assertEquals(booking.getModificationCounter() + 1, updated.getModificationCounter());
+        // bookings read before are not changed
+        assertEquals("guest5.email@email.com", booking.getInvitedGuests().get(5).getEmail());
+        assertEquals(5, bookingManager.getBookingsByGuestEmail("changed@email.com").size());
+        assertEquals(0, bookingManager.getBookingsByGuestEmail("guest5.email@email.com").size());
+        assertEquals(booking.getModificationCounter(), bookingManager.getBooking(4L).get().getModificationCounter());
+    }
+}
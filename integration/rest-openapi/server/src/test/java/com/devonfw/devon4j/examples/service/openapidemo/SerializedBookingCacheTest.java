@@ -0,0 +1,138 @@
+package com.devonfw.devon4j.examples.service.openapidemo;
+
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.BookingManager;
+import com.devonfw.devon4j.examples.service.openapidemo.booking.logic.SerializedBookingCache;
+import com.devonfw.devon4j.generated.api.model.BookingTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SerializedBookingCacheTest {
+
+    private BookingManager bookingManager = Mockito.mock(BookingManager.class);
+
+    private ObjectWriter jsonWriter = new ObjectMapper().writerFor(BookingTO.class);
+
+    @Test
+    public void testConcurrentLookupsShareOneLookup() throws Exception {
+        SerializedBookingCache cache = new SerializedBookingCache(bookingManager, Duration.ofSeconds(10), 100);
+        BookingTO booking = new BookingTO().id(1L).modificationCounter(0);
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.when(bookingManager.getBooking(1L)).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(booking);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Optional<SerializedBookingCache.SerializedBooking>>> lookups = new ArrayList<>();
+            lookups.add(executor.submit(() -> cache.getBooking(1L, jsonWriter)));
+            assertTrue(lookupStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                lookups.add(executor.submit(() -> cache.getBooking(1L, jsonWriter)));
+            }
+            //let the other lookups wait for the one in flight
+            Thread.sleep(100);
+            release.countDown();
+
+            byte[] bytes = lookups.get(0).get(5, TimeUnit.SECONDS).get().getBytes();
+            assertArrayEquals(jsonWriter.writeValueAsBytes(booking), bytes);
+            for (Future<Optional<SerializedBookingCache.SerializedBooking>> lookup : lookups) {
+                assertSame(bytes, lookup.get(5, TimeUnit.SECONDS).get().getBytes());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Mockito.verify(bookingManager, Mockito.times(1)).getBooking(1L);
+    }
+
+    @Test
+    public void testBytesAreReusedUntilBookingChanges() throws Exception {
+        SerializedBookingCache cache = new SerializedBookingCache(bookingManager, Duration.ofSeconds(10), 100);
+        BookingTO booking = new BookingTO().id(1L).modificationCounter(0);
+        Mockito.when(bookingManager.getBooking(1L)).thenReturn(Optional.of(booking));
+
+        byte[] bytes = cache.getBooking(1L, jsonWriter).get().getBytes();
+        assertSame(bytes, cache.getBooking(1L, jsonWriter).get().getBytes());
+
+        //every format has its own bytes
+        ObjectWriter cborWriter = new CBORMapper().writerFor(BookingTO.class);
+        assertArrayEquals(cborWriter.writeValueAsBytes(booking), cache.getBooking(1L, cborWriter).get().getBytes());
+
+        //a saved booking gets a new modificationCounter
+        booking.setModificationCounter(1);
+        byte[] updated = cache.getBooking(1L, jsonWriter).get().getBytes();
+        assertNotSame(bytes, updated);
+        assertArrayEquals(jsonWriter.writeValueAsBytes(booking), updated);
+
+        //a replaced booking is serialized again even with the same modificationCounter
+        BookingTO replacement = new BookingTO().id(1L).modificationCounter(1).invitedGuestIds(List.of(2L));
+        Mockito.when(bookingManager.getBooking(1L)).thenReturn(Optional.of(replacement));
+        assertArrayEquals(jsonWriter.writeValueAsBytes(replacement), cache.getBooking(1L, jsonWriter).get().getBytes());
+
+        Mockito.when(bookingManager.getBooking(2L)).thenReturn(Optional.empty());
+        assertTrue(cache.getBooking(2L, jsonWriter).isEmpty());
+    }
+
+    @Test
+    public void testExpiredBytesAreNotReused() {
+        SerializedBookingCache cache = new SerializedBookingCache(bookingManager, Duration.ZERO, 100);
+        Mockito.when(bookingManager.getBooking(1L)).thenReturn(Optional.of(new BookingTO().id(1L).modificationCounter(0)));
+
+        byte[] bytes = cache.getBooking(1L, jsonWriter).get().getBytes();
+        assertNotSame(bytes, cache.getBooking(1L, jsonWriter).get().getBytes());
+    }
+
+    @Test
+    public void testBookingIsSerializedOnlyWhenBytesAreNeeded() throws Exception {
+        SerializedBookingCache cache = new SerializedBookingCache(bookingManager, Duration.ofSeconds(10), 100);
+        BookingTO booking = new BookingTO().id(1L).modificationCounter(0);
+        Mockito.when(bookingManager.getBooking(1L)).thenReturn(Optional.of(booking));
+        ObjectWriter writer = Mockito.spy(jsonWriter);
+
+        //e.g. a request answered with 304 Not Modified
+        assertSame(booking, cache.getBooking(1L, writer).get().getBooking());
+        Mockito.verify(writer, Mockito.never()).writeValueAsBytes(Mockito.any());
+
+        byte[] bytes = cache.getBooking(1L, writer).get().getBytes();
+        assertSame(bytes, cache.getBooking(1L, writer).get().getBytes());
+        Mockito.verify(writer, Mockito.times(1)).writeValueAsBytes(booking);
+    }
+
+    @Test
+    public void testFullCacheEvictsOnlySomeEntries() {
+        SerializedBookingCache cache = new SerializedBookingCache(bookingManager, Duration.ofSeconds(10), 16);
+        List<byte[]> bytes = new ArrayList<>();
+        for (long id = 0; id <= 16; id++) {
+            Mockito.when(bookingManager.getBooking(id)).thenReturn(Optional.of(new BookingTO().id(id).modificationCounter(0)));
+            bytes.add(cache.getBooking(id, jsonWriter).get().getBytes());
+        }
+
+        int reused = 0;
+        for (long id = 0; id < 16; id++) {
+            if (cache.getBooking(id, jsonWriter).get().getBytes() == bytes.get((int) id)) {
+                reused++;
+            }
+        }
+        assertTrue(reused >= 14, "only " + reused + " entries were kept");
+    }
+}
@@ -0,0 +1,65 @@
+#!/usr/bin/env bash
+# Compares the startup time and memory of rest-json, rest-openapi/server and rest-openapi/client
+# as executable jar, as jar with class data sharing archive (mvn package -Pcds) and as native executable (mvn package -Pnative).
+# Variants that are not built are skipped. Every variant is started with --spring.context.exit=onRefresh,
+# so it stops as soon as it is started, the time is measured from the launch until the process has exited.
+#
+# Usage: ./startup-comparison.sh [runs], default 5 runs per variant, the median is printed
+set -euo pipefail
+
+RUNS=${1:-5}
+cd "$(dirname "$0")"
+
+# prints the elapsed milliseconds and the peak resident memory in KB of one run of the given command
+measure() {
+  local start end pid peak=0 hwm
+  start=$(date +%s%N)
+  "$@" --spring.context.exit=onRefresh --server.port=0 >/dev/null 2>&1 &
+  pid=$!
+  while kill -0 "$pid" 2>/dev/null; do
+    hwm=$(awk '/^VmHWM:/ {print $2}' "/proc/$pid/status" 2>/dev/null || true)
+    if [ -n "$hwm" ] && [ "$hwm" -gt "$peak" ]; then
+      peak=$hwm
+    fi
+    sleep 0.02
+  done
+  wait "$pid" || true
+  end=$(date +%s%N)
+  echo "$(( (end - start) / 1000000 )) $peak"
+}
+
+median() {
+  sort -n | awk '{ values[NR] = $1 } END { print values[int((NR + 1) / 2)] }'
+}
+
+# runs the command RUNS times and prints the median time and memory
+compare() {
+  local service=$1 variant=$2 times=() memory=() result
+  shift 2
+  for ((i = 0; i < RUNS; i++)); do
+    result=$(measure "$@")
+    times+=("${result% *}")
+    memory+=("${result#* }")
+  done
+  printf "%-9s %-7s %13s %13s\n" "$service" "$variant" \
+    "$(printf "%s\n" "${times[@]}" | median)" \
+    "$(( $(printf "%s\n" "${memory[@]}" | median) / 1024 ))"
+}
+
+printf "%-9s %-7s %13s %13s\n" "service" "variant" "startup ms" "peak RSS MB"
+for module in rest-json:mts-json:exec rest-openapi/server:openapidemo:exec rest-openapi/client:openapidemo:; do
+  IFS=: read -r dir artifact classifier <<< "$module"
+  service=${dir##*/}
+  target="$dir/target"
+  jar="$target/$artifact-0.0.1-SNAPSHOT${classifier:+-$classifier}.jar"
+  if [ -f "$jar" ]; then
+    compare "$service" jar java -jar "$jar"
+  fi
+  if [ -f "$target/$artifact-0.0.1-SNAPSHOT-cds.jsa" ]; then
+    compare "$service" cds java -XX:SharedArchiveFile="$target/$artifact-0.0.1-SNAPSHOT-cds.jsa" \
+      -jar "$target/$artifact-0.0.1-SNAPSHOT-cds.jar"
+  fi
+  if [ -x "$target/$artifact" ]; then
+    compare "$service" native "$target/$artifact"
+  fi
+done
@@ -0,0 +1,31 @@
+package com.devonfw.startup;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Stops the application as soon as it is started if {@code spring.context.exit=onRefresh}. The {@code cds} profiles
+ * start the applications once with this property to record the classes they load into the class data sharing archive.
+ *
+ * The property has the same name as in Spring Framework 6.1, which supports it itself. rest-json and the OpenApi server
+ * and client import this configuration in their application class.
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.context.exit", havingValue = "onRefresh")
+public class ContextExitConfig {
+
+  /**
+   * @return a listener closing the context and exiting the JVM after the context is refreshed and the web server is
+   *         started.
+   */
+  @Bean
+  public ApplicationListener<ApplicationStartedEvent> contextExitListener() {
+
+    return event -> System.exit(SpringApplication.exit(event.getApplicationContext()));
+  }
+
+}